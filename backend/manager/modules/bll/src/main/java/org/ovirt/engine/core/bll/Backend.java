@@ -41,6 +41,7 @@ import org.ovirt.engine.core.bll.job.JobRepositoryCleanupManager;
 import org.ovirt.engine.core.bll.job.JobRepositoryFactory;
 import org.ovirt.engine.core.bll.quota.QuotaManager;
 import org.ovirt.engine.core.bll.storage.domain.IsoDomainListSyncronizer;
+import org.ovirt.engine.core.bll.utils.EngineSSHClient;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.EngineWorkingMode;
 import org.ovirt.engine.core.common.action.VdcActionParametersBase;
@@ -167,6 +168,7 @@ public class Backend implements BackendInternal, BackendCommandObjectsHandler {
     @PreDestroy
     public void shutdown() {
         AcctUtils.reportReason(Acct.ReportReason.SHUTDOWN, "Shutting down engine");
+        EngineSSHClient.shutdownDefaultSessionPool();
     }
 
     private void checkDBConnectivity() {
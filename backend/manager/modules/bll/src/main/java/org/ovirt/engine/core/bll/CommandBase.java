@@ -324,7 +324,7 @@ public abstract class CommandBase<T extends VdcActionParametersBase>
         defaultContext.setCommandType(getClass().getName());
         defaultContext.setBusinessEntitySnapshotDao(getBusinessEntitySnapshotDao());
         defaultContext.setSnapshotSerializer(
-                SerializationFactory.getSerializer());
+                SerializationFactory.getCompactSerializer());
         return defaultContext;
     }
 
@@ -468,7 +468,7 @@ public abstract class CommandBase<T extends VdcActionParametersBase>
         }
         TransactionSupport.executeInNewTransaction(() -> {
             Deserializer deserializer =
-                    SerializationFactory.getDeserializer();
+                    SerializationFactory.getCompactDeserializer();
             List<BusinessEntitySnapshot> entitySnapshots =
                     getBusinessEntitySnapshotDao().getAllForCommandId(commandId);
             log.debug("Command [id={}]: {} compensation data.", commandId,
@@ -15,6 +15,7 @@ import org.ovirt.engine.core.common.queries.VdcQueryParametersBase;
 import org.ovirt.engine.core.common.queries.VdcQueryType;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.utils.ConstructorCache;
 import org.ovirt.engine.core.utils.ReflectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +76,8 @@ public final class CommandsFactory {
     private static ConcurrentMap<String, Class<CommandBase<? extends VdcActionParametersBase>>> commandsCache =
             new ConcurrentHashMap<>(VdcActionType.values().length);
 
+    private static final ConstructorCache constructorsCache = new ConstructorCache();
+
     public static <P extends VdcActionParametersBase> CommandBase<P> createCommand(VdcActionType action, P parameters) {
         return createCommand(action, parameters, null);
     }
@@ -82,7 +85,7 @@ public final class CommandsFactory {
     public static <P extends VdcActionParametersBase> CommandBase<P> createCommand(VdcActionType action, P parameters,
             CommandContext commandContext) {
         try {
-            Constructor<CommandBase<? extends VdcActionParametersBase>> commandConstructor =
+            ConstructorCache.Handle<CommandBase<? extends VdcActionParametersBase>> commandConstructor =
                     findCommandConstructor(getCommandClass(action.name()), parameters.getClass(), CommandContext.class);
 
             if (commandContext == null) {
@@ -213,8 +216,8 @@ public final class CommandsFactory {
      *
      * @see ReflectionUtils#findConstructor(Class, Class...)
      */
-    private static <T> Constructor<T> findCommandConstructor(Class<T> type, Class<?>... expectedParams) {
-        Constructor<T> constructor = ReflectionUtils.findConstructor(type, expectedParams);
+    private static <T> ConstructorCache.Handle<T> findCommandConstructor(Class<T> type, Class<?>... expectedParams) {
+        ConstructorCache.Handle<T> constructor = constructorsCache.find(type, expectedParams);
 
         if (constructor == null) {
             log.error(CTOR_NOT_FOUND_FOR_PARAMETERS, type.getName(), Arrays.toString(expectedParams));
@@ -30,8 +30,7 @@ public class GetVmConfigurationBySnapshotQuery<P extends IdQueryParameters> exte
             log.warn("Snapshot '{}' does not exist", getParameters().getId());
         }
         else {
-            vm = snapshotVmConfigurationHelper.getVmFromConfiguration(
-                    snapshot.getVmConfiguration(), snapshot.getVmId(), snapshot.getId());
+            vm = snapshotVmConfigurationHelper.getVmFromSnapshot(snapshot);
         }
 
         getQueryReturnValue().setReturnValue(vm);
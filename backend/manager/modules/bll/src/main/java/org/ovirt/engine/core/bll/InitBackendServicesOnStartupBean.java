@@ -25,6 +25,7 @@ import org.ovirt.engine.core.common.utils.customprop.VmPropertiesUtils;
 import org.ovirt.engine.core.common.utils.exceptions.InitializationException;
 import org.ovirt.engine.core.utils.customprop.DevicePropertiesUtils;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostStatisticsFlusher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,11 +58,13 @@ public class InitBackendServicesOnStartupBean implements InitBackendServicesOnSt
     public void create() {
 
         try {
+            loadService(ThreadPoolSaturationAlerter.class);
             // This must be done before starting to sample the hosts status from VDSM since the sampling will turn such host from Reboot to NonResponsive
             loadService(PmHealthCheckManager.class);
             loadService(EngineBackupAwarenessManager.class);
             CommandCoordinatorUtil.initAsyncTaskManager();
             loadService(CommandCallbacksPoller.class);
+            loadService(HostStatisticsFlusher.class);
             loadService(ResourceManager.class);
             OvfDataUpdater.getInstance().initOvfDataUpdater();
             StoragePoolStatusHandler.init();
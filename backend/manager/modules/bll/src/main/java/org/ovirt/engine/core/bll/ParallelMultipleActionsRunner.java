@@ -5,6 +5,7 @@ import java.util.List;
 import org.ovirt.engine.core.bll.context.CommandContext;
 import org.ovirt.engine.core.common.action.VdcActionParametersBase;
 import org.ovirt.engine.core.common.action.VdcActionType;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 public class ParallelMultipleActionsRunner extends PrevalidatingMultipleActionsRunner {
@@ -24,7 +25,7 @@ public class ParallelMultipleActionsRunner extends PrevalidatingMultipleActionsR
     protected void runCommands() {
         for (final CommandBase<?> command : getCommands()) {
             if (command.getReturnValue().isValid()) {
-                ThreadPoolUtil.execute(() -> executeValidatedCommand(command));
+                ThreadPoolUtil.execute(ThreadPoolType.COMMANDS, () -> executeValidatedCommand(command));
             }
         }
     }
@@ -15,6 +15,7 @@ import org.ovirt.engine.core.common.action.VdcActionParametersBase;
 import org.ovirt.engine.core.common.action.VdcActionType;
 import org.ovirt.engine.core.common.action.VdcReturnValueBase;
 import org.ovirt.engine.core.utils.CorrelationIdTracker;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -137,7 +138,7 @@ public class PrevalidatingMultipleActionsRunner implements MultipleActionsRunner
             for (int j = i; j < fixedSize; j++) {
                 validateTasks.add(buildValidateAsynchronously(j, fixedSize));
             }
-            returnValues.addAll(ThreadPoolUtil.invokeAll(validateTasks));
+            returnValues.addAll(ThreadPoolUtil.invokeAll(ThreadPoolType.COMMANDS, validateTasks));
         }
     }
 
@@ -173,7 +174,7 @@ public class PrevalidatingMultipleActionsRunner implements MultipleActionsRunner
     }
 
     protected void invokeCommands() {
-        ThreadPoolUtil.execute(() -> runCommands());
+        ThreadPoolUtil.execute(ThreadPoolType.COMMANDS, () -> runCommands());
     }
 
     protected void invokeSyncCommands() {
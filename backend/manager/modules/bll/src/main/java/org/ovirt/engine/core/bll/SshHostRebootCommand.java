@@ -45,6 +45,8 @@ public class SshHostRebootCommand <T extends VdsActionParameters> extends VdsCom
                 log.info("Opening SSH reboot session on host {}", getVds().getHostName());
                 sshClient.setVds(getVds());
                 sshClient.useDefaultKeyPair();
+                // the host goes down, don't keep the session in the pool
+                sshClient.setSessionPool(null);
                 sshClient.connect();
                 sshClient.authenticate();
 
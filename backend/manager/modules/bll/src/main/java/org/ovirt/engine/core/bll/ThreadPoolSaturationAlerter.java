@@ -0,0 +1,45 @@
+package org.ovirt.engine.core.bll;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.AuditLogType;
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
+import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolStatistics;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+
+/**
+ * Raises an alert once one of the thread pools of the engine becomes saturated.
+ */
+@Singleton
+public class ThreadPoolSaturationAlerter implements BackendService {
+
+    @Inject
+    private AuditLogDirector auditLogDirector;
+
+    @PostConstruct
+    private void init() {
+        ThreadPoolUtil.setSaturationListener(this::onSaturation);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        ThreadPoolUtil.setSaturationListener(null);
+    }
+
+    void onSaturation(ThreadPoolStatistics statistics) {
+        AuditLogableBase logable = new AuditLogableBase();
+        // the alerts of each pool are throttled separately
+        logable.setCustomId(statistics.getType().getName());
+        logable.addCustomValue("ThreadPoolName", statistics.getType().getName());
+        logable.addCustomValue("ActiveThreads", String.valueOf(statistics.getActiveCount()));
+        logable.addCustomValue("PoolSize", String.valueOf(statistics.getPoolSize()));
+        logable.addCustomValue("QueuedTasks", String.valueOf(statistics.getQueueSize()));
+        logable.addCustomValue("QueueCapacity", String.valueOf(statistics.getQueueCapacity()));
+        auditLogDirector.log(logable, AuditLogType.ENGINE_THREAD_POOL_SATURATED);
+    }
+}
@@ -55,6 +55,7 @@ import org.ovirt.engine.core.dao.ClusterFeatureDao;
 import org.ovirt.engine.core.dao.SupportedHostFeatureDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
 import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 
 public class UpdateClusterCommand<T extends ManagementNetworkOnClusterOperationParameters> extends
         ClusterOperationCommandBase<T> implements RenamedEntityInfoProvider{
@@ -81,6 +82,9 @@ public class UpdateClusterCommand<T extends ManagementNetworkOnClusterOperationP
     @Inject
     private MoveMacsOfUpdatedCluster moveMacsOfUpdatedCluster;
 
+    @Inject
+    private ClusterNetworksCache clusterNetworksCache;
+
     private List<VDS> allForCluster;
     private Cluster oldGroup;
 
@@ -171,6 +175,7 @@ public class UpdateClusterCommand<T extends ManagementNetworkOnClusterOperationP
             }
 
             getNetworkClusterDao().save(managementNetworkCluster);
+            clusterNetworksCache.invalidate(getCluster().getId());
         }
 
         alertIfFencingDisabled();
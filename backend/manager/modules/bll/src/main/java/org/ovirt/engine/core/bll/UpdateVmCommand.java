@@ -89,6 +89,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
 import org.ovirt.engine.core.dao.VmDeviceDao;
 import org.ovirt.engine.core.dao.provider.ProviderDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.monitoring.VmDevicesMonitoring;
 
 public class UpdateVmCommand<T extends VmManagementParametersBase> extends VmManagementCommandBase<T>
@@ -100,6 +101,8 @@ public class UpdateVmCommand<T extends VmManagementParametersBase> extends VmMan
     private ProviderDao providerDao;
     @Inject
     private VmDevicesMonitoring vmDevicesMonitoring;
+    @Inject
+    private ResourceManager resourceManager;
 
     private VM oldVm;
     private boolean quotaSanityOnly = false;
@@ -200,6 +203,7 @@ public class UpdateVmCommand<T extends VmManagementParametersBase> extends VmMan
         final List<Guid> oldIconIds = IconUtils.updateVmIcon(
                 oldVm.getStaticData(), newVmStatic, getParameters().getVmLargeIcon());
         getVmStaticDao().update(newVmStatic);
+        resourceManager.getVmManager(getVmId()).invalidateRunningVm();
         if (getVm().isNotRunning()) {
             updateVmPayload();
             VmDeviceUtils.updateVmDevices(getParameters(), oldVm);
@@ -90,6 +90,7 @@ import org.ovirt.engine.core.dao.qos.StorageQosDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManagerFactory;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsBrokerCommand;
@@ -226,7 +227,7 @@ public class VdsEventListener implements IVdsEventListener {
         }
 
         vmJobsMonitoring.removeJobsByVmIds(vmIds);
-        ThreadPoolUtil.execute(() -> processOnVmStopInternal(vmIds, hostId));
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> processOnVmStopInternal(vmIds, hostId));
     }
 
     private void processOnVmStopInternal(final Collection<Guid> vmIds, final Guid hostId) {
@@ -277,7 +278,7 @@ public class VdsEventListener implements IVdsEventListener {
     @Override
     public void vdsNotResponding(final VDS vds) {
         ExecutionHandler.updateSpecificActionJobCompleted(vds.getId(), VdcActionType.MaintenanceVds, false);
-        ThreadPoolUtil.execute(() -> {
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
             log.info("ResourceManager::vdsNotResponding entered for Host '{}', '{}'",
                     vds.getId(),
                     vds.getHostName());
@@ -307,7 +308,7 @@ public class VdsEventListener implements IVdsEventListener {
         HostStoragePoolParametersBase params = new HostStoragePoolParametersBase(vds);
         boolean isSucceeded = backend.runInternalAction(VdcActionType.InitVdsOnUp, params).getSucceeded();
         if (isSucceeded) {
-            ThreadPoolUtil.execute(() -> {
+            ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
                 try {
                     // migrate vms that its their default vds and failback
                     // is on
@@ -483,7 +484,7 @@ public class VdsEventListener implements IVdsEventListener {
             return;
         }
 
-        ThreadPoolUtil.execute(() -> {
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
 
             // Get Disks and CpuQos of VMs from the DB
             Map<Guid, List<Disk>> diskMap = diskDao.getAllForVms(vmIds);
@@ -532,7 +533,7 @@ public class VdsEventListener implements IVdsEventListener {
     }
 
     public void onError(@Observes final VDSNetworkException vdsException) {
-        ThreadPoolUtil.execute(() -> resourceManagerProvider.get().getVdsManager(
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> resourceManagerProvider.get().getVdsManager(
                 vdsException.getVdsError().getVdsId()).handleNetworkException(vdsException));
     }
 
@@ -542,7 +543,7 @@ public class VdsEventListener implements IVdsEventListener {
             return;
         }
 
-        ThreadPoolUtil.execute(() -> {
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
             HostDeviceManager hostDeviceManager = Injector.get(HostDeviceManager.class);
             hostDeviceManager.refreshHostIfAnyVmHasHostDevices(vmIds, hostId);
         });
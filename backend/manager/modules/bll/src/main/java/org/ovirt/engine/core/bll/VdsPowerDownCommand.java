@@ -98,6 +98,8 @@ public class VdsPowerDownCommand<T extends VdsPowerDownParameters> extends VdsCo
                 log.info("Opening SSH power down session on host {}", getVds().getHostName());
                 sshClient.setVds(getVds());
                 sshClient.useDefaultKeyPair();
+                // the host goes down, don't keep the session in the pool
+                sshClient.setSessionPool(null);
                 sshClient.connect();
                 sshClient.authenticate();
 
@@ -1,9 +1,14 @@
 package org.ovirt.engine.core.bll;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -19,10 +24,13 @@ import org.ovirt.engine.core.common.action.RunVmParams;
 import org.ovirt.engine.core.common.action.VdcActionType;
 import org.ovirt.engine.core.common.action.VdcReturnValueBase;
 import org.ovirt.engine.core.common.asynctasks.EntityInfo;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmPool;
 import org.ovirt.engine.core.common.businessentities.VmPoolMap;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.errors.EngineMessage;
@@ -30,6 +38,8 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
@@ -40,6 +50,10 @@ public class VmPoolMonitor implements BackendService {
 
     private static final Logger log = LoggerFactory.getLogger(VmPoolMonitor.class);
 
+    // the statuses of VMs which are still being launched on their host
+    private static final Set<VMStatus> LAUNCHING_STATUSES =
+            EnumSet.of(VMStatus.WaitForLaunch, VMStatus.PoweringUp);
+
     private String poolMonitoringJobId;
     @Inject
     private SchedulerUtilQuartzImpl schedulerUtil;
@@ -60,13 +74,44 @@ public class VmPoolMonitor implements BackendService {
 
     /**
      * Goes over each Vmpool, and makes sure there are at least as much prestarted Vms as defined in the prestarted_vms
-     * field
+     * field.
+     * <p>
+     * The missing prestarted VMs of all the pools are computed first, and then started in waves: each wave runs up to
+     * VmPoolMonitorMaxParallelPrestartsPerCluster VMs concurrently in each cluster, taken from the pools of the
+     * cluster in turns, so a pool with many missing VMs doesn't delay the other pools. The waves run on the
+     * {@link ThreadPoolType#VM_POOL_MONITOR} pool, so they don't take the threads of the default pool.
+     * <p>
+     * The hosts of the VMs are chosen by the scheduler when they are run, so a wave is also bounded by the launch
+     * capacity of the cluster: VmPoolMonitorMaxParallelPrestartsPerHost for each of its up hosts, less the VMs which
+     * are still launching on them. The VMs which don't fit are prestarted by the next run of the monitor.
      */
     @OnTimerMethodAnnotation("managePrestartedVmsInAllVmPools")
     public void managePrestartedVmsInAllVmPools() {
+        Map<Guid, List<PoolPrestart>> prestartsByCluster = new HashMap<>();
         getAllVmPools().stream()
         .filter(pool -> pool.getPrestartedVms() > 0)
-        .forEach(this::managePrestartedVmsInPool);
+        .map(this::createPoolPrestart)
+        .filter(Objects::nonNull)
+        .forEach(prestart -> prestartsByCluster
+                .computeIfAbsent(prestart.getVmPool().getClusterId(), id -> new ArrayList<>())
+                .add(prestart));
+
+        if (prestartsByCluster.isEmpty()) {
+            return;
+        }
+
+        int maxParallelPrestarts = Math.max(1,
+                Config.<Integer> getValue(ConfigValues.VmPoolMonitorMaxParallelPrestartsPerCluster));
+        int maxParallelPrestartsPerHost = Math.max(1,
+                Config.<Integer> getValue(ConfigValues.VmPoolMonitorMaxParallelPrestartsPerHost));
+        List<VmPrestart> wave;
+        while (!(wave = nextWave(prestartsByCluster, maxParallelPrestarts, maxParallelPrestartsPerHost)).isEmpty()) {
+            runWave(wave);
+        }
+
+        prestartsByCluster.values().stream()
+        .flatMap(List::stream)
+        .forEach(PoolPrestart::logResult);
     }
 
     private List<VmPool> getAllVmPools() {
@@ -78,58 +123,96 @@ public class VmPoolMonitor implements BackendService {
     }
 
     /**
-     * Checks how many prestarted vms are missing in the pool, and attempts to prestart either that amount or BATCH_SIZE
+     * Checks how many prestarted vms are missing in the pool, and plans to prestart either that amount or BATCH_SIZE
      * (the minimum between the two).
+     *
+     * @return the planned prestart of the pool, {@code null} if there is nothing to prestart
      */
-    private void managePrestartedVmsInPool(VmPool vmPool) {
+    private PoolPrestart createPoolPrestart(VmPool vmPool) {
         int prestartedVms = VmPoolCommandBase.getNumOfPrestartedVmsInPool(vmPool, new ArrayList<>());
         int missingPrestartedVms = vmPool.getPrestartedVms() - prestartedVms;
-        if (missingPrestartedVms > 0) {
-            // We do not want to start too many vms at once
-            int numOfVmsToPrestart =
-                    Math.min(missingPrestartedVms, Config.<Integer> getValue(ConfigValues.VmPoolMonitorBatchSize));
-
-            log.info("VmPool '{}' is missing {} prestarted VMs, attempting to prestart {} VMs",
-                    vmPool.getVmPoolId(),
-                    missingPrestartedVms,
-                    numOfVmsToPrestart);
-            prestartVms(vmPool, numOfVmsToPrestart);
+        if (missingPrestartedVms <= 0) {
+            return null;
         }
-    }
 
-    /***
-     * Prestarts the given amount of vmsToPrestart, in the given Vm Pool
-     */
-    private void prestartVms(VmPool vmPool, int numOfVmsToPrestart) {
+        // We do not want to start too many vms at once
+        int numOfVmsToPrestart =
+                Math.min(missingPrestartedVms, Config.<Integer> getValue(ConfigValues.VmPoolMonitorBatchSize));
+
+        log.info("VmPool '{}' is missing {} prestarted VMs, attempting to prestart {} VMs",
+                vmPool.getVmPoolId(),
+                missingPrestartedVms,
+                numOfVmsToPrestart);
+
         // Fetch all vms that are in status down
         List<VmPoolMap> vmPoolMaps = DbFacade.getInstance().getVmPoolDao()
                 .getVmMapsInVmPoolByVmPoolIdAndStatus(vmPool.getVmPoolId(), VMStatus.Down);
-        int failedAttempts = 0;
-        int prestartedVmsCounter = 0;
-        final int maxFailedAttempts = Config.<Integer> getValue(ConfigValues.VmPoolMonitorMaxAttempts);
-        Map<String, Integer> failureReasons = new HashMap<>();
-        if (vmPoolMaps != null && vmPoolMaps.size() > 0) {
-            for (VmPoolMap map : vmPoolMaps) {
-                if (failedAttempts < maxFailedAttempts && prestartedVmsCounter < numOfVmsToPrestart) {
-                    List<String> messages = new ArrayList<>();
-                    if (prestartVm(map.getVmId(), !vmPool.isStateful(), messages)) {
-                        prestartedVmsCounter++;
-                        failedAttempts = 0;
-                    } else {
-                        failedAttempts++;
-                        collectVmPrestartFailureReasons(failureReasons, messages);
+        if (vmPoolMaps == null || vmPoolMaps.isEmpty()) {
+            log.info("No VMs available for prestarting");
+            return null;
+        }
+
+        return new PoolPrestart(vmPool, numOfVmsToPrestart, vmPoolMaps);
+    }
+
+    /**
+     * Takes the VMs of the next wave, up to the given amount from each cluster and no more than its hosts can launch,
+     * alternating between the pools of the cluster.
+     */
+    private List<VmPrestart> nextWave(Map<Guid, List<PoolPrestart>> prestartsByCluster,
+            int maxParallelPrestarts,
+            int maxParallelPrestartsPerHost) {
+        List<VmPrestart> wave = new ArrayList<>();
+        for (Map.Entry<Guid, List<PoolPrestart>> entry : prestartsByCluster.entrySet()) {
+            List<PoolPrestart> clusterPrestarts = entry.getValue();
+            if (clusterPrestarts.stream().noneMatch(PoolPrestart::hasNext)) {
+                continue;
+            }
+
+            int clusterMaxWaveSize = Math.min(maxParallelPrestarts,
+                    getFreeLaunchSlots(entry.getKey(), maxParallelPrestartsPerHost));
+            int clusterWaveSize = 0;
+            boolean added = true;
+            while (added && clusterWaveSize < clusterMaxWaveSize) {
+                added = false;
+                for (PoolPrestart poolPrestart : clusterPrestarts) {
+                    if (clusterWaveSize < clusterMaxWaveSize && poolPrestart.hasNext()) {
+                        wave.add(poolPrestart.next());
+                        clusterWaveSize++;
+                        added = true;
                     }
-                } else {
-                    // If we reached the required amount or we exceeded the number of allowed failures, stop
-                    logResultOfPrestartVms(prestartedVmsCounter,
-                            numOfVmsToPrestart,
-                            vmPool.getVmPoolId(),
-                            failureReasons);
-                    break;
                 }
             }
-        } else {
-            log.info("No VMs available for prestarting");
+        }
+        return wave;
+    }
+
+    /**
+     * @return the number of VMs the up hosts of the cluster can launch, given the VMs which are already launching on
+     *         them.
+     */
+    private int getFreeLaunchSlots(Guid clusterId, int maxParallelPrestartsPerHost) {
+        Map<Guid, Long> launchingVmsByHost = DbFacade.getInstance().getVmDao()
+                .getAllRuntimeStatesRunningByCluster(clusterId)
+                .stream()
+                .filter(vm -> LAUNCHING_STATUSES.contains(vm.getStatus()))
+                .collect(Collectors.groupingBy(VmRuntimeState::getRunOnVds, Collectors.counting()));
+        int freeSlots = 0;
+        for (VDS host : DbFacade.getInstance().getVdsDao().getAllForClusterWithStatus(clusterId, VDSStatus.Up)) {
+            long launchingVms = launchingVmsByHost.getOrDefault(host.getId(), 0L);
+            freeSlots += (int) Math.max(0, maxParallelPrestartsPerHost - launchingVms);
+        }
+        return freeSlots;
+    }
+
+    private void runWave(List<VmPrestart> wave) {
+        List<Callable<Boolean>> tasks = wave.stream()
+                .map(vmPrestart -> (Callable<Boolean>) () -> prestartVm(vmPrestart))
+                .collect(Collectors.toList());
+        List<Boolean> results = ThreadPoolUtil.invokeAll(ThreadPoolType.VM_POOL_MONITOR, tasks);
+        for (int i = 0; i < wave.size(); i++) {
+            VmPrestart vmPrestart = wave.get(i);
+            vmPrestart.getPoolPrestart().onResult(results.get(i), vmPrestart.getMessages());
         }
     }
 
@@ -170,13 +253,20 @@ public class VmPoolMonitor implements BackendService {
     }
 
     /**
-     * Prestarts the given Vm
+     * Prestarts the given Vm. A failure is counted as a failed attempt of the pool, rather than thrown, so it doesn't
+     * abort the prestarts of the rest of the wave.
      * @return whether or not succeeded to prestart the Vm
      */
-    private boolean prestartVm(Guid vmGuid, boolean runAsStateless, List<String> messages) {
-        if (VmPoolCommandBase.canAttachNonPrestartedVmToUser(vmGuid, messages)) {
-            VM vmToPrestart = DbFacade.getInstance().getVmDao().get(vmGuid);
-            return runVmFromPool(vmToPrestart, runAsStateless);
+    private boolean prestartVm(VmPrestart vmPrestart) {
+        Guid vmGuid = vmPrestart.getVmId();
+        try {
+            if (VmPoolCommandBase.canAttachNonPrestartedVmToUser(vmGuid, vmPrestart.getMessages())) {
+                VM vmToPrestart = DbFacade.getInstance().getVmDao().get(vmGuid);
+                return runVmFromPool(vmToPrestart, !vmPrestart.getPoolPrestart().getVmPool().isStateful());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to prestart VM '{}': {}", vmGuid, e.getMessage());
+            log.debug("Exception", e);
         }
         return false;
     }
@@ -206,4 +296,80 @@ public class VmPoolMonitor implements BackendService {
         return prestartingVmSucceeded;
     }
 
+    /**
+     * The prestart of the missing VMs of a single pool, during a run of the monitor.
+     */
+    private class PoolPrestart {
+        private final VmPool vmPool;
+        private final int numOfVmsToPrestart;
+        private final Iterator<VmPoolMap> candidates;
+        private final int maxFailedAttempts = Config.<Integer> getValue(ConfigValues.VmPoolMonitorMaxAttempts);
+        private final Map<String, Integer> failureReasons = new HashMap<>();
+        private int inProgress;
+        private int failedAttempts;
+        private int prestartedVmsCounter;
+
+        PoolPrestart(VmPool vmPool, int numOfVmsToPrestart, List<VmPoolMap> candidates) {
+            this.vmPool = vmPool;
+            this.numOfVmsToPrestart = numOfVmsToPrestart;
+            this.candidates = candidates.iterator();
+        }
+
+        VmPool getVmPool() {
+            return vmPool;
+        }
+
+        /**
+         * @return whether another VM should be prestarted, which is the case until the required amount is reached,
+         *         the number of allowed failures is exceeded or there are no more VMs to prestart
+         */
+        boolean hasNext() {
+            return candidates.hasNext()
+                    && failedAttempts < maxFailedAttempts
+                    && prestartedVmsCounter + inProgress < numOfVmsToPrestart;
+        }
+
+        VmPrestart next() {
+            inProgress++;
+            return new VmPrestart(this, candidates.next().getVmId());
+        }
+
+        void onResult(boolean succeeded, List<String> messages) {
+            inProgress--;
+            if (succeeded) {
+                prestartedVmsCounter++;
+                failedAttempts = 0;
+            } else {
+                failedAttempts++;
+                collectVmPrestartFailureReasons(failureReasons, messages);
+            }
+        }
+
+        void logResult() {
+            logResultOfPrestartVms(prestartedVmsCounter, numOfVmsToPrestart, vmPool.getVmPoolId(), failureReasons);
+        }
+    }
+
+    private static class VmPrestart {
+        private final PoolPrestart poolPrestart;
+        private final Guid vmId;
+        private final List<String> messages = new ArrayList<>();
+
+        VmPrestart(PoolPrestart poolPrestart, Guid vmId) {
+            this.poolPrestart = poolPrestart;
+            this.vmId = vmId;
+        }
+
+        PoolPrestart getPoolPrestart() {
+            return poolPrestart;
+        }
+
+        Guid getVmId() {
+            return vmId;
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+    }
 }
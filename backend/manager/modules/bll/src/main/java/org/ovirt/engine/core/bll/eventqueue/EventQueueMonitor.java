@@ -1,7 +1,9 @@
 package org.ovirt.engine.core.bll.eventqueue;
 
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,21 +18,41 @@ import org.ovirt.engine.core.common.eventqueue.Event;
 import org.ovirt.engine.core.common.eventqueue.EventQueue;
 import org.ovirt.engine.core.common.eventqueue.EventResult;
 import org.ovirt.engine.core.common.eventqueue.EventType;
-import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Serializes the events of each storage pool. Events of a {@link EventType#isCoalescing() coalescing} type are merged
+ * into an equal event with the same description which still waits in the queue, so the same problem reported by many
+ * hosts is handled once.
+ */
 @Singleton
 public class EventQueueMonitor implements EventQueue {
 
     private static final Logger log = LoggerFactory.getLogger(EventQueueMonitor.class);
 
     private static final ConcurrentMap<Guid, ReentrantLock> poolsLockMap = new ConcurrentHashMap<>();
-    private static final Map<Guid, LinkedList<Pair<Event, FutureTask<EventResult>>>> poolsEventsMap =
-            new ConcurrentHashMap<>();
+    private static final Map<Guid, LinkedList<QueuedEvent>> poolsEventsMap = new ConcurrentHashMap<>();
     private static final Map<Guid, Event> poolCurrentEventMap = new ConcurrentHashMap<>();
+    private static final Map<EventType, EventQueueStatistics> statistics = createStatistics();
+
+    private static Map<EventType, EventQueueStatistics> createStatistics() {
+        Map<EventType, EventQueueStatistics> statistics = new EnumMap<>(EventType.class);
+        for (EventType eventType : EventType.values()) {
+            statistics.put(eventType, new EventQueueStatistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * @return the counters of the events of the given type, of all the storage pools.
+     */
+    public EventQueueStatistics getStatistics(EventType eventType) {
+        return statistics.get(eventType);
+    }
 
     @Override
     public void submitEventAsync(Event event, Callable<EventResult> callable) {
@@ -67,6 +89,7 @@ public class EventQueueMonitor implements EventQueue {
         ReentrantLock lock = getPoolLock(storagePoolId);
         lock.lock();
         try {
+            statistics.get(event.getEventType()).onSubmitted();
             Event currentEvent = poolCurrentEventMap.get(storagePoolId);
             if (currentEvent != null) {
                 switch (currentEvent.getEventType()) {
@@ -76,6 +99,7 @@ public class EventQueueMonitor implements EventQueue {
                             || event.getEventType() == EventType.DOMAINFAILOVER) {
                         task = addTaskToQueue(event, callable, storagePoolId, isEventShouldBeFirst(event));
                     } else {
+                        statistics.get(event.getEventType()).onSkipped();
                         log.debug("Current event was skipped because of recovery is running now for pool '{}', event '{}'",
                                 storagePoolId, event);
                     }
@@ -87,6 +111,7 @@ public class EventQueueMonitor implements EventQueue {
                             || event.getEventType() == EventType.VDSCLEARCACHE) {
                         task = addTaskToQueue(event, callable, storagePoolId, isEventShouldBeFirst(event));
                     } else {
+                        statistics.get(event.getEventType()).onSkipped();
                         log.debug("Current event was skipped because of reconstruct is running now for pool '{}', event '{}'",
                                 storagePoolId, event);
                     }
@@ -98,7 +123,7 @@ public class EventQueueMonitor implements EventQueue {
             } else {
                 task = addTaskToQueue(event, callable, storagePoolId, false);
                 poolCurrentEventMap.put(storagePoolId, event);
-                ThreadPoolUtil.execute(new InternalEventQueueThread(storagePoolId, lock,
+                ThreadPoolUtil.execute(ThreadPoolType.STORAGE_EVENTS, new InternalEventQueueThread(storagePoolId, lock,
                         poolsEventsMap, poolCurrentEventMap));
             }
         } finally {
@@ -118,18 +143,29 @@ public class EventQueueMonitor implements EventQueue {
     }
 
     private FutureTask<EventResult> addTaskToQueue(Event event, Callable<EventResult> callable, Guid storagePoolId, boolean addFirst) {
-        FutureTask<EventResult> task = new FutureTask<>(callable);
-        Pair<Event, FutureTask<EventResult>> queueEvent = new Pair<>(event, task);
+        LinkedList<QueuedEvent> queue = getEventQueue(storagePoolId);
+        if (event.getEventType().isCoalescing()) {
+            for (QueuedEvent queuedEvent : queue) {
+                if (queuedEvent.canMerge(event)) {
+                    queuedEvent.callable = callable;
+                    statistics.get(event.getEventType()).onCoalesced();
+                    log.debug("Event '{}' was merged into an equal event queued for pool '{}'", event, storagePoolId);
+                    return queuedEvent.task;
+                }
+            }
+        }
+
+        QueuedEvent queuedEvent = new QueuedEvent(event, callable);
         if (addFirst) {
-            getEventQueue(storagePoolId).addFirst(queueEvent);
+            queue.addFirst(queuedEvent);
         } else {
-            getEventQueue(storagePoolId).add(queueEvent);
+            queue.add(queuedEvent);
         }
-        return task;
+        return queuedEvent.task;
     }
 
-    private LinkedList<Pair<Event, FutureTask<EventResult>>> getEventQueue(Guid storagePoolId) {
-        LinkedList<Pair<Event, FutureTask<EventResult>>> queue = poolsEventsMap.get(storagePoolId);
+    private LinkedList<QueuedEvent> getEventQueue(Guid storagePoolId) {
+        LinkedList<QueuedEvent> queue = poolsEventsMap.get(storagePoolId);
         if (queue == null) {
             queue = new LinkedList<>();
             poolsEventsMap.put(storagePoolId, queue);
@@ -144,16 +180,37 @@ public class EventQueueMonitor implements EventQueue {
         return poolsLockMap.get(poolId);
     }
 
+    /**
+     * An event waiting in the queue, whose callable is replaced by the callable of the events merged into it.
+     */
+    private static class QueuedEvent {
+
+        private final Event event;
+        private final FutureTask<EventResult> task;
+        private final long queuedTime = System.currentTimeMillis();
+        private volatile Callable<EventResult> callable;
+
+        public QueuedEvent(Event event, Callable<EventResult> callable) {
+            this.event = event;
+            this.callable = callable;
+            this.task = new FutureTask<>(() -> this.callable.call());
+        }
+
+        private boolean canMerge(Event other) {
+            return event.equals(other) && Objects.equals(event.getDescription(), other.getDescription());
+        }
+    }
+
     private static class InternalEventQueueThread implements Runnable {
 
         private Guid storagePoolId;
         private ReentrantLock lock;
         private Map<Guid, Event> poolCurrentEventMap;
-        private Map<Guid, LinkedList<Pair<Event, FutureTask<EventResult>>>> poolsEventsMap;
+        private Map<Guid, LinkedList<QueuedEvent>> poolsEventsMap;
 
         public InternalEventQueueThread(Guid storagePoolId,
                 ReentrantLock lock,
-                Map<Guid, LinkedList<Pair<Event, FutureTask<EventResult>>>> poolsEventsMap,
+                Map<Guid, LinkedList<QueuedEvent>> poolsEventsMap,
                 Map<Guid, Event> poolCurrentEventMap) {
             this.storagePoolId = storagePoolId;
             this.lock = lock;
@@ -164,12 +221,12 @@ public class EventQueueMonitor implements EventQueue {
         @Override
         public void run() {
             while (true) {
-                Pair<Event, FutureTask<EventResult>> pair;
+                QueuedEvent queuedEvent;
                 lock.lock();
                 try {
-                    pair = poolsEventsMap.get(storagePoolId).poll();
-                    if (pair != null) {
-                        poolCurrentEventMap.put(storagePoolId, pair.getFirst());
+                    queuedEvent = poolsEventsMap.get(storagePoolId).poll();
+                    if (queuedEvent != null) {
+                        poolCurrentEventMap.put(storagePoolId, queuedEvent.event);
                     } else {
                         poolCurrentEventMap.remove(storagePoolId);
                         poolsEventsMap.remove(storagePoolId);
@@ -179,25 +236,28 @@ public class EventQueueMonitor implements EventQueue {
                 } finally {
                     lock.unlock();
                 }
-                Future<EventResult> futureResult = ThreadPoolUtil.execute(pair.getSecond());
+                long startTime = System.currentTimeMillis();
+                Future<EventResult> futureResult = ThreadPoolUtil.execute(queuedEvent.task);
                 try {
-                    if (futureResult.get() == null) {
-                        EventResult result = pair.getSecond().get();
+                    Object executionResult = futureResult.get();
+                    onProcessed(queuedEvent, startTime);
+                    if (executionResult == null) {
+                        EventResult result = queuedEvent.task.get();
                         if (result != null && result.getEventType() == EventType.RECONSTRUCT) {
                             log.info("Finished reconstruct for pool '{}'. Clearing event queue", storagePoolId);
                             lock.lock();
                             try {
-                                LinkedList<Pair<Event, FutureTask<EventResult>>> queue = new LinkedList<>();
-                                for (Pair<Event, FutureTask<EventResult>> task : poolsEventsMap.get(storagePoolId)) {
-                                    EventType eventType = task.getFirst().getEventType();
+                                LinkedList<QueuedEvent> queue = new LinkedList<>();
+                                for (QueuedEvent task : poolsEventsMap.get(storagePoolId)) {
+                                    EventType eventType = task.event.getEventType();
                                     if (eventType == EventType.VDSCONNECTTOPOOL
                                             ||
                                             ((eventType == EventType.RECOVERY || eventType == EventType.DOMAINFAILOVER || eventType == EventType.VDSCLEARCACHE) && !result.isSuccess())) {
                                         queue.add(task);
                                     } else {
                                         log.info("The following operation '{}' was cancelled, because of reconstruct was run before",
-                                                task.getFirst());
-                                        task.getSecond().cancel(true);
+                                                task.event);
+                                        task.task.cancel(true);
                                     }
                                 }
                                 if (queue.isEmpty()) {
@@ -220,5 +280,16 @@ public class EventQueueMonitor implements EventQueue {
                 }
             }
         }
+
+        private void onProcessed(QueuedEvent queuedEvent, long startTime) {
+            long processingTime = System.currentTimeMillis() - startTime;
+            long waitTime = startTime - queuedEvent.queuedTime;
+            statistics.get(queuedEvent.event.getEventType()).onProcessed(waitTime, processingTime);
+            log.debug("Event '{}' of pool '{}' waited {} ms in the queue and was processed in {} ms",
+                    queuedEvent.event,
+                    storagePoolId,
+                    waitTime,
+                    processingTime);
+        }
     }
 }
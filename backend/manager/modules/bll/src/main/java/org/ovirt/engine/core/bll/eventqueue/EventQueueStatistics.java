@@ -0,0 +1,90 @@
+package org.ovirt.engine.core.bll.eventqueue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the events of a single type handled by the {@link EventQueueMonitor}, of all the storage pools.
+ */
+public class EventQueueStatistics {
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong totalProcessingTime = new AtomicLong();
+    private final AtomicLong maxProcessingTime = new AtomicLong();
+
+    void onSubmitted() {
+        submitted.incrementAndGet();
+    }
+
+    void onCoalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    void onSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    void onProcessed(long waitTime, long processingTime) {
+        processed.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        maxWaitTime.accumulateAndGet(waitTime, Math::max);
+        totalProcessingTime.addAndGet(processingTime);
+        maxProcessingTime.accumulateAndGet(processingTime, Math::max);
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of events merged into an equal event which was already queued.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of events which weren't queued, because of a reconstruct or recovery of the pool.
+     */
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * @return the average time, in milliseconds, the processed events waited in the queue.
+     */
+    public long getAverageWaitTime() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalWaitTime.get() / count;
+    }
+
+    /**
+     * @return the longest time, in milliseconds, a processed event waited in the queue.
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * @return the average time, in milliseconds, the processing of an event took.
+     */
+    public long getAverageProcessingTime() {
+        long count = processed.get();
+        return count == 0 ? 0 : totalProcessingTime.get() / count;
+    }
+
+    /**
+     * @return the longest time, in milliseconds, the processing of an event took.
+     */
+    public long getMaxProcessingTime() {
+        return maxProcessingTime.get();
+    }
+}
@@ -26,6 +26,7 @@ import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.gluster.GlusterVolumeGeoRepSessionVDSParameters;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.lock.EngineLock;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.slf4j.Logger;
@@ -102,7 +103,7 @@ public class GlusterGeoRepSyncJob extends GlusterJob {
             });
         }
 
-        List<GlusterGeoRepSession> updatedSessions = ThreadPoolUtil.invokeAll(geoRepSessionCalls);
+        List<GlusterGeoRepSession> updatedSessions = ThreadPoolUtil.invokeAll(ThreadPoolType.GLUSTER, geoRepSessionCalls);
         for (GlusterGeoRepSession updatedSession : updatedSessions) {
             if (updatedSession.getSessionDetails() == null) {
                 log.info("Geo-replication session details not updated for session '{}' as there was error returning data from VDS",
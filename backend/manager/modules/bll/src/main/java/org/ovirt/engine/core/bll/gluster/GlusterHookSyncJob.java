@@ -25,6 +25,7 @@ import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.common.vdscommands.gluster.GlusterHookVDSParameters;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.slf4j.Logger;
@@ -74,7 +75,7 @@ public class GlusterHookSyncJob extends GlusterJob {
                 return new Pair<>(upServer, returnValue);
             });
         }
-        List<Pair<VDS, VDSReturnValue>> pairResults = ThreadPoolUtil.invokeAll(taskList);
+        List<Pair<VDS, VDSReturnValue>> pairResults = ThreadPoolUtil.invokeAll(ThreadPoolType.GLUSTER, taskList);
         try {
             addOrUpdateHooks(cluster.getId(), pairResults);
         } catch (EngineException e) {
@@ -225,7 +226,7 @@ public class GlusterHookSyncJob extends GlusterJob {
         if (contentTasksList.isEmpty()) {
             return;
         }
-        List<Pair<GlusterHookEntity, VDSReturnValue>> pairResults = ThreadPoolUtil.invokeAll(contentTasksList);
+        List<Pair<GlusterHookEntity, VDSReturnValue>> pairResults = ThreadPoolUtil.invokeAll(ThreadPoolType.GLUSTER, contentTasksList);
 
         for (Pair<GlusterHookEntity, VDSReturnValue> pairResult: pairResults) {
             final GlusterHookEntity hook = pairResult.getFirst();
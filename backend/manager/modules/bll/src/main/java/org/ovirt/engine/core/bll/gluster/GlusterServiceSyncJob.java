@@ -24,6 +24,7 @@ import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.gluster.GlusterServicesListVDSParameters;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.TransactionScopeOption;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
@@ -67,7 +68,7 @@ public class GlusterServiceSyncJob extends GlusterJob {
                     } else {
                         List<Callable<Map<String, GlusterServiceStatus>>> taskList = createTaskList(serversList);
                         if (taskList != null && taskList.size() > 0) {
-                            refreshClusterServices(cluster, ThreadPoolUtil.invokeAll(taskList));
+                            refreshClusterServices(cluster, ThreadPoolUtil.invokeAll(ThreadPoolType.GLUSTER, taskList));
                         }
                     }
                 } catch (Exception e) {
@@ -43,6 +43,7 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.gluster.GlusterAuditLogUtil;
 import org.ovirt.engine.core.dal.job.ExecutionMessageDirector;
 import org.ovirt.engine.core.dao.gluster.GlusterDBUtils;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
@@ -112,7 +113,7 @@ public class GlusterTasksSyncJob extends GlusterJob  {
     }
 
     private void createJobForTaskFromCLI(final Cluster cluster, final GlusterAsyncTask task) {
-        ThreadPoolUtil.execute(() -> TransactionSupport.executeInNewTransaction(() -> {
+        ThreadPoolUtil.execute(ThreadPoolType.GLUSTER, () -> TransactionSupport.executeInNewTransaction(() -> {
             try {
                 createJobToMonitor(cluster, task);
             } catch (EngineException e) {
@@ -22,6 +22,7 @@ import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.slf4j.Logger;
@@ -58,7 +59,7 @@ public class StorageDeviceSyncJob extends GlusterJob {
         }
 
         if (!storageDevicesListCalls.isEmpty()) {
-            List<Pair<VDS, List<StorageDevice>>> storageDevices = ThreadPoolUtil.invokeAll(storageDevicesListCalls);
+            List<Pair<VDS, List<StorageDevice>>> storageDevices = ThreadPoolUtil.invokeAll(ThreadPoolType.GLUSTER, storageDevicesListCalls);
             for (Pair<VDS, List<StorageDevice>> pair : storageDevices) {
                 if (pair.getSecond() != null) {
                     updateStorageDevices(pair.getFirst(), pair.getSecond());
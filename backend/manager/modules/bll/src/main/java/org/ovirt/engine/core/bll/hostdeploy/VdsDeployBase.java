@@ -2,7 +2,6 @@ package org.ovirt.engine.core.bll.hostdeploy;
 
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -25,6 +24,7 @@ import java.util.logging.Level;
 
 import javax.naming.TimeLimitExceededException;
 
+import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.bll.utils.EngineSSHDialog;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.config.Config;
@@ -49,6 +49,8 @@ public class VdsDeployBase implements SSHDialog.Sink, Closeable {
     private static final int THREAD_JOIN_TIMEOUT = 20 * 1000; // milliseconds
     private static final String BOOTSTRAP_CUSTOM_ENVIRONMENT_PLACE_HOLDER = "@ENVIRONMENT@";
     private static final String BOOTSTRAP_ENTRY_PLACE_HOLDER = "@ENTRY@";
+    // the prefix of the deploy bundles cached at host, the directory of the cache may hold other files
+    private static final String BUNDLE_CACHE_PREFIX = "ovirt-host-deploy-";
 
     private static final Logger log = LoggerFactory.getLogger(VdsDeployBase.class);
     private static volatile CachedTar s_deployPackage;
@@ -518,6 +520,81 @@ public class VdsDeployBase implements SSHDialog.Sink, Closeable {
         }
     }
 
+    /**
+     * Make sure deploy bundle is cached at host.
+     * Bundles are kept at host by their content digest, so an
+     * unchanged bundle is transferred only once. A cached bundle
+     * whose size doesn't match is sent again. Only the files of
+     * the bundle cache are removed from the directory, which may
+     * be shared.
+     * @return location of bundle at host, null if not available.
+     */
+    private String getCachedBundle() {
+        String cacheDir = Config.<String> getValue(ConfigValues.BootstrapBundleCacheDirectory);
+        if (StringUtils.isEmpty(cacheDir)) {
+            return null;
+        }
+
+        try {
+            String file = s_deployPackage.getFile().getAbsolutePath();
+            String digest = s_deployPackage.getDigest();
+            long size = new File(file).length();
+            String bundleName = String.format("%1$s%2$s.tar", BUNDLE_CACHE_PREFIX, digest);
+            String bundle = String.format("%1$s/%2$s", cacheDir, bundleName);
+
+            if (!isCachedBundleComplete(bundle, size)) {
+                log.info(
+                    "Sending deploy bundle {} to host {}",
+                    bundleName,
+                    _vds.getHostName()
+                );
+                _dialog.executeCommand(
+                    String.format("umask 0077; mkdir -p '%1$s'", cacheDir)
+                );
+                _dialog.sendFile(file, bundle + ".tmp");
+                if (
+                    !digest.equals(s_deployPackage.getDigest()) ||
+                    !isCachedBundleComplete(bundle + ".tmp", size)
+                ) {
+                    // refreshed or truncated while sending
+                    _dialog.executeCommand(String.format("rm -f '%1$s.tmp'", bundle));
+                    return null;
+                }
+                _dialog.executeCommand(
+                    String.format(
+                        "mv -f '%1$s.tmp' '%1$s' && " +
+                        "find '%2$s' -maxdepth 1 -type f -name '%3$s*.tar' ! -name '%4$s' -delete",
+                        bundle,
+                        cacheDir,
+                        BUNDLE_CACHE_PREFIX,
+                        bundleName
+                    )
+                );
+            }
+            return bundle;
+        }
+        catch (Exception e) {
+            log.warn(
+                "Cannot use deploy bundle cache at host {}, sending bundle: {}",
+                _vds.getHostName(),
+                e.getMessage()
+            );
+            log.debug("Exception", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the given bundle at host is readable and has the given size.
+     */
+    private boolean isCachedBundleComplete(String bundle, long size) throws Exception {
+        return String.valueOf(size).equals(
+            _dialog.executeCommand(
+                String.format("if [ -r '%1$s' ]; then stat -c %%s '%1$s'; fi", bundle)
+            ).trim()
+        );
+    }
+
     /**
      * Main method.
      * Execute the command and initiate the dialog.
@@ -552,19 +629,42 @@ public class VdsDeployBase implements SSHDialog.Sink, Closeable {
                 ""
             );
 
-            log.info(
-                "Installation of {}. Executing command via SSH {} < {}",
-                _vds.getHostName(),
-                command,
-                s_deployPackage.getFileNoUse()
-            );
+            String bundle = getCachedBundle();
+            if (bundle != null) {
+                log.info(
+                    "Installation of {}. Executing command via SSH {} < {}",
+                    _vds.getHostName(),
+                    command,
+                    bundle
+                );
 
-            try (final InputStream in = new FileInputStream(s_deployPackage.getFile())) {
                 _dialog.executeCommand(
                     this,
+                    String.format(
+                        // the feeding process must not hold stderr, or the session
+                        // will wait for it when the command exits
+                        "( %1$s ) < <({ cat '%2$s' && exec cat; } 2> /dev/null)",
+                        command,
+                        bundle
+                    ),
+                    null
+                );
+            }
+            else {
+                log.info(
+                    "Installation of {}. Executing command via SSH {} < {}",
+                    _vds.getHostName(),
                     command,
-                    new InputStream[] {in}
+                    s_deployPackage.getFileNoUse()
                 );
+
+                try (final InputStream in = s_deployPackage.getInputStream()) {
+                    _dialog.executeCommand(
+                        this,
+                        command,
+                        new InputStream[] {in}
+                    );
+                }
             }
 
             if (_failException != null) {
@@ -22,6 +22,7 @@ import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
 import org.ovirt.engine.core.dao.network.NetworkAttachmentDao;
 import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.HostNetworkAttachmentsPersister;
 
 @InternalCommandAttribute
@@ -41,6 +42,9 @@ public class AttachNetworkToClusterInternalCommand<T extends AttachNetworkToClus
     @Inject
     private InterfaceDao interfaceDao;
 
+    @Inject
+    private ClusterNetworksCache clusterNetworksCache;
+
     public AttachNetworkToClusterInternalCommand(T parameters, CommandContext cmdContext) {
         super(parameters, cmdContext);
     }
@@ -53,6 +57,7 @@ public class AttachNetworkToClusterInternalCommand<T extends AttachNetworkToClus
     protected void executeCommand() {
 
         attachNetwork(getClusterId(), getNetworkCluster(), getNetwork());
+        clusterNetworksCache.invalidate(getClusterId());
 
         setSucceeded(true);
     }
@@ -20,6 +20,7 @@ import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.network.NetworkAttachmentDao;
 import org.ovirt.engine.core.dao.network.NetworkClusterDao;
 import org.ovirt.engine.core.di.Injector;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 
 /**
  * Class to hold common static methods that are used in several different places.
@@ -45,6 +46,10 @@ public class NetworkClusterHelper {
         return Injector.get(VdsDao.class);
     }
 
+    private static ClusterNetworksCache getClusterNetworksCache() {
+        return Injector.get(ClusterNetworksCache.class);
+    }
+
     private NetworkCluster getManagementNetworkCluster() {
         if (managementNetworkCluster == null) {
             Guid clusterId = networkCluster.getClusterId();
@@ -76,6 +81,8 @@ public class NetworkClusterHelper {
         if (updateManagementNetwork) {
             getNetworkClusterDao().update(managementNetworkCluster);
         }
+
+        getClusterNetworksCache().invalidate(networkCluster.getClusterId());
     }
 
     /**
@@ -167,6 +174,7 @@ public class NetworkClusterHelper {
         if (networkCluster.getStatus() != newStatus) {
             networkCluster.setStatus(newStatus);
             getNetworkClusterDao().updateStatus(networkCluster);
+            getClusterNetworksCache().invalidate(networkCluster.getClusterId());
         }
     }
 
@@ -15,6 +15,7 @@ import org.ovirt.engine.core.common.businessentities.network.Network;
 import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
 import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 
 @ValidateSupportsTransaction
 public class UpdateNetworkOnClusterCommand<T extends NetworkClusterParameters> extends NetworkClusterCommandBase<T> {
@@ -25,6 +26,9 @@ public class UpdateNetworkOnClusterCommand<T extends NetworkClusterParameters> e
     @Inject
     private UpdateNetworkClusterPermissionsChecker permissionsChecker;
 
+    @Inject
+    private ClusterNetworksCache clusterNetworksCache;
+
     private NetworkCluster oldNetworkCluster;
 
     public UpdateNetworkOnClusterCommand(T parameters, CommandContext cmdContext) {
@@ -84,6 +88,7 @@ public class UpdateNetworkOnClusterCommand<T extends NetworkClusterParameters> e
         }
 
         NetworkClusterHelper.setStatus(getClusterId(), getPersistedNetwork());
+        clusterNetworksCache.invalidate(getClusterId());
         setSucceeded(true);
     }
 
@@ -48,6 +48,7 @@ import org.ovirt.engine.core.dao.network.NetworkClusterDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
 import org.ovirt.engine.core.utils.NetworkUtils;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 import org.ovirt.engine.core.vdsbroker.NetworkImplementationDetailsUtils;
 
 @NonTransactiveCommandAttribute
@@ -65,6 +66,9 @@ public class UpdateNetworkCommand<T extends AddNetworkStoragePoolParameters> ext
     @Inject
     private SyncNetworkParametersBuilder syncNetworkParametersBuilder;
 
+    @Inject
+    private ClusterNetworksCache clusterNetworksCache;
+
     private Network oldNetwork;
 
     public UpdateNetworkCommand(T parameters, CommandContext commandContext) {
@@ -84,6 +88,7 @@ public class UpdateNetworkCommand<T extends AddNetworkStoragePoolParameters> ext
                 removeVnicProfiles();
             }
 
+            clusterNetworksCache.invalidateAll();
             return null;
         });
 
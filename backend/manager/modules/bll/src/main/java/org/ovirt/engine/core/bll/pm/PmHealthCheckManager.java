@@ -34,6 +34,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ThreadUtils;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
@@ -217,7 +218,7 @@ public class PmHealthCheckManager implements BackendService {
                 .filter(host -> host.getStatus() == VDSStatus.Reboot)
                 .collect(Collectors.toList());
         if (hostsWithPMInReboot.size() > 0) {
-            ThreadPoolUtil.execute(() -> {
+            ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
                 waitUntilFencingAllowed();
                 startHosts(hostsWithPMInReboot);
             });
@@ -253,7 +254,7 @@ public class PmHealthCheckManager implements BackendService {
                 .filter(host -> host.getStatus() == VDSStatus.Kdumping)
                 .collect(Collectors.toList());
         if (!kdumpingHosts.isEmpty()) {
-            ThreadPoolUtil.execute(() -> {
+            ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
                 waitUntilFencingAllowed();
                 executeNotRespondingTreatment(kdumpingHosts);
             });
@@ -262,7 +263,7 @@ public class PmHealthCheckManager implements BackendService {
 
     private void executeNotRespondingTreatment(List<VDS> hosts) {
         for (VDS host : hosts) {
-            ThreadPoolUtil.execute(() -> Backend.getInstance().runInternalAction(
+            ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> Backend.getInstance().runInternalAction(
                     VdcActionType.VdsNotRespondingTreatment,
                     new FenceVdsActionParameters(host.getId()),
                     ExecutionHandler.createInternalJobContext()
@@ -121,7 +121,7 @@ public class SshSoftFencingCommand<T extends VdsActionParameters> extends VdsCom
         long sleepInterval = TimeUnit.SECONDS.toMillis(
                 Config.<Integer> getValue(ConfigValues.VdsRefreshRate));
         while (vdsManager.isHostInGracePeriod(true)) {
-            if (vdsManager.getCopyVds().getStatus() == VDSStatus.Up) {
+            if (vdsManager.getVdsSnapshot().getStatus() == VDSStatus.Up) {
                 // host became Up during grace period
                 return true;
             }
@@ -13,7 +13,6 @@ import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VM;
-import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.slf4j.Logger;
@@ -55,10 +54,7 @@ public class HaReservationHandling {
             return false;
         }
 
-        // List of host id and cpu/ram free resources
-        // for the outer Pair, first is host id second is a Pair of cpu and ram
-        // for the inner Pair, first is cpu second is ram
-        List<Pair<Guid, Pair<Integer, Integer>>> hostsUnutilizedResources = getUnutilizedResources(hosts);
+        HostSpareCapacityIndex spareCapacityIndex = buildSpareCapacityIndex(hosts);
 
         Map<Guid, List<VM>> hostToHaVmsMapping = mapHaVmToHostByCluster(cluster.getId());
 
@@ -67,7 +63,7 @@ public class HaReservationHandling {
                 boolean isHaSafe =
                         findReplacementForHost(cluster, host,
                                 hostToHaVmsMapping.get(host.getId()),
-                                hostsUnutilizedResources);
+                                spareCapacityIndex);
                 if (!isHaSafe) {
                     failedHosts.add(host);
                 }
@@ -82,10 +78,21 @@ public class HaReservationHandling {
 
     private boolean findReplacementForHost(Cluster cluster, VDS host,
             List<VM> vmList,
-            List<Pair<Guid, Pair<Integer, Integer>>> hostsUnutilizedResources) {
+            HostSpareCapacityIndex spareCapacityIndex) {
 
-        Map<Guid, Pair<Integer, Integer>> additionalHostsUtilizedResources = new HashMap<>();
+        HostSpareCapacityIndex.Placement placement = spareCapacityIndex.startPlacement(host.getId());
+        try {
+            return placeVms(cluster, host, vmList, placement);
+        } finally {
+            placement.finish();
+        }
+    }
 
+    /**
+     * Places each VM on the host with the most free memory which has enough cpu left, see
+     * {@link HostSpareCapacityIndex}.
+     */
+    private boolean placeVms(Cluster cluster, VDS host, List<VM> vmList, HostSpareCapacityIndex.Placement placement) {
         for (VM vm : vmList) {
             int curVmMemSize = 0;
             if(vm.getUsageMemPercent() != null) {
@@ -104,52 +111,10 @@ public class HaReservationHandling {
             }
             log.debug("VM '{}'. CPU usage: {}%, RAM required: {}MB", vm.getName(), curVmCpuPercent, curVmMemSize);
 
-            boolean foundForCurVm = false;
-            for (Pair<Guid, Pair<Integer, Integer>> hostData : hostsUnutilizedResources) {
-                // Make sure not to run on the same Host as the Host we are testing
-                if (hostData.getFirst().equals(host.getId())) {
-                    continue;
-                }
-
-                // Check Memory and CPU
-                if (hostData.getSecond() != null && hostData.getSecond().getSecond() != null
-                        && hostData.getSecond().getFirst() != null) {
-
-                    int memoryFree = hostData.getSecond().getSecond();
-                    int cpuFree = hostData.getSecond().getFirst();
-
-                    long additionalMemory = 0;
-                    int additionalCpu = 0;
-
-                    if (additionalHostsUtilizedResources.get(hostData.getFirst()) != null) {
-                        additionalCpu = additionalHostsUtilizedResources.get(hostData.getFirst()).getFirst();
-                        additionalMemory = additionalHostsUtilizedResources.get(hostData.getFirst()).getSecond();
-                    }
-
-                    if ((memoryFree - additionalMemory) >= curVmMemSize && (cpuFree - additionalCpu) >= curVmCpuPercent) {
-                        // Found a place for current vm, add the RAM and CPU size to additionalHostsUtilizedResources
-                        Pair<Integer, Integer> cpuRamPair = additionalHostsUtilizedResources.get(hostData.getFirst());
-                        if (cpuRamPair != null) {
-                            cpuRamPair.setFirst(cpuRamPair.getFirst() + curVmCpuPercent);
-                            cpuRamPair.setSecond(cpuRamPair.getSecond() + curVmMemSize);
-                        } else {
-                            cpuRamPair = new Pair<>(curVmCpuPercent, curVmMemSize);
-                            additionalHostsUtilizedResources.put(hostData.getFirst(), cpuRamPair);
-                        }
-
-                        foundForCurVm = true;
-                        break;
-                    }
-
-                }
-
-            }
-
-            if (!foundForCurVm) {
+            if (placement.place(curVmCpuPercent, curVmMemSize) == null) {
                 log.info("Did not found a replacement host for VM '{}'", vm.getName());
                 return false;
             }
-
         }
 
         return true;
@@ -172,28 +137,21 @@ public class HaReservationHandling {
         return hostToHaVmsMapping;
     }
 
-    private List<Pair<Guid, Pair<Integer, Integer>>> getUnutilizedResources(List<VDS> hosts) {
-        List<Pair<Guid, Pair<Integer, Integer>>> hostsUnutilizedResources =
-                new ArrayList<>();
+    private HostSpareCapacityIndex buildSpareCapacityIndex(List<VDS> hosts) {
+        HostSpareCapacityIndex spareCapacityIndex = new HostSpareCapacityIndex();
         for (VDS host : hosts) {
-            Pair<Integer, Integer> innerUnutilizedCpuRamPair = new Pair<>();
             int hostFreeCpu = 0;
             if (host.getUsageCpuPercent() != null) {
                 hostFreeCpu = 100 - host.getUsageCpuPercent();
             }
-            innerUnutilizedCpuRamPair.setFirst(hostFreeCpu);
 
             // Get available memory for the Host, round down to int
             int hostFreeMem = (int) host.getMaxSchedulingMemory()
                     - PendingOvercommitMemory.collectForHost(pendingResourceManager, host.getId());
-            innerUnutilizedCpuRamPair.setSecond(hostFreeMem);
-
-            Pair<Guid, Pair<Integer, Integer>> outerUnutilizedCpuRamPair =
-                    new Pair<>(host.getId(), innerUnutilizedCpuRamPair);
 
-            hostsUnutilizedResources.add(outerUnutilizedCpuRamPair);
+            spareCapacityIndex.addHost(host.getId(), hostFreeCpu, hostFreeMem);
         }
-        return hostsUnutilizedResources;
+        return spareCapacityIndex;
     }
 
     public static Map<Guid, List<VM>> mapHaVmToHostByCluster(Guid clusterId) {
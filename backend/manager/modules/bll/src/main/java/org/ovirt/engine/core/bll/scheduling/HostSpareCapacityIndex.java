@@ -0,0 +1,161 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.TreeSet;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Index of the spare cpu and memory of the hosts of a cluster, ordered by their free memory. It is used to check
+ * whether the VMs of a failed host can be restarted on the other hosts, without scanning all the hosts for every VM:
+ * the hosts which lack the memory required by a VM are never visited, and a VM requiring more memory than any host
+ * has left is rejected right away.
+ * <p>
+ * A VM is placed on the host with the most free memory which also has enough cpu, rather than on the first host that
+ * fits it, so the capacity reserved for the VMs of a failed host is spread over the other hosts instead of filling
+ * them one after the other. A VM may therefore end up on another host than the one a first-fit placement in the
+ * order of the hosts would have chosen.
+ * <p>
+ * The index keeps a single sorted set of the hosts for all the placements. A placement updates it in place and
+ * reverts its reservations once done, so only one placement may be in progress at a time.
+ */
+class HostSpareCapacityIndex {
+
+    private static final Comparator<HostSpareCapacity> BY_FREE_MEMORY_DESCENDING =
+            Comparator.comparingInt(HostSpareCapacity::getFreeMemory).reversed()
+                    .thenComparing(HostSpareCapacity::getHostId);
+
+    private final TreeSet<HostSpareCapacity> capacities = new TreeSet<>(BY_FREE_MEMORY_DESCENDING);
+    private Placement currentPlacement;
+
+    /**
+     * @param hostId
+     *            the host id
+     * @param freeCpu
+     *            the unused cpu of the host, in percents
+     * @param freeMemory
+     *            the memory available for scheduling on the host, in MB
+     */
+    public void addHost(Guid hostId, int freeCpu, int freeMemory) {
+        capacities.add(new HostSpareCapacity(hostId, freeCpu, freeMemory));
+    }
+
+    /**
+     * Starts the placement of the VMs of the given host on the rest of the hosts. The placement must be
+     * {@link Placement#finish() finished} before the next one is started, so each failed host is checked against the
+     * same initial state.
+     *
+     * @param failedHostId
+     *            the host which VMs are placed, it is excluded from the candidates
+     */
+    public Placement startPlacement(Guid failedHostId) {
+        if (currentPlacement != null) {
+            throw new IllegalStateException("The placement of the VMs of host " + currentPlacement.failedHostId
+                    + " wasn't finished");
+        }
+
+        currentPlacement = new Placement(failedHostId);
+        return currentPlacement;
+    }
+
+    private void reserve(HostSpareCapacity capacity, int cpu, int memory) {
+        capacities.remove(capacity);
+        capacity.reserve(cpu, memory);
+        capacities.add(capacity);
+    }
+
+    public class Placement {
+
+        private final Guid failedHostId;
+        private final Deque<Reservation> reservations = new ArrayDeque<>();
+
+        private Placement(Guid failedHostId) {
+            this.failedHostId = failedHostId;
+        }
+
+        /**
+         * Reserves the given resources on the host with the most free memory that has enough cpu and memory left.
+         *
+         * @param cpu
+         *            the required cpu, in percents of the host
+         * @param memory
+         *            the required memory, in MB
+         * @return the id of the host the resources were reserved on, {@code null} if no host can provide them
+         */
+        public Guid place(int cpu, int memory) {
+            HostSpareCapacity selected = null;
+            for (HostSpareCapacity candidate : capacities) {
+                if (candidate.getFreeMemory() < memory) {
+                    // the rest of the hosts have even less free memory
+                    break;
+                }
+
+                if (candidate.getFreeCpu() >= cpu && !candidate.getHostId().equals(failedHostId)) {
+                    selected = candidate;
+                    break;
+                }
+            }
+
+            if (selected == null) {
+                return null;
+            }
+
+            reserve(selected, cpu, memory);
+            reservations.push(new Reservation(selected, cpu, memory));
+            return selected.getHostId();
+        }
+
+        /**
+         * Releases the resources reserved by the placement, restoring the index to its state before the placement.
+         */
+        public void finish() {
+            while (!reservations.isEmpty()) {
+                Reservation reservation = reservations.pop();
+                reserve(reservation.capacity, -reservation.cpu, -reservation.memory);
+            }
+            currentPlacement = null;
+        }
+    }
+
+    private static class Reservation {
+        private final HostSpareCapacity capacity;
+        private final int cpu;
+        private final int memory;
+
+        Reservation(HostSpareCapacity capacity, int cpu, int memory) {
+            this.capacity = capacity;
+            this.cpu = cpu;
+            this.memory = memory;
+        }
+    }
+    private static class HostSpareCapacity {
+        private final Guid hostId;
+        private int freeCpu;
+        private int freeMemory;
+
+        HostSpareCapacity(Guid hostId, int freeCpu, int freeMemory) {
+            this.hostId = hostId;
+            this.freeCpu = freeCpu;
+            this.freeMemory = freeMemory;
+        }
+
+        Guid getHostId() {
+            return hostId;
+        }
+
+        int getFreeCpu() {
+            return freeCpu;
+        }
+
+        int getFreeMemory() {
+            return freeMemory;
+        }
+
+        void reserve(int cpu, int memory) {
+            freeCpu -= cpu;
+            freeMemory -= memory;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans a batch of migrations for a single load balancing run of a cluster.
+ * <p>
+ * The balance policy unit is invoked repeatedly against an in-memory model of the cluster hosts: after each selected
+ * migration, the cpu usage, committed memory and VM count of the source host and of the chosen destination host are
+ * updated as if the migration was done, and the policy unit is invoked again. The chosen destination is the most
+ * preferred destination of the policy unit which may receive another VM, and it is the only destination of the planned
+ * migration, so the VM is migrated to the host the model assumes. The planned migrations don't conflict with each
+ * other: a host is the source of one migration at most, a host receiving VMs isn't used as a source, and a host
+ * receives a limited number of VMs.
+ * <p>
+ * The given hosts are modified by the planning, so it can be run dry against a copy of the cluster state, without
+ * migrating anything.
+ */
+public class LoadBalancingPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancingPlanner.class);
+
+    private final VmDao vmDao;
+
+    public LoadBalancingPlanner(VmDao vmDao) {
+        this.vmDao = vmDao;
+    }
+
+    /**
+     * @param policyUnit
+     *            the internal balance policy unit of the cluster
+     * @param cluster
+     *            the balanced cluster
+     * @param hosts
+     *            the hosts of the cluster which may take part in the migrations, updated to reflect the planned
+     *            migrations
+     * @param maxMigrations
+     *            the maximal number of migrations to plan
+     * @param maxMigrationsPerDestination
+     *            the maximal number of migrations to plan to a single destination host
+     * @return the planned migrations and the statistics of the planning
+     */
+    public Plan plan(PolicyUnitImpl policyUnit,
+            Cluster cluster,
+            List<VDS> hosts,
+            int maxMigrations,
+            int maxMigrationsPerDestination) {
+        long startTime = System.currentTimeMillis();
+        Plan plan = new Plan(getMaxCpuUsage(hosts));
+
+        Map<Guid, VDS> hostsById = new HashMap<>();
+        for (VDS host : hosts) {
+            hostsById.put(host.getId(), host);
+        }
+
+        List<VDS> candidateHosts = new ArrayList<>(hosts);
+        Map<Guid, Integer> migrationsPerDestination = new HashMap<>();
+        while (plan.getMigrations().size() < maxMigrations) {
+            Pair<List<Guid>, Guid> balanceResult = policyUnit.balance(cluster,
+                    candidateHosts,
+                    cluster.getClusterPolicyProperties(),
+                    new ArrayList<>());
+            if (balanceResult == null || balanceResult.getSecond() == null
+                    || balanceResult.getFirst() == null || balanceResult.getFirst().isEmpty()) {
+                break;
+            }
+
+            VM vm = vmDao.get(balanceResult.getSecond());
+            VDS source = vm == null ? null : hostsById.get(vm.getRunOnVds());
+            VDS destination = chooseDestination(balanceResult.getFirst(),
+                    hostsById,
+                    migrationsPerDestination,
+                    maxMigrationsPerDestination);
+            if (source == null || destination == null || migrationsPerDestination.containsKey(source.getId())) {
+                // the selected migration can't be modeled or conflicts with the already planned ones
+                break;
+            }
+
+            plan.addMigration(new Pair<>(Collections.singletonList(destination.getId()), vm.getId()));
+            applyMigration(cluster, vm, source, destination);
+            candidateHosts.remove(source);
+            int destinationMigrations = migrationsPerDestination.merge(destination.getId(), 1, Integer::sum);
+            if (destinationMigrations >= maxMigrationsPerDestination) {
+                candidateHosts.remove(destination);
+            }
+        }
+
+        plan.setMaxCpuUsageAfter(getMaxCpuUsage(hosts));
+        plan.setPlanningTime(System.currentTimeMillis() - startTime);
+        log.debug("Load balancing of cluster '{}' planned {} migration(s) in {} ms, max host cpu usage {}% -> {}%",
+                cluster.getName(),
+                plan.getMigrations().size(),
+                plan.getPlanningTime(),
+                plan.getMaxCpuUsageBefore(),
+                plan.getMaxCpuUsageAfter());
+        return plan;
+    }
+
+    /**
+     * @return the most preferred of the given destination hosts which may receive another VM, or null if there is none
+     */
+    private static VDS chooseDestination(List<Guid> destinationHostIds,
+            Map<Guid, VDS> hostsById,
+            Map<Guid, Integer> migrationsPerDestination,
+            int maxMigrationsPerDestination) {
+        for (Guid hostId : destinationHostIds) {
+            VDS host = hostsById.get(hostId);
+            if (host != null && migrationsPerDestination.getOrDefault(hostId, 0) < maxMigrationsPerDestination) {
+                return host;
+            }
+        }
+        return null;
+    }
+
+    private void applyMigration(Cluster cluster, VM vm, VDS source, VDS destination) {
+        int vmCpuUsage = vm.getUsageCpuPercent() == null ? 0 : vm.getUsageCpuPercent() * vm.getNumOfCpus();
+        source.setUsageCpuPercent(Math.max(0,
+                getCpuUsage(source) - vmCpuUsage / getEffectiveCpuCores(source, cluster)));
+        destination.setUsageCpuPercent(Math.min(100,
+                getCpuUsage(destination) + vmCpuUsage / getEffectiveCpuCores(destination, cluster)));
+
+        int vmMemory = vm.getMemSizeMb();
+        if (source.getMemCommited() != null) {
+            source.setMemCommited(Math.max(0, source.getMemCommited() - vmMemory));
+        }
+        if (destination.getMemCommited() != null) {
+            destination.setMemCommited(destination.getMemCommited() + vmMemory);
+        }
+
+        source.setVmCount(Math.max(0, source.getVmCount() - 1));
+        destination.setVmCount(destination.getVmCount() + 1);
+    }
+
+    private static int getCpuUsage(VDS host) {
+        return host.getUsageCpuPercent() == null ? 0 : host.getUsageCpuPercent();
+    }
+
+    private static int getEffectiveCpuCores(VDS host, Cluster cluster) {
+        Integer cores = SlaValidator.getEffectiveCpuCores(host, cluster.getCountThreadsAsCores());
+        return cores == null || cores <= 0 ? 1 : cores;
+    }
+
+    private static int getMaxCpuUsage(List<VDS> hosts) {
+        int maxCpuUsage = 0;
+        for (VDS host : hosts) {
+            maxCpuUsage = Math.max(maxCpuUsage, getCpuUsage(host));
+        }
+        return maxCpuUsage;
+    }
+
+    /**
+     * The migrations planned for a load balancing run, with statistics of the planning.
+     */
+    public static class Plan {
+        private final List<Pair<List<Guid>, Guid>> migrations = new ArrayList<>();
+        private final int maxCpuUsageBefore;
+        private int maxCpuUsageAfter;
+        private long planningTime;
+
+        Plan(int maxCpuUsageBefore) {
+            this.maxCpuUsageBefore = maxCpuUsageBefore;
+            this.maxCpuUsageAfter = maxCpuUsageBefore;
+        }
+
+        void addMigration(Pair<List<Guid>, Guid> migration) {
+            migrations.add(migration);
+        }
+
+        /**
+         * @return the planned migrations, each as a pair of the single chosen destination host and the VM to migrate
+         */
+        public List<Pair<List<Guid>, Guid>> getMigrations() {
+            return Collections.unmodifiableList(migrations);
+        }
+
+        /**
+         * @return the highest cpu usage of a host before the planned migrations
+         */
+        public int getMaxCpuUsageBefore() {
+            return maxCpuUsageBefore;
+        }
+
+        /**
+         * @return the highest cpu usage of a host, as modeled after the planned migrations
+         */
+        public int getMaxCpuUsageAfter() {
+            return maxCpuUsageAfter;
+        }
+
+        void setMaxCpuUsageAfter(int maxCpuUsageAfter) {
+            this.maxCpuUsageAfter = maxCpuUsageAfter;
+        }
+
+        /**
+         * @return the time the planning took, in milliseconds
+         */
+        public long getPlanningTime() {
+            return planningTime;
+        }
+
+        void setPlanningTime(long planningTime) {
+            this.planningTime = planningTime;
+        }
+    }
+}
@@ -107,7 +107,7 @@ public class SchedulingManager implements BackendService {
 
     private final VdsFreeMemoryChecker noWaitingMemoryChecker = new VdsFreeMemoryChecker(new NonWaitingDelayer());
 
-    private final Map<Guid, Boolean> clusterId2isHaReservationSafe = new HashMap<>();
+    private final Map<Guid, Boolean> clusterId2isHaReservationSafe = new ConcurrentHashMap<>();
 
     private PendingResourceManager getPendingResourceManager() {
         return pendingResourceManager;
@@ -910,15 +910,12 @@ public class SchedulingManager implements BackendService {
                         log.info("Cluster '{}' fail to pass HA reservation check.", cluster.getName());
                     }
 
-                    boolean clusterHaStatusFromPreviousCycle =
-                            clusterId2isHaReservationSafe.containsKey(cluster.getId()) ? clusterId2isHaReservationSafe.get(cluster.getId())
-                                    : true;
-
                     // Update the status map with the new status
-                    clusterId2isHaReservationSafe.put(cluster.getId(), clusterHaStatus);
+                    Boolean clusterHaStatusFromPreviousCycle =
+                            clusterId2isHaReservationSafe.put(cluster.getId(), clusterHaStatus);
 
                     // Create Alert if the status was changed from false to true
-                    if (!clusterHaStatusFromPreviousCycle && clusterHaStatus) {
+                    if (Boolean.FALSE.equals(clusterHaStatusFromPreviousCycle) && clusterHaStatus) {
                         AuditLogableBase logable = new AuditLogableBase();
                         logable.setClusterId(cluster.getId());
                         logable.addCustomValue("ClusterName", cluster.getName());
@@ -933,31 +930,76 @@ public class SchedulingManager implements BackendService {
     @OnTimerMethodAnnotation("performLoadBalancing")
     public void performLoadBalancing() {
         log.debug("Load Balancer timer entered.");
+        int maxMigrations = Config.<Integer> getValue(ConfigValues.MaxConcurrentLoadBalancingMigrations);
+        int availableMigrations = maxMigrations > 0 ? maxMigrations - getMigrationsInProgress() : Integer.MAX_VALUE;
+        boolean dryRun = Config.<Boolean> getValue(ConfigValues.LoadBalancingDryRun);
         List<Cluster> clusters = getClusterDao().getAll();
         for (Cluster cluster : clusters) {
+            if (availableMigrations <= 0) {
+                log.debug("Too many migrations are in progress, load balancing is skipped");
+                break;
+            }
+
             ClusterPolicy policy = policyMap.get(cluster.getClusterPolicyId());
             PolicyUnitImpl policyUnit = policyUnits.get(policy.getBalance());
-            Pair<List<Guid>, Guid> balanceResult = null;
+            List<Pair<List<Guid>, Guid>> balanceResults = Collections.emptyList();
             if (policyUnit.getPolicyUnit().isEnabled()) {
                 List<VDS> hosts = getVdsDao().getAllForClusterWithoutMigrating(cluster.getId());
                 if (policyUnit.getPolicyUnit().isInternal()) {
-                    balanceResult = internalRunBalance(policyUnit, cluster, hosts);
+                    balanceResults = internalRunBalance(policyUnit, cluster, hosts);
                 } else if (Config.<Boolean> getValue(ConfigValues.ExternalSchedulerEnabled)) {
-                    balanceResult = externalRunBalance(policyUnit, cluster, hosts);
+                    Pair<List<Guid>, Guid> balanceResult = externalRunBalance(policyUnit, cluster, hosts);
+                    if (balanceResult != null) {
+                        balanceResults = Collections.singletonList(balanceResult);
+                    }
                 }
             }
 
-            if (balanceResult != null && balanceResult.getSecond() != null) {
-                migrationHandler.migrateVM(balanceResult.getFirst(), balanceResult.getSecond());
+            for (Pair<List<Guid>, Guid> balanceResult : balanceResults) {
+                if (balanceResult.getSecond() == null || availableMigrations <= 0) {
+                    continue;
+                }
+                if (dryRun) {
+                    log.info("Load balancing of cluster '{}' would migrate VM '{}' to host(s) {}",
+                            cluster.getName(),
+                            balanceResult.getSecond(),
+                            balanceResult.getFirst());
+                } else {
+                    migrationHandler.migrateVM(balanceResult.getFirst(), balanceResult.getSecond());
+                }
+                availableMigrations--;
             }
         }
     }
 
-    private Pair<List<Guid>, Guid> internalRunBalance(PolicyUnitImpl policyUnit, Cluster cluster, List<VDS> hosts) {
-        return policyUnit.balance(cluster,
+    /**
+     * @return the number of migrations in progress, as last reported by the hosts, taken from the in-memory state of
+     *         the hosts instead of the database.
+     */
+    private int getMigrationsInProgress() {
+        return resourceManager.getVdsManagers().stream()
+                .mapToInt(vdsManager -> Math.max(0, vdsManager.getVdsSnapshot().getOutgoingMigrations()))
+                .sum();
+    }
+
+    private List<Pair<List<Guid>, Guid>> internalRunBalance(PolicyUnitImpl policyUnit,
+            Cluster cluster,
+            List<VDS> hosts) {
+        int maxMigrations = Config.<Integer> getValue(ConfigValues.MaxMigrationsPerLoadBalancingRun);
+        if (maxMigrations <= 1) {
+            Pair<List<Guid>, Guid> balanceResult = policyUnit.balance(cluster,
+                    hosts,
+                    cluster.getClusterPolicyProperties(),
+                    new ArrayList<>());
+            return balanceResult == null ? Collections.emptyList() : Collections.singletonList(balanceResult);
+        }
+
+        LoadBalancingPlanner.Plan plan = new LoadBalancingPlanner(dbFacade.getVmDao()).plan(policyUnit,
+                cluster,
                 hosts,
-                cluster.getClusterPolicyProperties(),
-                new ArrayList<>());
+                maxMigrations,
+                Config.<Integer> getValue(ConfigValues.MaxMigrationsPerLoadBalancingDestination));
+        return plan.getMigrations();
     }
 
     private Pair<List<Guid>, Guid> externalRunBalance(PolicyUnitImpl policyUnit, Cluster cluster, List<VDS> hosts) {
@@ -2,6 +2,7 @@ package org.ovirt.engine.core.bll.scheduling;
 
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VdsResourceState;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,12 +31,28 @@ public class VdsFreeMemoryChecker {
             // not enough memory to run the vm. delay execution to free up pending memory.
             delayer.delay(vds.getId());
 
-            // fetch a fresh vds and check its memory again
-            vds = DbFacade.getInstance().getVdsDao().get(vds.getId());
+            // fetch the fresh memory counters of the vds and check its memory again
+            VdsResourceState resourceState = DbFacade.getInstance().getVdsDynamicDao().getResourceState(vds.getId());
+            if (resourceState == null) {
+                return false;
+            }
 
             // check free memory on the updated host
-            return SlaValidator.getInstance().hasOvercommitMemoryToRunVM(vds, vm);
+            return SlaValidator.getInstance().hasOvercommitMemoryToRunVM(applyResourceState(vds, resourceState), vm);
         }
         return true;
     }
+
+    private static VDS applyResourceState(VDS vds, VdsResourceState resourceState) {
+        VDS updatedVds = vds.clone();
+        updatedVds.setStatus(resourceState.getStatus());
+        updatedVds.setMemCommited(resourceState.getMemCommited());
+        updatedVds.setPendingVmemSize(resourceState.getPendingVmemSize());
+        updatedVds.setPendingVcpusCount(resourceState.getPendingVcpusCount());
+        updatedVds.setVmsCoresCount(resourceState.getVmsCoresCount());
+        updatedVds.setVmCount(resourceState.getVmCount());
+        updatedVds.setReservedMem(resourceState.getReservedMem());
+        updatedVds.setGuestOverhead(resourceState.getGuestOverhead());
+        return updatedVds;
+    }
 }
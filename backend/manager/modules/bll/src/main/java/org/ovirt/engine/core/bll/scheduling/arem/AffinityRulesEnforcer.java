@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -42,6 +43,8 @@ public class AffinityRulesEnforcer {
     @Inject
     private SchedulingManager schedulingManager;
     private final Random random = new Random();
+    // the affinity state of each cluster, kept between the runs to check only the groups of the VMs that moved
+    private final Map<Guid, ClusterAffinityState> clusterAffinityStates = new ConcurrentHashMap<>();
 
     protected enum FailMode {
         IMMEDIATELY, // Fail when first violation is detected
@@ -50,30 +53,23 @@ public class AffinityRulesEnforcer {
 
     public VM chooseNextVmToMigrate(Cluster cluster) {
         List<AffinityGroup> allHardAffinityGroups = getAllHardAffinityGroups(cluster);
-
-        Set<Set<Guid>> unifiedPositiveAffinityGroups = AffinityRulesUtils.getUnifiedPositiveAffinityGroups(
-                allHardAffinityGroups);
-        List<AffinityGroup> unifiedAffinityGroups = AffinityRulesUtils.setsToAffinityGroups(
-                unifiedPositiveAffinityGroups);
-
-        // Add negative affinity groups
-        for (AffinityGroup ag : allHardAffinityGroups) {
-            if (!ag.isPositive()) {
-                unifiedAffinityGroups.add(ag);
-            }
+        if (allHardAffinityGroups.isEmpty()) {
+            clusterAffinityStates.remove(cluster.getId());
+            log.debug("No affinity group collision detected for cluster {}. Standing by.", cluster.getId());
+            return null;
         }
 
-        // Create a set of all VMs in affinity groups
-        Set<Guid> allVms = new HashSet<>();
-        for (AffinityGroup group : unifiedAffinityGroups) {
-            allVms.addAll(group.getEntityIds());
+        ClusterAffinityState affinityState = getClusterAffinityState(cluster, allHardAffinityGroups);
+
+        Map<Guid, VM> vms = new HashMap<>();
+        for (VM vm : vmDao.getVmsByIds(new ArrayList<>(affinityState.getVmIds()))) {
+            vms.put(vm.getId(), vm);
         }
 
-        Map<Guid, Guid> vmToHost = createMapOfVmToHost(allVms);
+        Map<Guid, Guid> vmToHost = createMapOfVmToHost(vms.values());
 
         // There is no need to migrate when no collision was detected
-        Set<AffinityGroup> violatedAffinityGroups =
-                checkForAffinityGroupViolations(unifiedAffinityGroups, vmToHost, FailMode.GET_ALL);
+        Set<AffinityGroup> violatedAffinityGroups = affinityState.updatePlacement(vmToHost);
         if (violatedAffinityGroups.isEmpty()) {
             log.debug("No affinity group collision detected for cluster {}. Standing by.", cluster.getId());
             return null;
@@ -88,10 +84,10 @@ public class AffinityRulesEnforcer {
             final List<VM> candidateVms;
 
             if (affinityGroup.isPositive()) {
-                candidateVms = vmDao.getVmsByIds(findVmViolatingPositiveAg(affinityGroup, vmToHost));
+                candidateVms = getVms(findVmViolatingPositiveAg(affinityGroup, vmToHost), vms);
                 log.info("Positive affinity group violation detected");
             } else {
-                candidateVms = vmDao.getVmsByIds(findVmViolatingNegativeAg(affinityGroup, vmToHost));
+                candidateVms = getVms(findVmViolatingNegativeAg(affinityGroup, vmToHost), vms);
                 log.info("Negative affinity group violation detected");
             }
 
@@ -120,10 +116,47 @@ public class AffinityRulesEnforcer {
         return null;
     }
 
-    private Map<Guid, Guid> createMapOfVmToHost(Set<Guid> allVms) {
+    /**
+     * Returns the affinity state of the cluster, which is built again only when its hard affinity groups change.
+     */
+    private ClusterAffinityState getClusterAffinityState(Cluster cluster, List<AffinityGroup> allHardAffinityGroups) {
+        ClusterAffinityState affinityState = clusterAffinityStates.get(cluster.getId());
+        if (affinityState != null && affinityState.isBuiltFrom(allHardAffinityGroups)) {
+            return affinityState;
+        }
+
+        Set<Set<Guid>> unifiedPositiveAffinityGroups = AffinityRulesUtils.getUnifiedPositiveAffinityGroups(
+                allHardAffinityGroups);
+        List<AffinityGroup> unifiedAffinityGroups = AffinityRulesUtils.setsToAffinityGroups(
+                unifiedPositiveAffinityGroups);
+
+        // Add negative affinity groups
+        for (AffinityGroup ag : allHardAffinityGroups) {
+            if (!ag.isPositive()) {
+                unifiedAffinityGroups.add(ag);
+            }
+        }
+
+        affinityState = new ClusterAffinityState(allHardAffinityGroups, unifiedAffinityGroups);
+        clusterAffinityStates.put(cluster.getId(), affinityState);
+        return affinityState;
+    }
+
+    private List<VM> getVms(List<Guid> vmIds, Map<Guid, VM> vms) {
+        List<VM> result = new ArrayList<>(vmIds.size());
+        for (Guid vmId : vmIds) {
+            VM vm = vms.get(vmId);
+            if (vm != null) {
+                result.add(vm);
+            }
+        }
+        return result;
+    }
+
+    private Map<Guid, Guid> createMapOfVmToHost(Collection<VM> vms) {
         Map<Guid, Guid> outputMap = new HashMap<>();
 
-        for (VM vm : vmDao.getVmsByIds(new ArrayList<>(allVms))) {
+        for (VM vm : vms) {
             Guid hostId = vm.getRunOnVds();
 
             if (hostId != null) {
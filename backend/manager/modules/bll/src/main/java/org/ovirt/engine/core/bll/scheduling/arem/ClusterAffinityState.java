@@ -0,0 +1,94 @@
+package org.ovirt.engine.core.bll.scheduling.arem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.ovirt.engine.core.bll.scheduling.arem.AffinityRulesEnforcer.FailMode;
+import org.ovirt.engine.core.common.scheduling.AffinityGroup;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * The affinity state of a cluster, kept by the {@link AffinityRulesEnforcer} between its runs: the unified hard
+ * affinity groups, an index of the groups each VM belongs to, the last known VM placement and the groups which were
+ * violated by it.
+ * <p>
+ * When the placement is updated, only the groups of the VMs that changed their host are checked again, so the cost of
+ * a run depends on the number of VMs that moved rather than on the number of groups. The state is valid as long as the
+ * hard affinity groups of the cluster don't change.
+ */
+class ClusterAffinityState {
+
+    private final Set<AffinityGroup> hardAffinityGroups;
+    private final List<AffinityGroup> unifiedAffinityGroups;
+    private final Map<Guid, List<AffinityGroup>> groupsByVm = new HashMap<>();
+    private final Set<AffinityGroup> violatedAffinityGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Map<Guid, Guid> vmToHost;
+
+    ClusterAffinityState(List<AffinityGroup> hardAffinityGroups, List<AffinityGroup> unifiedAffinityGroups) {
+        this.hardAffinityGroups = new HashSet<>(hardAffinityGroups);
+        this.unifiedAffinityGroups = unifiedAffinityGroups;
+        for (AffinityGroup group : unifiedAffinityGroups) {
+            for (Guid vmId : group.getEntityIds()) {
+                groupsByVm.computeIfAbsent(vmId, id -> new ArrayList<>()).add(group);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the state was built from the same hard affinity groups
+     */
+    boolean isBuiltFrom(List<AffinityGroup> hardAffinityGroups) {
+        return this.hardAffinityGroups.size() == hardAffinityGroups.size()
+                && this.hardAffinityGroups.containsAll(hardAffinityGroups);
+    }
+
+    /**
+     * @return the ids of all the VMs which belong to any of the affinity groups
+     */
+    Set<Guid> getVmIds() {
+        return groupsByVm.keySet();
+    }
+
+    /**
+     * Updates the VM placement and returns the affinity groups it violates.
+     *
+     * @param vmToHost
+     *            the current host of each running VM of the affinity groups
+     * @return the violated affinity groups
+     */
+    Set<AffinityGroup> updatePlacement(Map<Guid, Guid> vmToHost) {
+        Iterable<AffinityGroup> groupsToCheck;
+        if (this.vmToHost == null) {
+            groupsToCheck = unifiedAffinityGroups;
+        } else {
+            Set<AffinityGroup> affectedGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<Guid, List<AffinityGroup>> entry : groupsByVm.entrySet()) {
+                Guid vmId = entry.getKey();
+                if (!Objects.equals(this.vmToHost.get(vmId), vmToHost.get(vmId))) {
+                    affectedGroups.addAll(entry.getValue());
+                }
+            }
+            groupsToCheck = affectedGroups;
+        }
+
+        for (AffinityGroup group : groupsToCheck) {
+            if (AffinityRulesEnforcer.checkForAffinityGroupViolations(Collections.singletonList(group),
+                    vmToHost,
+                    FailMode.IMMEDIATELY).isEmpty()) {
+                violatedAffinityGroups.remove(group);
+            } else {
+                violatedAffinityGroups.add(group);
+            }
+        }
+
+        this.vmToHost = vmToHost;
+        return Collections.unmodifiableSet(violatedAffinityGroups);
+    }
+}
@@ -14,6 +14,7 @@ import org.ovirt.engine.core.bll.scheduling.pending.PendingVM;
 import org.ovirt.engine.core.common.businessentities.Cluster;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.errors.EngineMessage;
 import org.ovirt.engine.core.common.scheduling.AffinityGroup;
 import org.ovirt.engine.core.common.scheduling.PerHostMessages;
@@ -84,14 +85,14 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
         }
 
         // Get all running VMs in cluster
-        Map<Guid, VM> runningVMsMap = new HashMap<>();
-        for (VM iter : getVmDao().getAllRunningByCluster(vm.getClusterId())) {
+        Map<Guid, VmRuntimeState> runningVMsMap = new HashMap<>();
+        for (VmRuntimeState iter : getVmDao().getAllRuntimeStatesRunningByCluster(vm.getClusterId())) {
             runningVMsMap.put(iter.getId(), iter);
         }
 
         // Update the VM list with pending VMs
         for (PendingVM resource: pendingResourceManager.pendingResources(PendingVM.class)) {
-            VM pendingVm = new VM();
+            VmRuntimeState pendingVm = new VmRuntimeState();
             pendingVm.setId(resource.getVm());
             pendingVm.setRunOnVds(resource.getHost());
             runningVMsMap.put(pendingVm.getId(), pendingVm);
@@ -100,7 +101,7 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
         Set<Guid> acceptableHosts = new HashSet<>();
         // Group all hosts for VMs with positive affinity
         for (Guid id : allVmIdsPositive) {
-            VM runVm = runningVMsMap.get(id);
+            VmRuntimeState runVm = runningVMsMap.get(id);
             if (runVm != null && runVm.getRunOnVds() != null) {
                 acceptableHosts.add(runVm.getRunOnVds());
             }
@@ -109,7 +110,7 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
         Set<Guid> unacceptableHosts = new HashSet<>();
         // Group all hosts for VMs with negative affinity
         for (Guid id : allVmIdsNegative) {
-            VM runVm = runningVMsMap.get(id);
+            VmRuntimeState runVm = runningVMsMap.get(id);
             if (runVm != null && runVm.getRunOnVds() != null) {
                 unacceptableHosts.add(runVm.getRunOnVds());
             }
@@ -151,7 +152,7 @@ public class VmAffinityFilterPolicyUnit extends PolicyUnitImpl {
 
         // Remove hosts that contain VMs with negaive affinity to the currently scheduled Vm
         for (Guid id : allVmIdsNegative) {
-            VM runVm = runningVMsMap.get(id);
+            VmRuntimeState runVm = runningVMsMap.get(id);
             if (runVm != null && runVm.getRunOnVds() != null
                     && acceptableHosts.contains(runVm.getRunOnVds())) {
                 acceptableHosts.remove(runVm.getRunOnVds());
@@ -7,6 +7,7 @@ import org.ovirt.engine.core.common.businessentities.Snapshot;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.queries.IdQueryParameters;
 import org.ovirt.engine.core.dao.SnapshotDao;
+import org.ovirt.engine.core.di.Injector;
 
 /**
  * Returns a list of all snapshots for a specified VM ID including configuration data.
@@ -19,10 +20,13 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQuery<P extends IdQueryPara
     @Override
     protected void executeQueryCommand() {
         SnapshotVmConfigurationHelper snapshotVmConfigurationHelper = getSnapshotVmConfigurationHelper();
-        List<Snapshot> snapshots = getSnapshotDao().getAllWithConfiguration(getParameters().getId());
+        List<Snapshot> snapshots = getSnapshotDao().getAll(getParameters().getId());
+        if (!isConfigurationCached(snapshots)) {
+            // load the missing configurations at once rather than one by one
+            snapshots = getSnapshotDao().getAllWithConfiguration(getParameters().getId());
+        }
         for (Snapshot snapshot : snapshots) {
-            VM vm = snapshotVmConfigurationHelper.getVmFromConfiguration(
-                    snapshot.getVmConfiguration(), snapshot.getVmId(), snapshot.getId());
+            VM vm = snapshotVmConfigurationHelper.getVmFromSnapshot(snapshot);
             if (vm != null) {
                 snapshot.setDiskImages(vm.getImages());
             }
@@ -30,6 +34,13 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQuery<P extends IdQueryPara
         getQueryReturnValue().setReturnValue(snapshots);
     }
 
+    private boolean isConfigurationCached(List<Snapshot> snapshots) {
+        SnapshotConfigurationCache snapshotConfigurationCache = getSnapshotConfigurationCache();
+        return snapshots.stream()
+                .filter(Snapshot::isVmConfigurationAvailable)
+                .allMatch(snapshotConfigurationCache::isCached);
+    }
+
     protected SnapshotDao getSnapshotDao() {
         return getDbFacade().getSnapshotDao();
     }
@@ -37,4 +48,8 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQuery<P extends IdQueryPara
     protected SnapshotVmConfigurationHelper getSnapshotVmConfigurationHelper() {
         return new SnapshotVmConfigurationHelper();
     }
+
+    protected SnapshotConfigurationCache getSnapshotConfigurationCache() {
+        return Injector.get(SnapshotConfigurationCache.class);
+    }
 }
@@ -0,0 +1,119 @@
+package org.ovirt.engine.core.bll.snapshots;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.businessentities.Snapshot;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmStatic;
+import org.ovirt.engine.core.common.businessentities.network.VmNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.storage.DiskImage;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.SnapshotDao;
+import org.ovirt.engine.core.utils.ovf.OvfManager;
+import org.ovirt.engine.core.utils.ovf.OvfReaderException;
+
+/**
+ * Cache of the parsed VM configurations of snapshots, keyed by the snapshot ID and the
+ * {@link Snapshot#getVmConfigurationGeneration() generation} of its configuration.<br>
+ * A configuration is read and parsed only if it wasn't parsed before or was changed since, so snapshots can be loaded
+ * without their configuration and the configuration is loaded on demand. Each caller gets its own copy of the parsed
+ * configuration, which it may change.
+ */
+@Singleton
+public class SnapshotConfigurationCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    @Inject
+    private SnapshotDao snapshotDao;
+
+    private final Map<Guid, ParsedConfiguration> cache = new LinkedHashMap<Guid, ParsedConfiguration>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Guid, ParsedConfiguration> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Read the VM configuration of the given snapshot, as {@link OvfManager#importVm} does.
+     *
+     * @param snapshot
+     *            The snapshot, with or without its configuration.
+     * @param vm
+     *            The VM to set the static data read from the configuration to.
+     * @param images
+     *            The list to add the images read from the configuration to.
+     * @param interfaces
+     *            The list to add the interfaces read from the configuration to.
+     */
+    public void importVm(Snapshot snapshot,
+            VM vm,
+            List<DiskImage> images,
+            List<VmNetworkInterface> interfaces) throws OvfReaderException {
+        ParsedConfiguration parsed = get(snapshot.getId(), snapshot.getVmConfigurationGeneration());
+        if (parsed == null) {
+            Snapshot snapshotWithConfiguration =
+                    snapshot.getVmConfiguration() != null ? snapshot : snapshotDao.get(snapshot.getId());
+            if (snapshotWithConfiguration == null
+                    || StringUtils.isEmpty(snapshotWithConfiguration.getVmConfiguration())) {
+                throw new OvfReaderException(
+                        String.format("Snapshot '%s' has no VM configuration", snapshot.getId()));
+            }
+
+            parsed = parse(snapshotWithConfiguration.getVmConfiguration());
+            put(snapshot.getId(), snapshotWithConfiguration.getVmConfigurationGeneration(), parsed);
+        }
+
+        parsed = (ParsedConfiguration) SerializationUtils.clone(parsed);
+        vm.setStaticData(parsed.vmStatic);
+        images.addAll(parsed.images);
+        interfaces.addAll(parsed.interfaces);
+    }
+
+    /**
+     * @return <code>true</code> if the current VM configuration of the given snapshot was already parsed, so it doesn't
+     *         have to be loaded.
+     */
+    public boolean isCached(Snapshot snapshot) {
+        return get(snapshot.getId(), snapshot.getVmConfigurationGeneration()) != null;
+    }
+
+    private ParsedConfiguration parse(String configuration) throws OvfReaderException {
+        VM vm = new VM();
+        ParsedConfiguration parsed = new ParsedConfiguration();
+        new OvfManager().importVm(configuration, vm, parsed.images, parsed.interfaces);
+        parsed.vmStatic = vm.getStaticData();
+        return parsed;
+    }
+
+    private synchronized ParsedConfiguration get(Guid snapshotId, long generation) {
+        ParsedConfiguration parsed = cache.get(snapshotId);
+        return parsed != null && parsed.generation == generation ? parsed : null;
+    }
+
+    private synchronized void put(Guid snapshotId, long generation, ParsedConfiguration parsed) {
+        // Snapshots which weren't read from the DB have no generation
+        if (generation != 0) {
+            parsed.generation = generation;
+            cache.put(snapshotId, parsed);
+        }
+    }
+
+    private static class ParsedConfiguration implements Serializable {
+        private static final long serialVersionUID = -1466325873623935713L;
+
+        private long generation;
+        private VmStatic vmStatic;
+        private final ArrayList<DiskImage> images = new ArrayList<>();
+        private final ArrayList<VmNetworkInterface> interfaces = new ArrayList<>();
+    }
+}
@@ -39,7 +39,7 @@ public class SnapshotVmConfigurationHelper {
         VM vm;
         if (configuration != null) {
             vm = getVmWithConfiguration(configuration, vmId);
-            Snapshot snapshot = getSnapshotDao().get(snapshotId);
+            Snapshot snapshot = getSnapshotDao().getWithoutConfiguration(snapshotId);
             if (snapshot != null && snapshot.getType() != Snapshot.SnapshotType.PREVIEW) {
                 // No need to mark disks of 'PREVIEW' snapshot as illegal
                 // as it represents previous 'Active VM' state and no operations
@@ -55,6 +55,30 @@ public class SnapshotVmConfigurationHelper {
         return vm;
     }
 
+    /**
+     * Creates a VM by the configuration of the specified snapshot, as {@link #getVmFromConfiguration} does.
+     * The snapshot may be loaded without its configuration, which is then loaded only if it wasn't parsed before.
+     *
+     * @param snapshot The snapshot
+     * @return a VM object based on the snapshot.
+     */
+    public VM getVmFromSnapshot(Snapshot snapshot) {
+        VM vm;
+        if (snapshot.isVmConfigurationAvailable()) {
+            vm = getVmDao().get(snapshot.getVmId());
+            getSnapshotManager().updateVmFromConfiguration(vm, snapshot);
+            if (snapshot.getType() != Snapshot.SnapshotType.PREVIEW) {
+                markImagesIllegalIfNotInDb(vm, snapshot.getId());
+            }
+        } else {
+            vm = getVmWithoutConfiguration(snapshot.getVmId(), snapshot.getId());
+        }
+
+        VmHandler.updateDisksForVm(vm, vm.getImages());
+
+        return vm;
+    }
+
     protected VM getVmWithConfiguration(String configuration, Guid vmId) {
         VM result = getVmDao().get(vmId);
         getSnapshotManager().updateVmFromConfiguration(result, configuration);
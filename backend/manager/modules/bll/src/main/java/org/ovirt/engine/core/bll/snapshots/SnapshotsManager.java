@@ -52,6 +52,7 @@ import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.VmStaticDao;
 import org.ovirt.engine.core.dao.VmTemplateDao;
 import org.ovirt.engine.core.dao.network.VmNetworkInterfaceDao;
+import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.ovf.OvfManager;
 import org.ovirt.engine.core.utils.ovf.OvfReaderException;
 import org.ovirt.engine.core.utils.ovf.VMStaticOvfLogHandler;
@@ -452,7 +453,7 @@ public class SnapshotsManager {
             VmInterfaceManager vmInterfaceManager) {
         boolean vmUpdatedFromConfiguration = false;
         if (snapshot.getVmConfiguration() != null) {
-            vmUpdatedFromConfiguration = updateVmFromConfiguration(vm, snapshot.getVmConfiguration());
+            vmUpdatedFromConfiguration = updateVmFromConfiguration(vm, snapshot);
 
             if (images != null) {
                 vmUpdatedFromConfiguration &= updateImagesByConfiguration(vm, images);
@@ -493,8 +494,9 @@ public class SnapshotsManager {
             VM vmFromConf = snapshotVmConfigurations.get(vmSnapshotId);
             if (vmFromConf == null) {
                 vmFromConf = new VM();
-                Snapshot snapshot = getSnapshotDao().get(image.getVmSnapshotId());
-                if (!updateVmFromConfiguration(vmFromConf, snapshot.getVmConfiguration())) {
+                Snapshot snapshot = getSnapshotDao().getWithoutConfiguration(image.getVmSnapshotId());
+                if (snapshot == null || !snapshot.isVmConfigurationAvailable()
+                        || !updateVmFromConfiguration(vmFromConf, snapshot)) {
                     return false;
                 }
                 snapshotVmConfigurations.put(vmSnapshotId, vmFromConf);
@@ -537,48 +539,12 @@ public class SnapshotsManager {
      * @return In case of a problem reading the configuration, <code>false</code>. Otherwise, <code>true</code>.
      */
     public boolean updateVmFromConfiguration(VM vm, String configuration) {
-
         try {
-            VmStatic oldVmStatic = vm.getStaticData();
             VM tempVM = new VM();
             ArrayList<DiskImage> images = new ArrayList<>();
             ArrayList<VmNetworkInterface> interfaces = new ArrayList<>();
             new OvfManager().importVm(configuration, tempVM, images, interfaces);
-            for (DiskImage diskImage : images) {
-                DiskImage dbImage = getDiskImageDao().getSnapshotById(diskImage.getImageId());
-                if (dbImage != null) {
-                    diskImage.setStorageIds(dbImage.getStorageIds());
-                }
-            }
-            new VMStaticOvfLogHandler(tempVM.getStaticData()).resetDefaults(oldVmStatic);
-
-            vm.setStaticData(tempVM.getStaticData());
-            IconUtils.preserveIcons(vm.getStaticData(), oldVmStatic);
-            vm.setImages(images);
-            vm.setInterfaces(interfaces);
-
-            // These fields are not saved in the OVF, so get them from the current VM.
-            vm.setIsoPath(oldVmStatic.getIsoPath());
-            vm.setCpuProfileId(oldVmStatic.getCpuProfileId());
-            vm.setClusterId(oldVmStatic.getClusterId());
-            vm.setClusterCompatibilityVersionOrigin(oldVmStatic.getClusterCompatibilityVersionOrigin());
-            // The VM configuration does not hold the vds group Id.
-            // It is necessary to fetch the vm static from the Db, in order to get this information
-            VmStatic vmStaticFromDb = getVmStaticDao().get(vm.getId());
-            if (vmStaticFromDb != null) {
-                Cluster cluster = getClusterDao().get(vmStaticFromDb.getClusterId());
-                if (cluster != null) {
-                    vm.setStoragePoolId(cluster.getStoragePoolId());
-                    vm.setClusterCompatibilityVersion(cluster.getCompatibilityVersion());
-                    vm.setClusterName(cluster.getName());
-                    vm.setClusterCpuName(cluster.getCpuName());
-                }
-            }
-            // if the required dedicated host is invalid -> use current VM dedicated host
-            if (!VmHandler.validateDedicatedVdsExistOnSameCluster(vm.getStaticData(), null)) {
-                vm.setDedicatedVmForVdsList(oldVmStatic.getDedicatedVmForVdsList());
-            }
-            validateQuota(vm);
+            updateVmFromConfiguration(vm, tempVM.getStaticData(), images, interfaces);
             return true;
         } catch (OvfReaderException e) {
             log.error("Failed to update VM from the configuration '{}': {}",
@@ -589,6 +555,76 @@ public class SnapshotsManager {
         }
     }
 
+    /**
+     * Update the given VM with the (static) data that is contained in the configuration of the snapshot, as
+     * {@link #updateVmFromConfiguration(VM, String)} does. The configuration is parsed only if it wasn't parsed
+     * before, so the snapshot may be loaded without its configuration.
+     *
+     * @param vm
+     *            The VM to update.
+     * @param snapshot
+     *            The snapshot to update from.
+     * @return In case of a problem reading the configuration, <code>false</code>. Otherwise, <code>true</code>.
+     */
+    public boolean updateVmFromConfiguration(VM vm, Snapshot snapshot) {
+        try {
+            VM tempVM = new VM();
+            ArrayList<DiskImage> images = new ArrayList<>();
+            ArrayList<VmNetworkInterface> interfaces = new ArrayList<>();
+            getSnapshotConfigurationCache().importVm(snapshot, tempVM, images, interfaces);
+            updateVmFromConfiguration(vm, tempVM.getStaticData(), images, interfaces);
+            return true;
+        } catch (OvfReaderException e) {
+            log.error("Failed to update VM from the configuration of snapshot '{}': {}",
+                    snapshot.getId(),
+                    e.getMessage());
+            log.debug("Exception", e);
+            return false;
+        }
+    }
+
+    private void updateVmFromConfiguration(VM vm,
+            VmStatic vmStaticFromConfiguration,
+            ArrayList<DiskImage> images,
+            ArrayList<VmNetworkInterface> interfaces) {
+        VmStatic oldVmStatic = vm.getStaticData();
+        for (DiskImage diskImage : images) {
+            DiskImage dbImage = getDiskImageDao().getSnapshotById(diskImage.getImageId());
+            if (dbImage != null) {
+                diskImage.setStorageIds(dbImage.getStorageIds());
+            }
+        }
+        new VMStaticOvfLogHandler(vmStaticFromConfiguration).resetDefaults(oldVmStatic);
+
+        vm.setStaticData(vmStaticFromConfiguration);
+        IconUtils.preserveIcons(vm.getStaticData(), oldVmStatic);
+        vm.setImages(images);
+        vm.setInterfaces(interfaces);
+
+        // These fields are not saved in the OVF, so get them from the current VM.
+        vm.setIsoPath(oldVmStatic.getIsoPath());
+        vm.setCpuProfileId(oldVmStatic.getCpuProfileId());
+        vm.setClusterId(oldVmStatic.getClusterId());
+        vm.setClusterCompatibilityVersionOrigin(oldVmStatic.getClusterCompatibilityVersionOrigin());
+        // The VM configuration does not hold the vds group Id.
+        // It is necessary to fetch the vm static from the Db, in order to get this information
+        VmStatic vmStaticFromDb = getVmStaticDao().get(vm.getId());
+        if (vmStaticFromDb != null) {
+            Cluster cluster = getClusterDao().get(vmStaticFromDb.getClusterId());
+            if (cluster != null) {
+                vm.setStoragePoolId(cluster.getStoragePoolId());
+                vm.setClusterCompatibilityVersion(cluster.getCompatibilityVersion());
+                vm.setClusterName(cluster.getName());
+                vm.setClusterCpuName(cluster.getCpuName());
+            }
+        }
+        // if the required dedicated host is invalid -> use current VM dedicated host
+        if (!VmHandler.validateDedicatedVdsExistOnSameCluster(vm.getStaticData(), null)) {
+            vm.setDedicatedVmForVdsList(oldVmStatic.getDedicatedVmForVdsList());
+        }
+        validateQuota(vm);
+    }
+
     /**
      * Validate whether the quota supplied in snapshot configuration exists in<br>
      * current setup, if not reset to null.<br>
@@ -724,6 +760,10 @@ public class SnapshotsManager {
         return DbFacade.getInstance().getSnapshotDao();
     }
 
+    protected SnapshotConfigurationCache getSnapshotConfigurationCache() {
+        return Injector.get(SnapshotConfigurationCache.class);
+    }
+
     protected VmDynamicDao getVmDynamicDao() {
         return DbFacade.getInstance().getVmDynamicDao();
     }
@@ -17,6 +17,7 @@ import org.ovirt.engine.core.common.businessentities.StoragePool;
 import org.ovirt.engine.core.common.businessentities.StoragePoolStatus;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 
 public class AttachStorageDomainsMultipleActionRunner extends SortedMultipleActionsRunnerBase {
@@ -68,7 +69,7 @@ public class AttachStorageDomainsMultipleActionRunner extends SortedMultipleActi
 
         for (final CommandBase<?> command : getCommands()) {
             if (command.getReturnValue().isValid()) {
-                ThreadPoolUtil.execute(() -> executeValidatedCommand(command));
+                ThreadPoolUtil.execute(ThreadPoolType.COMMANDS, () -> executeValidatedCommand(command));
             }
         }
     }
@@ -1,6 +1,7 @@
 package org.ovirt.engine.core.bll.storage.domain;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -10,6 +11,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -63,15 +65,19 @@ import org.slf4j.LoggerFactory;
  * The cache is being refreshed with quartz scheduler which run by configuration value AutoRepoDomainRefreshTime. The
  * cache procedure using VDSM to fetch the Iso files from all the Data Centers and update the DB cache table with the
  * appropriate file data.<BR/>
+ * The file lists are served to the queries from an in-memory cache of the DB table, and a refresh requested by the
+ * user for a domain which list is already cached is done in the background, so the user doesn't wait for VDSM.<BR/>
  */
 @SuppressWarnings("synthetic-access")
 public class IsoDomainListSyncronizer {
     private static final Logger log = LoggerFactory.getLogger(IsoDomainListSyncronizer.class);
     private static final AuditLogDirector auditLogDirector = new AuditLogDirector();
-    private List<RepoImage> problematicRepoFileList = new ArrayList<>();
+    private final List<RepoImage> problematicRepoFileList = Collections.synchronizedList(new ArrayList<>());
     private static final int MIN_TO_MILLISECONDS = 60 * 1000;
     private static volatile IsoDomainListSyncronizer isoDomainListSyncronizer;
     private static final ConcurrentMap<Object, Lock> syncDomainForFileTypeMap = new ConcurrentHashMap<>();
+    private final Set<Pair<Guid, ImageFileType>> refreshesInProgress = ConcurrentHashMap.newKeySet();
+    private final RepoImageCache repoImageCache;
     private int isoDomainRefreshRate;
     private RepoFileMetaDataDao repoStorageDom;
     private ProviderDao providerDao;
@@ -101,6 +107,7 @@ public class IsoDomainListSyncronizer {
         log.info("Start initializing {}", getClass().getSimpleName());
         repoStorageDom = DbFacade.getInstance().getRepoFileMetaDataDao();
         providerDao = DbFacade.getInstance().getProviderDao();
+        repoImageCache = new RepoImageCache(repoStorageDom::getRepoListForStorageDomain);
         isoDomainRefreshRate = Config.<Integer> getValue(ConfigValues.AutoRepoDomainRefreshTime) * MIN_TO_MILLISECONDS;
         Injector.get(SchedulerUtilQuartzImpl.class).scheduleAFixedDelayJob(this,
                 "fetchIsoDomains",
@@ -131,7 +138,7 @@ public class IsoDomainListSyncronizer {
      * Check and update if needed each Iso domain in each Data Center in the system.
      */
     @OnTimerMethodAnnotation("fetchIsoDomains")
-    public synchronized void fetchIsoDomains() {
+    public void fetchIsoDomains() {
         // Gets all the active Iso storage domains.
         List<RepoImage> repofileList = DbFacade.getInstance()
                 .getRepoFileMetaDataDao()
@@ -162,7 +169,11 @@ public class IsoDomainListSyncronizer {
         ThreadPoolUtil.invokeAll(tasks);
 
         // After refresh for all Iso domains finished, handle the log.
-        handleErrorLog(new ArrayList<>(problematicRepoFileList));
+        List<RepoImage> problematicRepoFiles;
+        synchronized (problematicRepoFileList) {
+            problematicRepoFiles = new ArrayList<>(problematicRepoFileList);
+        }
+        handleErrorLog(problematicRepoFiles);
     }
 
     /**
@@ -182,16 +193,86 @@ public class IsoDomainListSyncronizer {
     public List<RepoImage> getUserRequestForStorageDomainRepoFileList(Guid storageDomainId,
             ImageFileType imageType,
             boolean forceRefresh) {
+        return getUserRequestForStorageDomainRepoFileList(storageDomainId, imageType, forceRefresh, null, 0, -1);
+    }
+
+    /**
+     * Returns a page of the RepoFilesMetaData list with file names starting with the given prefix, for storage domain
+     * Id and with file type extension, sorted by the file names.<BR>
+     * If the user chooses to refresh a list which is already cached, the cached list is returned and refreshed from
+     * VDSM in the background. Otherwise, if a problem occurs when refreshing, throws EngineException.
+     *
+     * @param storageDomainId
+     *            - The storage domain Id, which we fetch the Iso list from.
+     * @param imageType
+     *            - The imageType we want to fetch the files from the cache.
+     * @param forceRefresh
+     *            - Indicates if the domain should be refreshed from VDSM.
+     * @param namePrefix
+     *            - The prefix of the file names, ignoring case, null for all the files.
+     * @param searchFrom
+     *            - The number of matching files to skip.
+     * @param maxCount
+     *            - The maximal number of files to return, negative for no limit.
+     * @return List of RepoFilesMetaData files.
+     * @throws EngineException
+     *             - if a problem occurs when refreshing the image repo cache.
+     */
+    public List<RepoImage> getUserRequestForStorageDomainRepoFileList(Guid storageDomainId,
+            ImageFileType imageType,
+            boolean forceRefresh,
+            String namePrefix,
+            int searchFrom,
+            int maxCount) {
         // Query for storageDoaminId is looking for Active ISO domain
         if (!isStorageDomainIdValid(storageDomainId)) {
             throw new EngineException(EngineError.GetIsoListError);
         }
 
-        if (forceRefresh && !refreshRepos(storageDomainId, imageType)) {
-            throw new EngineException(EngineError.IMAGES_NOT_SUPPORTED_ERROR);
+        boolean revalidate = false;
+        if (forceRefresh) {
+            if (repoImageCache.contains(storageDomainId, imageType)) {
+                refreshReposInBackground(storageDomainId, imageType);
+            } else if (refreshRepos(storageDomainId, imageType)) {
+                revalidate = true;
+            } else {
+                throw new EngineException(EngineError.IMAGES_NOT_SUPPORTED_ERROR);
+            }
         }
         // In any case, whether refreshed or not, get Iso list from the cache.
-        return getCachedIsoListByDomainId(storageDomainId, imageType);
+        return repoImageCache.search(storageDomainId, imageType, revalidate, namePrefix, searchFrom, maxCount);
+    }
+
+    /**
+     * Refreshes the repository files of the storage domain in a new thread, unless such a refresh is already in
+     * progress.
+     */
+    private void refreshReposInBackground(Guid storageDomainId, ImageFileType imageType) {
+        Pair<Guid, ImageFileType> domainPerFileType = new Pair<>(storageDomainId, imageType);
+        if (!refreshesInProgress.add(domainPerFileType)) {
+            log.debug("Refresh of '{}' file type in storage domain id '{}' is already in progress.",
+                    imageType,
+                    storageDomainId);
+            return;
+        }
+
+        try {
+            ThreadPoolUtil.execute(() -> {
+                try {
+                    refreshRepos(storageDomainId, imageType);
+                } finally {
+                    refreshesInProgress.remove(domainPerFileType);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the cached list is served, a later refresh will retry
+            refreshesInProgress.remove(domainPerFileType);
+            log.warn("Failed to schedule the refresh of '{}' file type in storage domain id '{}': {}",
+                    imageType,
+                    storageDomainId,
+                    e.getMessage());
+            log.debug("Exception", e);
+        }
     }
 
     private boolean refreshRepos(Guid storageDomainId, ImageFileType imageType) {
@@ -252,6 +333,7 @@ public class IsoDomainListSyncronizer {
                         return true;
                     });
         } finally {
+            repoImageCache.invalidate(storageDomain.getId());
             syncObject.unlock();
         }
     }
@@ -404,14 +486,13 @@ public class IsoDomainListSyncronizer {
      *
      * @param isoStorageDomainId
      *            - The storage domain Id we want to get the file list from.
-     * @return List of Iso files fetched from DB, if parameter is invalid returns an empty list.
+     * @return List of Iso files fetched from the cache, if parameter is invalid returns an empty list.
      */
     public List<RepoImage> getCachedIsoListByDomainId(Guid isoStorageDomainId,
             ImageFileType imageType) {
         List<RepoImage> fileListMD = new ArrayList<>();
         if (isoStorageDomainId != null) {
-            fileListMD =
-                    repoStorageDom.getRepoListForStorageDomain(isoStorageDomainId, imageType);
+            fileListMD = repoImageCache.get(isoStorageDomainId, imageType, false);
         }
         return fileListMD;
     }
@@ -560,7 +641,7 @@ public class IsoDomainListSyncronizer {
         }
     }
 
-    private static boolean refreshIsoFileListMetaData(final Guid repoStorageDomainId,
+    private boolean refreshIsoFileListMetaData(final Guid repoStorageDomainId,
                                                       final RepoFileMetaDataDao repoFileMetaDataDao,
                                                       final Map<String, Map<String, Object>> fileStats,
                                                       final ImageFileType imageType) {
@@ -599,6 +680,7 @@ public class IsoDomainListSyncronizer {
             log.debug("Exception", e);
             return false;
         } finally {
+            repoImageCache.invalidate(repoStorageDomainId);
             syncObject.unlock();
         }
     }
@@ -628,7 +710,7 @@ public class IsoDomainListSyncronizer {
      * @param storageDomainId
      *            - The storage domain id we want to get the file list from.
      */
-    private synchronized void refreshActivatedStorageDomainFromVdsm(Guid storagePoolId, Guid storageDomainId) {
+    private void refreshActivatedStorageDomainFromVdsm(Guid storagePoolId, Guid storageDomainId) {
         if (!updateIsoListFromVDSM(storagePoolId, storageDomainId)) {
             // Add an audit log that refresh was failed for Iso files.
             handleErrorLog(storagePoolId, storageDomainId, ImageFileType.ISO);
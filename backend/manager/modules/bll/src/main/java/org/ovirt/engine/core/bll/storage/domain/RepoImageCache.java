@@ -0,0 +1,227 @@
+package org.ovirt.engine.core.bll.storage.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.apache.commons.lang.StringUtils;
+import org.ovirt.engine.core.common.businessentities.storage.ImageFileType;
+import org.ovirt.engine.core.common.businessentities.storage.RepoImage;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory cache of the repository file lists kept in the DB, per repository domain and file type.<BR/>
+ * Each list is kept sorted by the image title, so a prefix search is a binary search followed by a scan of the
+ * matching images only. When the DB list of a domain is updated, the cached lists of the domain are marked as stale:
+ * they are still served, and reloaded from the DB in the background (stale-while-revalidate), so reading a list never
+ * waits for a reload that is already in progress.
+ */
+class RepoImageCache {
+    private static final Logger log = LoggerFactory.getLogger(RepoImageCache.class);
+
+    private static final Comparator<String> TITLE_ORDER = Comparator.naturalOrder();
+
+    private final ConcurrentMap<Pair<Guid, ImageFileType>, CachedRepoImages> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Guid, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final BiFunction<Guid, ImageFileType, List<RepoImage>> loader;
+
+    /**
+     * @param loader
+     *            - Loads the repository file list of a domain and file type from the DB.
+     */
+    RepoImageCache(BiFunction<Guid, ImageFileType, List<RepoImage>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return True if a list of the domain and file type was already loaded, even if it is stale.
+     */
+    boolean contains(Guid storageDomainId, ImageFileType imageType) {
+        return cache.containsKey(new Pair<>(storageDomainId, imageType));
+    }
+
+    /**
+     * Returns the cached list of the domain and file type, loading it if it isn't cached yet.
+     *
+     * @param revalidate
+     *            - Indicates if a stale list should be reloaded before it is returned, instead of in the background.
+     * @return The cached images, sorted by their title.
+     */
+    List<RepoImage> get(Guid storageDomainId, ImageFileType imageType, boolean revalidate) {
+        return getCached(storageDomainId, imageType, revalidate).getImages();
+    }
+
+    /**
+     * Returns the images of the domain and file type whose title starts with the given prefix, ignoring case.
+     *
+     * @param namePrefix
+     *            - The prefix of the image titles, null or empty for all images.
+     * @param searchFrom
+     *            - The number of matching images to skip.
+     * @param maxCount
+     *            - The maximal number of images to return, negative for no limit.
+     * @return The matching images, sorted by their title.
+     */
+    List<RepoImage> search(Guid storageDomainId,
+            ImageFileType imageType,
+            boolean revalidate,
+            String namePrefix,
+            int searchFrom,
+            int maxCount) {
+        return getCached(storageDomainId, imageType, revalidate).search(namePrefix, searchFrom, maxCount);
+    }
+
+    /**
+     * Marks the cached lists of the domain as stale, after its file list was changed in the DB.
+     */
+    void invalidate(Guid storageDomainId) {
+        generations.computeIfAbsent(storageDomainId, id -> new AtomicLong()).incrementAndGet();
+        cache.forEach((key, cached) -> {
+            if (key.getFirst().equals(storageDomainId)) {
+                cached.markStale();
+            }
+        });
+    }
+
+    private CachedRepoImages getCached(Guid storageDomainId, ImageFileType imageType, boolean revalidate) {
+        Pair<Guid, ImageFileType> key = new Pair<>(storageDomainId, imageType);
+        CachedRepoImages cached = cache.get(key);
+        if (cached == null || (revalidate && cached.isStale())) {
+            return load(key);
+        }
+
+        if (cached.isStale() && cached.startReload()) {
+            try {
+                ThreadPoolUtil.execute(() -> {
+                    try {
+                        load(key);
+                    } catch (RuntimeException e) {
+                        cached.reloadFailed();
+                        log.warn("Failed to reload the cached '{}' file list of repository domain '{}': {}",
+                                imageType,
+                                storageDomainId,
+                                e.getMessage());
+                        log.debug("Exception", e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the stale list is served, and reloaded by a later read
+                cached.reloadFailed();
+                log.warn("Failed to schedule the reload of the cached '{}' file list of repository domain '{}': {}",
+                        imageType,
+                        storageDomainId,
+                        e.getMessage());
+                log.debug("Exception", e);
+            }
+        }
+        return cached;
+    }
+
+    private CachedRepoImages load(Pair<Guid, ImageFileType> key) {
+        long generation = getGeneration(key.getFirst());
+        CachedRepoImages loaded = new CachedRepoImages(loader.apply(key.getFirst(), key.getSecond()));
+        cache.put(key, loaded);
+        // The domain list may have changed in the DB while it was read.
+        if (getGeneration(key.getFirst()) != generation) {
+            loaded.markStale();
+        }
+        return loaded;
+    }
+
+    private long getGeneration(Guid storageDomainId) {
+        AtomicLong generation = generations.get(storageDomainId);
+        return generation == null ? 0 : generation.get();
+    }
+
+    private static String getTitleKey(RepoImage repoImage) {
+        return StringUtils.defaultString(repoImage.getRepoImageTitle()).toLowerCase(Locale.ROOT);
+    }
+
+    private static class CachedRepoImages {
+        private final AtomicBoolean reloading = new AtomicBoolean();
+        private final List<RepoImage> images;
+        private final String[] titleKeys;
+        private volatile boolean stale;
+
+        CachedRepoImages(List<RepoImage> loadedImages) {
+            List<RepoImage> sorted = new ArrayList<>(loadedImages);
+            sorted.sort(Comparator.comparing(RepoImageCache::getTitleKey, TITLE_ORDER));
+            titleKeys = new String[sorted.size()];
+            for (int i = 0; i < titleKeys.length; i++) {
+                titleKeys[i] = getTitleKey(sorted.get(i));
+            }
+            images = Collections.unmodifiableList(sorted);
+        }
+
+        List<RepoImage> getImages() {
+            return new ArrayList<>(images);
+        }
+
+        boolean isStale() {
+            return stale;
+        }
+
+        void markStale() {
+            stale = true;
+        }
+
+        /**
+         * @return True if the caller should reload the list, false if a reload is already in progress.
+         */
+        boolean startReload() {
+            return reloading.compareAndSet(false, true);
+        }
+
+        void reloadFailed() {
+            reloading.set(false);
+        }
+
+        List<RepoImage> search(String namePrefix, int searchFrom, int maxCount) {
+            int from;
+            int to;
+            if (StringUtils.isEmpty(namePrefix)) {
+                from = 0;
+                to = titleKeys.length;
+            } else {
+                String prefix = namePrefix.toLowerCase(Locale.ROOT);
+                from = firstIndexNotBefore(titleKeys, prefix);
+                to = from;
+                while (to < titleKeys.length && titleKeys[to].startsWith(prefix)) {
+                    to++;
+                }
+            }
+
+            // The bounds are compared with the remaining count, so large arguments don't overflow.
+            from += Math.min(to - from, Math.max(0, searchFrom));
+            if (maxCount >= 0 && maxCount < to - from) {
+                to = from + maxCount;
+            }
+            return new ArrayList<>(images.subList(from, to));
+        }
+
+        private static int firstIndexNotBefore(String[] keys, String key) {
+            int index = Arrays.binarySearch(keys, key, TITLE_ORDER);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // Equal keys may repeat, find the first of them.
+            while (index > 0 && keys[index - 1].equals(key)) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import javax.inject.Inject;
+
 import org.ovirt.engine.core.bll.Backend;
 import org.ovirt.engine.core.bll.LockMessagesMatchUtil;
 import org.ovirt.engine.core.bll.NonTransactiveCommandAttribute;
@@ -42,11 +44,15 @@ import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.utils.ISingleAsyncOperation;
 import org.ovirt.engine.core.utils.SyncronizeNumberOfAsyncOperations;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 import org.ovirt.engine.core.vdsbroker.irsbroker.SpmStopOnIrsVDSCommandParameters;
 
 @NonTransactiveCommandAttribute(forceCompensation = true)
 public class RemoveStoragePoolCommand<T extends StoragePoolParametersBase> extends StorageHandlingCommandBase<T> {
 
+    @Inject
+    private ClusterNetworksCache clusterNetworksCache;
+
     private Map<String, Pair<String, String>> sharedLocks;
 
     public RemoveStoragePoolCommand(T parameters, CommandContext commandContext) {
@@ -114,6 +120,7 @@ public class RemoveStoragePoolCommand<T extends StoragePoolParametersBase> exten
                 getNetworkDao().remove(net.getId());
             }
             getCompensationContext().stateChanged();
+            clusterNetworksCache.invalidateAll();
             return null;
         });
     }
@@ -33,7 +33,11 @@ public abstract class GetImagesListQueryBase<P extends GetImagesListParametersBa
             return new ArrayList<>();
         }
 
-        return IsoDomainListSyncronizer.getInstance().getUserRequestForStorageDomainRepoFileList
-                (storageDomainId, getParameters().getImageType(), getParameters().getForceRefresh());
+        return IsoDomainListSyncronizer.getInstance().getUserRequestForStorageDomainRepoFileList(storageDomainId,
+                getParameters().getImageType(),
+                getParameters().getForceRefresh(),
+                getParameters().getNamePrefix(),
+                getParameters().getSearchFrom(),
+                getParameters().getMaxCount());
     }
 }
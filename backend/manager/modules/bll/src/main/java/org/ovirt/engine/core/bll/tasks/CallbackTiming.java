@@ -4,14 +4,17 @@ import org.ovirt.engine.core.bll.tasks.interfaces.CommandCallback;
 
 class CallbackTiming {
     // Total delay between callback executions
-    private int initialDelay;
+    private volatile int initialDelay;
 
     // Remaining delay to next callback execution
-    private int remainingDelay;
-    private CommandCallback callback;
+    private volatile int remainingDelay;
+    private volatile CommandCallback callback;
 
     // the end-time, where the callback shouldn't wait for the event any longer and change to polling mode
-    private long waitOnEventEndTime;
+    private volatile long waitOnEventEndTime;
+
+    // moving average of the time (in milliseconds) taken by the callback methods invocations, -1 if never invoked
+    private volatile long averageInvocationTime = -1;
 
     public CallbackTiming(CommandCallback callback, int executionDelay) {
         this.callback = callback;
@@ -43,6 +46,16 @@ class CallbackTiming {
         this.remainingDelay = remainingDelay;
     }
 
+    public long getAverageInvocationTime() {
+        return averageInvocationTime;
+    }
+
+    public void recordInvocationTime(long invocationTime) {
+        averageInvocationTime = averageInvocationTime < 0
+                ? invocationTime
+                : (averageInvocationTime * 3 + invocationTime) / 4;
+    }
+
     public CommandCallback getCallback() {
         return callback;
     }
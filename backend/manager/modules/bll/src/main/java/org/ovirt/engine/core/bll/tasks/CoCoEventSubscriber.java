@@ -71,10 +71,7 @@ public class CoCoEventSubscriber extends EventSubscriber {
         } finally {
             subscription.cancel();
             commandsRepository.removeEventSubscription(cmdId);
-            CommandEntity commandEntityFromCache = commandsRepository.getCommandEntity(cmdId);
-            if (commandEntityFromCache != null) {
-                commandEntityFromCache.setWaitingForEvent(false);
-            }
+            commandsRepository.updateWaitingForEvent(cmdId, false);
         }
     }
 }
@@ -1,8 +1,13 @@
 package org.ovirt.engine.core.bll.tasks;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -16,8 +21,9 @@ import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
-import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
+import org.ovirt.engine.core.utils.timer.TimerWheelScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,11 +32,17 @@ public class CommandCallbacksPoller implements BackendService {
     private static final Logger log = LoggerFactory.getLogger(CommandCallbacksPoller.class);
     private int pollingRate;
 
+    // the root commands which callbacks are currently invoked, a command tree is handled by a single thread at a time
+    private final Set<Guid> rootCommandsInProgress = ConcurrentHashMap.newKeySet();
+
+    private final CommandCallbacksStatistics statistics = new CommandCallbacksStatistics();
+    private long reportedInvocations;
+
     @Inject
     private CommandsRepository commandsRepository;
 
     @Inject
-    private SchedulerUtilQuartzImpl schedulerUtil;
+    private TimerWheelScheduler schedulerUtil;
 
     CommandCallbacksPoller() {
     }
@@ -40,13 +52,17 @@ public class CommandCallbacksPoller implements BackendService {
         log.info("Start initializing {}", getClass().getSimpleName());
         pollingRate = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingLoopInSeconds);
         initCommandExecutor();
-        schedulerUtil.scheduleAFixedDelayJob(this,
-                "invokeCallbackMethods",
-                new Class[]{},
-                new Object[]{},
+        schedulerUtil.scheduleAFixedDelayJob("CommandCallbacksPoller.invokeCallbackMethods",
+                this::invokeCallbackMethods,
                 pollingRate,
                 pollingRate,
                 TimeUnit.SECONDS);
+        int reportInterval = Config.<Integer>getValue(ConfigValues.CommandCallbacksPollerReportIntervalInMinutes);
+        schedulerUtil.scheduleAFixedDelayJob("CommandCallbacksPoller.reportStatistics",
+                this::reportStatistics,
+                reportInterval,
+                reportInterval,
+                TimeUnit.MINUTES);
         log.info("Finished initializing {}", getClass().getSimpleName());
     }
 
@@ -78,16 +94,20 @@ public class CommandCallbacksPoller implements BackendService {
         return commandsRepository.getChildCommandIds(cmdId);
     }
 
-    @OnTimerMethodAnnotation("invokeCallbackMethods")
     public void invokeCallbackMethods() {
-        Iterator<Entry<Guid, CallbackTiming>> iterator = commandsRepository.getCallbacksTiming().entrySet().iterator();
-        while (iterator.hasNext()) {
-            Entry<Guid, CallbackTiming> entry = iterator.next();
-
+        Map<Guid, List<Guid>> dueCommandsByRootCommand = new LinkedHashMap<>();
+        for (Entry<Guid, CallbackTiming> entry : commandsRepository.getCallbacksTiming().entrySet()) {
             Guid cmdId = entry.getKey();
             CallbackTiming callbackTiming = entry.getValue();
 
             CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+            Guid rootCmdId = getRootCommandId(cmdId, commandEntity);
+            if (rootCommandsInProgress.contains(rootCmdId)) {
+                // the callbacks of the command tree are still being invoked since a previous cycle
+                statistics.recordBusySkip();
+                continue;
+            }
+
             if (commandEntity != null && updateCommandWaitingForEvent(commandEntity, callbackTiming)) {
                 continue;
             } else {
@@ -98,59 +118,152 @@ public class CommandCallbacksPoller implements BackendService {
                 }
             }
 
-            CommandCallback callback = callbackTiming.getCallback();
-            CommandStatus status = commandsRepository.getCommandStatus(cmdId);
-            boolean runCallbackAgain = false;
-            boolean errorInCallback = false;
-            try {
-                switch (status) {
-                    case FAILED:
-                    case SUCCEEDED:
-                        runCallbackAgain = endCallback(cmdId, callback, status);
-                        break;
-                    case ACTIVE:
-                        if (commandEntity != null && commandEntity.isExecuted()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    case EXECUTION_FAILED:
-                        if (callback.pollOnExecutionFailed()) {
-                            callback.doPolling(cmdId, getChildCommandIds(cmdId));
-                        }
-                        break;
-                    default:
-                        break;
+            dueCommandsByRootCommand.computeIfAbsent(rootCmdId, id -> new ArrayList<>()).add(cmdId);
+        }
+
+        for (Entry<Guid, List<Guid>> entry : dueCommandsByRootCommand.entrySet()) {
+            invokeCallbackMethods(entry.getKey(), entry.getValue());
+        }
+
+        commandsRepository.markExpiredCommandsAsFailure();
+    }
+
+    /**
+     * Invokes the callbacks of the given commands, which belong to the same root command, sequentially on a thread of
+     * the {@link ThreadPoolType#COMMAND_CALLBACKS} pool. The poller doesn't wait for them: the command tree is skipped
+     * by the following cycles until its callbacks are done, so its callbacks are never invoked concurrently, while a
+     * slow callback doesn't delay the callbacks of the other command trees.
+     */
+    private void invokeCallbackMethods(final Guid rootCmdId, final List<Guid> cmdIds) {
+        rootCommandsInProgress.add(rootCmdId);
+        try {
+            ThreadPoolUtil.execute(ThreadPoolType.COMMAND_CALLBACKS, () -> {
+                try {
+                    for (Guid cmdId : cmdIds) {
+                        invokeCallbackMethod(cmdId);
+                    }
+                } finally {
+                    rootCommandsInProgress.remove(rootCmdId);
                 }
-            } catch (Exception ex) {
-                errorInCallback = true;
-                handleError(ex, status, cmdId);
-            } finally {
-                if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
-                        && !runCallbackAgain) {
-                    commandsRepository.updateCallbackNotified(cmdId);
-                    iterator.remove();
-                    CommandEntity cmdEntity = commandsRepository.getCommandEntity(entry.getKey());
-                    if (cmdEntity != null) {
-                        // When a child finishes, its parent's callback should execute shortly thereafter
-                        CallbackTiming rootCmdContainer =
-                                commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
-                        if (rootCmdContainer != null) {
-                            rootCmdContainer.setInitialDelay(pollingRate);
-                            rootCmdContainer.setRemainingDelay(pollingRate);
-                        }
+            });
+        } catch (RejectedExecutionException e) {
+            rootCommandsInProgress.remove(rootCmdId);
+            statistics.recordRejection();
+            log.warn("Failed to invoke the callbacks of command '{}', will retry on the next cycle: {}",
+                    rootCmdId,
+                    e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * Logs the statistics of the callbacks, if any callback was invoked since the previous report.
+     */
+    private void reportStatistics() {
+        long invocations = statistics.getInvocations();
+        if (invocations == reportedInvocations) {
+            return;
+        }
+
+        reportedInvocations = invocations;
+        log.info("Command callbacks: {}, {} command trees in progress", statistics, rootCommandsInProgress.size());
+    }
+
+    private void invokeCallbackMethod(Guid cmdId) {
+        CallbackTiming callbackTiming = commandsRepository.getCallbackTiming(cmdId);
+        if (callbackTiming == null) {
+            return;
+        }
+
+        CommandEntity commandEntity = commandsRepository.getCommandEntity(cmdId);
+        CommandCallback callback = callbackTiming.getCallback();
+        CommandStatus status = commandsRepository.getCommandStatus(cmdId);
+        boolean runCallbackAgain = false;
+        boolean errorInCallback = false;
+        long startTime = System.currentTimeMillis();
+        try {
+            switch (status) {
+                case FAILED:
+                case SUCCEEDED:
+                    runCallbackAgain = endCallback(cmdId, callback, status);
+                    break;
+                case ACTIVE:
+                    if (commandEntity != null && commandEntity.isExecuted()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                case EXECUTION_FAILED:
+                    if (callback.pollOnExecutionFailed()) {
+                        callback.doPolling(cmdId, getChildCommandIds(cmdId));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception ex) {
+            errorInCallback = true;
+            handleError(ex, status, cmdId);
+        } finally {
+            recordInvocationTime(cmdId, callbackTiming, status, System.currentTimeMillis() - startTime);
+            if ((CommandStatus.FAILED == status || (CommandStatus.SUCCEEDED == status && !errorInCallback))
+                    && !runCallbackAgain) {
+                commandsRepository.updateCallbackNotified(cmdId);
+                commandsRepository.getCallbacksTiming().remove(cmdId, callbackTiming);
+                CommandEntity cmdEntity = commandsRepository.getCommandEntity(cmdId);
+                if (cmdEntity != null) {
+                    // When a child finishes, its parent's callback should execute shortly thereafter
+                    CallbackTiming rootCmdContainer =
+                            commandsRepository.getCallbackTiming(cmdEntity.getRootCommandId());
+                    if (rootCmdContainer != null) {
+                        rootCmdContainer.setInitialDelay(pollingRate);
+                        rootCmdContainer.setRemainingDelay(pollingRate);
                     }
-                } else if (status != commandsRepository.getCommandStatus(cmdId)) {
-                    callbackTiming.setInitialDelay(pollingRate);
-                    callbackTiming.setRemainingDelay(pollingRate);
-                } else {
-                    int maxDelay = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
-                    callbackTiming.setInitialDelay(Math.min(maxDelay, callbackTiming.getInitialDelay() * 2));
-                    callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
                 }
+            } else if (status != commandsRepository.getCommandStatus(cmdId)) {
+                callbackTiming.setInitialDelay(pollingRate);
+                callbackTiming.setRemainingDelay(pollingRate);
+            } else {
+                int maxDelay = Config.<Integer>getValue(ConfigValues.AsyncCommandPollingRateInSeconds);
+                int delay = Math.max(callbackTiming.getInitialDelay() * 2, getInvocationTimeDelay(callbackTiming));
+                callbackTiming.setInitialDelay(Math.min(maxDelay, delay));
+                callbackTiming.setRemainingDelay(callbackTiming.getInitialDelay());
             }
         }
+    }
 
-        commandsRepository.markExpiredCommandsAsFailure();
+    private static Guid getRootCommandId(Guid cmdId, CommandEntity commandEntity) {
+        if (commandEntity == null || Guid.isNullOrEmpty(commandEntity.getRootCommandId())) {
+            return cmdId;
+        }
+
+        return commandEntity.getRootCommandId();
+    }
+
+    /**
+     * Returns the delay, rounded up to the polling rate, matching the average invocation time of the callback. A
+     * callback which takes long to complete isn't polled again sooner than the time it takes, so it doesn't keep the
+     * pool's threads busy at the expense of the other callbacks.
+     */
+    private int getInvocationTimeDelay(CallbackTiming callbackTiming) {
+        long averageInvocationTime = callbackTiming.getAverageInvocationTime();
+        if (averageInvocationTime <= 0) {
+            return 0;
+        }
+
+        long pollingRateInMillis = TimeUnit.SECONDS.toMillis(pollingRate);
+        long pollingCycles = (averageInvocationTime + pollingRateInMillis - 1) / pollingRateInMillis;
+        return (int) Math.min(Integer.MAX_VALUE, pollingCycles * pollingRate);
+    }
+
+    private void recordInvocationTime(Guid cmdId, CallbackTiming callbackTiming, CommandStatus status, long time) {
+        callbackTiming.recordInvocationTime(time);
+        statistics.recordInvocation(time);
+        if (time > TimeUnit.SECONDS.toMillis(pollingRate)) {
+            log.info("Invoking callback method '{}' for command '{}' took {} ms",
+                    getCallbackMethod(status),
+                    cmdId,
+                    time);
+        }
     }
 
     private void handleError(Exception ex, CommandStatus status, Guid cmdId) {
@@ -209,7 +322,7 @@ public class CommandCallbacksPoller implements BackendService {
                 log.info("The command '{}' reached its event's waiting timeout and will be moved to polling mode",
                         cmdEntity.getId());
                 commandsRepository.removeEventSubscription(cmdEntity.getId());
-                cmdEntity.setWaitingForEvent(false);
+                commandsRepository.updateWaitingForEvent(cmdEntity.getId(), false);
                 return false;
             }
             return true;
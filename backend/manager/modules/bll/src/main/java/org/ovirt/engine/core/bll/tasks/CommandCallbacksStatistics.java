@@ -0,0 +1,79 @@
+package org.ovirt.engine.core.bll.tasks;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ovirt.engine.core.common.utils.ToStringBuilder;
+
+/**
+ * The counters of the {@link CommandCallbacksPoller}, accumulated since the engine started and logged periodically.
+ */
+class CommandCallbacksStatistics {
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong invocationsTotalTime = new AtomicLong();
+    private final AtomicLong invocationsMaxTime = new AtomicLong();
+    private final AtomicLong rejectedCommandTrees = new AtomicLong();
+    private final AtomicLong busySkips = new AtomicLong();
+
+    void recordInvocation(long time) {
+        invocations.incrementAndGet();
+        invocationsTotalTime.addAndGet(time);
+        invocationsMaxTime.accumulateAndGet(time, Math::max);
+    }
+
+    void recordRejection() {
+        rejectedCommandTrees.incrementAndGet();
+    }
+
+    void recordBusySkip() {
+        busySkips.incrementAndGet();
+    }
+
+    /**
+     * @return the number of callback methods invoked.
+     */
+    long getInvocations() {
+        return invocations.get();
+    }
+
+    /**
+     * @return the average time, in milliseconds, of the invocations of the callback methods.
+     */
+    long getAverageInvocationTime() {
+        long count = invocations.get();
+        return count == 0 ? 0 : invocationsTotalTime.get() / count;
+    }
+
+    /**
+     * @return the longest time, in milliseconds, an invocation of a callback method took.
+     */
+    long getMaxInvocationTime() {
+        return invocationsMaxTime.get();
+    }
+
+    /**
+     * @return the number of command trees whose callbacks were rejected by the pool, and deferred to the next round.
+     */
+    long getRejectedCommandTrees() {
+        return rejectedCommandTrees.get();
+    }
+
+    /**
+     * @return the number of times a cycle passed over a command, as the callbacks of its command tree were still invoked
+     *         since a previous cycle.
+     */
+    long getBusySkips() {
+        return busySkips.get();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.forInstance(this)
+                .append("invocations", getInvocations())
+                .append("averageInvocationTime", getAverageInvocationTime())
+                .append("maxInvocationTime", getMaxInvocationTime())
+                .append("rejectedCommandTrees", getRejectedCommandTrees())
+                .append("busySkips", getBusySkips())
+                .build();
+    }
+}
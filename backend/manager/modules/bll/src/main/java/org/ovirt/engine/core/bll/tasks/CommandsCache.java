@@ -38,5 +38,15 @@ public interface CommandsCache {
 
     void updateCallbackNotified(Guid commandId);
 
+    /**
+     * Updates whether the callback of the command waits for an event. The change is persisted by {@link #flush()}.
+     */
+    void updateWaitingForEvent(Guid commandId, boolean waitingForEvent);
+
     List<CommandEntity> getChildCmdsByParentCmdId(Guid cmdId);
+
+    /**
+     * Persists the changes of the commands which weren't persisted yet.
+     */
+    void flush();
 }
@@ -1,11 +1,17 @@
 package org.ovirt.engine.core.bll.tasks;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 import javax.transaction.Transaction;
 
@@ -17,15 +23,43 @@ import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Caches the command entities, persisting their changes in a write-behind manner: changes of the status, the data and
+ * the callback waiting for an event flag of a command are persisted by {@link #flush()}, so several changes of the
+ * same command are coalesced into a single update and the changes of many commands are written together.<br>
+ * A command is persisted synchronously, together with its pending changes, once it reaches a point the compensation
+ * or the recovery of the commands after an engine restart relies on: once executed, once it ends (the statuses in
+ * {@link #SYNCHRONOUSLY_PERSISTED_STATUSES}) and once its callback is notified. A restart thus loses at most the
+ * intermediate states of the running commands, which their callbacks poll again.
+ */
 public class CommandsCacheImpl implements CommandsCache {
 
+    private static final Logger log = LoggerFactory.getLogger(CommandsCacheImpl.class);
+
+    private static final Set<CommandStatus> SYNCHRONOUSLY_PERSISTED_STATUSES = EnumSet.of(
+            CommandStatus.SUCCEEDED,
+            CommandStatus.FAILED,
+            CommandStatus.EXECUTION_FAILED,
+            CommandStatus.ENDED_SUCCESSFULLY,
+            CommandStatus.ENDED_WITH_FAILURE);
+
     private Map<Guid, CommandEntity> commandMap;
     private volatile boolean cacheInitialized;
     private Object LOCK = new Object();
 
+    // the commands having changes which aren't persisted yet
+    private final Set<Guid> modifiedCommandIds = ConcurrentHashMap.newKeySet();
+
+    // the writes of a single command share the lock, while the batch write of the pending changes excludes them, so
+    // a command removed meanwhile isn't re-inserted by the batch. The writes of the same command are serialized by
+    // synchronizing on its entity.
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+
     public CommandsCacheImpl() {
-        commandMap = new HashMap<>();
+        commandMap = new ConcurrentHashMap<>();
     }
 
     private void initializeCache() {
@@ -56,18 +90,42 @@ public class CommandsCacheImpl implements CommandsCache {
 
     @Override
     public void remove(final Guid commandId) {
-        commandMap.remove(commandId);
-        DbFacade.getInstance().getCommandEntityDao().remove(commandId);
+        flushLock.readLock().lock();
+        try {
+            CommandEntity cmdEntity = commandMap.get(commandId);
+            if (cmdEntity == null) {
+                DbFacade.getInstance().getCommandEntityDao().remove(commandId);
+                return;
+            }
+
+            synchronized (cmdEntity) {
+                modifiedCommandIds.remove(commandId);
+                commandMap.remove(commandId);
+                DbFacade.getInstance().getCommandEntityDao().remove(commandId);
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
     }
 
     @Override
     public void put(final CommandEntity cmdEntity) {
-        commandMap.put(cmdEntity.getId(), cmdEntity);
-        saveOrUpdateWithoutTransaction(cmdEntity);
+        flushLock.readLock().lock();
+        try {
+            synchronized (cmdEntity) {
+                commandMap.put(cmdEntity.getId(), cmdEntity);
+                modifiedCommandIds.remove(cmdEntity.getId());
+                saveOrUpdateWithoutTransaction(cmdEntity);
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
     }
 
     @Override
     public void removeAllCommandsBeforeDate(DateTime cutoff) {
+        // the cache is reloaded from the database, so the pending changes have to be persisted first
+        flush();
         DbFacade.getInstance().getCommandEntityDao().removeAllBeforeDate(cutoff);
         cacheInitialized = false;
         initializeCache();
@@ -78,7 +136,11 @@ public class CommandsCacheImpl implements CommandsCache {
         final CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setCommandStatus(status);
-            saveOrUpdateWithoutTransaction(cmdEntity);
+            if (SYNCHRONOUSLY_PERSISTED_STATUSES.contains(status)) {
+                flush(commandId);
+            } else {
+                modifiedCommandIds.add(commandId);
+            }
         }
     }
 
@@ -87,7 +149,16 @@ public class CommandsCacheImpl implements CommandsCache {
         final CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setData(data);
-            saveOrUpdateWithoutTransaction(cmdEntity);
+            modifiedCommandIds.add(commandId);
+        }
+    }
+
+    @Override
+    public void updateWaitingForEvent(Guid commandId, boolean waitingForEvent) {
+        final CommandEntity cmdEntity = get(commandId);
+        if (cmdEntity != null && cmdEntity.isWaitingForEvent() != waitingForEvent) {
+            cmdEntity.setWaitingForEvent(waitingForEvent);
+            modifiedCommandIds.add(commandId);
         }
     }
 
@@ -96,7 +167,12 @@ public class CommandsCacheImpl implements CommandsCache {
         CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setExecuted(true);
-            DbFacade.getInstance().getCommandEntityDao().updateExecuted(commandId);
+            if (modifiedCommandIds.contains(commandId)) {
+                // the executed flag is persisted together with the pending changes
+                flush(commandId);
+            } else {
+                DbFacade.getInstance().getCommandEntityDao().updateExecuted(commandId);
+            }
         }
     }
 
@@ -116,7 +192,69 @@ public class CommandsCacheImpl implements CommandsCache {
         CommandEntity cmdEntity = get(commandId);
         if (cmdEntity != null) {
             cmdEntity.setCallbackNotified(true);
-            DbFacade.getInstance().getCommandEntityDao().updateNotified(commandId);
+            if (modifiedCommandIds.contains(commandId)) {
+                // the callback notified flag is persisted together with the pending changes
+                flush(commandId);
+            } else {
+                DbFacade.getInstance().getCommandEntityDao().updateNotified(commandId);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            List<Guid> commandIds = new ArrayList<>(modifiedCommandIds);
+            if (commandIds.isEmpty()) {
+                return;
+            }
+
+            modifiedCommandIds.removeAll(commandIds);
+            List<CommandEntity> cmdEntities = new ArrayList<>(commandIds.size());
+            for (Guid commandId : commandIds) {
+                CommandEntity cmdEntity = commandMap.get(commandId);
+                if (cmdEntity != null) {
+                    cmdEntities.add(cmdEntity);
+                }
+            }
+
+            try {
+                TransactionSupport.executeInNewTransaction(() -> {
+                    DbFacade.getInstance().getCommandEntityDao().saveOrUpdateAll(cmdEntities);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // the changes are kept pending, so they are persisted by the next flush
+                modifiedCommandIds.addAll(commandIds);
+                log.error("Failed to persist the changes of {} commands: {}", cmdEntities.size(), e.getMessage());
+                log.debug("Exception", e);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Synchronously persists the given command, including its pending changes.
+     */
+    private void flush(Guid commandId) {
+        CommandEntity cmdEntity = commandMap.get(commandId);
+        if (cmdEntity == null) {
+            return;
+        }
+
+        flushLock.readLock().lock();
+        try {
+            synchronized (cmdEntity) {
+                // the command may have been removed meanwhile
+                if (commandMap.get(commandId) == cmdEntity) {
+                    modifiedCommandIds.remove(commandId);
+                    saveOrUpdateWithoutTransaction(cmdEntity);
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
         }
     }
 
@@ -148,6 +286,18 @@ public class CommandsCacheImpl implements CommandsCache {
 
     @Override
     public List<CommandEntity> getChildCmdsByParentCmdId(Guid cmdId) {
-        return DbFacade.getInstance().getCommandEntityDao().getCmdEntitiesByParentCmdId(cmdId);
+        initializeCache();
+        // the cached entities are more recent than the persisted ones, which lack the pending changes
+        Map<Guid, CommandEntity> childCmds = DbFacade.getInstance()
+                .getCommandEntityDao()
+                .getCmdEntitiesByParentCmdId(cmdId)
+                .stream()
+                .map(cmdEntity -> commandMap.getOrDefault(cmdEntity.getId(), cmdEntity))
+                .collect(Collectors.toMap(CommandEntity::getId, cmdEntity -> cmdEntity, (a, b) -> a, LinkedHashMap::new));
+        commandMap.values()
+                .stream()
+                .filter(cmdEntity -> cmdId.equals(cmdEntity.getParentCommandId()))
+                .forEach(cmdEntity -> childCmds.putIfAbsent(cmdEntity.getId(), cmdEntity));
+        return new ArrayList<>(childCmds.values());
     }
 }
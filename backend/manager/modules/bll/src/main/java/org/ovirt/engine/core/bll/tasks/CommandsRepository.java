@@ -14,6 +14,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -33,6 +34,8 @@ import org.ovirt.engine.core.compat.CommandStatus;
 import org.ovirt.engine.core.compat.DateTime;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dao.AsyncTaskDao;
+import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +53,8 @@ public class CommandsRepository {
     private volatile boolean childHierarchyInitialized;
     @Inject
     private AsyncTaskDao asyncTaskDao;
+    @Inject
+    private SchedulerUtilQuartzImpl schedulerUtil;
 
     public CommandsRepository() {
         callbacksTiming = new ConcurrentHashMap<>();
@@ -75,11 +80,36 @@ public class CommandsRepository {
         }
     }
 
+    @PostConstruct
+    private void init() {
+        handleUnmanagedCommands();
+        int flushInterval = Config.<Integer>getValue(ConfigValues.CommandEntitiesFlushIntervalInSeconds);
+        schedulerUtil.scheduleAFixedDelayJob(this,
+                "flushCommandsChanges",
+                new Class[]{},
+                new Object[]{},
+                flushInterval,
+                flushInterval,
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        flushCommandsChanges();
+    }
+
+    /**
+     * Persists the changes of the commands state which are kept pending by the commands cache.
+     */
+    @OnTimerMethodAnnotation("flushCommandsChanges")
+    public void flushCommandsChanges() {
+        commandsCache.flush();
+    }
+
     /**
      * This method is responsible to update the statuses of all the commands that ACTIVE and persisted
      * but aren't managed to status that'll reflect that their execution was ended with failure.
      */
-    @PostConstruct
     private void handleUnmanagedCommands() {
         List<AsyncTask> asyncTasks = asyncTaskDao.getAll();
         Set<Guid> asyncTaskManagerManagedCommands = asyncTasks.stream().filter(x -> x.getVdsmTaskId() != null)
@@ -180,6 +210,10 @@ public class CommandsRepository {
         commandsCache.updateCallbackNotified(commandId);
     }
 
+    public void updateWaitingForEvent(Guid commandId, boolean waitingForEvent) {
+        commandsCache.updateWaitingForEvent(commandId, waitingForEvent);
+    }
+
     /**
      * @param onlyWithCallbackEnabled Specifies if the returned commands' callbacks are enabled or not.
      * @return Returns commands with callback enabled or disabled, based on given parameter
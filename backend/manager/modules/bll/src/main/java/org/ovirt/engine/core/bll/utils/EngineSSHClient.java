@@ -12,14 +12,53 @@ import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.utils.crypt.EngineEncryptionUtils;
 import org.ovirt.engine.core.uutils.ssh.OpenSSHUtils;
 import org.ovirt.engine.core.uutils.ssh.SSHClient;
+import org.ovirt.engine.core.uutils.ssh.SSHSessionPool;
 
 /**
  * SSH client to be used with engine defaults
  */
 public class EngineSSHClient extends SSHClient {
 
+    private static volatile SSHSessionPool sessionPool;
+
     private VDS _vds;
 
+    /**
+     * Get the session pool shared by the engine clients.
+     * @return pool, null if pooling is disabled.
+     */
+    public static SSHSessionPool getDefaultSessionPool() {
+        Integer idleTimeout = Config.<Integer> getValue(ConfigValues.SSHSessionPoolIdleTimeoutSeconds);
+        if (idleTimeout == null || idleTimeout <= 0) {
+            return null;
+        }
+        if (sessionPool == null) {
+            synchronized (EngineSSHClient.class) {
+                if (sessionPool == null) {
+                    sessionPool = new SSHSessionPool(
+                        Config.<Integer> getValue(ConfigValues.SSHSessionPoolMaxSessionsPerHost),
+                        Config.<Integer> getValue(ConfigValues.SSHSessionPoolMaxChannelsPerSession),
+                        idleTimeout * 1000L
+                    );
+                }
+            }
+        }
+        return sessionPool;
+    }
+
+    /**
+     * Close the sessions of the pool shared by the engine clients,
+     * and stop its eviction thread.
+     */
+    public static void shutdownDefaultSessionPool() {
+        synchronized (EngineSSHClient.class) {
+            if (sessionPool != null) {
+                sessionPool.shutdown();
+                sessionPool = null;
+            }
+        }
+    }
+
     /**
      * Constructor.
      */
@@ -35,6 +74,7 @@ public class EngineSSHClient extends SSHClient {
                 ConfigValues.SSHInactivityTimeoutSeconds
             ) * 1000
         );
+        setSessionPool(getDefaultSessionPool());
     }
 
     public void setVds(VDS vds) {
@@ -73,8 +73,7 @@ public class GetVmConfigurationBySnapshotQueryTest extends AbstractUserQueryTest
         GetVmConfigurationBySnapshotQuery<IdQueryParameters> query =
                 setupQueryBySnapshotId(existingSnapshotId);
         VM vm = new VM();
-        doReturn(vm).when(snapshotVmConfigurationHelper).getVmFromConfiguration(
-                any(String.class), any(Guid.class), any(Guid.class));
+        doReturn(vm).when(snapshotVmConfigurationHelper).getVmFromSnapshot(any(Snapshot.class));
         query.execute();
         VdcQueryReturnValue returnValue = query.getQueryReturnValue();
         assertNotNull("Return value from query cannot be null", returnValue);
@@ -37,6 +37,10 @@ public class MultipleActionsRunnerBaseTest extends BaseCommandTest {
     public static MockConfigRule mcr = new MockConfigRule(
             mockConfig(ConfigValues.DefaultMinThreadPoolSize, 6),
             mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 6),
+            mockConfig(ConfigValues.CommandsThreadPoolSize, 6),
+            mockConfig(ConfigValues.CommandsThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false),
             mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10));
 
     @ClassRule
@@ -0,0 +1,102 @@
+package org.ovirt.engine.core.bll.eventqueue;
+
+import static org.junit.Assert.assertEquals;
+import static org.ovirt.engine.core.common.utils.MockConfigRule.mockConfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.eventqueue.Event;
+import org.ovirt.engine.core.common.eventqueue.EventResult;
+import org.ovirt.engine.core.common.eventqueue.EventType;
+import org.ovirt.engine.core.common.utils.MockConfigRule;
+import org.ovirt.engine.core.compat.Guid;
+
+public class EventQueueMonitorTest {
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.DefaultMinThreadPoolSize, 2),
+            mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 10),
+            mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.StorageEventsThreadPoolSize, 2),
+            mockConfig(ConfigValues.StorageEventsThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false));
+
+    private final EventQueueMonitor eventQueue = new EventQueueMonitor();
+    private final Guid storagePoolId = Guid.newGuid();
+    private final Guid vdsId = Guid.newGuid();
+    private final Guid domainId = Guid.newGuid();
+    private final List<String> processed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        // keep the queue of the pool busy, so the events submitted by the tests wait in it
+        eventQueue.submitEventAsync(new Event(storagePoolId, null, null, EventType.POOLREFRESH, "blocking"), () -> {
+            release.await();
+            return null;
+        });
+    }
+
+    private void submit(Event event, String name) {
+        eventQueue.submitEventAsync(event, () -> {
+            processed.add(name);
+            return new EventResult(true, event.getEventType());
+        });
+    }
+
+    private void processQueue() {
+        release.countDown();
+        eventQueue.submitEventSync(new Event(storagePoolId, null, null, EventType.POOLREFRESH, "last"), () -> null);
+    }
+
+    @Test
+    public void equalEventsAreMerged() {
+        long coalesced = eventQueue.getStatistics(EventType.DOMAINMONITORING).getCoalesced();
+        long processedEvents = eventQueue.getStatistics(EventType.DOMAINMONITORING).getProcessed();
+
+        submit(new Event(storagePoolId, null, vdsId, EventType.DOMAINMONITORING, ""), "first");
+        submit(new Event(storagePoolId, null, vdsId, EventType.DOMAINMONITORING, ""), "second");
+        processQueue();
+
+        assertEquals(Collections.singletonList("second"), processed);
+        assertEquals(coalesced + 1, eventQueue.getStatistics(EventType.DOMAINMONITORING).getCoalesced());
+        assertEquals(processedEvents + 1, eventQueue.getStatistics(EventType.DOMAINMONITORING).getProcessed());
+    }
+
+    @Test
+    public void eventsOfOtherHostsAreNotMerged() {
+        submit(new Event(storagePoolId, null, vdsId, EventType.DOMAINMONITORING, ""), "first");
+        submit(new Event(storagePoolId, null, Guid.newGuid(), EventType.DOMAINMONITORING, ""), "second");
+        processQueue();
+
+        assertEquals(Arrays.asList("first", "second"), processed);
+    }
+
+    @Test
+    public void eventsWithOtherDescriptionAreNotMerged() {
+        submit(new Event(storagePoolId, domainId, null, EventType.DOMAINFAILOVER, "Domain recovery"), "first");
+        submit(new Event(storagePoolId, domainId, null, EventType.DOMAINFAILOVER, "Domain maintenance check"), "second");
+        processQueue();
+
+        assertEquals(Arrays.asList("first", "second"), processed);
+    }
+
+    @Test
+    public void eventsOfNonCoalescingTypeAreNotMerged() {
+        submit(new Event(storagePoolId, domainId, null, EventType.POOLREFRESH, ""), "first");
+        submit(new Event(storagePoolId, domainId, null, EventType.POOLREFRESH, ""), "second");
+        processQueue();
+
+        assertEquals(Arrays.asList("first", "second"), processed);
+    }
+}
@@ -45,6 +45,8 @@ public class GlusterHookCommandTest<T extends GlusterHookCommandBase<? extends G
 
     @ClassRule
     public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false),
             mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10),
             mockConfig(ConfigValues.DefaultMinThreadPoolSize, 10),
             mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 20));
@@ -73,6 +73,10 @@ public class GlusterHookSyncJobTest {
     public static MockConfigRule mcr = new MockConfigRule(
             mockConfig(ConfigValues.DefaultMinThreadPoolSize, 10),
             mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 20),
+            mockConfig(ConfigValues.GlusterThreadPoolSize, 20),
+            mockConfig(ConfigValues.GlusterThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false),
             mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10));
 
     @Before
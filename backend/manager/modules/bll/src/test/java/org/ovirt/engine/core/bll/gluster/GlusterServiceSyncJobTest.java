@@ -71,6 +71,10 @@ public class GlusterServiceSyncJobTest {
     public static MockConfigRule mcr = new MockConfigRule(
             mockConfig(ConfigValues.DefaultMinThreadPoolSize, 5),
             mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 500),
+            mockConfig(ConfigValues.GlusterThreadPoolSize, 20),
+            mockConfig(ConfigValues.GlusterThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false),
             mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10),
             mockConfig(ConfigValues.GlusterServicesEnabled, Version.getLast(), true));
 
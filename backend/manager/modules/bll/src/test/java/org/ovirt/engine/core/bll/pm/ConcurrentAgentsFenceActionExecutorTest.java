@@ -34,6 +34,8 @@ public class ConcurrentAgentsFenceActionExecutorTest {
             new MockConfigRule(
                     MockConfigRule.mockConfig(ConfigValues.DefaultMinThreadPoolSize, 2),
                     MockConfigRule.mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 10),
+                    MockConfigRule.mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+                    MockConfigRule.mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false),
                     MockConfigRule.mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 5));
 
     @Mock
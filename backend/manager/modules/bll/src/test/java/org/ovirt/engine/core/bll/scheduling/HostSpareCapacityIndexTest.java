@@ -0,0 +1,73 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.compat.Guid;
+
+public class HostSpareCapacityIndexTest {
+
+    private static final Guid HOST1 = Guid.newGuid();
+    private static final Guid HOST2 = Guid.newGuid();
+    private static final Guid HOST3 = Guid.newGuid();
+
+    private HostSpareCapacityIndex index;
+
+    @Before
+    public void setUp() {
+        index = new HostSpareCapacityIndex();
+        index.addHost(HOST1, 50, 1024);
+        index.addHost(HOST2, 10, 4096);
+        index.addHost(HOST3, 80, 2048);
+    }
+
+    @Test
+    public void placeOnHostWithMostFreeMemory() {
+        assertEquals(HOST2, index.startPlacement(HOST1).place(10, 512));
+    }
+
+    @Test
+    public void skipHostWithoutEnoughCpu() {
+        assertEquals(HOST3, index.startPlacement(HOST1).place(20, 512));
+    }
+
+    @Test
+    public void failedHostIsExcluded() {
+        assertEquals(HOST3, index.startPlacement(HOST2).place(10, 512));
+    }
+
+    @Test
+    public void reservedResourcesAreConsumed() {
+        HostSpareCapacityIndex.Placement placement = index.startPlacement(HOST1);
+
+        assertEquals(HOST3, placement.place(60, 2048));
+        assertNull(placement.place(30, 512));
+    }
+
+    @Test
+    public void noHostWithEnoughMemory() {
+        assertNull(index.startPlacement(HOST1).place(1, 8192));
+    }
+
+    @Test
+    public void placementsDoNotAffectEachOther() {
+        HostSpareCapacityIndex.Placement placement = index.startPlacement(HOST1);
+        assertEquals(HOST2, placement.place(10, 4096));
+        placement.finish();
+
+        placement = index.startPlacement(HOST3);
+        assertEquals(HOST2, placement.place(10, 4096));
+        assertEquals(HOST1, placement.place(10, 1024));
+        placement.finish();
+
+        assertEquals(HOST2, index.startPlacement(HOST1).place(10, 4096));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unfinishedPlacementIsRejected() {
+        index.startPlacement(HOST1);
+        index.startPlacement(HOST2);
+    }
+}
@@ -0,0 +1,187 @@
+package org.ovirt.engine.core.bll.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.ovirt.engine.core.common.businessentities.Cluster;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.utils.Pair;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.VmDao;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoadBalancingPlannerTest {
+
+    @Mock
+    private VmDao vmDao;
+    @Mock
+    private PolicyUnitImpl policyUnit;
+
+    private Cluster cluster;
+    private VDS busyHost1;
+    private VDS busyHost2;
+    private VDS idleHost;
+    private VDS idleHost2;
+    private VM vm1;
+    private VM vm2;
+
+    private LoadBalancingPlanner planner;
+
+    private final List<Pair<VDS, VM>> balanceResults = new ArrayList<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        cluster = new Cluster();
+        cluster.setId(Guid.newGuid());
+
+        busyHost1 = createHost(90);
+        busyHost2 = createHost(80);
+        idleHost = createHost(0);
+        idleHost2 = createHost(0);
+        vm1 = createVm(busyHost1, 50);
+        vm2 = createVm(busyHost2, 40);
+
+        planner = new LoadBalancingPlanner(vmDao);
+        balanceResults.clear();
+        when(policyUnit.balance(any(Cluster.class), anyList(), anyMap(), anyList()))
+                .thenAnswer(invocation -> balance((List<VDS>) invocation.getArguments()[1]));
+    }
+
+    @Test
+    public void planSeveralMigrations() {
+        mockBalance(busyHost1, vm1);
+        mockBalance(busyHost2, vm2);
+
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit, cluster, hosts(), 5, 5);
+
+        assertEquals(2, plan.getMigrations().size());
+        assertEquals(vm1.getId(), plan.getMigrations().get(0).getSecond());
+        assertEquals(vm2.getId(), plan.getMigrations().get(1).getSecond());
+        assertEquals(90, plan.getMaxCpuUsageBefore());
+        assertEquals(50, plan.getMaxCpuUsageAfter());
+        assertEquals(40, (int) busyHost1.getUsageCpuPercent());
+        assertEquals(40, (int) busyHost2.getUsageCpuPercent());
+        assertEquals(50, (int) idleHost.getUsageCpuPercent());
+        assertEquals(40, (int) idleHost2.getUsageCpuPercent());
+    }
+
+    @Test
+    public void migrationIsPlannedToChosenDestinationOnly() {
+        mockBalance(busyHost1, vm1);
+
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit, cluster, hosts(), 5, 5);
+
+        assertEquals(Collections.singletonList(idleHost.getId()), plan.getMigrations().get(0).getFirst());
+    }
+
+    @Test
+    public void destinationReceivesBoundedNumberOfMigrations() {
+        mockBalance(busyHost1, vm1);
+        mockBalance(busyHost2, vm2);
+
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit,
+                cluster,
+                new ArrayList<>(Arrays.asList(busyHost1, busyHost2, idleHost)),
+                5,
+                1);
+
+        assertEquals(1, plan.getMigrations().size());
+        assertEquals(80, (int) busyHost2.getUsageCpuPercent());
+    }
+
+    @Test
+    public void planIsBoundedByMaxMigrations() {
+        mockBalance(busyHost1, vm1);
+        mockBalance(busyHost2, vm2);
+
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit, cluster, hosts(), 1, 5);
+
+        assertEquals(1, plan.getMigrations().size());
+        assertEquals(vm1.getId(), plan.getMigrations().get(0).getSecond());
+    }
+
+    @Test
+    public void destinationIsNotUsedAsSource() {
+        mockBalance(busyHost1, vm1);
+        VM vmOnIdleHost = createVm(idleHost, 10);
+        mockBalance(busyHost2, vmOnIdleHost);
+
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit, cluster, hosts(), 5, 5);
+
+        assertEquals(1, plan.getMigrations().size());
+    }
+
+    @Test
+    public void nothingToBalance() {
+        LoadBalancingPlanner.Plan plan = planner.plan(policyUnit, cluster, hosts(), 5, 5);
+
+        assertEquals(0, plan.getMigrations().size());
+    }
+
+    private List<VDS> hosts() {
+        return new ArrayList<>(Arrays.asList(busyHost1, busyHost2, idleHost, idleHost2));
+    }
+
+    /**
+     * Mocks the policy unit to migrate the given VM as long as its source host is a candidate, preferring the least
+     * loaded of the other candidate hosts as the destination. The migrations are selected in the order they were
+     * mocked.
+     */
+    private void mockBalance(VDS source, VM vm) {
+        balanceResults.add(new Pair<>(source, vm));
+        when(vmDao.get(vm.getId())).thenReturn(vm);
+    }
+
+    private Pair<List<Guid>, Guid> balance(List<VDS> candidateHosts) {
+        for (Pair<VDS, VM> balanceResult : balanceResults) {
+            VDS source = balanceResult.getFirst();
+            if (candidateHosts.contains(source)) {
+                List<Guid> destinations = candidateHosts.stream()
+                        .filter(host -> host != source)
+                        .sorted(Comparator.comparing(VDS::getUsageCpuPercent))
+                        .map(VDS::getId)
+                        .collect(Collectors.toList());
+                return new Pair<>(destinations, balanceResult.getSecond().getId());
+            }
+        }
+        return null;
+    }
+
+    private VDS createHost(int cpuUsage) {
+        VDS host = new VDS();
+        host.setId(Guid.newGuid());
+        host.setClusterId(cluster.getId());
+        host.setCpuCores(2);
+        host.setUsageCpuPercent(cpuUsage);
+        host.setVmCount(1);
+        return host;
+    }
+
+    private VM createVm(VDS host, int cpuUsage) {
+        VM vm = new VM();
+        vm.setId(Guid.newGuid());
+        vm.setRunOnVds(host.getId());
+        vm.setNumOfSockets(2);
+        vm.setCpuPerSocket(1);
+        vm.setUsageCpuPercent(cpuUsage);
+        vm.setMemSizeMb(1024);
+        return vm;
+    }
+}
@@ -146,6 +146,22 @@ public class AffinityRulesEnforcerTest {
         assertThat(enforcer.chooseNextVmToMigrate(cluster)).isIn(vm5, vm6);
     }
 
+    @Test
+    public void shouldDetectViolationsAfterVmsMoved() {
+        affinityGroups.add(createAffinityGroup(cluster, true, vm1, vm2, vm4));
+        affinityGroups.add(createAffinityGroup(cluster, false, vm5, vm6));
+        vm6.setRunOnVds(host2.getId());
+        assertThat(enforcer.chooseNextVmToMigrate(cluster)).isEqualTo(vm4);
+
+        // The positive group is satisfied now, while the negative group gets violated
+        vm4.setRunOnVds(host1.getId());
+        vm6.setRunOnVds(host3.getId());
+        assertThat(enforcer.chooseNextVmToMigrate(cluster)).isIn(vm5, vm6);
+
+        vm6.setRunOnVds(host2.getId());
+        assertThat(enforcer.chooseNextVmToMigrate(cluster)).isNull();
+    }
+
     @Test
     public void shouldFixBiggerAffinityGroupFirst() {
         AffinityGroup bigGroup = createAffinityGroup(cluster, true, vm1, vm4, vm6);
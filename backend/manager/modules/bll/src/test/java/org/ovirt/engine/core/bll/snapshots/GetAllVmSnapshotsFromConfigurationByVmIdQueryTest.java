@@ -46,6 +46,8 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQueryTest extends AbstractU
 
     private SnapshotVmConfigurationHelper snapshotVmConfigurationHelper;
 
+    private SnapshotConfigurationCache snapshotConfigurationCache;
+
     @Before
     @Override
     public void setUp() throws Exception {
@@ -57,19 +59,22 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQueryTest extends AbstractU
         disk2 = new DiskImage();
         snapshotVmConfigurationHelper = spy(new SnapshotVmConfigurationHelper());
         when(getQuery().getSnapshotVmConfigurationHelper()).thenReturn(snapshotVmConfigurationHelper);
+        snapshotConfigurationCache = mock(SnapshotConfigurationCache.class);
+        doReturn(snapshotConfigurationCache).when(getQuery()).getSnapshotConfigurationCache();
         setUpDaoMocks();
     }
 
     private void setUpDaoMocks() {
         snapshotDaoMock = mock(SnapshotDao.class);
         doReturn(snapshotDaoMock).when(getQuery()).getSnapshotDao();
-        when(snapshotDaoMock.getAllWithConfiguration(vmId)).thenReturn(Arrays.asList(snapshot));
+        when(snapshotDaoMock.getAll(vmId)).thenReturn(Arrays.asList(snapshot));
     }
 
     @Test
     public void testExecuteQueryCommand() {
         IdQueryParameters params = getQueryParameters();
         when(params.getId()).thenReturn(vmId);
+        when(snapshotConfigurationCache.isCached(snapshot)).thenReturn(true);
 
         disk1.setId(Guid.newGuid());
         disk2.setId(Guid.newGuid());
@@ -78,8 +83,7 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQueryTest extends AbstractU
         vm.setId(vmId);
         vm.setImages(new ArrayList<>(Arrays.asList(disk1, disk2)));
 
-        doReturn(vm).when(snapshotVmConfigurationHelper).getVmFromConfiguration(
-                any(String.class), any(Guid.class), any(Guid.class));
+        doReturn(vm).when(snapshotVmConfigurationHelper).getVmFromSnapshot(any(Snapshot.class));
         getQuery().executeQueryCommand();
         List<Snapshot> snapshots = getQuery().getQueryReturnValue().getReturnValue();
 
@@ -88,4 +92,21 @@ public class GetAllVmSnapshotsFromConfigurationByVmIdQueryTest extends AbstractU
         assertEquals("there should be exactly one snapshot returned", 1, snapshots.size());
         assertEquals("snapshot should contain a list of 2 diskImages", 2, snapshots.get(0).getDiskImages().size());
     }
+
+    @Test
+    public void testConfigurationsAreLoadedAtOnceWhenNotCached() {
+        IdQueryParameters params = getQueryParameters();
+        when(params.getId()).thenReturn(vmId);
+        Snapshot snapshotWithConfiguration = new Snapshot(
+                snapshot.getId(), SnapshotStatus.OK, vmId, "configuration", SnapshotType.REGULAR, "", new Date(), "");
+        when(snapshotDaoMock.getAllWithConfiguration(vmId)).thenReturn(Arrays.asList(snapshotWithConfiguration));
+
+        VM vm = new VM();
+        vm.setImages(new ArrayList<>(Arrays.asList(disk1, disk2)));
+        doReturn(vm).when(snapshotVmConfigurationHelper).getVmFromSnapshot(snapshotWithConfiguration);
+        getQuery().executeQueryCommand();
+        List<Snapshot> snapshots = getQuery().getQueryReturnValue().getReturnValue();
+
+        assertEquals(Arrays.asList(snapshotWithConfiguration), snapshots);
+    }
 }
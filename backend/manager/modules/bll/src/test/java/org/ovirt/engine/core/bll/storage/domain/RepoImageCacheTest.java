@@ -0,0 +1,103 @@
+package org.ovirt.engine.core.bll.storage.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.storage.ImageFileType;
+import org.ovirt.engine.core.common.businessentities.storage.RepoImage;
+import org.ovirt.engine.core.compat.Guid;
+
+public class RepoImageCacheTest {
+
+    private static final Guid DOMAIN_ID = Guid.newGuid();
+
+    private List<String> fileNames;
+    private int loads;
+    private RepoImageCache cache;
+
+    @Before
+    public void setUp() {
+        fileNames = new ArrayList<>(Arrays.asList("rhel-7.iso", "Fedora-24.iso", "fedora-23.iso", "centos-7.iso"));
+        loads = 0;
+        cache = new RepoImageCache((domainId, imageType) -> {
+            loads++;
+            return fileNames.stream().map(this::createRepoImage).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    public void listIsSortedAndLoadedOnce() {
+        assertFalse(cache.contains(DOMAIN_ID, ImageFileType.ISO));
+        assertEquals(Arrays.asList("centos-7.iso", "fedora-23.iso", "Fedora-24.iso", "rhel-7.iso"),
+                names(cache.get(DOMAIN_ID, ImageFileType.ISO, false)));
+        cache.get(DOMAIN_ID, ImageFileType.ISO, false);
+
+        assertTrue(cache.contains(DOMAIN_ID, ImageFileType.ISO));
+        assertEquals(1, loads);
+    }
+
+    @Test
+    public void searchByPrefixIgnoringCase() {
+        assertEquals(Arrays.asList("fedora-23.iso", "Fedora-24.iso"),
+                names(cache.search(DOMAIN_ID, ImageFileType.ISO, false, "FED", 0, -1)));
+        assertEquals(Arrays.asList("rhel-7.iso"),
+                names(cache.search(DOMAIN_ID, ImageFileType.ISO, false, "r", 0, -1)));
+        assertTrue(cache.search(DOMAIN_ID, ImageFileType.ISO, false, "win", 0, -1).isEmpty());
+    }
+
+    @Test
+    public void searchPages() {
+        assertEquals(Arrays.asList("fedora-23.iso", "Fedora-24.iso"),
+                names(cache.search(DOMAIN_ID, ImageFileType.ISO, false, null, 1, 2)));
+        assertEquals(Arrays.asList("Fedora-24.iso"),
+                names(cache.search(DOMAIN_ID, ImageFileType.ISO, false, "fedora", 1, 5)));
+        assertTrue(cache.search(DOMAIN_ID, ImageFileType.ISO, false, "fedora", 2, 5).isEmpty());
+    }
+
+    @Test
+    public void searchWithLargeBounds() {
+        assertEquals(Arrays.asList("fedora-23.iso", "Fedora-24.iso", "rhel-7.iso"),
+                names(cache.search(DOMAIN_ID, ImageFileType.ISO, false, null, 1, Integer.MAX_VALUE)));
+        assertTrue(cache.search(DOMAIN_ID, ImageFileType.ISO, false, null, Integer.MAX_VALUE, Integer.MAX_VALUE)
+                .isEmpty());
+    }
+
+    @Test
+    public void invalidatedListIsReloadedWhenRevalidated() {
+        cache.get(DOMAIN_ID, ImageFileType.ISO, false);
+        fileNames.add("debian-8.iso");
+        cache.invalidate(DOMAIN_ID);
+
+        assertEquals(5, cache.get(DOMAIN_ID, ImageFileType.ISO, true).size());
+        assertEquals(2, loads);
+    }
+
+    @Test
+    public void validListIsNotReloadedWhenRevalidated() {
+        cache.get(DOMAIN_ID, ImageFileType.ISO, false);
+        cache.invalidate(Guid.newGuid());
+        cache.get(DOMAIN_ID, ImageFileType.ISO, true);
+
+        assertEquals(1, loads);
+    }
+
+    private RepoImage createRepoImage(String fileName) {
+        RepoImage repoImage = new RepoImage();
+        repoImage.setRepoDomainId(DOMAIN_ID);
+        repoImage.setRepoImageId(fileName);
+        repoImage.setFileType(ImageFileType.ISO);
+        return repoImage;
+    }
+
+    private static List<String> names(List<RepoImage> repoImages) {
+        return repoImages.stream().map(RepoImage::getRepoImageId).collect(Collectors.toList());
+    }
+}
@@ -1087,6 +1087,8 @@ public enum AuditLogType {
 
     VDS_HOST_NOT_RESPONDING(9027, AuditLogSeverity.WARNING, AuditLogTimeInterval.MINUTE.getValue() * 3),
 
+    ENGINE_THREAD_POOL_SATURATED(9028, AuditLogSeverity.ALERT, AuditLogTimeInterval.MINUTE.getValue() * 10),
+
     TASK_STOPPING_ASYNC_TASK(9500, AuditLogTimeInterval.MINUTE.getValue()),
     TASK_CLEARING_ASYNC_TASK(9501, AuditLogTimeInterval.MINUTE.getValue()),
 
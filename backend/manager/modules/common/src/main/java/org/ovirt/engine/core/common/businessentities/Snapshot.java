@@ -52,6 +52,12 @@ public class Snapshot implements IVdcQueryable, BusinessEntityWithStatus<Guid, S
      */
     private boolean vmConfigurationAvailable;
 
+    /**
+     * Read-only (calculated field) which changes whenever the VM configuration is changed, so a configuration parsed
+     * before can be reused as long as it is the same.
+     */
+    private long vmConfigurationGeneration;
+
     /**
      * The type of snapshot taken (regular, live, etC).
      */
@@ -180,6 +186,14 @@ public class Snapshot implements IVdcQueryable, BusinessEntityWithStatus<Guid, S
         return vmConfigurationAvailable;
     }
 
+    public long getVmConfigurationGeneration() {
+        return vmConfigurationGeneration;
+    }
+
+    public void setVmConfigurationGeneration(long vmConfigurationGeneration) {
+        this.vmConfigurationGeneration = vmConfigurationGeneration;
+    }
+
     public SnapshotType getType() {
         return type;
     }
@@ -0,0 +1,132 @@
+package org.ovirt.engine.core.common.businessentities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * The status and the memory and CPU counters of a host, which is a much cheaper alternative to {@link VDS} for flows
+ * which only need to refresh these, such as scheduling and monitoring.
+ */
+public class VdsResourceState implements Serializable {
+
+    private static final long serialVersionUID = -2741541003398613744L;
+
+    private Guid id;
+    private VDSStatus status;
+    private Integer memCommited;
+    private int pendingVmemSize;
+    private Integer pendingVcpusCount;
+    private Integer vmsCoresCount;
+    private int vmCount;
+    private Integer reservedMem;
+    private Integer guestOverhead;
+
+    public Guid getId() {
+        return id;
+    }
+
+    public void setId(Guid id) {
+        this.id = id;
+    }
+
+    public VDSStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(VDSStatus status) {
+        this.status = status;
+    }
+
+    public Integer getMemCommited() {
+        return memCommited;
+    }
+
+    public void setMemCommited(Integer memCommited) {
+        this.memCommited = memCommited;
+    }
+
+    public int getPendingVmemSize() {
+        return pendingVmemSize;
+    }
+
+    public void setPendingVmemSize(int pendingVmemSize) {
+        this.pendingVmemSize = pendingVmemSize;
+    }
+
+    public Integer getPendingVcpusCount() {
+        return pendingVcpusCount;
+    }
+
+    public void setPendingVcpusCount(Integer pendingVcpusCount) {
+        this.pendingVcpusCount = pendingVcpusCount;
+    }
+
+    public Integer getVmsCoresCount() {
+        return vmsCoresCount;
+    }
+
+    public void setVmsCoresCount(Integer vmsCoresCount) {
+        this.vmsCoresCount = vmsCoresCount;
+    }
+
+    public int getVmCount() {
+        return vmCount;
+    }
+
+    public void setVmCount(int vmCount) {
+        this.vmCount = vmCount;
+    }
+
+    public Integer getReservedMem() {
+        return reservedMem;
+    }
+
+    public void setReservedMem(Integer reservedMem) {
+        this.reservedMem = reservedMem;
+    }
+
+    public Integer getGuestOverhead() {
+        return guestOverhead;
+    }
+
+    public void setGuestOverhead(Integer guestOverhead) {
+        this.guestOverhead = guestOverhead;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                id,
+                status,
+                memCommited,
+                pendingVmemSize,
+                pendingVcpusCount,
+                vmsCoresCount,
+                vmCount,
+                reservedMem,
+                guestOverhead
+        );
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VdsResourceState)) {
+            return false;
+        }
+        VdsResourceState other = (VdsResourceState) obj;
+        return Objects.equals(id, other.id)
+                && status == other.status
+                && Objects.equals(memCommited, other.memCommited)
+                && pendingVmemSize == other.pendingVmemSize
+                && Objects.equals(pendingVcpusCount, other.pendingVcpusCount)
+                && Objects.equals(vmsCoresCount, other.vmsCoresCount)
+                && vmCount == other.vmCount
+                && Objects.equals(reservedMem, other.reservedMem)
+                && Objects.equals(guestOverhead, other.guestOverhead);
+    }
+}
@@ -0,0 +1,99 @@
+package org.ovirt.engine.core.common.businessentities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * The runtime state and resources of a VM, which is a much cheaper alternative to {@link VM} for flows which only need
+ * to know where VMs run and how much memory and CPUs they take, such as scheduling and monitoring.
+ */
+public class VmRuntimeState implements Serializable {
+
+    private static final long serialVersionUID = 4406381577546925310L;
+
+    private Guid id;
+    private VMStatus status;
+    private Guid runOnVds;
+    private Guid migratingToVds;
+    private int memSizeMb;
+    private int numOfCpus;
+
+    public Guid getId() {
+        return id;
+    }
+
+    public void setId(Guid id) {
+        this.id = id;
+    }
+
+    public VMStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(VMStatus status) {
+        this.status = status;
+    }
+
+    public Guid getRunOnVds() {
+        return runOnVds;
+    }
+
+    public void setRunOnVds(Guid runOnVds) {
+        this.runOnVds = runOnVds;
+    }
+
+    public Guid getMigratingToVds() {
+        return migratingToVds;
+    }
+
+    public void setMigratingToVds(Guid migratingToVds) {
+        this.migratingToVds = migratingToVds;
+    }
+
+    public int getMemSizeMb() {
+        return memSizeMb;
+    }
+
+    public void setMemSizeMb(int memSizeMb) {
+        this.memSizeMb = memSizeMb;
+    }
+
+    public int getNumOfCpus() {
+        return numOfCpus;
+    }
+
+    public void setNumOfCpus(int numOfCpus) {
+        this.numOfCpus = numOfCpus;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                id,
+                status,
+                runOnVds,
+                migratingToVds,
+                memSizeMb,
+                numOfCpus
+        );
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VmRuntimeState)) {
+            return false;
+        }
+        VmRuntimeState other = (VmRuntimeState) obj;
+        return Objects.equals(id, other.id)
+                && status == other.status
+                && Objects.equals(runOnVds, other.runOnVds)
+                && Objects.equals(migratingToVds, other.migratingToVds)
+                && memSizeMb == other.memSizeMb
+                && numOfCpus == other.numOfCpus;
+    }
+}
@@ -1893,5 +1893,141 @@ public enum ConfigValues {
     @DefaultValueAttribute("20480")
     HostedEngineConfigDiskSizeInBytes,
 
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("15")
+    HostStatisticsFlushIntervalInSeconds,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    CommandCallbacksPollerThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("2")
+    CommandEntitiesFlushIntervalInSeconds,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1")
+    MaxMigrationsPerLoadBalancingRun,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("3")
+    VmPoolMonitorMaxParallelPrestartsPerCluster,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("60")
+    SSHSessionPoolIdleTimeoutSeconds,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("2")
+    SSHSessionPoolMaxSessionsPerHost,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("5")
+    SSHSessionPoolMaxChannelsPerSession,
+
+    @TypeConverterAttribute(String.class)
+    @DefaultValueAttribute("")
+    BootstrapBundleCacheDirectory,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    VdsmEventBusPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    VdsmEventBusQueueCapacity,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1")
+    VdsRefreshMaxStretchFactor,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("0")
+    VdsRefreshBudgetPerSecond,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("50")
+    MonitoringThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    MonitoringThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    CommandsThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    CommandsThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("20")
+    StorageEventsThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    StorageEventsThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("20")
+    GlusterThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    GlusterThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("80")
+    ThreadPoolSaturationWarningPercent,
+
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    ThreadPoolUseVirtualThreads,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    VirtualThreadPoolSizeFactor,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    TimerWheelThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("5")
+    VdsmEventBusReportIntervalInMinutes,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("2")
+    MaxMigrationsPerLoadBalancingDestination,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("0")
+    MaxConcurrentLoadBalancingMigrations,
+
+    @TypeConverterAttribute(Boolean.class)
+    @DefaultValueAttribute("false")
+    LoadBalancingDryRun,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("1000")
+    CommandCallbacksPollerThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("10")
+    VmPoolMonitorThreadPoolSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("100")
+    VmPoolMonitorThreadWaitQueueSize,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("5")
+    CommandCallbacksPollerReportIntervalInMinutes,
+
+    @TypeConverterAttribute(Integer.class)
+    @DefaultValueAttribute("2")
+    VmPoolMonitorMaxParallelPrestartsPerHost,
+
     Invalid
 }
@@ -1,13 +1,28 @@
 package org.ovirt.engine.core.common.eventqueue;
 
 public enum EventType {
-    RECONSTRUCT,
-    RECOVERY,
-    DOMAINFAILOVER,
-    DOMAINNOTOPERATIONAL,
-    VDSSTOARGEPROBLEMS,
-    DOMAINMONITORING,
-    VDSCLEARCACHE,
-    VDSCONNECTTOPOOL,
-    POOLREFRESH;
+    RECONSTRUCT(true),
+    RECOVERY(false),
+    DOMAINFAILOVER(true),
+    DOMAINNOTOPERATIONAL(false),
+    VDSSTOARGEPROBLEMS(false),
+    DOMAINMONITORING(true),
+    VDSCLEARCACHE(true),
+    VDSCONNECTTOPOOL(false),
+    POOLREFRESH(false);
+
+    private final boolean coalescing;
+
+    EventType(boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    /**
+     * @return <code>true</code> if an event of this type may be merged into an equal event, with the same description,
+     *         which is still waiting in the queue. Such events check or reconcile the current state, so the queued
+     *         event runs the callable of the latest one and its result is shared by both.
+     */
+    public boolean isCoalescing() {
+        return coalescing;
+    }
 }
@@ -7,6 +7,9 @@ public abstract class GetImagesListParametersBase extends VdcQueryParametersBase
     private static final long serialVersionUID = 2562476365144558247L;
     private boolean forceRefresh;
     private ImageFileType imageType;
+    private String namePrefix;
+    private int searchFrom;
+    private int maxCount = -1;
 
     public GetImagesListParametersBase() {
         this (ImageFileType.All);
@@ -31,4 +34,37 @@ public abstract class GetImagesListParametersBase extends VdcQueryParametersBase
     public void setImageType(ImageFileType value) {
         imageType = value;
     }
+
+    /**
+     * @return The prefix of the names of the images to retrieve, ignoring case, or null for all the images
+     */
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    /**
+     * @return The number of matching images to skip
+     */
+    public int getSearchFrom() {
+        return searchFrom;
+    }
+
+    public void setSearchFrom(int searchFrom) {
+        this.searchFrom = searchFrom;
+    }
+
+    /**
+     * @return The maximal number of images to retrieve, or a negative number for no limit
+     */
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public void setMaxCount(int maxCount) {
+        this.maxCount = maxCount;
+    }
 }
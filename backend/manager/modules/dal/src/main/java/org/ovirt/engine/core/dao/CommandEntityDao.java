@@ -13,6 +13,14 @@ public interface CommandEntityDao extends GenericDao<CommandEntity, Guid> {
 
     void saveOrUpdate(CommandEntity commandEntity);
 
+    /**
+     * Saves or updates all the given command entities using a single batch.
+     *
+     * @param commandEntities
+     *            the command entities to save or update
+     */
+    void saveOrUpdateAll(Collection<CommandEntity> commandEntities);
+
     void updateStatus(Guid command, CommandStatus status);
 
     void updateExecuted(Guid id);
@@ -76,7 +76,7 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
             result.setExecuted(resultSet.getBoolean("executed"));
             result.setCallbackEnabled(resultSet.getBoolean("callback_enabled"));
             result.setCallbackNotified(resultSet.getBoolean("callback_notified"));
-            result.setData(SerializationFactory.getDeserializer().deserialize(resultSet.getString("data"), HashMap.class));
+            result.setData(SerializationFactory.getCompactDeserializer().deserialize(resultSet.getString("data"), HashMap.class));
             return result;
         }
     };
@@ -125,15 +125,15 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
                 .addValue("callback_enabled", entity.isCallbackEnabled())
                 .addValue("return_value", serializeReturnValue(entity.getReturnValue()))
                 .addValue("return_value_class", entity.getReturnValue() == null ? null : entity.getReturnValue().getClass().getName())
-                .addValue("data", SerializationFactory.getSerializer().serialize(entity.getData()));
+                .addValue("data", SerializationFactory.getCompactSerializer().serialize(entity.getData()));
     }
 
     private String serializeReturnValue(VdcReturnValueBase retVal) {
-        return SerializationFactory.getSerializer().serialize(retVal);
+        return SerializationFactory.getCompactSerializer().serialize(retVal);
     }
 
     private String serializeParameters(VdcActionParametersBase params) {
-        return SerializationFactory.getSerializer().serialize(params);
+        return SerializationFactory.getCompactSerializer().serialize(params);
     }
 
     @SuppressWarnings("unchecked")
@@ -142,7 +142,7 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
             return null;
         }
         Class<Serializable> retValueClass = (Class<Serializable>) ReflectionUtils.getClassFor(className);
-        return (VdcReturnValueBase) SerializationFactory.getDeserializer().deserialize(payload,
+        return (VdcReturnValueBase) SerializationFactory.getCompactDeserializer().deserialize(payload,
                 retValueClass);
     }
 
@@ -152,7 +152,7 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
             return null;
         }
         Class<Serializable> actionParamsClass = (Class<Serializable>) ReflectionUtils.getClassFor(className);
-        return (VdcActionParametersBase) SerializationFactory.getDeserializer().deserialize(payload,
+        return (VdcActionParametersBase) SerializationFactory.getCompactDeserializer().deserialize(payload,
                 actionParamsClass);
     }
 
@@ -172,6 +172,13 @@ public class CommandEntityDaoImpl extends DefaultGenericDao<CommandEntity, Guid>
         getCallsHandler().executeModification("InsertOrUpdateCommandEntity", parameterSource);
     }
 
+    @Override
+    public void saveOrUpdateAll(Collection<CommandEntity> commandEntities) {
+        getCallsHandler().executeStoredProcAsBatch("InsertOrUpdateCommandEntity",
+                commandEntities,
+                this::createFullParametersMapper);
+    }
+
     @Override
     public void updateStatus(Guid id, CommandStatus status) {
         getCallsHandler().executeModification("UpdateCommandEntityStatus", createIdParameterMapper(id).addValue("status", status.toString()));
@@ -34,6 +34,18 @@ public interface SnapshotDao extends GenericDao<Snapshot, Guid>, StatusAwareDao<
      */
     Snapshot get(Guid id, Guid userId, boolean isFiltered);
 
+    /**
+     * Get the snapshot without its configuration. The {@link Snapshot#getVmConfiguration()} field will always be null,
+     * and instead the {@link Snapshot#isVmConfigurationAvailable()} field will specify if configuration is available
+     * or not. The configuration can be fetched on demand by {@link #get(Guid)}, if the
+     * {@link Snapshot#getVmConfigurationGeneration()} of a configuration which was already read is different.
+     *
+     * @param id
+     *            The snapshot id.
+     * @return The snapshot, or <code>null</code> if it doesn't exist.
+     */
+    Snapshot getWithoutConfiguration(Guid id);
+
     /**
      * Return the {@link Snapshot} <b>first</b> id that matches the given parameters.<br>
      * <b>Note:</b> If more than one snapshot answers to the parameters, only the first will be returned (oldest by
@@ -8,6 +8,7 @@ import java.util.List;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.businessentities.Snapshot;
 import org.ovirt.engine.core.common.businessentities.Snapshot.SnapshotStatus;
 import org.ovirt.engine.core.common.businessentities.Snapshot.SnapshotType;
@@ -188,12 +189,13 @@ public class SnapshotDaoImpl extends DefaultGenericDao<Snapshot, Guid> implement
             snapshot.setMemoryVolume(rs.getString("memory_volume"));
             snapshot.setMemoryDiskId(getGuid(rs, "memory_dump_disk_id"));
             snapshot.setMetadataDiskId(getGuid(rs, "memory_metadata_disk_id"));
+            snapshot.setVmConfigurationGeneration(rs.getLong("vm_configuration_generation"));
 
             return snapshot;
         }
 
         protected Snapshot createInitialSnapshotEntity(ResultSet rs) throws SQLException {
-            return new Snapshot();
+            return new Snapshot(StringUtils.isNotEmpty(rs.getString("vm_configuration")));
         }
     }
 
@@ -221,6 +223,13 @@ public class SnapshotDaoImpl extends DefaultGenericDao<Snapshot, Guid> implement
         return getCallsHandler().executeRead(getProcedureNameForGet(), createEntityRowMapper(), parameterSource);
     }
 
+    @Override
+    public Snapshot getWithoutConfiguration(Guid id) {
+        return getCallsHandler().executeRead("GetSnapshotWithoutConfigurationBySnapshotId",
+                NO_CONFIG_ROW_MAPPER,
+                createIdParameterMapper(id));
+    }
+
     @Override
     public Snapshot get(Guid vmId, SnapshotType type) {
         return get(vmId, type, null, false);
@@ -1,6 +1,8 @@
 package org.ovirt.engine.core.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.CpuStatistics;
 import org.ovirt.engine.core.compat.Guid;
@@ -42,6 +44,17 @@ public interface VdsCpuStatisticsDao extends Dao {
      */
     void massUpdateCpuStatistics(List<CpuStatistics> vdsCpuStatistics, Guid vdsId);
 
+    /**
+     * Insert or update the cpu statistics of several vdss in a single database call. Cpu statistics which are not
+     * given are kept as is, unless their vds is one of <code>replacedVdsIds</code>, in which case they are removed.
+     *
+     * @param vdsCpuStatistics
+     *            the vds cpu statistics to be saved, by the id of the vds they belong to
+     * @param replacedVdsIds
+     *            the ids of the vdss which cpu statistics are replaced by the given ones
+     */
+    void massUpsertCpuStatistics(Map<Guid, List<CpuStatistics>> vdsCpuStatistics, Collection<Guid> replacedVdsIds);
+
     /**
      * Remove all the cpu statistics of a given vds
      *
@@ -3,7 +3,10 @@ package org.ovirt.engine.core.dao;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -46,6 +49,46 @@ public class VdsCpuStatisticsDaoImpl extends BaseDao implements VdsCpuStatistics
         getCallsHandler().executeStoredProcAsBatch("UpdateVdsCpuStatistics", executions);
     }
 
+    @Override
+    public void massUpsertCpuStatistics(Map<Guid, List<CpuStatistics>> vdsCpuStatistics,
+            Collection<Guid> replacedVdsIds) {
+        int size = 0;
+        for (List<CpuStatistics> stats : vdsCpuStatistics.values()) {
+            size += stats.size();
+        }
+
+        UUID[] vdsIds = new UUID[size];
+        Integer[] cpuCoreIds = new Integer[size];
+        Double[] cpuSys = new Double[size];
+        Double[] cpuUser = new Double[size];
+        Double[] cpuIdle = new Double[size];
+        Integer[] usageCpuPercent = new Integer[size];
+
+        int i = 0;
+        for (Map.Entry<Guid, List<CpuStatistics>> entry : vdsCpuStatistics.entrySet()) {
+            for (CpuStatistics stats : entry.getValue()) {
+                vdsIds[i] = entry.getKey().getUuid();
+                cpuCoreIds[i] = stats.getCpuId();
+                cpuSys[i] = stats.getCpuSys();
+                cpuUser[i] = stats.getCpuUser();
+                cpuIdle[i] = stats.getCpuIdle();
+                usageCpuPercent[i] = stats.getCpuUsagePercent();
+                i++;
+            }
+        }
+
+        MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
+                .addValue("replaced_vds_ids", createArrayOfUUIDs(replacedVdsIds))
+                .addValue("vds_ids", createArrayOf("uuid", vdsIds))
+                .addValue("cpu_core_ids", createArrayOf("int4", cpuCoreIds))
+                .addValue("cpu_sys", createArrayOf("float8", cpuSys))
+                .addValue("cpu_user", createArrayOf("float8", cpuUser))
+                .addValue("cpu_idle", createArrayOf("float8", cpuIdle))
+                .addValue("usage_cpu_percent", createArrayOf("int4", usageCpuPercent));
+
+        getCallsHandler().executeModification("UpsertVdsCpuStatistics", parameterSource);
+    }
+
     @Override
     public void removeAllCpuStatisticsByVdsId(Guid vdsId) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
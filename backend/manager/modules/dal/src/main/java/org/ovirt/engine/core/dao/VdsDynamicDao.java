@@ -5,6 +5,7 @@ import java.util.List;
 import org.ovirt.engine.core.common.businessentities.ExternalStatus;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
+import org.ovirt.engine.core.common.businessentities.VdsResourceState;
 import org.ovirt.engine.core.compat.Guid;
 
 /**
@@ -53,4 +54,14 @@ public interface VdsDynamicDao extends GenericDao<VdsDynamic, Guid>, StatusAware
      *            the host to be updated
      */
      void updateStatusAndReasons(VdsDynamic host);
+
+    /**
+     * Retrieves the status and the memory and CPU counters of the given host, which is much cheaper to read than
+     * {@link #get(Object)}.
+     *
+     * @param id
+     *            the ID of the host
+     * @return the resource state of the host, or <code>null</code> if not found
+     */
+    VdsResourceState getResourceState(Guid id);
 }
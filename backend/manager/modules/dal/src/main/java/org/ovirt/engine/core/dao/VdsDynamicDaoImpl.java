@@ -14,6 +14,7 @@ import org.ovirt.engine.core.common.businessentities.KdumpStatus;
 import org.ovirt.engine.core.common.businessentities.NonOperationalReason;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
+import org.ovirt.engine.core.common.businessentities.VdsResourceState;
 import org.ovirt.engine.core.common.businessentities.VdsTransparentHugePagesState;
 import org.ovirt.engine.core.common.businessentities.VmRngDevice;
 import org.ovirt.engine.core.compat.Guid;
@@ -121,6 +122,25 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
         }
     }
 
+    private static final class VdsResourceStateRowMapper implements RowMapper<VdsResourceState> {
+        public static final VdsResourceStateRowMapper instance = new VdsResourceStateRowMapper();
+
+        @Override
+        public VdsResourceState mapRow(ResultSet rs, int rowNum) throws SQLException {
+            VdsResourceState entity = new VdsResourceState();
+            entity.setId(getGuidDefaultEmpty(rs, "vds_id"));
+            entity.setStatus(VDSStatus.forValue(rs.getInt("status")));
+            entity.setMemCommited((Integer) rs.getObject("mem_commited"));
+            entity.setPendingVmemSize(rs.getInt("pending_vmem_size"));
+            entity.setPendingVcpusCount((Integer) rs.getObject("pending_vcpus_count"));
+            entity.setVmsCoresCount((Integer) rs.getObject("vms_cores_count"));
+            entity.setVmCount(rs.getInt("vm_count"));
+            entity.setReservedMem((Integer) rs.getObject("reserved_mem"));
+            entity.setGuestOverhead((Integer) rs.getObject("guest_overhead"));
+            return entity;
+        }
+    }
+
     @Override
     public VdsDynamic get(Guid id) {
         MapSqlParameterSource parameterSource = getCustomMapSqlParameterSource()
@@ -129,6 +149,14 @@ public class VdsDynamicDaoImpl extends MassOperationsGenericDao<VdsDynamic, Guid
         return getCallsHandler().executeRead("GetVdsDynamicByVdsId", VdcDynamicRowMapper.instance, parameterSource);
     }
 
+    @Override
+    public VdsResourceState getResourceState(Guid id) {
+        return getCallsHandler().executeRead("GetVdsResourceStateByVdsId",
+                VdsResourceStateRowMapper.instance,
+                getCustomMapSqlParameterSource()
+                        .addValue("vds_id", id));
+    }
+
     @Override
     public void save(VdsDynamic vds) {
         getCallsHandler().executeModification("InsertVdsDynamic", createFullParametersMapperForSave(vds));
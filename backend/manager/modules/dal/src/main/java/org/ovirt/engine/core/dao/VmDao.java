@@ -8,6 +8,7 @@ import org.ovirt.engine.core.common.businessentities.ActionGroup;
 import org.ovirt.engine.core.common.businessentities.OriginType;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 
@@ -141,6 +142,16 @@ public interface VmDao extends Dao {
      */
     List<VM> getAllRunningForVds(Guid vds);
 
+    /**
+     * Gets the runtime state of the virtual machines running on the specified VDS instance, which is much cheaper to
+     * read than {@link #getAllRunningForVds(Guid)}.
+     *
+     * @param vds
+     *            the VDS id
+     * @return the list of VM runtime states
+     */
+    List<VmRuntimeState> getAllRuntimeStatesRunningForVds(Guid vds);
+
     /**
      * Gets the list of virtual machines running on or migrating to the specified VDS instance.
      *
@@ -292,6 +303,16 @@ public interface VmDao extends Dao {
      */
     List<VM> getAllRunningByCluster(Guid clusterId);
 
+    /**
+     * Gets the runtime state of the running VMs under the specified cluster, which is much cheaper to read than
+     * {@link #getAllRunningByCluster(Guid)}.
+     *
+     * @param clusterId
+     *            the cluster id
+     * @return the list of VM runtime states
+     */
+    List<VmRuntimeState> getAllRuntimeStatesRunningByCluster(Guid clusterId);
+
     /**
      * Retrieves all VM names which contains disks on other Storage Domain other then the storageDomain GUID.
      *
@@ -16,7 +16,9 @@ import org.ovirt.engine.core.common.businessentities.ArchitectureType;
 import org.ovirt.engine.core.common.businessentities.OriginType;
 import org.ovirt.engine.core.common.businessentities.QuotaEnforcementTypeEnum;
 import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmDevice;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.compat.Version;
@@ -135,6 +137,14 @@ public class VmDaoImpl extends BaseDao implements VmDao {
                         .addValue("vds_id", id));
     }
 
+    @Override
+    public List<VmRuntimeState> getAllRuntimeStatesRunningForVds(Guid id) {
+        return getCallsHandler().executeReadList("GetVmsRuntimeStateRunningOnVds",
+                VmRuntimeStateRowMapper.instance,
+                getCustomMapSqlParameterSource()
+                        .addValue("vds_id", id));
+    }
+
     @Override
     public List<VM> getAllRunningOnOrMigratingToVds(Guid id) {
         return getCallsHandler().executeReadList("GetVmsRunningOnOrMigratingToVds",
@@ -290,6 +300,14 @@ public class VmDaoImpl extends BaseDao implements VmDao {
                         .addValue("cluster_id", clusterId));
     }
 
+    @Override
+    public List<VmRuntimeState> getAllRuntimeStatesRunningByCluster(Guid clusterId) {
+        return getCallsHandler().executeReadList("GetVmsRuntimeStateRunningByClusterId",
+                VmRuntimeStateRowMapper.instance,
+                getCustomMapSqlParameterSource()
+                        .addValue("cluster_id", clusterId));
+    }
+
     @Override
     public List<Guid> getVmIdsForVersionUpdate(Guid baseTemplateId) {
         return getCallsHandler().executeReadList("getVmIdsForVersionUpdate",
@@ -384,6 +402,22 @@ public class VmDaoImpl extends BaseDao implements VmDao {
         }
     }
 
+    private static final class VmRuntimeStateRowMapper implements RowMapper<VmRuntimeState> {
+        public static final VmRuntimeStateRowMapper instance = new VmRuntimeStateRowMapper();
+
+        @Override
+        public VmRuntimeState mapRow(ResultSet rs, int rowNum) throws SQLException {
+            VmRuntimeState entity = new VmRuntimeState();
+            entity.setId(getGuidDefaultEmpty(rs, "vm_guid"));
+            entity.setStatus(VMStatus.forValue(rs.getInt("status")));
+            entity.setRunOnVds(getGuid(rs, "run_on_vds"));
+            entity.setMigratingToVds(getGuid(rs, "migrating_to_vds"));
+            entity.setMemSizeMb(rs.getInt("mem_size_mb"));
+            entity.setNumOfCpus(rs.getInt("num_of_cpus"));
+            return entity;
+        }
+    }
+
     private static final class VMWithPlugInfoRowMapper implements RowMapper<Pair<VM, VmDevice>> {
         public static final VMWithPlugInfoRowMapper instance = new VMWithPlugInfoRowMapper();
 
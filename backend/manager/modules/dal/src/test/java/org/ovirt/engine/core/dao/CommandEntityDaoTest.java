@@ -9,6 +9,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -78,6 +79,24 @@ public class CommandEntityDaoTest extends BaseGenericDaoTestCase<Guid, CommandEn
         assertNull(cmdAfterRemoval);
     }
 
+    @Test
+    public void testSaveOrUpdateAll() {
+        CommandEntity existing = dao.get(getExistingEntityId());
+        existing.setCommandStatus(CommandStatus.SUCCEEDED);
+        existing.setExecuted(true);
+        CommandEntity newEntity = generateNewEntity();
+
+        dao.saveOrUpdateAll(Arrays.asList(existing, newEntity));
+
+        CommandEntity updated = dao.get(getExistingEntityId());
+        assertEquals(CommandStatus.SUCCEEDED, updated.getCommandStatus());
+        assertTrue(updated.isExecuted());
+        CommandEntity inserted = dao.get(newEntity.getId());
+        assertNotNull(inserted);
+        assertEquals(newEntity.getCommandStatus(), inserted.getCommandStatus());
+        assertEquals(newEntity.getData(), inserted.getData());
+    }
+
     @Test
     public void testGetAll() {
         List<CommandEntity> cmds = dbFacade.getCommandEntityDao().getAll();
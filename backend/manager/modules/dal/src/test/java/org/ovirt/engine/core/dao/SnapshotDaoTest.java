@@ -2,6 +2,7 @@ package org.ovirt.engine.core.dao;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -194,6 +195,36 @@ public class SnapshotDaoTest extends BaseGenericDaoTestCase<Guid, Snapshot, Snap
         }
     }
 
+    @Test
+    public void getWithoutConfiguration() {
+        Snapshot withConfiguration = dao.getAllWithConfiguration(FixturesTool.VM_RHEL5_POOL_50).get(0);
+        Snapshot snapshot = dao.getWithoutConfiguration(withConfiguration.getId());
+
+        assertNull("Snapshot should have no configuration", snapshot.getVmConfiguration());
+        assertTrue("Snapshot should have configuration available", snapshot.isVmConfigurationAvailable());
+        assertEquals(withConfiguration.getDescription(), snapshot.getDescription());
+        assertEquals(withConfiguration.getVmConfigurationGeneration(), snapshot.getVmConfigurationGeneration());
+    }
+
+    @Test
+    public void getWithoutConfigurationForNonExistingSnapshot() {
+        assertNull(dao.getWithoutConfiguration(Guid.newGuid()));
+    }
+
+    @Test
+    public void updateConfigurationChangesGeneration() {
+        Snapshot snapshot = dao.get(getExistingEntityId());
+        long generation = snapshot.getVmConfigurationGeneration();
+
+        snapshot.setDescription(RandomUtils.instance().nextString(100));
+        dao.update(snapshot);
+        assertEquals(generation, dao.get(getExistingEntityId()).getVmConfigurationGeneration());
+
+        snapshot.setVmConfiguration(RandomUtils.instance().nextString(100));
+        dao.update(snapshot);
+        assertNotEquals(generation, dao.get(getExistingEntityId()).getVmConfigurationGeneration());
+    }
+
     @Test
     public void getAllByVm() {
         List<Snapshot> snapshots = dao.getAll(FixturesTool.VM_RHEL5_POOL_57);
@@ -7,7 +7,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.ovirt.engine.core.common.businessentities.CpuStatistics;
@@ -82,6 +85,49 @@ public class VdsCpuStatisticsDaoTest extends BaseDaoTestCase {
         assertEquals(30, result.get(1).getCpuUsagePercent());
     }
 
+    @Test
+    public void testMassUpsertCpuStatistics() {
+        List<CpuStatistics> existingCpuStats = vdsCpuStatisticsDao.getAllCpuStatisticsByVdsId(existingVds.getId());
+        existingCpuStats.get(0).setCpuUsagePercent(30);
+
+        List<CpuStatistics> newCpuStats = new ArrayList<>();
+        for (int cpuId = 0; cpuId < 3; cpuId++) {
+            CpuStatistics stats = new CpuStatistics();
+            stats.setCpuId(cpuId);
+            stats.setCpuUsagePercent(40);
+            newCpuStats.add(stats);
+        }
+
+        Map<Guid, List<CpuStatistics>> cpuStatsByVdsId = new HashMap<>();
+        cpuStatsByVdsId.put(existingVds.getId(), Collections.singletonList(existingCpuStats.get(0)));
+        cpuStatsByVdsId.put(ANOTHER_EXISTING_VDS_ID, newCpuStats);
+        vdsCpuStatisticsDao.massUpsertCpuStatistics(cpuStatsByVdsId, Collections.<Guid> emptyList());
+
+        List<CpuStatistics> result = vdsCpuStatisticsDao.getAllCpuStatisticsByVdsId(existingVds.getId());
+        assertEquals(2, result.size());
+        for (CpuStatistics stats : result) {
+            int expectedUsage = stats.getCpuId() == existingCpuStats.get(0).getCpuId() ? 30 : 20;
+            assertEquals(expectedUsage, stats.getCpuUsagePercent());
+        }
+
+        result = vdsCpuStatisticsDao.getAllCpuStatisticsByVdsId(ANOTHER_EXISTING_VDS_ID);
+        assertEquals(3, result.size());
+        assertEquals(40, result.get(0).getCpuUsagePercent());
+    }
+
+    @Test
+    public void testMassUpsertCpuStatisticsReplacesVdsStatistics() {
+        CpuStatistics stats = new CpuStatistics();
+        stats.setCpuId(5);
+        vdsCpuStatisticsDao.massUpsertCpuStatistics(
+                Collections.singletonMap(existingVds.getId(), Collections.singletonList(stats)),
+                Collections.singletonList(existingVds.getId()));
+
+        List<CpuStatistics> result = vdsCpuStatisticsDao.getAllCpuStatisticsByVdsId(existingVds.getId());
+        assertEquals(1, result.size());
+        assertEquals(5, result.get(0).getCpuId());
+    }
+
     @Test
     public void testRemoveAllCpuStatisticsByVdsId() {
         List<CpuStatistics> newCpuStats = new ArrayList<>();
@@ -16,6 +16,7 @@ import org.ovirt.engine.core.common.businessentities.ExternalStatus;
 import org.ovirt.engine.core.common.businessentities.NonOperationalReason;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
+import org.ovirt.engine.core.common.businessentities.VdsResourceState;
 import org.ovirt.engine.core.common.businessentities.VdsProtocol;
 import org.ovirt.engine.core.common.businessentities.VdsStatic;
 import org.ovirt.engine.core.compat.Guid;
@@ -74,6 +75,28 @@ public class VdsDynamicDaoTest extends BaseDaoTestCase {
         assertEquals(existingVds.getId(), result.getId());
     }
 
+    /**
+     * Ensures that the resource state matches the dynamic data of the host.
+     */
+    @Test
+    public void testGetResourceState() {
+        VdsDynamic dynamic = dao.get(existingVds.getId());
+        VdsResourceState result = dao.getResourceState(existingVds.getId());
+
+        assertNotNull(result);
+        assertEquals(existingVds.getId(), result.getId());
+        assertEquals(dynamic.getStatus(), result.getStatus());
+        assertEquals(dynamic.getMemCommited(), result.getMemCommited());
+        assertEquals(dynamic.getPendingVmemSize(), result.getPendingVmemSize());
+        assertEquals(dynamic.getReservedMem(), result.getReservedMem());
+        assertEquals(dynamic.getVmCount(), result.getVmCount());
+    }
+
+    @Test
+    public void testGetResourceStateWithInvalidId() {
+        assertNull(dao.getResourceState(Guid.newGuid()));
+    }
+
     /**
      * Ensures saving a VDS instance works.
      */
@@ -20,6 +20,7 @@ import org.ovirt.engine.core.common.businessentities.QuotaEnforcementTypeEnum;
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.businessentities.VmStatic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.common.businessentities.VmTemplate;
@@ -335,6 +336,27 @@ public class VmDaoTest extends BaseDaoTestCase {
         assertFalse(result.isEmpty());
     }
 
+    /**
+     * Ensures that it retrieves the runtime state of all VMs running on the specified VDS.
+     */
+    @Test
+    public void testGetAllRuntimeStatesRunningForVds() {
+        List<VmRuntimeState> result = dao.getAllRuntimeStatesRunningForVds(FixturesTool.VDS_RHEL6_NFS_SPM);
+
+        assertFalse(result.isEmpty());
+        Map<Guid, VM> vms = dao.getAllRunningForVds(FixturesTool.VDS_RHEL6_NFS_SPM).stream()
+                .collect(Collectors.toMap(VM::getId, vm -> vm));
+        assertEquals(vms.size(), result.size());
+        for (VmRuntimeState state : result) {
+            VM vm = vms.get(state.getId());
+            assertNotNull(vm);
+            assertEquals(vm.getStatus(), state.getStatus());
+            assertEquals(FixturesTool.VDS_RHEL6_NFS_SPM, state.getRunOnVds());
+            assertEquals(vm.getVmMemSizeMb(), state.getMemSizeMb());
+            assertEquals(vm.getNumOfCpus(), state.getNumOfCpus());
+        }
+    }
+
     /**
      * Ensures that it retrieves all VMs running on or migrating to the specified VDS.
      */
@@ -525,6 +547,19 @@ public class VmDaoTest extends BaseDaoTestCase {
         assertFalse(result.isEmpty());
     }
 
+    /**
+     * Ensures that it retrieves the runtime state of all running VMs under the specified cluster.
+     */
+    @Test
+    public void testAllRuntimeStatesRunningByCluster() {
+        List<VmRuntimeState> result = dao.getAllRuntimeStatesRunningByCluster(FixturesTool.CLUSTER_RHEL6_ISCSI);
+
+        assertEquals(dao.getAllRunningByCluster(FixturesTool.CLUSTER_RHEL6_ISCSI).size(), result.size());
+        for (VmRuntimeState state : result) {
+            assertNotNull(state.getRunOnVds());
+        }
+    }
+
     @Test
     public void testGetVmIdsForVersionUpdate() {
         List<Guid> vmIdsToUpdate = dao.getVmIdsForVersionUpdate(FixturesTool.VM_TEMPLATE_RHEL5);
@@ -10,6 +10,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.ovirt.engine.core.utils.threadpool.VirtualThreads;
 import org.quartz.SchedulerConfigException;
 import org.quartz.spi.ThreadPool;
 import org.slf4j.Logger;
@@ -23,6 +24,7 @@ public class SchedulerThreadPool implements ThreadPool {
     private int count = -1;
     private int threadPriority = Thread.NORM_PRIORITY;
     private boolean inheritLoader;
+    private boolean useVirtualThreads;
 
     public SchedulerThreadPool() {
     }
@@ -49,7 +51,18 @@ public class SchedulerThreadPool implements ThreadPool {
                 60L,
                 TimeUnit.SECONDS,
                 new ArrayBlockingQueue<Runnable>(50),
-                new SchedulerThreadFactory(this));
+                createThreadFactory());
+    }
+
+    private ThreadFactory createThreadFactory() {
+        if (useVirtualThreads) {
+            if (VirtualThreads.isSupported()) {
+                return VirtualThreads.createThreadFactory(getInstanceName());
+            }
+            log.warn("Virtual threads are enabled, but aren't supported by the JVM. The jobs of {} run on platform"
+                    + " threads", getInstanceName());
+        }
+        return new SchedulerThreadFactory(this);
     }
 
     public void setThreadCount(int count) {
@@ -77,6 +90,18 @@ public class SchedulerThreadPool implements ThreadPool {
         this.inheritLoader = inheritLoader;
     }
 
+    /**
+     * Run the jobs on virtual threads, if supported by the JVM, set by the
+     * <code>org.quartz.threadPool.useVirtualThreads</code> property.
+     */
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
     @Override
     public void shutdown(boolean waitForJobsToComplete) {
         if (waitForJobsToComplete) {
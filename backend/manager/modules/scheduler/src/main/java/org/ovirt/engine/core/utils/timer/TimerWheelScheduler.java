@@ -0,0 +1,400 @@
+package org.ovirt.engine.core.utils.timer;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A scheduler of in-memory jobs, which keeps them in a hashed timer wheel instead of a Quartz trigger store. On every
+ * tick of the wheel its thread expires the jobs of a single bucket and passes them to the thread pool of the
+ * scheduler, so scheduling, deleting and firing a job take a constant time regardless of the number of jobs.<br>
+ * It is meant for the high frequency jobs scheduled per host, like the host and VMs monitoring. The jobs are given as
+ * {@link Runnable}s which are invoked directly, and the first run of a fixed delay job is postponed by a random part
+ * of its delay, so the jobs of hosts which are added together don't fire together. Cron and persistent jobs are
+ * scheduled by {@link SchedulerUtilQuartzImpl} and {@link DBSchedulerUtilQuartzImpl}.<br>
+ * Unlike the Quartz schedulers it doesn't implement {@link SchedulerUtil}, as it has no triggers and doesn't support
+ * cron jobs.<br>
+ * A job may fire up to a tick, {@value #TICK_DURATION_MS} milliseconds, after it is due, and never runs concurrently
+ * with itself. The wheel is started by the first scheduled job, once the engine configuration is available, and runs
+ * the jobs on <code>TimerWheelThreadPoolSize</code> threads.
+ */
+@Singleton
+public class TimerWheelScheduler {
+
+    private static final long TICK_DURATION_MS = 100;
+    private static final int WHEEL_SIZE = 512;
+    private static final String THREAD_NAME = "SchedulerTimerWheel";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final AtomicLong sequenceNumber = new AtomicLong();
+    private final Map<String, ScheduledJob> jobs = new ConcurrentHashMap<>();
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private Queue<Timeout>[] buckets;
+    private long tickDuration;
+    private long startTime;
+    private ExecutorService executor;
+    private Thread wheelThread;
+    private volatile boolean started;
+    private volatile boolean shutDown;
+
+    /**
+     * Starts the wheel, unless already started. It is called on scheduling rather than on the bean creation, as the
+     * scheduler beans are created before the engine configuration is loaded.
+     */
+    private void start() {
+        if (!started) {
+            synchronized (this) {
+                if (!started) {
+                    setup(TICK_DURATION_MS,
+                            TimeUnit.MILLISECONDS,
+                            WHEEL_SIZE,
+                            Config.<Integer> getValue(ConfigValues.TimerWheelThreadPoolSize));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized void setup(long tick, TimeUnit tickUnit, int wheelSize, int threadCount) {
+        tickDuration = tickUnit.toNanos(tick);
+        buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        executor = Executors.newFixedThreadPool(threadCount, createThreadFactory());
+        startTime = System.nanoTime();
+        wheelThread = new Thread(this::runWheel, THREAD_NAME + "-ticker");
+        wheelThread.start();
+        started = true;
+    }
+
+    @PreDestroy
+    public void teardown() {
+        shutDown();
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> new Thread(runnable, THREAD_NAME + "-worker-" + threadNumber.incrementAndGet());
+    }
+
+    /**
+     * Schedules a fixed-delay job. The first run is postponed by a random part of the delay between the runs.
+     *
+     * @param name
+     *            - the name of the job, used as the prefix of its id
+     * @param task
+     *            - the task to run on timeout
+     * @param initialDelay
+     *            - the minimal delay before the first run
+     * @param taskDelay
+     *            - the delay between the end of a run and the start of the next one
+     * @param timeUnit
+     *            - the unit of time used for initialDelay and taskDelay.
+     * @return the scheduled job id
+     */
+    public String scheduleAFixedDelayJob(String name,
+            Runnable task,
+            long initialDelay,
+            long taskDelay,
+            TimeUnit timeUnit) {
+        long delay = timeUnit.toNanos(taskDelay);
+        return schedule(name, task, delay, timeUnit.toNanos(initialDelay) + jitter(delay));
+    }
+
+    /**
+     * Schedules a one time job.
+     *
+     * @param name
+     *            - the name of the job, used as the prefix of its id
+     * @param task
+     *            - the task to run on timeout
+     * @param initialDelay
+     *            - the delay before the run
+     * @param timeUnit
+     *            - the unit of time used for initialDelay.
+     * @return the scheduled job id
+     */
+    public String scheduleAOneTimeJob(String name, Runnable task, long initialDelay, TimeUnit timeUnit) {
+        return schedule(name, task, null, timeUnit.toNanos(initialDelay));
+    }
+
+    private String schedule(String name, Runnable task, Long delay, long initialDelay) {
+        start();
+        String jobId = name + "#" + sequenceNumber.incrementAndGet();
+        ScheduledJob job = new ScheduledJob(jobId, task, delay);
+        jobs.put(jobId, job);
+        job.schedule(initialDelay);
+        return jobId;
+    }
+
+    private static long jitter(long delay) {
+        return delay > 0 ? ThreadLocalRandom.current().nextLong(delay) : 0;
+    }
+
+    /**
+     * Pauses the job with the given id.
+     */
+    public void pauseJob(String jobId) {
+        ScheduledJob job = getJob(jobId, "pause");
+        if (job != null) {
+            job.pause();
+        }
+    }
+
+    public void deleteJob(String jobId) {
+        ScheduledJob job = jobs.remove(jobId);
+        if (job != null) {
+            job.delete();
+        }
+    }
+
+    /**
+     * Resume the job with the given id. If the job was due while paused it runs now.
+     */
+    public void resumeJob(String jobId) {
+        ScheduledJob job = getJob(jobId, "resume");
+        if (job != null) {
+            job.resume();
+        }
+    }
+
+    /**
+     * Run the job with the given id now, or right after its current run if it's running. A fixed delay job then
+     * continues with its delay from the end of the triggered run.
+     */
+    public void triggerJob(String jobId) {
+        ScheduledJob job = getJob(jobId, "trigger");
+        if (job != null) {
+            job.trigger();
+        }
+    }
+
+    private ScheduledJob getJob(String jobId, String action) {
+        ScheduledJob job = jobs.get(jobId);
+        if (job == null) {
+            log.error("failed to {} a job with id={}, no such job", action, jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Halts the timer wheel and its thread pool, waiting for the running jobs to complete. The scheduler cannot be
+     * re-started.
+     */
+    public synchronized void shutDown() {
+        if (shutDown || !started) {
+            return;
+        }
+        shutDown = true;
+        jobs.clear();
+        wheelThread.interrupt();
+        executor.shutdown();
+        try {
+            wheelThread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("The jobs of the timer wheel didn't complete in {} seconds, interrupting them",
+                        SHUTDOWN_TIMEOUT_SECONDS);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    int getJobsCount() {
+        return jobs.size();
+    }
+
+    private void runWheel() {
+        long tick = 0;
+        while (!shutDown) {
+            if (!waitForTick(tick)) {
+                break;
+            }
+            transferNewTimeouts(tick);
+            expireTimeouts(buckets[(int) (tick % buckets.length)]);
+            tick++;
+        }
+    }
+
+    /**
+     * Wait for the end of the given tick, which is a fixed time since the start of the wheel, so the time spent
+     * expiring the jobs doesn't accumulate.
+     *
+     * @return <code>false</code> if the scheduler was shut down while waiting.
+     */
+    private boolean waitForTick(long tick) {
+        long deadline = tickDuration * (tick + 1);
+        while (true) {
+            long sleepTime = deadline - (System.nanoTime() - startTime);
+            if (sleepTime <= 0) {
+                return true;
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepTime);
+            } catch (InterruptedException e) {
+                if (shutDown) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferNewTimeouts(long tick) {
+        for (Timeout timeout = newTimeouts.poll(); timeout != null; timeout = newTimeouts.poll()) {
+            // a timeout which is already due expires on the current tick
+            long expiryTick = Math.max(timeout.deadline / tickDuration, tick);
+            timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+            buckets[(int) (expiryTick % buckets.length)].add(timeout);
+        }
+    }
+
+    private void expireTimeouts(Queue<Timeout> bucket) {
+        for (int i = bucket.size(); i > 0; i--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+            } else {
+                timeout.job.expire(timeout);
+            }
+        }
+    }
+
+    /**
+     * A single firing of a job. Timeouts are only added to the wheel, a timeout which is replaced by a newer one of
+     * its job, or whose job was deleted, is dropped once it expires.
+     */
+    private static final class Timeout {
+        private final ScheduledJob job;
+        private final long deadline;
+        private long remainingRounds;
+
+        private Timeout(ScheduledJob job, long deadline) {
+            this.job = job;
+            this.deadline = deadline;
+        }
+    }
+
+    private final class ScheduledJob implements Runnable {
+        private final String id;
+        private final Runnable task;
+        // the delay between the runs in nanoseconds, null for a one time job
+        private final Long delay;
+        private Timeout timeout;
+        private boolean running;
+        private boolean paused;
+        private boolean missed;
+        private boolean triggered;
+        private boolean deleted;
+
+        private ScheduledJob(String id, Runnable task, Long delay) {
+            this.id = id;
+            this.task = task;
+            this.delay = delay;
+        }
+
+        private synchronized void schedule(long delayNanos) {
+            if (deleted) {
+                return;
+            }
+            timeout = new Timeout(this, System.nanoTime() - startTime + delayNanos);
+            newTimeouts.add(timeout);
+        }
+
+        private synchronized void expire(Timeout expired) {
+            if (expired != timeout) {
+                return;
+            }
+            timeout = null;
+            if (paused) {
+                missed = true;
+            } else {
+                start();
+            }
+        }
+
+        private void start() {
+            running = true;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // the scheduler is shutting down
+                running = false;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to run scheduled job {}: {}", id, e.getMessage());
+                log.debug("Exception", e);
+            } finally {
+                finished();
+            }
+        }
+
+        private synchronized void finished() {
+            running = false;
+            if (triggered) {
+                triggered = false;
+                schedule(0);
+            } else if (delay != null) {
+                schedule(delay);
+            } else {
+                deleted = true;
+                jobs.remove(id);
+            }
+        }
+
+        private synchronized void pause() {
+            paused = true;
+        }
+
+        private synchronized void resume() {
+            paused = false;
+            if (missed) {
+                missed = false;
+                start();
+            }
+        }
+
+        private synchronized void trigger() {
+            if (running) {
+                triggered = true;
+            } else {
+                missed = false;
+                schedule(0);
+            }
+        }
+
+        private synchronized void delete() {
+            deleted = true;
+            timeout = null;
+        }
+    }
+}
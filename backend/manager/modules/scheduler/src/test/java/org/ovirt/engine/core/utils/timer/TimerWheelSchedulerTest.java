@@ -0,0 +1,98 @@
+package org.ovirt.engine.core.utils.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimerWheelSchedulerTest {
+
+    private TimerWheelScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        // a small wheel, so the delays of the tests span several rounds of it
+        scheduler = new TimerWheelScheduler();
+        scheduler.setup(10, TimeUnit.MILLISECONDS, 8, 2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutDown();
+    }
+
+    @Test
+    public void fixedDelayJobRunsRepeatedly() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(3);
+        scheduler.scheduleAFixedDelayJob("test", runs::countDown, 0, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(runs.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void oneTimeJobRunsAfterDelay() throws InterruptedException {
+        CountDownLatch run = new CountDownLatch(1);
+        long start = System.nanoTime();
+        scheduler.scheduleAOneTimeJob("test", run::countDown, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(run.await(10, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+        waitForJobsCount(0);
+    }
+
+    @Test
+    public void deletedJobDoesNotRun() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        String jobId = scheduler.scheduleAOneTimeJob("test", runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        scheduler.deleteJob(jobId);
+
+        Thread.sleep(200);
+        assertEquals(0, runs.get());
+        assertEquals(0, scheduler.getJobsCount());
+    }
+
+    @Test
+    public void pausedJobRunsOnResume() throws InterruptedException {
+        CountDownLatch run = new CountDownLatch(1);
+        String jobId = scheduler.scheduleAOneTimeJob("test", run::countDown, 20, TimeUnit.MILLISECONDS);
+        scheduler.pauseJob(jobId);
+
+        assertFalse(run.await(200, TimeUnit.MILLISECONDS));
+        scheduler.resumeJob(jobId);
+        assertTrue(run.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void triggeredJobRunsNow() throws InterruptedException {
+        CountDownLatch run = new CountDownLatch(1);
+        String jobId = scheduler.scheduleAFixedDelayJob("test", run::countDown, 1, 1, TimeUnit.HOURS);
+        scheduler.triggerJob(jobId);
+
+        assertTrue(run.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failingJobIsRescheduled() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(2);
+        scheduler.scheduleAFixedDelayJob("test", () -> {
+            runs.countDown();
+            throw new IllegalStateException("failure");
+        }, 0, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(runs.await(10, TimeUnit.SECONDS));
+    }
+
+    private void waitForJobsCount(int count) throws InterruptedException {
+        for (int i = 0; i < 100 && scheduler.getJobsCount() != count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, scheduler.getJobsCount());
+    }
+}
@@ -19,6 +19,9 @@ public class ProxyServlet extends ProxyServletBase {
     private static final String TRUST_STORE_PASSWORD_PRM = "trustStorePassword";
     private static final String READ_TIMEOUT_PRM = "readTimeout";
     private static final String URL_PRM = "url";
+    private static final String ASYNC_STREAMING_PRM = "asyncStreaming";
+    private static final String BUFFER_SIZE_PRM = "bufferSize";
+    private static final String MAX_CONCURRENT_TRANSFERS_PRM = "maxConcurrentTransfers";
     private static final String HTTP = "http://";
     private static final String HTTPS = "https://";
 
@@ -70,6 +73,9 @@ public class ProxyServlet extends ProxyServletBase {
         setTrustStorePassword(getConfigString(TRUST_STORE_PASSWORD_PRM));
         setReadTimeout(getConfigInteger(READ_TIMEOUT_PRM));
         setUrl(getUrl());
+        setAsyncStreaming(getConfigBoolean(ASYNC_STREAMING_PRM));
+        setBufferSize(getConfigInteger(BUFFER_SIZE_PRM));
+        setMaxConcurrentTransfers(getConfigInteger(MAX_CONCURRENT_TRANSFERS_PRM));
     }
 
 }
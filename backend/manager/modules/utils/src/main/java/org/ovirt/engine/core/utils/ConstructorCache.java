@@ -0,0 +1,92 @@
+package org.ovirt.engine.core.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the constructors found by {@link ReflectionUtils#findConstructor(Class, Class...)}, for types which are
+ * instantiated frequently, such as commands.<br>
+ * The constructor of each type and parameter types is looked up only once, and is kept as a method handle which
+ * doesn't need the access and argument checks of {@link Constructor#newInstance(Object...)}.
+ */
+public class ConstructorCache {
+
+    private final ConcurrentMap<List<Class<?>>, Optional<Handle<?>>> handles = new ConcurrentHashMap<>();
+
+    /**
+     * Find the constructor of the given type which matches the expected parameters, as
+     * {@link ReflectionUtils#findConstructor(Class, Class...)} does.
+     *
+     * @param type
+     *            The type to look up the constructor for.
+     * @param expectedParams
+     *            The expected parameters for the constructor.
+     *
+     * @return The constructor, or <code>null</code> if none found.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Handle<T> find(Class<T> type, Class<?>... expectedParams) {
+        Class<?>[] key = new Class<?>[expectedParams.length + 1];
+        key[0] = type;
+        System.arraycopy(expectedParams, 0, key, 1, expectedParams.length);
+        return (Handle<T>) handles.computeIfAbsent(Arrays.asList(key),
+                k -> Optional.ofNullable(createHandle(type, expectedParams))).orElse(null);
+    }
+
+    private static <T> Handle<T> createHandle(Class<T> type, Class<?>... expectedParams) {
+        Constructor<T> constructor = ReflectionUtils.findConstructor(type, expectedParams);
+        if (constructor == null) {
+            return null;
+        }
+
+        constructor.setAccessible(true);
+        try {
+            return new Handle<>(type, MethodHandles.lookup()
+                    .unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(expectedParams.length))
+                    .asSpreader(Object[].class, expectedParams.length));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A constructor found by {@link ConstructorCache#find(Class, Class...)}.
+     */
+    public static class Handle<T> {
+
+        private final Class<T> type;
+        private final MethodHandle constructor;
+
+        private Handle(Class<T> type, MethodHandle constructor) {
+            this.type = type;
+            this.constructor = constructor;
+        }
+
+        /**
+         * Create a new instance using the constructor.
+         *
+         * @param args
+         *            The arguments of the constructor.
+         *
+         * @return The new instance.
+         * @throws InvocationTargetException
+         *             If the constructor throws an exception, which is the cause of this one.
+         */
+        public T newInstance(Object... args) throws InvocationTargetException {
+            try {
+                return type.cast((Object) constructor.invokeExact(args));
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.ovirt.engine.core.utils;
 
+import org.ovirt.engine.core.utils.serialization.json.CompactJsonObjectDeserializer;
+import org.ovirt.engine.core.utils.serialization.json.CompactJsonObjectSerializer;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectDeserializer;
 import org.ovirt.engine.core.utils.serialization.json.JsonObjectSerializer;
 
@@ -8,6 +10,8 @@ public class SerializationFactory {
 
     private static final JsonObjectSerializer serializer = new JsonObjectSerializer();
     private static final JsonObjectDeserializer deserializer = new JsonObjectDeserializer();
+    private static final CompactJsonObjectSerializer compactSerializer = new CompactJsonObjectSerializer();
+    private static final CompactJsonObjectDeserializer compactDeserializer = new CompactJsonObjectDeserializer();
 
     public static JsonObjectSerializer getSerializer() {
         return serializer;
@@ -16,4 +20,18 @@ public class SerializationFactory {
     public static JsonObjectDeserializer getDeserializer() {
         return deserializer;
     }
+
+    /**
+     * @return serializer for large payloads which are only read back by the engine, such as command parameters.
+     */
+    public static CompactJsonObjectSerializer getCompactSerializer() {
+        return compactSerializer;
+    }
+
+    /**
+     * @return deserializer for content written by {@link #getCompactSerializer()}, which also reads plain JSON.
+     */
+    public static CompactJsonObjectDeserializer getCompactDeserializer() {
+        return compactDeserializer;
+    }
 }
@@ -1,10 +1,19 @@
 package org.ovirt.engine.core.utils.archivers.tar;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
+import org.apache.commons.codec.binary.Hex;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.slf4j.Logger;
@@ -13,18 +22,30 @@ import org.slf4j.LoggerFactory;
 /**
  * Handles cache tar file based on directory.
  *
- * Cache tar based on directory structure. If files are changed
- * recreate tar file. Test file change once per interval.
+ * Cache tar based on directory structure. The content of the
+ * directory is checked once per interval, and the tar file is
+ * recreated only if the digest of the content changed, so
+ * touching the files doesn't cause a rebuild. The digest
+ * identifies the archive content, so a consumer that already
+ * holds an archive of the same digest need not get it again.
+ *
+ * Small archives are also kept in memory.
  */
 public class CachedTar {
 
     private static final Logger log = LoggerFactory.getLogger(CachedTar.class);
 
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String DIGEST_SUFFIX = ".digest";
+    private static final long MAX_IN_MEMORY_SIZE = 64 * 1024 * 1024;
+
     private long refreshInterval = 10000;
     private long nextCheckTime = 0;
 
     private File archive;
     private File dir;
+    private String digest;
+    private byte[] content;
 
     private void create() throws IOException {
         // must create within same directory
@@ -65,14 +86,111 @@ public class CachedTar {
         }
     }
 
-    private void ensure() throws IOException {
-        if (!this.archive.exists() || this.nextCheckTime <= System.currentTimeMillis()) {
-            log.info(
-                "Tarball '{}' refresh",
-                this.archive.getAbsolutePath()
+    private static void digestTree(
+        MessageDigest md,
+        File file,
+        String name
+    ) throws IOException {
+        if (file.isDirectory()) {
+            md.update(String.format("d %1$s\n", name).getBytes(StandardCharsets.UTF_8));
+            String[] names = file.list();
+            if (names != null) {
+                // directory listing order is not stable
+                Arrays.sort(names);
+                for (String f : names) {
+                    digestTree(md, new File(file, f), new File(name, f).getPath());
+                }
+            }
+        }
+        else if (file.isFile()) {
+            md.update(
+                String.format(
+                    "f %1$s %2$s %3$d\n",
+                    name,
+                    file.canExecute() ? "x" : "-",
+                    file.length()
+                ).getBytes(StandardCharsets.UTF_8)
             );
+            try (InputStream is = new FileInputStream(file)) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = is.read(buffer)) != -1) {
+                    md.update(buffer, 0, n);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculate digest of directory content.
+     * @param dir directory.
+     * @return hex digest of names, modes and content of the files.
+     *
+     * Only the properties kept by Tar are considered.
+     */
+    static String digestDirectory(File dir) throws IOException {
+        try {
+            MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            digestTree(md, dir, ".");
+            return Hex.encodeHexString(md.digest());
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private File getDigestFile() {
+        return new File(this.archive.getPath() + DIGEST_SUFFIX);
+    }
+
+    private String readStoredDigest() {
+        File digestFile = getDigestFile();
+        if (!this.archive.exists() || !digestFile.exists()) {
+            return null;
+        }
+        try {
+            return new String(Files.readAllBytes(digestFile.toPath()), StandardCharsets.UTF_8).trim();
+        }
+        catch(IOException e) {
+            log.debug("Cannot read digest of '{}'", this.archive.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    private void storeDigest(String digest) {
+        try {
+            Files.write(getDigestFile().toPath(), digest.getBytes(StandardCharsets.UTF_8));
+        }
+        catch(IOException e) {
+            log.warn("Cannot store digest of '{}': {}", this.archive.getAbsolutePath(), e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    private synchronized void ensure() throws IOException {
+        if (!this.archive.exists() || this.nextCheckTime <= System.currentTimeMillis()) {
             this.nextCheckTime = System.currentTimeMillis() + this.refreshInterval;
-            create();
+
+            String currentDigest = digestDirectory(this.dir);
+            if (this.digest == null && currentDigest.equals(readStoredDigest())) {
+                // archive left by previous run
+                this.digest = currentDigest;
+            }
+            if (!currentDigest.equals(this.digest) || !this.archive.exists()) {
+                log.info(
+                    "Tarball '{}' refresh, content digest '{}'",
+                    this.archive.getAbsolutePath(),
+                    currentDigest
+                );
+                this.digest = null;
+                this.content = null;
+                create();
+                storeDigest(currentDigest);
+                this.digest = currentDigest;
+            }
+            if (this.content == null && this.archive.length() <= MAX_IN_MEMORY_SIZE) {
+                this.content = Files.readAllBytes(this.archive.toPath());
+            }
         }
     }
 
@@ -107,4 +225,29 @@ public class CachedTar {
         ensure();
         return this.archive;
     }
+
+    /**
+     * Get content of archive.
+     * @return stream of archive, served from memory if possible.
+     */
+    public InputStream getInputStream() throws IOException {
+        byte[] current;
+        synchronized (this) {
+            ensure();
+            current = this.content;
+        }
+        if (current != null) {
+            return new ByteArrayInputStream(current);
+        }
+        return new FileInputStream(this.archive);
+    }
+
+    /**
+     * Get digest of archive content.
+     * @return hex digest, archives of same digest have same content.
+     */
+    public synchronized String getDigest() throws IOException {
+        ensure();
+        return this.digest;
+    }
 }
@@ -0,0 +1,47 @@
+package org.ovirt.engine.core.utils.serialization.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Base64;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.lang.SerializationException;
+import org.ovirt.engine.core.utils.Deserializer;
+import org.ovirt.engine.core.utils.SerializationExeption;
+import org.ovirt.engine.core.utils.SerializationFactory;
+
+/**
+ * {@link Deserializer} implementation for content written by {@link CompactJsonObjectSerializer}.<br>
+ * Content without the compact header, such as rows written before the compact format was introduced, is read as plain
+ * JSON.
+ */
+public class CompactJsonObjectDeserializer implements Deserializer {
+
+    @Override
+    public <T extends Serializable> T deserialize(Object source, Class<T> type) throws SerializationExeption {
+        if (source == null) {
+            return null;
+        }
+
+        String value = source.toString();
+        if (!value.startsWith(CompactJsonObjectSerializer.MAGIC)) {
+            return SerializationFactory.getDeserializer().deserialize(value, type);
+        }
+
+        int separator = value.indexOf(CompactJsonObjectSerializer.HEADER_SEPARATOR);
+        String version = separator < 0 ? null : value.substring(CompactJsonObjectSerializer.MAGIC.length(), separator);
+        if (!String.valueOf(CompactJsonObjectSerializer.VERSION).equals(version)) {
+            throw new SerializationException(String.format("Unsupported serialization format version '%1$s'",
+                    version));
+        }
+
+        try (InputStream is = new InflaterInputStream(
+                new ByteArrayInputStream(Base64.getDecoder().decode(value.substring(separator + 1))))) {
+            return JsonObjectDeserializer.formattedMapper.readValue(is, type);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException(e);
+        }
+    }
+}
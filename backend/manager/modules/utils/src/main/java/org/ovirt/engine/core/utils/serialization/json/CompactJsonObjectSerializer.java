@@ -0,0 +1,44 @@
+package org.ovirt.engine.core.utils.serialization.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.commons.lang.SerializationException;
+import org.ovirt.engine.core.utils.SerializationExeption;
+import org.ovirt.engine.core.utils.Serializer;
+
+/**
+ * {@link Serializer} implementation for large payloads, such as command parameters and compensation snapshots.<br>
+ * The payload is written as unformatted JSON with the same type information as {@link JsonObjectSerializer}, deflated
+ * and encoded in Base64, so it can still be stored in text columns. The result is prefixed by a header carrying the
+ * format version, which is used by {@link CompactJsonObjectDeserializer} to tell it apart from plain JSON.
+ */
+public class CompactJsonObjectSerializer implements Serializer {
+
+    static final String MAGIC = "~Z";
+    static final int VERSION = 1;
+    static final char HEADER_SEPARATOR = ':';
+    private static final String HEADER = MAGIC + VERSION + HEADER_SEPARATOR;
+
+    @Override
+    public String serialize(Object payload) throws SerializationExeption {
+        if (payload == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (OutputStream os = new DeflaterOutputStream(bytes, deflater)) {
+            JsonObjectSerializer.compactMapper.writeValue(os, payload);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        } finally {
+            deflater.end();
+        }
+        return HEADER + Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+}
@@ -28,7 +28,7 @@ import org.ovirt.engine.core.utils.SerializationFactory;
 public class JsonObjectDeserializer implements Deserializer {
 
     private static final ObjectMapper unformattedMapper = new ObjectMapper();
-    private static final ObjectMapper formattedMapper;
+    static final ObjectMapper formattedMapper;
     static {
         formattedMapper = new ObjectMapper();
         formattedMapper.getDeserializationConfig().addMixInAnnotations(Guid.class, JsonGuidMixIn.class);
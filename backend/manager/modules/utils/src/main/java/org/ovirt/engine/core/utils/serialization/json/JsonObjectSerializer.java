@@ -31,26 +31,32 @@ public class JsonObjectSerializer implements Serializer {
 
     private static final ObjectMapper unformattedMapper = new ObjectMapper();
     private static final ObjectMapper formattedMapper;
+    static final ObjectMapper compactMapper;
     static {
-        formattedMapper = new ObjectMapper();
-        formattedMapper.getSerializationConfig().addMixInAnnotations(Guid.class, JsonGuidMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VdcActionParametersBase.class,
+        formattedMapper = createTypedMapper();
+        formattedMapper.configure(Feature.INDENT_OUTPUT, true);
+        compactMapper = createTypedMapper();
+    }
+
+    private static ObjectMapper createTypedMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.getSerializationConfig().addMixInAnnotations(Guid.class, JsonGuidMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VdcActionParametersBase.class,
                 JsonVdcActionParametersBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(IVdcQueryable.class, JsonIVdcQueryableMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VM.class, JsonVmMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(AddVmTemplateParameters.class,
+        mapper.getSerializationConfig().addMixInAnnotations(IVdcQueryable.class, JsonIVdcQueryableMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VM.class, JsonVmMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(AddVmTemplateParameters.class,
                 JsonAddVmTemplateParametersMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmManagementParametersBase.class,
+        mapper.getSerializationConfig().addMixInAnnotations(VmManagementParametersBase.class,
                 JsonVmManagementParametersBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmBase.class, JsonVmBaseMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmStatic.class, JsonVmStaticMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(VmPayload.class, JsonVmPayloadMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(RunVmParams.class, JsonRunVmParamsMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(EngineFault.class, JsonEngineFaultMixIn.class);
-        formattedMapper.getSerializationConfig().addMixInAnnotations(ExtMap.class, JsonExtMapMixIn.class);
-
-        formattedMapper.configure(Feature.INDENT_OUTPUT, true);
-        formattedMapper.enableDefaultTyping();
+        mapper.getSerializationConfig().addMixInAnnotations(VmBase.class, JsonVmBaseMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VmStatic.class, JsonVmStaticMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(VmPayload.class, JsonVmPayloadMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(RunVmParams.class, JsonRunVmParamsMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(EngineFault.class, JsonEngineFaultMixIn.class);
+        mapper.getSerializationConfig().addMixInAnnotations(ExtMap.class, JsonExtMapMixIn.class);
+        mapper.enableDefaultTyping();
+        return mapper;
     }
 
     @Override
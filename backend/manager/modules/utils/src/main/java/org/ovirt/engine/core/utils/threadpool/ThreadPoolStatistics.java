@@ -0,0 +1,95 @@
+package org.ovirt.engine.core.utils.threadpool;
+
+/**
+ * A snapshot of the state of one of the thread pools of {@link ThreadPoolUtil}.
+ */
+public class ThreadPoolStatistics {
+
+    private final ThreadPoolType type;
+    private final int poolSize;
+    private final int activeCount;
+    private final int queueSize;
+    private final int queueCapacity;
+    private final long completedTaskCount;
+    private final long rejectedTaskCount;
+    private final long saturationCount;
+
+    ThreadPoolStatistics(ThreadPoolType type,
+            int poolSize,
+            int activeCount,
+            int queueSize,
+            int queueCapacity,
+            long completedTaskCount,
+            long rejectedTaskCount,
+            long saturationCount) {
+        this.type = type;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueSize = queueSize;
+        this.queueCapacity = queueCapacity;
+        this.completedTaskCount = completedTaskCount;
+        this.rejectedTaskCount = rejectedTaskCount;
+        this.saturationCount = saturationCount;
+    }
+
+    public ThreadPoolType getType() {
+        return type;
+    }
+
+    /**
+     * @return the number of threads in the pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return the number of threads which are executing tasks.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread.
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * @return the number of tasks which didn't fit the pool, and were handled by its
+     *         {@link ThreadPoolType.RejectionPolicy rejection policy}.
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTaskCount;
+    }
+
+    /**
+     * @return the number of times the queue of the pool became saturated.
+     */
+    public long getSaturationCount() {
+        return saturationCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pool: %d threads, %d active, %d/%d queued, %d completed, %d rejected, %d saturated",
+                type.getName(),
+                poolSize,
+                activeCount,
+                queueSize,
+                queueCapacity,
+                completedTaskCount,
+                rejectedTaskCount,
+                saturationCount);
+    }
+}
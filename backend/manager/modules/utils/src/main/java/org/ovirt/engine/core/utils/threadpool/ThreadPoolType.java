@@ -0,0 +1,125 @@
+package org.ovirt.engine.core.utils.threadpool;
+
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+/**
+ * The thread pools used by {@link ThreadPoolUtil}. Each subsystem has its own pool, sized by its own configuration
+ * values, so a burst of tasks of one subsystem can't take the threads the other subsystems need.
+ */
+public enum ThreadPoolType {
+
+    /**
+     * The pool shared by all the tasks which don't belong to a specific subsystem. Its tasks, and the tasks which
+     * overflow into it, are rejected once it's full, rather than run on the submitting thread, which may be a
+     * monitoring or scheduler thread holding locks.
+     */
+    DEFAULT("default",
+            ConfigValues.DefaultMaxThreadPoolSize,
+            ConfigValues.DefaultMaxThreadWaitQueueSize,
+            RejectionPolicy.ABORT),
+
+    /**
+     * Tasks off-loaded by the monitoring of hosts, which shouldn't run on the monitoring thread.
+     */
+    MONITORING("monitoring",
+            ConfigValues.MonitoringThreadPoolSize,
+            ConfigValues.MonitoringThreadWaitQueueSize,
+            RejectionPolicy.OVERFLOW_TO_DEFAULT),
+
+    /**
+     * Commands executed in parallel.
+     */
+    COMMANDS("commands",
+            ConfigValues.CommandsThreadPoolSize,
+            ConfigValues.CommandsThreadWaitQueueSize,
+            RejectionPolicy.CALLER_RUNS),
+
+    /**
+     * The callbacks of the commands, invoked by the command callbacks poller. A command tree whose callbacks are
+     * rejected is polled again on the next cycle.
+     */
+    COMMAND_CALLBACKS("command-callbacks",
+            ConfigValues.CommandCallbacksPollerThreadPoolSize,
+            ConfigValues.CommandCallbacksPollerThreadWaitQueueSize,
+            RejectionPolicy.ABORT),
+
+    /**
+     * Processing of storage pool events.
+     */
+    STORAGE_EVENTS("storage-events",
+            ConfigValues.StorageEventsThreadPoolSize,
+            ConfigValues.StorageEventsThreadWaitQueueSize,
+            RejectionPolicy.OVERFLOW_TO_DEFAULT),
+
+    /**
+     * The VMs prestarted by the VM pool monitor. The monitor waits for each wave of prestarts, so running the
+     * overflowing prestarts on its thread only slows it down.
+     */
+    VM_POOL_MONITOR("vm-pool-monitor",
+            ConfigValues.VmPoolMonitorThreadPoolSize,
+            ConfigValues.VmPoolMonitorThreadWaitQueueSize,
+            RejectionPolicy.CALLER_RUNS),
+
+    /**
+     * The periodic jobs which sync the gluster entities.
+     */
+    GLUSTER("gluster",
+            ConfigValues.GlusterThreadPoolSize,
+            ConfigValues.GlusterThreadWaitQueueSize,
+            RejectionPolicy.ABORT);
+
+    /**
+     * What to do with a task submitted to a pool whose threads are all busy and whose queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Run the task on the thread which submitted it, which slows down the submitter.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Run the task on the {@link ThreadPoolType#DEFAULT} pool, for tasks which mustn't run on the submitter. The
+         * task is rejected if the default pool is full as well.
+         */
+        OVERFLOW_TO_DEFAULT,
+
+        /**
+         * Reject the task, for tasks which are submitted again periodically.
+         */
+        ABORT
+    }
+
+    private final String name;
+    private final ConfigValues poolSizeConfig;
+    private final ConfigValues queueSizeConfig;
+    private final RejectionPolicy rejectionPolicy;
+
+    ThreadPoolType(String name,
+            ConfigValues poolSizeConfig,
+            ConfigValues queueSizeConfig,
+            RejectionPolicy rejectionPolicy) {
+        this.name = name;
+        this.poolSizeConfig = poolSizeConfig;
+        this.queueSizeConfig = queueSizeConfig;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * @return the name of the pool, used in the names of its threads.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public ConfigValues getPoolSizeConfig() {
+        return poolSizeConfig;
+    }
+
+    public ConfigValues getQueueSizeConfig() {
+        return queueSizeConfig;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+}
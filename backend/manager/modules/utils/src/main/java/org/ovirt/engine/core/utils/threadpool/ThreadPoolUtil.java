@@ -6,14 +6,20 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
@@ -25,21 +31,132 @@ public class ThreadPoolUtil {
 
     private static final Logger log = LoggerFactory.getLogger(ThreadPoolUtil.class);
 
-    private static class InternalThreadExecutor extends ThreadPoolExecutor {
+    private static volatile Consumer<ThreadPoolStatistics> saturationListener;
 
-        RejectedExecutionHandler rejectedExecutionHandler = new ThreadPoolExecutor.CallerRunsPolicy();
+    static class InternalThreadExecutor extends ThreadPoolExecutor {
+
+        private final ThreadPoolType type;
+        private final int queueCapacity;
+        private final int saturationThreshold;
+        private final AtomicBoolean saturated = new AtomicBoolean();
+        private final AtomicLong rejectedTaskCount = new AtomicLong();
+        private final AtomicLong saturationCount = new AtomicLong();
 
         /**
          * The pool which will be created with corePoolSize equal to ConfigValues.DefaultMinThreadPoolSize
          * maximumPoolSize equal to DefaultMaxThreadPoolSize
          */
         public InternalThreadExecutor() {
-            super(Config.<Integer> getValue(ConfigValues.DefaultMinThreadPoolSize),
+            this(ThreadPoolType.DEFAULT,
+                    Config.<Integer> getValue(ConfigValues.DefaultMinThreadPoolSize),
                     Config.<Integer> getValue(ConfigValues.DefaultMaxThreadPoolSize),
+                    Config.<Integer> getValue(ConfigValues.DefaultMaxThreadWaitQueueSize),
+                    Config.<Integer> getValue(ConfigValues.ThreadPoolSaturationWarningPercent),
+                    null);
+            configureVirtualThreads();
+        }
+
+        /**
+         * The pool of the given subsystem, whose threads are all core threads which time out when idle, so the pool
+         * grows up to its size before tasks wait in the queue.
+         */
+        public InternalThreadExecutor(ThreadPoolType type, Executor overflowExecutor) {
+            this(type,
+                    Config.<Integer> getValue(type.getPoolSizeConfig()),
+                    Config.<Integer> getValue(type.getPoolSizeConfig()),
+                    Config.<Integer> getValue(type.getQueueSizeConfig()),
+                    Config.<Integer> getValue(ConfigValues.ThreadPoolSaturationWarningPercent),
+                    overflowExecutor);
+            allowCoreThreadTimeOut(true);
+            setThreadFactory(createThreadFactory(type));
+            configureVirtualThreads();
+        }
+
+        InternalThreadExecutor(ThreadPoolType type,
+                int corePoolSize,
+                int maximumPoolSize,
+                int queueCapacity,
+                int saturationPercent,
+                Executor overflowExecutor) {
+            super(corePoolSize,
+                    maximumPoolSize,
                     60L,
                     TimeUnit.SECONDS,
-                    new ArrayBlockingQueue<>(Config.<Integer>getValue(ConfigValues.DefaultMaxThreadWaitQueueSize)));
+                    new ArrayBlockingQueue<>(queueCapacity));
+            this.type = type;
+            this.queueCapacity = queueCapacity;
+            this.saturationThreshold = Math.max(1, queueCapacity * saturationPercent / 100);
+            setRejectedExecutionHandler(createRejectedExecutionHandler(type.getRejectionPolicy(), overflowExecutor));
+        }
 
+        private RejectedExecutionHandler createRejectedExecutionHandler(ThreadPoolType.RejectionPolicy policy,
+                Executor overflowExecutor) {
+            RejectedExecutionHandler handler;
+            switch (policy) {
+            case CALLER_RUNS:
+                handler = new ThreadPoolExecutor.CallerRunsPolicy();
+                break;
+            case OVERFLOW_TO_DEFAULT:
+                handler = (r, executor) -> {
+                    if (!executor.isShutdown()) {
+                        overflowExecutor.execute(r);
+                    }
+                };
+                break;
+            default:
+                handler = new ThreadPoolExecutor.AbortPolicy();
+            }
+            return (r, executor) -> {
+                rejectedTaskCount.incrementAndGet();
+                handler.rejectedExecution(r, executor);
+            };
+        }
+
+        private void configureVirtualThreads() {
+            if (!Config.<Boolean> getValue(ConfigValues.ThreadPoolUseVirtualThreads)) {
+                return;
+            }
+
+            if (VirtualThreads.isSupported()) {
+                useVirtualThreads(Config.<Integer> getValue(ConfigValues.VirtualThreadPoolSizeFactor));
+            } else {
+                log.warn("Virtual threads are enabled, but aren't supported by the JVM. The {} thread pool uses"
+                        + " platform threads", type.getName());
+            }
+        }
+
+        /**
+         * Run the tasks on virtual threads, which are cheap enough to let the pool grow the given times larger.
+         */
+        void useVirtualThreads(int sizeFactor) {
+            int maximumPoolSize = getMaximumPoolSize() * sizeFactor;
+            boolean fixedSize = getCorePoolSize() == getMaximumPoolSize();
+            setMaximumPoolSize(maximumPoolSize);
+            if (fixedSize) {
+                setCorePoolSize(maximumPoolSize);
+            }
+            setThreadFactory(VirtualThreads.createThreadFactory(type.getName() + "-virtual-thread-"));
+            log.info("The {} thread pool runs its tasks on up to {} virtual threads", type.getName(), maximumPoolSize);
+        }
+
+        private static ThreadFactory createThreadFactory(ThreadPoolType type) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            return runnable -> new Thread(runnable, type.getName() + "-thread-" + threadNumber.incrementAndGet());
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(command);
+            if (getQueue().size() >= saturationThreshold && saturated.compareAndSet(false, true)) {
+                saturationCount.incrementAndGet();
+                log.warn("The {} thread pool is saturated, {} of {} threads are active and {} of {} tasks are queued",
+                        type.getName(),
+                        getActiveCount(),
+                        getMaximumPoolSize(),
+                        getQueue().size(),
+                        queueCapacity);
+                notifySaturation(getStatistics());
+            }
         }
 
         @Override
@@ -49,12 +166,6 @@ public class ThreadPoolUtil {
             if (!threadName.startsWith("org.ovirt.thread.")) {
                 t.setName("org.ovirt.thread." + threadName);
             }
-
-            if (getQueue().size() > 5) {
-                log.warn("Executing a command '{}', but note that there are {} tasks in the queue.",
-                        r.getClass().getName(),
-                        getQueue().size());
-            }
         }
 
         @Override
@@ -64,11 +175,24 @@ public class ThreadPoolUtil {
             }
             super.afterExecute(r, t);
             CorrelationIdTracker.clean();
+
+            if (saturated.get() && getQueue().size() <= saturationThreshold / 2
+                    && saturated.compareAndSet(true, false)) {
+                log.info("The {} thread pool is no longer saturated, {} tasks are queued",
+                        type.getName(),
+                        getQueue().size());
+            }
         }
 
-        @Override
-        public RejectedExecutionHandler getRejectedExecutionHandler() {
-            return rejectedExecutionHandler;
+        ThreadPoolStatistics getStatistics() {
+            return new ThreadPoolStatistics(type,
+                    getPoolSize(),
+                    getActiveCount(),
+                    getQueue().size(),
+                    queueCapacity,
+                    getCompletedTaskCount(),
+                    rejectedTaskCount.get(),
+                    saturationCount.get());
         }
     }
 
@@ -115,7 +239,63 @@ public class ThreadPoolUtil {
         }
     }
 
-    private static final ExecutorService es = new InternalThreadExecutor();
+    private static final InternalThreadExecutor es = new InternalThreadExecutor();
+
+    private static final AtomicReferenceArray<InternalThreadExecutor> executors =
+            new AtomicReferenceArray<>(ThreadPoolType.values().length);
+
+    /**
+     * @return the pool of the given type, which is created once first used.
+     */
+    private static InternalThreadExecutor getExecutor(ThreadPoolType type) {
+        if (type == ThreadPoolType.DEFAULT) {
+            return es;
+        }
+
+        InternalThreadExecutor executor = executors.get(type.ordinal());
+        if (executor == null) {
+            synchronized (executors) {
+                executor = executors.get(type.ordinal());
+                if (executor == null) {
+                    executor = new InternalThreadExecutor(type, es);
+                    executors.set(type.ordinal(), executor);
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the listener notified once a pool becomes saturated, that is once the given percent
+     * (<code>ThreadPoolSaturationWarningPercent</code>) of its queue is used. It is notified again only after the
+     * queue of the pool drained to half of that, on the thread which submitted the task.
+     */
+    public static void setSaturationListener(Consumer<ThreadPoolStatistics> listener) {
+        saturationListener = listener;
+    }
+
+    private static void notifySaturation(ThreadPoolStatistics statistics) {
+        Consumer<ThreadPoolStatistics> listener = saturationListener;
+        if (listener == null) {
+            return;
+        }
+
+        try {
+            listener.accept(statistics);
+        } catch (RuntimeException e) {
+            log.error("Failed to report the saturation of the {} thread pool: {}",
+                    statistics.getType().getName(),
+                    e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+
+    /**
+     * @return the current state of the pool of the given type.
+     */
+    public static ThreadPoolStatistics getStatistics(ThreadPoolType type) {
+        return getExecutor(type).getStatistics();
+    }
 
     /**
      * Creates a completion service to allow launching of tasks (callable objects)
@@ -156,11 +336,18 @@ public class ThreadPoolUtil {
     }
 
     public static void execute(Runnable command) {
+        execute(ThreadPoolType.DEFAULT, command);
+    }
+
+    /**
+     * Executes the given task on the pool of the given type.
+     */
+    public static void execute(ThreadPoolType type, Runnable command) {
         try {
-            es.submit(new InternalWrapperRunnable(command,
+            getExecutor(type).submit(new InternalWrapperRunnable(command,
                     CorrelationIdTracker.getCorrelationId()));
         } catch (RejectedExecutionException e) {
-            log.warn("The thread pool is out of limit. A submitted task was rejected");
+            log.warn("The {} thread pool is out of limit. A submitted task was rejected", type.getName());
             throw e;
         }
     }
@@ -180,17 +367,25 @@ public class ThreadPoolUtil {
      * when all complete, in case of empty or null list a null will be return
      */
     public static <T> List<T> invokeAll(Collection<? extends Callable<T>> tasks) {
+        return invokeAll(ThreadPoolType.DEFAULT, tasks);
+    }
+
+    /**
+     * Executes the given tasks on the pool of the given type, returning a list of results
+     * when all complete, in case of empty or null list a null will be return
+     */
+    public static <T> List<T> invokeAll(ThreadPoolType type, Collection<? extends Callable<T>> tasks) {
         if (tasks != null && !tasks.isEmpty()) {
             try {
                 List<Callable<T>> sessionedTask = buildSessionTasks(tasks);
-                List<Future<T>> resultFutureList = es.invokeAll(sessionedTask);
+                List<Future<T>> resultFutureList = getExecutor(type).invokeAll(sessionedTask);
                 List<T> resultList = new ArrayList<>();
                 for (Future<T> future : resultFutureList) {
                     resultList.add(future.get());
                 }
                 return resultList;
             } catch (Exception e) {
-                log.warn("The thread pool failed to execute list of tasks: {}", e.getMessage());
+                log.warn("The {} thread pool failed to execute list of tasks: {}", type.getName(), e.getMessage());
                 log.debug("Exception", e);
                 throw new RuntimeException(e);
             }
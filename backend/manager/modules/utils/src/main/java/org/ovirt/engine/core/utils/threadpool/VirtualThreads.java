@@ -0,0 +1,69 @@
+package org.ovirt.engine.core.utils.threadpool;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of the JVM the engine runs on. The engine is built for Java 8, so virtual threads are
+ * looked up at runtime and are used only if the JVM supports them.<br>
+ * Virtual threads are cheap to create and to block, so a pool of virtual threads may be much larger than a pool of
+ * platform threads, which suits tasks that mostly wait for VDSM or the database.
+ */
+public final class VirtualThreads {
+
+    private static final Method ofVirtual;
+    private static final Method name;
+    private static final Method factory;
+
+    static {
+        Method ofVirtualMethod = null;
+        Method nameMethod = null;
+        Method factoryMethod = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+            nameMethod = builder.getMethod("name", String.class, long.class);
+            factoryMethod = builder.getMethod("factory");
+        } catch (ReflectiveOperationException e) {
+            // virtual threads aren't supported by this JVM
+        }
+        ofVirtual = ofVirtualMethod;
+        name = nameMethod;
+        factory = factoryMethod;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return <code>true</code> if the JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return ofVirtual != null;
+    }
+
+    /**
+     * Create a factory of virtual threads.
+     *
+     * @param prefix
+     *            The prefix of the names of the threads, which are numbered from 0.
+     *
+     * @return The factory.
+     * @throws UnsupportedOperationException
+     *             If the JVM doesn't support virtual threads.
+     */
+    public static ThreadFactory createThreadFactory(String prefix) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads aren't supported by this JVM");
+        }
+
+        try {
+            Object builder = ofVirtual.invoke(null);
+            builder = name.invoke(builder, prefix, 0L);
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
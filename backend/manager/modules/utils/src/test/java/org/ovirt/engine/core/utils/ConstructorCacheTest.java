@@ -0,0 +1,77 @@
+package org.ovirt.engine.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ConstructorCache} class.
+ */
+public class ConstructorCacheTest {
+
+    private final ConstructorCache cache = new ConstructorCache();
+
+    @SuppressWarnings("unused")
+    private static class Command {
+        private final Object parameters;
+        private final Object context;
+
+        protected Command(Exception parameters) {
+            this.parameters = parameters;
+            this.context = null;
+        }
+
+        private Command(Exception parameters, String context) {
+            this.parameters = parameters;
+            this.context = context;
+        }
+
+        public Command(Integer parameters) {
+            throw new IllegalArgumentException("failed");
+        }
+    }
+
+    @Test
+    public void testNewInstance() throws Exception {
+        Exception parameters = new RuntimeException();
+
+        Command command = cache.find(Command.class, RuntimeException.class).newInstance(parameters);
+        assertSame(parameters, command.parameters);
+        assertNull(command.context);
+    }
+
+    @Test
+    public void testNewInstanceWithMultipleArguments() throws Exception {
+        Exception parameters = new Exception();
+
+        Command command = cache.find(Command.class, Exception.class, String.class).newInstance(parameters, "context");
+        assertSame(parameters, command.parameters);
+        assertEquals("context", command.context);
+    }
+
+    @Test
+    public void testConstructorNotFound() {
+        assertNull(cache.find(Command.class, Throwable.class));
+        assertNull(cache.find(Command.class));
+    }
+
+    @Test
+    public void testConstructorIsCached() {
+        assertSame(cache.find(Command.class, Exception.class), cache.find(Command.class, Exception.class));
+    }
+
+    @Test
+    public void testConstructorFailure() {
+        try {
+            cache.find(Command.class, Integer.class).newInstance(1);
+            fail("Expected InvocationTargetException");
+        } catch (InvocationTargetException e) {
+            assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package org.ovirt.engine.core.utils.archivers.tar;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
@@ -13,6 +15,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.util.Arrays;
@@ -150,6 +153,31 @@ public class TarTest {
         }
     }
 
+    @Test
+    public void testContentDigest() throws Exception {
+        assumeTrue(SystemUtils.IS_OS_UNIX);
+
+        File tmpDir = Files.createTempDirectory("test1").toFile();
+        try {
+            writeFile(new File(tmpDir, "script1"), "script1", true);
+            writeFile(new File(tmpDir, "dir1/file1"), "file1", false);
+
+            String digest = CachedTar.digestDirectory(tmpDir);
+            assertTrue(new File(tmpDir, "dir1/file1").setLastModified(0));
+            assertEquals(digest, CachedTar.digestDirectory(tmpDir));
+
+            writeFile(new File(tmpDir, "dir1/file1"), "file2", false);
+            assertNotEquals(digest, CachedTar.digestDirectory(tmpDir));
+        }
+        finally {
+            for (String name : new String[] {"script1", "dir1/file1", "dir1", ""}) {
+                if (!new File(tmpDir, name).delete()) {
+                    // void
+                }
+            }
+        }
+    }
+
     @Test(expected=FileNotFoundException.class)
     public void testNoBase() throws IOException {
         Tar.doTar(new ByteArrayOutputStream(), new File("/asdasdsadasdasdsa"));
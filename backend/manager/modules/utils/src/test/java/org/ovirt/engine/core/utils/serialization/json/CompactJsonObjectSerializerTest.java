@@ -0,0 +1,72 @@
+package org.ovirt.engine.core.utils.serialization.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+import org.apache.commons.lang.SerializationException;
+import org.junit.Test;
+import org.ovirt.engine.core.common.action.VdcActionParametersBase;
+import org.ovirt.engine.core.common.action.VdcActionType;
+import org.ovirt.engine.core.compat.Guid;
+
+/**
+ * Tests for {@link CompactJsonObjectSerializer} and {@link CompactJsonObjectDeserializer}.
+ */
+public class CompactJsonObjectSerializerTest {
+
+    private final CompactJsonObjectSerializer serializer = new CompactJsonObjectSerializer();
+    private final CompactJsonObjectDeserializer deserializer = new CompactJsonObjectDeserializer();
+
+    @Test
+    public void testRoundTrip() {
+        Guid commandId = Guid.newGuid();
+        VdcActionParametersBase params = new VdcActionParametersBase();
+        params.setCommandId(commandId);
+        params.setParentCommand(VdcActionType.AddVm);
+
+        VdcActionParametersBase result = deserializer.deserialize(serializer.serialize(params),
+                VdcActionParametersBase.class);
+        assertEquals(commandId, result.getCommandId());
+        assertEquals(VdcActionType.AddVm, result.getParentCommand());
+    }
+
+    @Test
+    public void testNull() {
+        assertNull(serializer.serialize(null));
+        assertNull(deserializer.deserialize(null, VdcActionParametersBase.class));
+    }
+
+    @Test
+    public void testReadsPlainJson() {
+        JsonSerializablePojo serializablePojo = new JsonSerializablePojo();
+
+        assertEquals(serializablePojo,
+                deserializer.deserialize(new JsonObjectSerializer().serialize(serializablePojo),
+                        JsonSerializablePojo.class));
+    }
+
+    @Test
+    public void testSmallerThanJson() {
+        HashMap<String, Serializable> data = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            data.put("disk" + i, Guid.newGuid());
+            data.put("type" + i, VdcActionType.CreateAllSnapshotsFromVm);
+        }
+
+        String json = new JsonObjectSerializer().serialize(data);
+        String compact = serializer.serialize(data);
+        assertTrue(compact.length() < json.length());
+        assertEquals(data, deserializer.deserialize(compact, HashMap.class));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void testUnsupportedVersion() {
+        String compact = serializer.serialize(new HashMap<String, Serializable>());
+        deserializer.deserialize(CompactJsonObjectSerializer.MAGIC + "999" + compact.substring(compact.indexOf(':')),
+                HashMap.class);
+    }
+}
@@ -0,0 +1,145 @@
+package org.ovirt.engine.core.utils.threadpool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+import static org.ovirt.engine.core.common.utils.MockConfigRule.mockConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.common.utils.MockConfigRule;
+
+public class ThreadPoolUtilTest {
+
+    @ClassRule
+    public static MockConfigRule mcr = new MockConfigRule(
+            mockConfig(ConfigValues.DefaultMinThreadPoolSize, 1),
+            mockConfig(ConfigValues.DefaultMaxThreadPoolSize, 1),
+            mockConfig(ConfigValues.DefaultMaxThreadWaitQueueSize, 10),
+            mockConfig(ConfigValues.ThreadPoolSaturationWarningPercent, 80),
+            mockConfig(ConfigValues.ThreadPoolUseVirtualThreads, false));
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolUtil.InternalThreadExecutor executor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        ThreadPoolUtil.setSaturationListener(null);
+    }
+
+    /**
+     * Create a pool of a single thread, which is kept busy until the end of the test, and fill its queue.
+     */
+    private void createBusyPool(ThreadPoolType type, List<Runnable> overflow) {
+        executor = new ThreadPoolUtil.InternalThreadExecutor(type, 1, 1, 2, 50, overflow::add);
+        executor.execute(this::awaitRelease);
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void abortPolicyRejectsTask() {
+        createBusyPool(ThreadPoolType.GLUSTER, new ArrayList<>());
+
+        try {
+            executor.execute(() -> {});
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getStatistics().getRejectedTaskCount());
+        }
+    }
+
+    @Test
+    public void callerRunsPolicyRunsTaskOnSubmitter() {
+        createBusyPool(ThreadPoolType.COMMANDS, new ArrayList<>());
+
+        List<Thread> threads = new ArrayList<>();
+        executor.execute(() -> threads.add(Thread.currentThread()));
+
+        assertEquals(1, threads.size());
+        assertSame(Thread.currentThread(), threads.get(0));
+        assertEquals(1, executor.getStatistics().getRejectedTaskCount());
+    }
+
+    @Test
+    public void overflowPolicyPassesTaskToDefaultPool() {
+        List<Runnable> overflow = new ArrayList<>();
+        createBusyPool(ThreadPoolType.MONITORING, overflow);
+
+        Runnable task = () -> {};
+        executor.execute(task);
+
+        assertEquals(1, overflow.size());
+        assertSame(task, overflow.get(0));
+    }
+
+    @Test
+    public void saturationIsCountedOnce() {
+        List<ThreadPoolStatistics> notifications = new ArrayList<>();
+        ThreadPoolUtil.setSaturationListener(notifications::add);
+        createBusyPool(ThreadPoolType.STORAGE_EVENTS, new ArrayList<>());
+
+        ThreadPoolStatistics statistics = executor.getStatistics();
+        assertEquals(ThreadPoolType.STORAGE_EVENTS, statistics.getType());
+        assertEquals(1, statistics.getPoolSize());
+        assertEquals(2, statistics.getQueueSize());
+        assertEquals(2, statistics.getQueueCapacity());
+        assertEquals(1, statistics.getSaturationCount());
+        assertEquals(0, statistics.getRejectedTaskCount());
+        assertEquals(1, notifications.size());
+        assertEquals(ThreadPoolType.STORAGE_EVENTS, notifications.get(0).getType());
+    }
+
+    @Test
+    public void defaultPoolRejectsTask() {
+        createBusyPool(ThreadPoolType.DEFAULT, new ArrayList<>());
+
+        try {
+            executor.execute(() -> {});
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getStatistics().getRejectedTaskCount());
+        }
+    }
+
+    @Test
+    public void virtualThreadsEnlargePool() throws InterruptedException {
+        assumeTrue(VirtualThreads.isSupported());
+        executor = new ThreadPoolUtil.InternalThreadExecutor(ThreadPoolType.COMMANDS, 2, 2, 2, 50, Runnable::run);
+
+        executor.useVirtualThreads(10);
+        CountDownLatch done = new CountDownLatch(1);
+        List<String> threadNames = new ArrayList<>();
+        executor.execute(() -> {
+            threadNames.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(20, executor.getCorePoolSize());
+        assertEquals(20, executor.getMaximumPoolSize());
+        assertEquals("org.ovirt.thread.commands-virtual-thread-0", threadNames.get(0));
+    }
+}
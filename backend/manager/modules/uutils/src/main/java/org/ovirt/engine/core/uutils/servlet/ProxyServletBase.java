@@ -10,20 +10,43 @@ import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.net.ssl.TrustManagerFactory;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.ovirt.engine.core.uutils.net.HttpURLConnectionBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Proxies GET requests to a configured URL.
+ * <p>
+ * By default the response is copied on the container thread handling the request. In the asynchronous streaming mode
+ * the response is written with a {@link WriteListener}: data is read from the remote side only while the client is
+ * ready to take it, and no thread is held while a slow client drains its buffers. The number of concurrent transfers
+ * can be limited, requests beyond the limit are rejected with {@code 503}.
+ */
 public class ProxyServletBase extends HttpServlet {
 
     private static final long serialVersionUID = 5331291232426186121L;
 
+    private static final Logger log = LoggerFactory.getLogger(ProxyServletBase.class);
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
     private Boolean verifyHost = true;
     private Boolean verifyChain = true;
     private String httpsProtocol;
@@ -33,9 +56,18 @@ public class ProxyServletBase extends HttpServlet {
     private String trustStorePassword = "changeit";
     private Integer readTimeout;
     private String url;
+    private Boolean asyncStreaming = false;
+    private Integer bufferSize;
+    private Integer maxConcurrentTransfers;
+    private Semaphore transferPermits;
+    private final AtomicInteger activeTransfers = new AtomicInteger();
 
     protected static long copy(final InputStream input, final OutputStream output) throws IOException {
-        final byte[] buffer = new byte[8*1024];
+        return copy(input, output, 8*1024);
+    }
+
+    protected static long copy(final InputStream input, final OutputStream output, int bufferSize) throws IOException {
+        final byte[] buffer = new byte[bufferSize];
         long count = 0;
         int n;
         while ((n = input.read(buffer)) != -1) {
@@ -81,6 +113,18 @@ public class ProxyServletBase extends HttpServlet {
         this.url = url;
     }
 
+    protected void setAsyncStreaming(Boolean asyncStreaming) {
+        this.asyncStreaming = asyncStreaming;
+    }
+
+    protected void setBufferSize(Integer bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    protected void setMaxConcurrentTransfers(Integer maxConcurrentTransfers) {
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+    }
+
     protected HttpURLConnection create(URL url) throws IOException, GeneralSecurityException {
         return new HttpURLConnectionBuilder(url).setHttpsProtocol(httpsProtocol)
                 .setReadTimeout(readTimeout)
@@ -126,6 +170,15 @@ public class ProxyServletBase extends HttpServlet {
             if (httpsProtocol == null) {
                 httpsProtocol = "TLSv1";
             }
+            if (asyncStreaming == null) {
+                asyncStreaming = false;
+            }
+            if (bufferSize == null || bufferSize <= 0) {
+                bufferSize = DEFAULT_BUFFER_SIZE;
+            }
+            if (maxConcurrentTransfers != null && maxConcurrentTransfers > 0) {
+                transferPermits = new Semaphore(maxConcurrentTransfers);
+            }
         } catch (Exception e) {
             throw new ServletException(e);
         }
@@ -137,8 +190,13 @@ public class ProxyServletBase extends HttpServlet {
 
         if (url == null) {
             response.sendError(response.SC_NOT_FOUND, "Cannot proxy, no URL is configured.");
+        } else if (transferPermits != null && !transferPermits.tryAcquire()) {
+            response.sendError(response.SC_SERVICE_UNAVAILABLE, "Cannot proxy, too many concurrent transfers.");
         } else {
+            activeTransfers.incrementAndGet();
+            long startTime = System.nanoTime();
             HttpURLConnection connection = null;
+            boolean async = false;
             try {
                 connection = create(new URL(mergeQuery(url, request.getQueryString())));
                 connection.setDoInput(true);
@@ -157,13 +215,135 @@ public class ProxyServletBase extends HttpServlet {
                         }
                     }
                 }
-                copy(connection.getInputStream(), response.getOutputStream());
-                connection.connect();
+                if (asyncStreaming && request.isAsyncSupported()) {
+                    InputStream input = connection.getInputStream();
+                    AsyncTransfer transfer = new AsyncTransfer(request.startAsync(), connection, input, startTime);
+                    // from now on the transfer releases the connection, even if it fails to start
+                    async = true;
+                    transfer.start();
+                } else {
+                    long count = copy(connection.getInputStream(), response.getOutputStream(), bufferSize);
+                    connection.connect();
+                    logTransfer(count, startTime, null);
+                }
             } catch (Exception e) {
                 throw new ServletException(e);
             } finally {
-                if (connection != null) {
-                    connection.disconnect();
+                if (!async) {
+                    if (connection != null) {
+                        connection.disconnect();
+                    }
+                    transferDone();
+                }
+            }
+        }
+    }
+
+    private void transferDone() {
+        activeTransfers.decrementAndGet();
+        if (transferPermits != null) {
+            transferPermits.release();
+        }
+    }
+
+    private void logTransfer(long count, long startTime, Throwable error) {
+        if (log.isDebugEnabled()) {
+            long elapsed = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            log.debug("Proxied {} bytes from '{}' in {} ms ({} KiB/s){}, {} transfers active",
+                    count,
+                    url,
+                    elapsed,
+                    count * 1000 / 1024 / elapsed,
+                    error == null ? "" : " and failed: " + error.getMessage(),
+                    activeTransfers.get());
+        }
+    }
+
+    /**
+     * Streams the remote response to the client as the client output becomes ready, so the remote side is read only
+     * as fast as the client consumes the data.
+     */
+    private class AsyncTransfer implements WriteListener, AsyncListener {
+        private final AsyncContext asyncContext;
+        private final HttpURLConnection connection;
+        private final long startTime;
+        private final byte[] buffer = new byte[bufferSize];
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final InputStream input;
+        private ServletOutputStream output;
+        private long count;
+
+        AsyncTransfer(AsyncContext asyncContext, HttpURLConnection connection, InputStream input, long startTime) {
+            this.asyncContext = asyncContext;
+            this.connection = connection;
+            this.input = input;
+            this.startTime = startTime;
+        }
+
+        void start() {
+            try {
+                // Stalled transfers are detected by the read timeout of the connection and the client socket timeout.
+                asyncContext.setTimeout(0);
+                asyncContext.addListener(this);
+                output = asyncContext.getResponse().getOutputStream();
+                output.setWriteListener(this);
+            } catch (IOException | RuntimeException e) {
+                // without a listener nothing would ever complete the context, which has no timeout
+                log.error("Failed to start proxying from '{}': {}", url, e.getMessage());
+                log.debug("Exception", e);
+                complete(e, true);
+            }
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (output.isReady()) {
+                int n = input.read(buffer);
+                if (n == -1) {
+                    complete(null, true);
+                    return;
+                }
+                output.write(buffer, 0, n);
+                count += n;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            complete(t, true);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete(null, false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            complete(event.getThrowable(), true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete(event.getThrowable(), true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private void complete(Throwable error, boolean completeContext) {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close the proxied stream", e);
+                }
+                connection.disconnect();
+                logTransfer(count, startTime, error);
+                transferDone();
+                if (completeContext) {
+                    asyncContext.complete();
                 }
             }
         }
@@ -55,6 +55,11 @@ public class SSHClient implements Closeable {
     private String _host;
     private int _port = DEFAULT_SSH_PORT;
     private PublicKey _hostKey;
+    private SSHSessionPool _sessionPool;
+    private SSHSessionPool.PooledSession _pooledSession;
+    private boolean _reusedSession;
+    private volatile boolean _sessionFailed;
+    private volatile ClientChannel _channel;
 
     /**
      * Create the client.
@@ -253,6 +258,27 @@ public class SSHClient implements Closeable {
         return ret.toString();
     }
 
+    /**
+     * Set session pool.
+     * @param sessionPool pool to take authenticated sessions from
+     * and to return them to when closed, null to use a dedicated
+     * session.
+     *
+     * Sessions are pooled only if the credentials are set before
+     * connect().
+     */
+    public void setSessionPool(SSHSessionPool sessionPool) {
+        _sessionPool = sessionPool;
+    }
+
+    /**
+     * Get session pool.
+     * @return session pool, null if not pooled.
+     */
+    public SSHSessionPool getSessionPool() {
+        return _sessionPool;
+    }
+
     /**
      * Get host key
      * @return host key.
@@ -268,7 +294,19 @@ public class SSHClient implements Closeable {
 
         log.debug("Connecting '{}'", this.getDisplayHost());
 
+        long start = System.currentTimeMillis();
         try {
+            if (_sessionPool != null && (_password != null || _keyPair != null)) {
+                _pooledSession = _sessionPool.acquire(_host, _port, _user, _password, _keyPair, _softTimeout);
+                if (_pooledSession.isEstablished()) {
+                    _session = _pooledSession.getSession();
+                    _hostKey = _pooledSession.getHostKey();
+                    _reusedSession = true;
+                    log.debug("Reusing pooled session: '{}'", this.getDisplayHost());
+                    return;
+                }
+            }
+
             _client = createSshClient();
 
             _client.setServerKeyVerifier(
@@ -331,6 +369,9 @@ public class SSHClient implements Closeable {
             throw e;
         }
 
+        if (_sessionPool != null) {
+            _sessionPool.getStatistics().recordConnect(System.currentTimeMillis() - start);
+        }
         log.debug("Connected: '{}'", this.getDisplayHost());
     }
 
@@ -339,8 +380,14 @@ public class SSHClient implements Closeable {
      */
     public void authenticate() throws Exception {
 
+        if (_reusedSession) {
+            log.debug("Already authenticated: '{}'", this.getDisplayHost());
+            return;
+        }
+
         log.debug("Authenticating: '{}'", this.getDisplayHost());
 
+        long start = System.currentTimeMillis();
         try {
             AuthFuture afuture;
             if (_keyPair != null) {
@@ -382,6 +429,11 @@ public class SSHClient implements Closeable {
             throw e;
         }
 
+        if (_pooledSession != null) {
+            _sessionPool.getStatistics().recordAuthentication(System.currentTimeMillis() - start);
+            // the pool owns the session from now on
+            _pooledSession.establish(_client, _session, _hostKey);
+        }
         log.debug("Authenticated: '{}'", this.getDisplayHost());
     }
 
@@ -391,6 +443,30 @@ public class SSHClient implements Closeable {
      * Must be called when done with client.
      */
     public void close() throws IOException {
+        if (_pooledSession != null) {
+            ClientChannel channel = _channel;
+            if (channel != null) {
+                // closed while executing, abort the command but not
+                // the commands of others sharing the session
+                _sessionFailed = true;
+                channel.close(true);
+            }
+            SSHSessionPool.PooledSession pooledSession = _pooledSession;
+            boolean reusable = pooledSession.isEstablished() && !_sessionFailed;
+            _pooledSession = null;
+            _reusedSession = false;
+            _sessionFailed = false;
+            if (pooledSession.isEstablished()) {
+                // closed by the pool
+                _session = null;
+                _client = null;
+            }
+            _sessionPool.release(pooledSession, reusable);
+            if (reusable) {
+                return;
+            }
+        }
+
         try {
             if (_session != null) {
                 _session.close(true);
@@ -423,6 +499,8 @@ public class SSHClient implements Closeable {
 
         log.debug("Executing: '{}'", command);
 
+        long start = System.currentTimeMillis();
+
         InputStream _xin = null;
         OutputStream _xout = null;
         OutputStream _xerr = null;
@@ -450,6 +528,7 @@ public class SSHClient implements Closeable {
             final ProgressOutputStream ierr = new ProgressOutputStream(err);
         ) {
             channel = _session.createExecChannel(command);
+            _channel = channel;
             channel.setIn(iin);
             channel.setOut(iout);
             channel.setErr(ierr);
@@ -551,10 +630,17 @@ public class SSHClient implements Closeable {
             err.flush();
         }
         catch (RuntimeException e) {
+            _sessionFailed = true;
             log.debug("Execute failed", e);
             throw e;
         }
+        catch (TimeLimitExceededException e) {
+            // the session may be stuck, don't let others use it
+            _sessionFailed = true;
+            throw e;
+        }
         finally {
+            _channel = null;
             if (channel != null) {
                 int stat = channel.waitFor(
                         ClientChannel.CLOSED |
@@ -567,6 +653,9 @@ public class SSHClient implements Closeable {
             }
         }
 
+        if (_sessionPool != null) {
+            _sessionPool.getStatistics().recordCommand(System.currentTimeMillis() - start);
+        }
         log.debug("Executed: '{}'", command);
     }
 
@@ -241,6 +241,9 @@ public class SSHDialog implements Closeable {
 
             log.debug("connecting");
             _client.setUser(_user);
+            // credentials are needed to select a pooled session
+            _client.setPassword(_password);
+            _client.setKeyPair(_keyPair);
             _client.connect();
         }
         catch(Exception e) {
@@ -361,6 +364,23 @@ public class SSHDialog implements Closeable {
         log.debug("execute leave");
     }
 
+    /**
+     * Execute simple command.
+     * Execute command without input using the embedded SSHClient.
+     * @param command command to execute.
+     * @return output of command.
+     */
+    public String executeCommand(
+        String command
+    ) throws Exception {
+        log.debug("SSH execute '{}' '{}'", _client.getDisplayHost(), command);
+
+        try (final ByteArrayOutputStream out = new ConstraintByteArrayOutputStream(BUFFER_SIZE)) {
+            _client.executeCommand(command, null, out, null);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
     /**
      * Send file.
      * Send file using the embedded SSHClient.
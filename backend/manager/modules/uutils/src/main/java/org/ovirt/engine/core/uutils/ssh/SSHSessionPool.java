@@ -0,0 +1,437 @@
+package org.ovirt.engine.core.uutils.ssh;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.TimeLimitExceededException;
+
+import org.apache.sshd.ClientSession;
+import org.apache.sshd.SshClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of authenticated SSH sessions.
+ *
+ * Sessions are kept per host, port, user and credentials, so
+ * consecutive commands to a host don't pay the connection,
+ * key exchange and authentication cost again. A session is
+ * shared by up to maxChannelsPerSession concurrent clients,
+ * each running its commands in its own channel, and up to
+ * maxSessionsPerHost sessions are opened to a host; further
+ * clients wait for a free slot. Sessions which are idle for
+ * idleTimeout are closed, and so are the entries of the hosts
+ * left without sessions. Passwords are only kept as digests
+ * in the keys of the pool.
+ *
+ * The pool also collects the timing of the connections,
+ * authentications and commands of the clients using it.
+ */
+public class SSHSessionPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SSHSessionPool.class);
+
+    private final int maxSessionsPerHost;
+    private final int maxChannelsPerSession;
+    private final long idleTimeout;
+    private final Map<Key, HostSessions> hostSessions = new HashMap<>();
+    private final Statistics statistics = new Statistics();
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Constructor.
+     * @param maxSessionsPerHost maximum number of sessions to a host.
+     * @param maxChannelsPerSession maximum number of clients sharing a session.
+     * @param idleTimeout time in milliseconds after which an unused session is closed.
+     */
+    public SSHSessionPool(int maxSessionsPerHost, int maxChannelsPerSession, long idleTimeout) {
+        this.maxSessionsPerHost = Math.max(1, maxSessionsPerHost);
+        this.maxChannelsPerSession = Math.max(1, maxChannelsPerSession);
+        this.idleTimeout = idleTimeout;
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SSHSessionPool.evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long evictionInterval = Math.max(1000, idleTimeout / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleSessions, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the timing statistics of the clients using the pool.
+     * @return statistics.
+     */
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Acquire a session to host.
+     * @param host host.
+     * @param port port.
+     * @param user user.
+     * @param password password, may be null.
+     * @param keyPair key pair, may be null.
+     * @param timeout time in milliseconds to wait for a free slot.
+     * @return an authenticated session to reuse, or a reserved slot
+     * to be established by the caller.
+     *
+     * The result must be released when done.
+     */
+    PooledSession acquire(
+        String host,
+        int port,
+        String user,
+        String password,
+        KeyPair keyPair,
+        long timeout
+    ) throws InterruptedException, TimeLimitExceededException {
+        Key key = new Key(host, port, user, password, keyPair == null ? null : keyPair.getPublic());
+        HostSessions sessions;
+        synchronized (hostSessions) {
+            sessions = hostSessions.computeIfAbsent(key, k -> new HostSessions());
+            // keeps the entry from being evicted until a session is acquired
+            sessions.acquirers++;
+        }
+        try {
+            return sessions.acquire(key, timeout);
+        } finally {
+            synchronized (hostSessions) {
+                sessions.acquirers--;
+            }
+        }
+    }
+
+    /**
+     * Release a session acquired from the pool.
+     * @param session session.
+     * @param reusable whether the session may be used by other clients.
+     */
+    void release(PooledSession session, boolean reusable) {
+        session.owner.release(session, reusable);
+    }
+
+    /**
+     * Close all the sessions which are not in use for idleTimeout,
+     * and forget the hosts left without sessions.
+     */
+    public void evictIdleSessions() {
+        List<PooledSession> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (hostSessions) {
+            for (Iterator<HostSessions> it = hostSessions.values().iterator(); it.hasNext();) {
+                HostSessions sessions = it.next();
+                if (sessions.evictIdle(now, evicted) && sessions.acquirers == 0) {
+                    it.remove();
+                }
+            }
+        }
+        for (PooledSession session : evicted) {
+            session.close();
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("Closed {} idle SSH sessions, {}", evicted.size(), statistics);
+        }
+    }
+
+    /**
+     * Get the number of hosts the pool keeps sessions to.
+     * @return number of hosts.
+     */
+    int getHostCount() {
+        synchronized (hostSessions) {
+            return hostSessions.size();
+        }
+    }
+
+    /**
+     * Close all the sessions and stop the pool.
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        List<PooledSession> sessions = new ArrayList<>();
+        synchronized (hostSessions) {
+            for (HostSessions s : hostSessions.values()) {
+                s.evictIdle(Long.MAX_VALUE, sessions);
+            }
+            hostSessions.clear();
+        }
+        for (PooledSession session : sessions) {
+            session.close();
+        }
+    }
+
+    /**
+     * The sessions to a single host, port, user and credentials.
+     */
+    private class HostSessions {
+        private final List<PooledSession> sessions = new ArrayList<>();
+        // guarded by hostSessions
+        private int acquirers;
+
+        synchronized PooledSession acquire(Key key, long timeout)
+                throws InterruptedException, TimeLimitExceededException {
+            long end = System.currentTimeMillis() + timeout;
+            while (true) {
+                for (Iterator<PooledSession> it = sessions.iterator(); it.hasNext();) {
+                    PooledSession session = it.next();
+                    if (session.isEstablished() && !session.isOpen()) {
+                        session.invalid = true;
+                        if (session.borrowers == 0) {
+                            it.remove();
+                            session.close();
+                        }
+                    } else if (session.isEstablished()
+                            && !session.invalid
+                            && session.borrowers < maxChannelsPerSession) {
+                        session.borrowers++;
+                        statistics.reuses.incrementAndGet();
+                        return session;
+                    }
+                }
+
+                if (sessions.size() < maxSessionsPerHost) {
+                    PooledSession session = new PooledSession(this, key);
+                    session.borrowers++;
+                    sessions.add(session);
+                    return session;
+                }
+
+                long wait = end - System.currentTimeMillis();
+                if (timeout > 0 && wait <= 0) {
+                    throw new TimeLimitExceededException(
+                        String.format(
+                            "SSH timed out waiting for a free session to '%1$s'",
+                            key.host
+                        )
+                    );
+                }
+                wait(timeout > 0 ? wait : 0);
+            }
+        }
+
+        synchronized void release(PooledSession session, boolean reusable) {
+            session.borrowers--;
+            session.lastUsed = System.currentTimeMillis();
+            if (!reusable || !session.isEstablished()) {
+                session.invalid = true;
+            }
+            if (session.invalid && session.borrowers == 0) {
+                sessions.remove(session);
+                session.close();
+            }
+            notifyAll();
+        }
+
+        /**
+         * @return whether no session is left.
+         */
+        synchronized boolean evictIdle(long now, List<PooledSession> evicted) {
+            for (Iterator<PooledSession> it = sessions.iterator(); it.hasNext();) {
+                PooledSession session = it.next();
+                if (session.borrowers == 0 && now - session.lastUsed >= idleTimeout) {
+                    it.remove();
+                    evicted.add(session);
+                }
+            }
+            return sessions.isEmpty();
+        }
+    }
+
+    /**
+     * A pooled session, or a slot reserved for a session
+     * which is not established yet.
+     */
+    class PooledSession {
+        private final HostSessions owner;
+        private final Key key;
+        private volatile SshClient client;
+        private volatile ClientSession session;
+        private volatile PublicKey hostKey;
+        private int borrowers;
+        private long lastUsed = System.currentTimeMillis();
+        private boolean invalid;
+
+        private PooledSession(HostSessions owner, Key key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        boolean isEstablished() {
+            return session != null;
+        }
+
+        boolean isOpen() {
+            return session != null && (session.waitFor(ClientSession.CLOSED, 1) & ClientSession.CLOSED) == 0;
+        }
+
+        /**
+         * Hand an authenticated session over to the pool.
+         */
+        void establish(SshClient client, ClientSession session, PublicKey hostKey) {
+            synchronized (owner) {
+                this.client = client;
+                this.hostKey = hostKey;
+                this.session = session;
+                // clients waiting for a slot may share the new session
+                owner.notifyAll();
+            }
+        }
+
+        ClientSession getSession() {
+            return session;
+        }
+
+        PublicKey getHostKey() {
+            return hostKey;
+        }
+
+        private void close() {
+            try {
+                if (session != null) {
+                    session.close(true);
+                }
+                if (client != null) {
+                    client.stop();
+                }
+            }
+            catch (Exception e) {
+                log.debug("Failed to close pooled session", e);
+            }
+        }
+    }
+
+    /**
+     * Timing statistics, in milliseconds.
+     */
+    public static class Statistics {
+        private final AtomicLong connects = new AtomicLong();
+        private final AtomicLong connectTime = new AtomicLong();
+        private final AtomicLong authentications = new AtomicLong();
+        private final AtomicLong authenticationTime = new AtomicLong();
+        private final AtomicLong commands = new AtomicLong();
+        private final AtomicLong commandTime = new AtomicLong();
+        private final AtomicLong reuses = new AtomicLong();
+
+        void recordConnect(long time) {
+            connects.incrementAndGet();
+            connectTime.addAndGet(time);
+        }
+
+        void recordAuthentication(long time) {
+            authentications.incrementAndGet();
+            authenticationTime.addAndGet(time);
+        }
+
+        void recordCommand(long time) {
+            commands.incrementAndGet();
+            commandTime.addAndGet(time);
+        }
+
+        public long getConnects() {
+            return connects.get();
+        }
+
+        public long getConnectTime() {
+            return connectTime.get();
+        }
+
+        public long getAuthentications() {
+            return authentications.get();
+        }
+
+        public long getAuthenticationTime() {
+            return authenticationTime.get();
+        }
+
+        public long getCommands() {
+            return commands.get();
+        }
+
+        /**
+         * Get the time spent in commands, including file transfers.
+         * @return time.
+         */
+        public long getCommandTime() {
+            return commandTime.get();
+        }
+
+        public long getReuses() {
+            return reuses.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "connects: %1$d (%2$d ms), authentications: %3$d (%4$d ms), commands: %5$d (%6$d ms), reuses: %7$d",
+                getConnects(),
+                getConnectTime(),
+                getAuthentications(),
+                getAuthenticationTime(),
+                getCommands(),
+                getCommandTime(),
+                getReuses()
+            );
+        }
+    }
+
+    private static class Key {
+        private final String host;
+        private final int port;
+        private final String user;
+        private final byte[] passwordDigest;
+        private final byte[] publicKey;
+
+        Key(String host, int port, String user, String password, PublicKey publicKey) {
+            this.host = host;
+            this.port = port;
+            this.user = user;
+            this.passwordDigest = password == null ? null : digest(password);
+            this.publicKey = publicKey == null ? null : publicKey.getEncoded();
+        }
+
+        private static byte[] digest(String password) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            }
+            catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return port == other.port
+                    && Objects.equals(host, other.host)
+                    && Objects.equals(user, other.user)
+                    && Arrays.equals(passwordDigest, other.passwordDigest)
+                    && Arrays.equals(publicKey, other.publicKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port, user, Arrays.hashCode(passwordDigest), Arrays.hashCode(publicKey));
+        }
+    }
+}
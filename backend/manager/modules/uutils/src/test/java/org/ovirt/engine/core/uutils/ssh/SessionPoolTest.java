@@ -0,0 +1,129 @@
+package org.ovirt.engine.core.uutils.ssh;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import javax.naming.AuthenticationException;
+import javax.naming.TimeLimitExceededException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Session pool tests.
+ */
+public class SessionPoolTest {
+    static final String hello_command = "echo test";
+    static final String hello_result = "test\n";
+    SSHSessionPool pool;
+
+    @BeforeClass
+    public static void init() {
+        TestCommon.initialize();
+    }
+
+    @AfterClass
+    public static void cleanUp() {
+        TestCommon.terminate();
+    }
+
+    @Before
+    public void setUp() {
+        pool = new SSHSessionPool(1, 2, 60 * 1000);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    SSHClient createClient(String password) {
+        SSHClient client = new SSHClient();
+        client.setSoftTimeout(30 * 1000);
+        client.setHardTimeout(5 * 60 * 1000);
+        client.setHost(TestCommon.host, TestCommon.port);
+        client.setUser(TestCommon.user);
+        client.setPassword(password);
+        client.setSessionPool(pool);
+        return client;
+    }
+
+    void execute(SSHClient client) throws Exception {
+        try (final ByteArrayOutputStream out = new ConstraintByteArrayOutputStream(500)) {
+            client.connect();
+            client.authenticate();
+            client.executeCommand(hello_command, null, out, null);
+            assertEquals(hello_result, new String(out.toByteArray(), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void testSessionReused() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            try (SSHClient client = createClient(TestCommon.password)) {
+                execute(client);
+            }
+        }
+        assertEquals(1, pool.getStatistics().getConnects());
+        assertEquals(1, pool.getStatistics().getAuthentications());
+        assertEquals(2, pool.getStatistics().getReuses());
+        assertEquals(3, pool.getStatistics().getCommands());
+    }
+
+    @Test
+    public void testSessionShared() throws Exception {
+        try (
+            SSHClient client1 = createClient(TestCommon.password);
+            SSHClient client2 = createClient(TestCommon.password)
+        ) {
+            execute(client1);
+            execute(client2);
+        }
+        assertEquals(1, pool.getStatistics().getConnects());
+        assertEquals(1, pool.getStatistics().getReuses());
+    }
+
+    @Test(expected=TimeLimitExceededException.class)
+    public void testSessionLimit() throws Exception {
+        try (
+            SSHClient client1 = createClient(TestCommon.password);
+            SSHClient client2 = createClient(TestCommon.password);
+            SSHClient client3 = createClient(TestCommon.password)
+        ) {
+            client3.setSoftTimeout(100);
+            execute(client1);
+            execute(client2);
+            client3.connect();
+        }
+    }
+
+    @Test(expected=AuthenticationException.class)
+    public void testWrongPasswordNotReused() throws Exception {
+        try (SSHClient client = createClient(TestCommon.password)) {
+            execute(client);
+        }
+        try (SSHClient client = createClient(TestCommon.password + "A")) {
+            execute(client);
+        }
+    }
+
+    @Test
+    public void testIdleSessionEvicted() throws Exception {
+        pool.shutdown();
+        pool = new SSHSessionPool(1, 2, 0);
+        try (SSHClient client = createClient(TestCommon.password)) {
+            execute(client);
+        }
+        pool.evictIdleSessions();
+        assertEquals(0, pool.getHostCount());
+        try (SSHClient client = createClient(TestCommon.password)) {
+            execute(client);
+        }
+        assertEquals(2, pool.getStatistics().getConnects());
+        assertEquals(0, pool.getStatistics().getReuses());
+    }
+}
@@ -1,7 +1,9 @@
 package org.ovirt.engine.core.di;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.annotation.PostConstruct;
-import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.InjectionTarget;
@@ -22,6 +24,8 @@ public class Injector {
     @Inject
     private BeanManager manager;
 
+    private final ConcurrentMap<Class<?>, InjectionTarget<?>> injectionTargets = new ConcurrentHashMap<>();
+
     @PostConstruct
     private void init() {
         injector = this;
@@ -37,13 +41,24 @@ public class Injector {
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public static <T> T injectMembers(T instance) {
-        AnnotatedType type = injector.manager.createAnnotatedType(instance.getClass());
-        InjectionTarget injectionTarget = injector.manager.createInjectionTarget(type);
+        InjectionTarget injectionTarget = injector.getInjectionTarget(instance.getClass());
         injectionTarget.inject(instance, injector.manager.createCreationalContext(null));
         injectionTarget.postConstruct(instance);
         return instance;
     }
 
+    /**
+     * Get the injection target of the given type, which is created once per type since building it involves
+     * introspecting the whole type hierarchy.
+     * @param clazz the Runtime class of the unmanaged instances to inject
+     * @return the injection target of the type
+     */
+    @SuppressWarnings("unchecked")
+    private <T> InjectionTarget<T> getInjectionTarget(Class<T> clazz) {
+        return (InjectionTarget<T>) injectionTargets.computeIfAbsent(clazz,
+                type -> manager.createInjectionTarget(manager.createAnnotatedType(type)));
+    }
+
     /**
      * This method will fetch a managed CDI bean from the CDI container.
      * Using this method should help us bridge all places where we are in unmanaged instances
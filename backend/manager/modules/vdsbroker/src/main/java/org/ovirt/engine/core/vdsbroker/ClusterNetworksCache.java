@@ -0,0 +1,134 @@
+package org.ovirt.engine.core.vdsbroker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang.Validate;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.dao.network.NetworkDao;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionListener;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory cache of the networks attached to each cluster, used by the host monitoring and the network topology
+ * persistence which otherwise query {@link NetworkDao#getAllForCluster(Guid)} on every check.
+ * <p>
+ * The cache is not refreshed by itself: the commands which modify networks or their cluster attachments have to call
+ * {@link #invalidate(Guid)} or {@link #invalidateAll()}. When called within a transaction, the invalidation is
+ * repeated once the transaction completes so a reader that loaded the networks before the commit can't leave a stale
+ * entry behind.
+ */
+@Singleton
+public class ClusterNetworksCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterNetworksCache.class);
+
+    private final NetworkDao networkDao;
+    private final Map<Guid, List<Network>> networksByClusterId = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private long generation;
+
+    @Inject
+    public ClusterNetworksCache(NetworkDao networkDao) {
+        Validate.notNull(networkDao, "networkDao can not be null");
+
+        this.networkDao = networkDao;
+    }
+
+    /**
+     * Returns the networks attached to the given cluster. The returned list is a private copy which may be modified by
+     * the caller, but the networks themselves are shared and must be treated as read-only.
+     *
+     * @param clusterId
+     *            the cluster which networks should be returned
+     * @return the networks attached to the cluster
+     */
+    public List<Network> getAllForCluster(Guid clusterId) {
+        List<Network> networks = networksByClusterId.get(clusterId);
+        if (networks == null) {
+            networks = load(clusterId);
+        }
+
+        return new ArrayList<>(networks);
+    }
+
+    private List<Network> load(Guid clusterId) {
+        long loadGeneration;
+        synchronized (lock) {
+            loadGeneration = generation;
+        }
+
+        List<Network> networks = networkDao.getAllForCluster(clusterId);
+
+        synchronized (lock) {
+            // an invalidation during the load means the networks may already be outdated, so they aren't cached
+            if (loadGeneration == generation) {
+                networksByClusterId.put(clusterId, networks);
+            }
+        }
+
+        return networks;
+    }
+
+    /**
+     * Drops the cached networks of the given cluster.
+     *
+     * @param clusterId
+     *            the cluster which network configuration was modified
+     */
+    public void invalidate(Guid clusterId) {
+        doInvalidate(clusterId);
+        invalidateOnTransactionCompletion(clusterId);
+    }
+
+    /**
+     * Drops the cached networks of all the clusters, used when a modified network may be attached to several clusters.
+     */
+    public void invalidateAll() {
+        doInvalidate(null);
+        invalidateOnTransactionCompletion(null);
+    }
+
+    private void doInvalidate(Guid clusterId) {
+        synchronized (lock) {
+            generation++;
+            if (clusterId == null) {
+                networksByClusterId.clear();
+            } else {
+                networksByClusterId.remove(clusterId);
+            }
+        }
+    }
+
+    private void invalidateOnTransactionCompletion(final Guid clusterId) {
+        try {
+            if (TransactionSupport.current() == null) {
+                return;
+            }
+
+            TransactionSupport.registerRollbackHandler(new TransactionCompletionListener() {
+                @Override
+                public void onSuccess() {
+                    doInvalidate(clusterId);
+                }
+
+                @Override
+                public void onRollback() {
+                    doInvalidate(clusterId);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Failed to register cluster networks invalidation on transaction completion: {}",
+                    e.getMessage());
+            log.debug("Exception", e);
+        }
+    }
+}
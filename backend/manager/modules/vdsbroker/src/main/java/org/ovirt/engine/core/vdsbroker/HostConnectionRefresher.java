@@ -1,67 +1,29 @@
 package org.ovirt.engine.core.vdsbroker;
 
-import java.util.Map;
-
-import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
-import org.reactivestreams.Subscription;
+import org.ovirt.engine.core.vdsbroker.events.VdsmEventBus;
+import org.ovirt.engine.core.vdsbroker.events.VdsmEventTopic;
 
 public class HostConnectionRefresher {
 
-    private SubscriberRefreshingHostOnHostConnectionChangeEvent subscriber;
-    private ResourceManager resourceManager;
+    private VdsmEventBus.Registration registration;
+    private VdsmEventBus eventBus;
     protected VdsManager vdsManager;
 
-    public HostConnectionRefresher(VdsManager vdsManager, ResourceManager resourceManager) {
+    public HostConnectionRefresher(VdsManager vdsManager, VdsmEventBus eventBus) {
         this.vdsManager = vdsManager;
-        this.resourceManager = resourceManager;
+        this.eventBus = eventBus;
     }
 
     public void start() {
-        subscriber = new SubscriberRefreshingHostOnHostConnectionChangeEvent();
-        resourceManager.subscribe(subscriber);
+        registration = eventBus.subscribe(vdsManager.getVdsId(),
+                vdsManager.getVdsHostname(),
+                VdsmEventTopic.HOST_CONNECTION,
+                map -> vdsManager.refreshHost());
     }
 
     public void stop() {
-        if (subscriber != null) {
-            subscriber.unsubscribe();
-        }
-    }
-
-    private class SubscriberRefreshingHostOnHostConnectionChangeEvent extends EventSubscriber {
-
-        private Subscription subscription;
-
-        public SubscriberRefreshingHostOnHostConnectionChangeEvent() {
-            super(HostConnectionRefresher.this.vdsManager.getVdsHostname() + "|net|host_conn|no_id");
-        }
-
-        @Override
-        public void onSubscribe(Subscription sub) {
-            subscription = sub;
-            subscription.request(1);
-        }
-
-        @Override
-        public void onNext(Map<String, Object> map) {
-            try {
-                vdsManager.refreshHost();
-            } finally {
-                subscription.request(1);
-            }
-        }
-
-        @Override
-        public void onError(Throwable t) {
-            // communication issue is delivered as a message so we need to request for more
-            subscription.request(1);
-        }
-
-        @Override
-        public void onComplete() {
-        }
-
-        public void unsubscribe() {
-            subscription.cancel();
+        if (registration != null) {
+            registration.cancel();
         }
     }
 }
@@ -17,6 +17,7 @@ public abstract class ManagingVmCommand<P extends VdsAndVmIDVDSParametersBase> e
             executeVmCommand();
             updateVmDataChangedTime();
         } finally {
+            vmManager.invalidateRunningVm();
             vmManager.unlock();
         }
     }
@@ -1,6 +1,6 @@
 package org.ovirt.engine.core.vdsbroker;
 
-import java.lang.reflect.Constructor;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -8,12 +8,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.event.Observes;
 import javax.enterprise.inject.Instance;
-import javax.enterprise.inject.spi.BeanManager;
-import javax.enterprise.inject.spi.InjectionTarget;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -51,9 +50,10 @@ import org.ovirt.engine.core.dao.VmDao;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.network.VmNetworkStatisticsDao;
 import org.ovirt.engine.core.di.Injector;
-import org.ovirt.engine.core.utils.ReflectionUtils;
+import org.ovirt.engine.core.utils.ConstructorCache;
 import org.ovirt.engine.core.utils.collections.MultiValueMapUtils;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsBrokerCommand;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostStatisticsFlusher;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.FutureVDSCommand;
 import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
@@ -73,15 +73,15 @@ public class ResourceManager implements BackendService {
 
     private static final String VDSCommandPrefix = "VDSCommand";
 
+    private final Map<Enum<?>, Class<?>> commandClasses = new ConcurrentHashMap<>();
+    private final ConstructorCache commandConstructors = new ConstructorCache();
+
     private static final Logger log = LoggerFactory.getLogger(ResourceManager.class);
     private int parallelism;
 
     @Inject
     private Instance<IVdsEventListener> eventListener;
 
-    @Inject
-    private BeanManager beanManager;
-
     @Inject
     private AuditLogDirector auditLogDirector;
 
@@ -103,6 +103,9 @@ public class ResourceManager implements BackendService {
     @Inject
     private MonitoringStrategyFactory monitoringStrategyFactory;
 
+    @Inject
+    private HostStatisticsFlusher hostStatisticsFlusher;
+
     private ResourceManager() {
         this.parallelism = Config.<Integer> getValue(ConfigValues.EventProcessingPoolSize);
     }
@@ -252,6 +255,14 @@ public class ResourceManager implements BackendService {
             vdsManager.dispose();
             vdsManagersDict.remove(vdsId);
         }
+        hostStatisticsFlusher.removeHost(vdsId);
+    }
+
+    /**
+     * @return the managers of all the hosts, holding the in-memory state of the hosts.
+     */
+    public Collection<VdsManager> getVdsManagers() {
+        return Collections.unmodifiableCollection(vdsManagersDict.values());
     }
 
     public VdsManager getVdsManager(Guid vdsId) {
@@ -318,6 +329,7 @@ public class ResourceManager implements BackendService {
             final VmExitStatus exitStaus,
             final String exitMessage,
             final VmExitReason exitReason) {
+        getVmManager(vm.getId()).invalidateRunningVm();
         vm.setStatus(status);
         vm.setExitStatus(exitStaus);
         vm.setExitMessage(exitMessage);
@@ -392,9 +404,9 @@ public class ResourceManager implements BackendService {
         try {
             @SuppressWarnings("unchecked")
             Class<VDSCommandBase<P>> type =
-                    (Class<VDSCommandBase<P>>) Class.forName(getCommandTypeName(commandType));
-            Constructor<VDSCommandBase<P>> constructor =
-                    ReflectionUtils.findConstructor(type, parameters.getClass());
+                    (Class<VDSCommandBase<P>>) getCommandClass(commandType, () -> getCommandTypeName(commandType));
+            ConstructorCache.Handle<VDSCommandBase<P>> constructor =
+                    commandConstructors.find(type, parameters.getClass());
 
             if (constructor != null) {
                 return instantiateInjectedCommand(parameters, constructor);
@@ -412,20 +424,29 @@ public class ResourceManager implements BackendService {
     }
 
     private <P extends VDSParametersBase, T extends VDSCommandBase<P>> T instantiateInjectedCommand(P parameters,
-            Constructor<T> constructor) throws Exception {
-        T cmd = constructor.newInstance(new Object[] { parameters });
-        InjectionTarget injectionTarget =
-                beanManager.createInjectionTarget(beanManager.createAnnotatedType(cmd.getClass()));
-        injectionTarget.inject(cmd, beanManager.createCreationalContext(null));
-        return cmd;
+            ConstructorCache.Handle<T> constructor) throws Exception {
+        return Injector.injectMembers(constructor.newInstance(parameters));
+    }
+
+    /**
+     * The command classes are loaded once per command type, since commands are created very frequently.
+     */
+    private Class<?> getCommandClass(Enum<?> commandType, Supplier<String> className) throws ClassNotFoundException {
+        Class<?> type = commandClasses.get(commandType);
+        if (type == null) {
+            type = Class.forName(className.get());
+            commandClasses.put(commandType, type);
+        }
+        return type;
     }
 
     private <P extends VdsIdVDSCommandParametersBase> FutureVDSCommand<P> createFutureCommand(FutureVDSCommandType commandType,
             P parameters) {
         try {
-            Class<FutureVDSCommand<P>> type =
-                    (Class<FutureVDSCommand<P>>) Class.forName(commandType.getFullyQualifiedClassName());
-            Constructor<FutureVDSCommand<P>> constructor = ReflectionUtils.findConstructor(type, parameters.getClass());
+            Class<FutureVDSCommand<P>> type = (Class<FutureVDSCommand<P>>) getCommandClass(commandType,
+                    commandType::getFullyQualifiedClassName);
+            ConstructorCache.Handle<FutureVDSCommand<P>> constructor =
+                    commandConstructors.find(type, parameters.getClass());
 
             if (constructor != null) {
                 return instantiateInjectedCommand(parameters, constructor);
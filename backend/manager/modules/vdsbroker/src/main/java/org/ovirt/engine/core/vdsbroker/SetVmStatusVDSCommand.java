@@ -51,5 +51,6 @@ public class SetVmStatusVDSCommand<P extends SetVmStatusVDSCommandParameters> ex
             resourceManager.removeAsyncRunningVm(parameters.getVmId());
         }
         DbFacade.getInstance().getVmDynamicDao().update(vmDynamic);
+        resourceManager.getVmManager(parameters.getVmId()).invalidateRunningVm();
     }
 }
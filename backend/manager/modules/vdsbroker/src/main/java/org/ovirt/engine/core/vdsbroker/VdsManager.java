@@ -1,8 +1,10 @@
 package org.ovirt.engine.core.vdsbroker;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +13,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.RandomUtils;
@@ -28,6 +31,7 @@ import org.ovirt.engine.core.common.businessentities.VdsDynamic;
 import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
 import org.ovirt.engine.core.common.businessentities.VdsSpmStatus;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.locks.LockingGroup;
@@ -50,14 +54,20 @@ import org.ovirt.engine.core.utils.NumaUtils;
 import org.ovirt.engine.core.utils.crypt.EngineEncryptionUtils;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManagerFactory;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtil;
 import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.timer.TimerWheelScheduler;
 import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.events.VdsmEventBus;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IRSErrorException;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IrsBrokerCommand;
 import org.ovirt.engine.core.vdsbroker.monitoring.HostMonitoring;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostRefreshBudget;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostRefreshPolicy;
+import org.ovirt.engine.core.vdsbroker.monitoring.HostStatisticsFlusher;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategy;
 import org.ovirt.engine.core.vdsbroker.monitoring.MonitoringStrategyFactory;
 import org.ovirt.engine.core.vdsbroker.monitoring.RefresherFactory;
@@ -78,11 +88,17 @@ public class VdsManager {
     private final Guid vdsId;
     private final VdsMonitor vdsMonitor = new VdsMonitor();
     private VDS cachedVds;
+    /**
+     * Incremented whenever {@link #cachedVds} may have changed, so {@link #publishedVds} is known to be stale
+     */
+    private final AtomicLong cachedVdsVersion = new AtomicLong();
+    private volatile PublishedVds publishedVds;
     private final AuditLogDirector auditLogDirector;
     private long lastUpdate;
     private long updateStartTime;
     private long nextMaintenanceAttemptTime;
     private List<String> registeredJobs;
+    private String refreshJobId;
     private boolean isSetNonOperationalExecuted;
     private MonitoringStrategy monitoringStrategy;
     private EngineLock monitoringLock;
@@ -91,7 +107,8 @@ public class VdsManager {
     private boolean beforeFirstRefresh = true;
     private HostMonitoring hostMonitoring;
     private boolean monitoringNeeded;
-    private List<VM> lastVmsList = Collections.emptyList();
+    private List<VmRuntimeState> lastVmsList = Collections.emptyList();
+    private volatile Set<Guid> runningVmIds;
     private final ResourceManager resourceManager;
     private final DbFacade dbFacade;
     private Map<Guid, V2VJobInfo> vmIdToV2VJob = new ConcurrentHashMap<>();
@@ -100,6 +117,7 @@ public class VdsManager {
 
     protected final int HOST_REFRESH_RATE;
     protected final int NUMBER_HOST_REFRESHES_BEFORE_SAVE;
+    private final HostRefreshPolicy refreshPolicy;
     private HostConnectionRefresher hostRefresher;
 
     public VdsManager(VDS vds,
@@ -110,6 +128,7 @@ public class VdsManager {
         HOST_REFRESH_RATE = Config.<Integer> getValue(ConfigValues.VdsRefreshRate) * 1000;
         NUMBER_HOST_REFRESHES_BEFORE_SAVE = Config.<Integer> getValue(ConfigValues.NumberVmRefreshesBeforeSave);
         refreshIteration = NUMBER_HOST_REFRESHES_BEFORE_SAVE - 1;
+        refreshPolicy = new HostRefreshPolicy(Config.<Integer> getValue(ConfigValues.VdsRefreshMaxStretchFactor));
         this.resourceManager = resourceManager;
         this.dbFacade = dbFacade;
         this.auditLogDirector = auditLogDirector;
@@ -147,20 +166,19 @@ public class VdsManager {
         } else {
             cachedVds.setPreviousStatus(VDSStatus.Up);
         }
+        cachedVdsChanged();
     }
 
     public void scheduleJobs() {
         SchedulerUtil sched = getSchedulUtil();
         int refreshRate = Config.<Integer> getValue(ConfigValues.VdsRefreshRate) * 1000;
 
-        registeredJobs.add(sched.scheduleAFixedDelayJob(
-                this,
-                "onTimer",
-                new Class[0],
-                new Object[0],
+        refreshJobId = getTimerWheel().scheduleAFixedDelayJob(
+                "VdsManager.onTimer",
+                this::onTimer,
                 refreshRate,
                 refreshRate,
-                TimeUnit.MILLISECONDS));
+                TimeUnit.MILLISECONDS);
 
         double availableUpdatesRefreshRate = Config.<Double> getValue(ConfigValues.HostPackagesUpdateTimeInHours);
         final int HOURS_TO_MINUTES = 60;
@@ -178,7 +196,7 @@ public class VdsManager {
         vmsRefresher = getRefresherFactory().create(this);
         vmsRefresher.startMonitoring();
 
-        hostRefresher = new HostConnectionRefresher(this, resourceManager);
+        hostRefresher = new HostConnectionRefresher(this, getEventBus());
         hostRefresher.start();
     }
 
@@ -186,10 +204,22 @@ public class VdsManager {
         return Injector.get(RefresherFactory.class);
     }
 
+    private HostRefreshBudget getRefreshBudget() {
+        return Injector.get(HostRefreshBudget.class);
+    }
+
+    private VdsmEventBus getEventBus() {
+        return Injector.get(VdsmEventBus.class);
+    }
+
     private SchedulerUtil getSchedulUtil() {
         return Injector.get(SchedulerUtilQuartzImpl.class);
     }
 
+    private TimerWheelScheduler getTimerWheel() {
+        return Injector.get(TimerWheelScheduler.class);
+    }
+
     private void initVdsBroker() {
         log.info("Initialize vdsBroker '{}:{}'", cachedVds.getHostName(), cachedVds.getPort());
 
@@ -208,11 +238,19 @@ public class VdsManager {
                 heartbeat);
     }
 
-    @OnTimerMethodAnnotation("onTimer")
     public void onTimer() {
+        if (!refreshPolicy.isTimeToRefresh()) {
+            return;
+        }
+
         if (LockManagerFactory.getLockManager().acquireLock(monitoringLock).getFirst()) {
             try {
+                if (!acquireRefreshBudget()) {
+                    return;
+                }
+
                 setIsSetNonOperationalExecuted(false);
+                boolean refreshFailed = false;
                 Guid storagePoolId = null;
                 ArrayList<VDSDomainsData> domainsList = null;
                 synchronized (getLockObj()) {
@@ -239,10 +277,13 @@ public class VdsManager {
                             setLastUpdate();
                         }
                     } catch (VDSNetworkException e) {
+                        refreshFailed = true;
                         logNetworkException(e);
                     } catch (VDSRecoveringException ex) {
+                        refreshFailed = true;
                         handleVdsRecoveringException(ex);
                     } catch (RuntimeException ex) {
+                        refreshFailed = true;
                         logFailureMessage(ex);
                     }
                     try {
@@ -269,7 +310,10 @@ public class VdsManager {
                         logAfterRefreshFailureMessage(ex);
                         logException(ex);
                     }
-
+                    cachedVdsChanged();
+                    if (cachedVds != null) {
+                        refreshPolicy.onRefreshed(cachedVds, refreshFailed || unrespondedAttempts.get() > 0);
+                    }
                 }
 
                 // Now update the status of domains, this code should not be in
@@ -285,8 +329,25 @@ public class VdsManager {
         }
     }
 
+    /**
+     * The timer ticks at the base refresh rate, stable hosts are refreshed on some of the ticks only, as decided by
+     * their {@link HostRefreshPolicy} and the global {@link HostRefreshBudget}. The budget is only taken once the
+     * monitoring lock is held, so a tick which doesn't refresh the host doesn't use it.
+     */
+    private boolean acquireRefreshBudget() {
+        return getRefreshBudget().tryAcquire(refreshPolicy.isRefreshMandatory());
+    }
+
+    /**
+     * Refresh the host on every tick of the timer until it is stable again, used when the host enters a transition.
+     */
+    public void resetRefreshInterval() {
+        refreshPolicy.reset();
+    }
+
     private void refreshCachedVds() {
         cachedVds = dbFacade.getVdsDao().get(getVdsId());
+        cachedVdsChanged();
         setMonitoringNeeded();
     }
 
@@ -317,6 +378,7 @@ public class VdsManager {
             if (updateAvailable != cachedVds.isUpdateAvailable()) {
                 cachedVds.getDynamicData().setUpdateAvailable(updateAvailable);
                 dbFacade.getVdsDynamicDao().updateUpdateAvailable(cachedVds.getId(), updateAvailable);
+                cachedVdsChanged();
             }
         }
     }
@@ -327,6 +389,34 @@ public class VdsManager {
     public VDS getCopyVds() {
         return cachedVds.clone();
     }
+
+    /**
+     * Get a snapshot of the internal VDS, as of its last change. The snapshot is shared by all the callers until the
+     * internal VDS is changed, so it is cheaper than {@link #getCopyVds()} but must not be modified; callers which
+     * intend to modify the VDS should use {@link #getCopyVds()} instead.
+     *
+     * @return a read-only snapshot of the internal VDS.
+     */
+    public VDS getVdsSnapshot() {
+        long version = cachedVdsVersion.get();
+        PublishedVds published = publishedVds;
+        if (published != null && published.version == version) {
+            return published.vds;
+        }
+
+        VDS vds = cachedVds.clone();
+        // if the internal VDS was changed while copying it, the next call copies it again
+        publishedVds = new PublishedVds(version, vds);
+        return vds;
+    }
+
+    /**
+     * Must be called after the internal VDS is changed, so the changes are visible to {@link #getVdsSnapshot()}.
+     */
+    private void cachedVdsChanged() {
+        cachedVdsVersion.incrementAndGet();
+    }
+
     public String getVdsName() {
         return cachedVds.getName();
     }
@@ -420,12 +510,14 @@ public class VdsManager {
     public void updateDynamicData(VdsDynamic dynamicData) {
         dbFacade.getVdsDynamicDao().updateIfNeeded(dynamicData);
         cachedVds.setDynamicData(dynamicData);
+        cachedVdsChanged();
     }
 
     public void updatePartialDynamicData(NonOperationalReason nonOperationalReason, String maintenanceReason) {
         cachedVds.getDynamicData().setNonOperationalReason(nonOperationalReason);
         cachedVds.getDynamicData().setMaintenanceReason(maintenanceReason);
         dbFacade.getVdsDynamicDao().updateStatusAndReasons(cachedVds.getDynamicData());
+        cachedVdsChanged();
     }
 
     /**
@@ -434,6 +526,7 @@ public class VdsManager {
     public void updateStatisticsData(VdsStatistics statisticsData) {
         dbFacade.getVdsStatisticsDao().update(statisticsData);
         cachedVds.setStatisticsData(statisticsData);
+        cachedVdsChanged();
     }
 
     /**
@@ -450,7 +543,9 @@ public class VdsManager {
         synchronized (getLockObj()) {
             cachedVds.setPendingVcpusCount(pendingCpuCount);
             cachedVds.setPendingVmemSize(pendingMemory);
-            HostMonitoring.refreshCommitedMemory(cachedVds, dbFacade.getVmDao().getAllRunningForVds(getVdsId()));
+            resetRefreshInterval();
+            HostMonitoring.refreshCommitedMemory(cachedVds,
+                    dbFacade.getVmDao().getAllRuntimeStatesRunningForVds(getVdsId()));
             updateDynamicData(cachedVds.getDynamicData());
         }
     }
@@ -498,6 +593,7 @@ public class VdsManager {
                     }
                     return null;
                 });
+        getHostStatisticsFlusher().invalidateNumaNodes(vds.getId());
     }
 
     public void refreshHost(VDS vds) {
@@ -513,6 +609,7 @@ public class VdsManager {
 
                 // Always check VdsVersion
                 resourceManager.getEventListener().handleVdsVersion(vds.getId());
+                cachedVdsChanged();
             }
         }
     }
@@ -536,6 +633,7 @@ public class VdsManager {
                 if (status == VDSStatus.PreparingForMaintenance) {
                     calculateNextMaintenanceAttemptTime();
                 }
+                resetRefreshInterval();
                 vds.setPreviousStatus(vds.getStatus());
                 if (this.cachedVds != null) {
                     this.cachedVds.setPreviousStatus(vds.getStatus());
@@ -577,6 +675,7 @@ public class VdsManager {
             default:
                 break;
             }
+            cachedVdsChanged();
         }
     }
 
@@ -745,6 +844,10 @@ public class VdsManager {
         return Injector.get(HostNetworkTopologyPersister.class);
     }
 
+    private HostStatisticsFlusher getHostStatisticsFlusher() {
+        return Injector.get(HostStatisticsFlusher.class);
+    }
+
     private long calcTimeoutToFence(int vmCount, VdsSpmStatus spmStatus) {
         int spmIndicator = spmStatus == VdsSpmStatus.None ? 0 : 1;
         int secToFence = (int) (
@@ -857,6 +960,9 @@ public class VdsManager {
 
     public void dispose() {
         log.info("vdsManager::disposing");
+        if (refreshJobId != null) {
+            getTimerWheel().deleteJob(refreshJobId);
+        }
         for (String jobId : registeredJobs) {
             getSchedulUtil().deleteJob(jobId);
         }
@@ -957,7 +1063,7 @@ public class VdsManager {
             return;
         }
         // avoid nested locks by doing this in a separate thread
-        ThreadPoolUtil.execute(() -> {
+        ThreadPoolUtil.execute(ThreadPoolType.MONITORING, () -> {
             VDSReturnValue returnValue = null;
             returnValue =
                     resourceManager.runVdsCommand(VDSCommandType.DestroyVm,
@@ -1046,17 +1152,72 @@ public class VdsManager {
         beforeFirstRefresh = value;
     }
 
-    public List<VM> getLastVmsList() {
+    public List<VmRuntimeState> getLastVmsList() {
         return lastVmsList;
     }
 
     /**
      * This method is not thread safe
      */
-    public void setLastVmsList(List<VM> lastVmsList) {
+    public void setLastVmsList(List<VmRuntimeState> lastVmsList) {
         this.lastVmsList = lastVmsList;
     }
 
+    /**
+     * Get the VMs which run on the host according to the DB, as known to their {@link VmManager}s, so the VMs reported
+     * by the host can be compared with them without reading the DB.
+     *
+     * @return the VMs which run on the host by their IDs, or null if any of them is unknown or might be stale, in which
+     *         case they should be read from the DB. The VMs must not be modified.
+     */
+    public Map<Guid, VM> getRunningVms() {
+        Set<Guid> vmIds = runningVmIds;
+        if (vmIds == null) {
+            return null;
+        }
+
+        Map<Guid, VM> vms = new HashMap<>(vmIds.size());
+        for (Guid vmId : vmIds) {
+            VM vm = resourceManager.getVmManager(vmId).getRunningVm();
+            if (vm == null || !getVdsId().equals(vm.getRunOnVds())) {
+                return null;
+            }
+            vms.put(vmId, vm);
+        }
+        return vms;
+    }
+
+    /**
+     * Get the generations of the given VMs known to run, to be taken before the VMs are read from the DB.
+     *
+     * @return the generations of the VMs by their IDs.
+     */
+    public Map<Guid, Long> getRunningVmGenerations(Collection<Guid> vmIds) {
+        Map<Guid, Long> generations = new HashMap<>(vmIds.size());
+        for (Guid vmId : vmIds) {
+            generations.put(vmId, resourceManager.getVmManager(vmId).getRunningVmGeneration());
+        }
+        return generations;
+    }
+
+    /**
+     * Set the VMs which run on the host, as they were read from the DB. A VM which was invalidated since its generation
+     * was taken, or whose generation wasn't taken, is not kept and is read from the DB again on the next cycle.
+     *
+     * @param generations
+     *            The generations of the VMs taken by {@link #getRunningVmGenerations(Collection)} before the VMs were
+     *            read.
+     */
+    public void setRunningVms(Map<Guid, VM> vms, Map<Guid, Long> generations) {
+        for (VM vm : vms.values()) {
+            Long generation = generations.get(vm.getId());
+            if (generation != null) {
+                resourceManager.getVmManager(vm.getId()).setRunningVm(vm, generation);
+            }
+        }
+        runningVmIds = new HashSet<>(vms.keySet());
+    }
+
     public void vmsMonitoringInitFinished() {
         if (!isInitialized()) {
             log.info("VMs initialization finished for Host: '{}:{}'", cachedVds.getName(), cachedVds.getId());
@@ -1106,4 +1267,14 @@ public class VdsManager {
             }
         }
     }
+
+    private static class PublishedVds {
+        private final long version;
+        private final VDS vds;
+
+        private PublishedVds(long version, VDS vds) {
+            this.version = version;
+            this.vds = vds;
+        }
+    }
 }
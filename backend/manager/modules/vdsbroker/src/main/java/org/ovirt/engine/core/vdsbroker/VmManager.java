@@ -4,6 +4,7 @@ import java.util.concurrent.locks.ReentrantLock;
 
 import javax.inject.Inject;
 
+import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
@@ -31,6 +32,16 @@ public class VmManager {
 
     private boolean coldReboot;
 
+    /**
+     * The VM as it was last known to run in the DB, or null if it is unknown or might be stale
+     */
+    private volatile VM runningVm;
+    /**
+     * Incremented whenever the VM known to run is invalidated, so a VM read from the DB before that isn't kept
+     */
+    private long runningVmGeneration;
+    private final Object runningVmLock = new Object();
+
     @Inject
     private VmDynamicDao vmDynamicDao;
     @Inject
@@ -59,6 +70,7 @@ public class VmManager {
 
     public void update(VmDynamic dynamic) {
         vmDynamicDao.update(dynamic);
+        updateRunningVm(dynamic);
     }
 
     public void update(VmStatistics statistics) {
@@ -156,4 +168,57 @@ public class VmManager {
     public void setStatistics(VmStatistics statistics) {
         this.statistics = statistics;
     }
+
+    /**
+     * @return the VM as it was last known to run in the DB, to be compared with the VMs reported by the host without
+     *         reading the DB, or null if it is unknown or might be stale. The VM must not be modified.
+     */
+    public VM getRunningVm() {
+        return runningVm;
+    }
+
+    /**
+     * @return the generation of the VM known to run, to be passed to {@link #setRunningVm(VM, long)} with the VM read
+     *         from the DB after it.
+     */
+    public long getRunningVmGeneration() {
+        synchronized (runningVmLock) {
+            return runningVmGeneration;
+        }
+    }
+
+    /**
+     * Set the VM as it was read from the DB by the monitoring of the host it runs on, unless it was invalidated since
+     * the given generation was taken.
+     */
+    public void setRunningVm(VM vm, long generation) {
+        synchronized (runningVmLock) {
+            if (generation == runningVmGeneration) {
+                runningVm = new VM(vm.getStaticData(), new VmDynamic(vm.getDynamicData()), null);
+            }
+        }
+    }
+
+    /**
+     * Update the dynamic data of the VM known to run, after it was saved to the DB.
+     */
+    public void updateRunningVm(VmDynamic dynamic) {
+        synchronized (runningVmLock) {
+            VM vm = runningVm;
+            if (vm != null) {
+                runningVm = new VM(vm.getStaticData(), new VmDynamic(dynamic), null);
+            }
+        }
+    }
+
+    /**
+     * Forget the VM known to run, so the next monitoring cycle of its host reads it from the DB. Should be called
+     * whenever the VM is changed in the DB not by the monitoring, either its dynamic or its static data.
+     */
+    public void invalidateRunningVm() {
+        synchronized (runningVmLock) {
+            runningVmGeneration++;
+            runningVm = null;
+        }
+    }
 }
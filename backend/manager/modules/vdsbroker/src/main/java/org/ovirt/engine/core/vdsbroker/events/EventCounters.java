@@ -0,0 +1,97 @@
+package org.ovirt.engine.core.vdsbroker.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ovirt.engine.core.common.utils.ToStringBuilder;
+
+/**
+ * Counters of the events passed through the {@link VdsmEventBus}, either of a host or of a topic.
+ */
+public class EventCounters {
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private volatile long lagMillis;
+
+    void onReceived() {
+        received.incrementAndGet();
+        queued.incrementAndGet();
+    }
+
+    void onCoalesced() {
+        coalesced.incrementAndGet();
+        queued.decrementAndGet();
+    }
+
+    void onDropped() {
+        dropped.incrementAndGet();
+        queued.decrementAndGet();
+    }
+
+    void onProcessed(long lagMillis) {
+        processed.incrementAndGet();
+        queued.decrementAndGet();
+        this.lagMillis = lagMillis;
+    }
+
+    void onDiscarded(int events) {
+        queued.addAndGet(-events);
+    }
+
+    /**
+     * @return the number of events received from VDSM.
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * @return the number of events handled by their subscriber.
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * @return the number of events which were merged into a previous event, since the queue was full.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of events which were dropped, since the queue was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of events waiting to be processed.
+     */
+    public long getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return the time, in milliseconds, the last processed event waited in the queue.
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.forInstance(this)
+                .append("received", getReceived())
+                .append("processed", getProcessed())
+                .append("coalesced", getCoalesced())
+                .append("dropped", getDropped())
+                .append("queued", getQueued())
+                .append("lagMillis", getLagMillis())
+                .build();
+    }
+}
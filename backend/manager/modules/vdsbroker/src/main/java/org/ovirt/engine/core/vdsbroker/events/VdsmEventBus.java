@@ -0,0 +1,428 @@
+package org.ovirt.engine.core.vdsbroker.events;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.vdsbroker.ResourceManager;
+import org.ovirt.engine.core.vdsbroker.events.VdsmEventTopic.Priority;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Central bus of the events sent by VDSM, which processes the events of all hosts by a shared pool of threads.<br>
+ * The events of each host and topic are queued in a bounded queue and are processed one at a time, in the order they
+ * were received. Hosts with pending events are served in turns, and the topics of higher priority first, so a few
+ * noisy hosts can't starve the processing of the events of the rest. Events which don't fit the queue are merged into
+ * the last queued event or dropped, according to their topic, and are counted per host and per topic.
+ * <p>
+ * The next event is requested from the host as soon as the previous one is queued, so the hosts are never slowed
+ * down by the engine. Merging and dropping events take the place of back-pressure, and the counters are reported
+ * periodically, with a warning for each host whose events were merged or dropped since the previous report.
+ */
+@Singleton
+public class VdsmEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(VdsmEventBus.class);
+
+    private static final String REPORT_METHOD = "reportCounters";
+
+    @Inject
+    private ResourceManager resourceManager;
+
+    @Inject
+    private SchedulerUtilQuartzImpl schedulerUtil;
+
+    private ExecutorService executor;
+    private int queueCapacity;
+
+    private final Map<Priority, Queue<Registration>> lanes = new EnumMap<>(Priority.class);
+    private final Map<VdsmEventTopic, EventCounters> topicCounters = new EnumMap<>(VdsmEventTopic.class);
+    private final ConcurrentMap<Guid, EventCounters> hostCounters = new ConcurrentHashMap<>();
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    private final Map<Guid, Long> reportedOverflows = new ConcurrentHashMap<>();
+
+    public VdsmEventBus() {
+        for (Priority priority : Priority.values()) {
+            lanes.put(priority, new ConcurrentLinkedQueue<>());
+        }
+        for (VdsmEventTopic topic : VdsmEventTopic.values()) {
+            topicCounters.put(topic, new EventCounters());
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        init(Executors.newFixedThreadPool(Config.<Integer> getValue(ConfigValues.VdsmEventBusPoolSize),
+                        createThreadFactory()),
+                Config.<Integer> getValue(ConfigValues.VdsmEventBusQueueCapacity));
+        int reportInterval = Config.<Integer> getValue(ConfigValues.VdsmEventBusReportIntervalInMinutes);
+        schedulerUtil.scheduleAFixedDelayJob(this,
+                REPORT_METHOD,
+                new Class[] {},
+                new Object[] {},
+                reportInterval,
+                reportInterval,
+                TimeUnit.MINUTES);
+    }
+
+    void init(ExecutorService executor, int queueCapacity) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Subscribe to the events of the given topic sent by the given host.
+     *
+     * @param hostId
+     *            The ID of the host.
+     * @param hostName
+     *            The name the host is connected by.
+     * @param topic
+     *            The topic of the events.
+     * @param handler
+     *            The handler of the events, which is never called concurrently for the same registration.
+     *
+     * @return The registration, which should be cancelled once the events are no longer needed.
+     */
+    public Registration subscribe(Guid hostId,
+            String hostName,
+            VdsmEventTopic topic,
+            Consumer<Map<String, Object>> handler) {
+        Registration registration = register(hostId, hostName, topic, handler);
+        resourceManager.subscribe(registration.subscriber);
+        return registration;
+    }
+
+    Registration register(Guid hostId, String hostName, VdsmEventTopic topic, Consumer<Map<String, Object>> handler) {
+        Registration registration = new Registration(hostId,
+                topic,
+                topic.getSubscriptionId(hostName),
+                handler,
+                hostCounters.computeIfAbsent(hostId, id -> new EventCounters()));
+        registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * @return the counters of the events of the given topic, of all the hosts.
+     */
+    public EventCounters getTopicCounters(VdsmEventTopic topic) {
+        return topicCounters.get(topic);
+    }
+
+    /**
+     * @return the counters of the events of the given host, of all the topics, or <code>null</code> if there is no
+     *         subscription for the host.
+     */
+    public EventCounters getHostCounters(Guid hostId) {
+        return hostCounters.get(hostId);
+    }
+
+    /**
+     * Log the counters of each topic, and warn about the hosts whose events were merged or dropped since the previous
+     * report.
+     */
+    @OnTimerMethodAnnotation(REPORT_METHOD)
+    public void reportCounters() {
+        topicCounters.forEach((topic, counters) -> {
+            if (counters.getReceived() > 0) {
+                log.info("Events on topic {}: {}", topic, counters);
+            }
+        });
+
+        hostCounters.forEach((hostId, counters) -> {
+            long overflows = counters.getCoalesced() + counters.getDropped();
+            Long previous = reportedOverflows.put(hostId, overflows);
+            if (overflows > (previous == null ? 0 : previous)) {
+                log.warn("Events of host '{}' were merged or dropped since they were received faster than they were"
+                        + " processed: {}",
+                        hostId,
+                        counters);
+            }
+        });
+    }
+
+    private void offer(Registration registration, Map<String, Object> data) {
+        EventCounters counters = topicCounters.get(registration.topic);
+        registration.hostCounters.onReceived();
+        counters.onReceived();
+
+        boolean schedule;
+        synchronized (registration) {
+            if (registration.cancelled) {
+                registration.hostCounters.onDropped();
+                counters.onDropped();
+                return;
+            }
+
+            if (registration.pending.size() >= queueCapacity) {
+                if (registration.topic.isCoalescing()) {
+                    Event last = registration.pending.getLast();
+                    last.data = merge(last.data, data);
+                    registration.hostCounters.onCoalesced();
+                    counters.onCoalesced();
+                } else {
+                    registration.hostCounters.onDropped();
+                    counters.onDropped();
+                }
+                reportOverflow(registration);
+                return;
+            }
+
+            registration.pending.add(new Event(data));
+            schedule = !registration.scheduled;
+            registration.scheduled = true;
+        }
+
+        if (schedule) {
+            schedule(registration);
+        }
+    }
+
+    /**
+     * Merge the data of an event into the data of the previous one, the newer value of each key replacing the older.
+     * <p>
+     * The notify time of an event applies to all of its entries, so the entries which are left from the previous
+     * event keep its notify time in their own data, and the notify time of the merged event is the newer one. This
+     * way the data of an entry is never taken as newer or older than it is.
+     */
+    static Map<String, Object> merge(Map<String, Object> previous, Map<String, Object> next) {
+        Map<String, Object> merged = new HashMap<>(previous);
+        Object previousNotifyTime = previous.get(VdsProperties.notify_time);
+        if (previousNotifyTime != null) {
+            merged.replaceAll((key, value) -> !next.containsKey(key) && value instanceof Map
+                    ? withNotifyTime(value, previousNotifyTime)
+                    : value);
+        }
+        merged.putAll(next);
+        return merged;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withNotifyTime(Object entry, Object notifyTime) {
+        Map<String, Object> entryData = (Map<String, Object>) entry;
+        if (entryData.containsKey(VdsProperties.notify_time)) {
+            // left from an earlier merge, with its own notify time
+            return entryData;
+        }
+        Map<String, Object> stamped = new HashMap<>(entryData);
+        stamped.put(VdsProperties.notify_time, notifyTime);
+        return stamped;
+    }
+
+    private void reportOverflow(Registration registration) {
+        if (!registration.overflowReported) {
+            registration.overflowReported = true;
+            log.warn("Events of host '{}' on topic {} are received faster than they are processed, {} events are"
+                    + " queued",
+                    registration.hostId,
+                    registration.topic,
+                    registration.pending.size());
+        }
+    }
+
+    private void schedule(Registration registration) {
+        lanes.get(registration.topic.getPriority()).add(registration);
+        executor.execute(this::dispatch);
+    }
+
+    /**
+     * Process a single event of the registration of the highest priority which waits the longest. Every registration
+     * in the lanes has a dispatch task, so there is always a registration to process.
+     */
+    private void dispatch() {
+        Registration registration = pollLanes();
+        if (registration == null) {
+            return;
+        }
+
+        Event event;
+        synchronized (registration) {
+            event = registration.pending.poll();
+        }
+
+        if (event != null) {
+            long lag = System.currentTimeMillis() - event.receivedTime;
+            try {
+                registration.handler.accept(event.data);
+            } catch (RuntimeException e) {
+                log.error("Failed to process event of host '{}' on topic {}: {}",
+                        registration.hostId,
+                        registration.topic,
+                        e.getMessage());
+                log.debug("Exception", e);
+            }
+            registration.hostCounters.onProcessed(lag);
+            topicCounters.get(registration.topic).onProcessed(lag);
+        }
+
+        boolean reschedule;
+        synchronized (registration) {
+            reschedule = !registration.cancelled && !registration.pending.isEmpty();
+            registration.scheduled = reschedule;
+            if (registration.pending.isEmpty()) {
+                registration.overflowReported = false;
+            }
+        }
+
+        if (reschedule) {
+            schedule(registration);
+        }
+    }
+
+    private Registration pollLanes() {
+        for (Priority priority : Priority.values()) {
+            Registration registration = lanes.get(priority).poll();
+            if (registration != null) {
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    private void unregister(Registration registration) {
+        registrations.remove(registration);
+        if (registrations.stream().noneMatch(r -> r.hostId.equals(registration.hostId))) {
+            hostCounters.remove(registration.hostId);
+            reportedOverflows.remove(registration.hostId);
+        }
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "VdsmEventBus-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Event {
+        private final long receivedTime = System.currentTimeMillis();
+        private Map<String, Object> data;
+
+        private Event(Map<String, Object> data) {
+            this.data = data;
+        }
+    }
+
+    /**
+     * The subscription of a handler to the events of a host on a topic.
+     */
+    public final class Registration {
+
+        private final Guid hostId;
+        private final VdsmEventTopic topic;
+        private final Consumer<Map<String, Object>> handler;
+        private final EventCounters hostCounters;
+        private final EventSubscriber subscriber;
+        private final Deque<Event> pending = new ArrayDeque<>();
+        private volatile Subscription subscription;
+
+        // guarded by this
+        private boolean scheduled;
+        private boolean cancelled;
+        private boolean overflowReported;
+
+        private Registration(Guid hostId,
+                VdsmEventTopic topic,
+                String subscriptionId,
+                Consumer<Map<String, Object>> handler,
+                EventCounters hostCounters) {
+            this.hostId = hostId;
+            this.topic = topic;
+            this.handler = handler;
+            this.hostCounters = hostCounters;
+            this.subscriber = new RegistrationSubscriber(subscriptionId);
+        }
+
+        EventSubscriber getSubscriber() {
+            return subscriber;
+        }
+
+        /**
+         * Stop receiving events, and discard the events which weren't processed yet.
+         */
+        public void cancel() {
+            Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+
+            int discarded;
+            synchronized (this) {
+                cancelled = true;
+                discarded = pending.size();
+                pending.clear();
+            }
+            hostCounters.onDiscarded(discarded);
+            topicCounters.get(topic).onDiscarded(discarded);
+            unregister(this);
+        }
+
+        private class RegistrationSubscriber extends EventSubscriber {
+
+            private RegistrationSubscriber(String subscriptionId) {
+                super(subscriptionId);
+            }
+
+            @Override
+            public void onSubscribe(Subscription sub) {
+                subscription = sub;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Map<String, Object> map) {
+                // the next event is requested right away, overflowing events are merged or dropped instead
+                try {
+                    offer(Registration.this, map);
+                } finally {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // communication issue is delivered as a message so we need to request for more
+                subscription.request(1);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.ovirt.engine.core.vdsbroker.events;
+
+/**
+ * The topics of the events sent by VDSM which the engine subscribes to through the {@link VdsmEventBus}.
+ */
+public enum VdsmEventTopic {
+
+    /**
+     * Changes of the status of VMs, keyed by the VM ID. A later event carries the latest data of the VMs it contains,
+     * so an event which doesn't fit the queue is merged into the last queued one.
+     */
+    VM_STATUS("*|VM_status|*", Priority.HIGH, true),
+
+    /**
+     * Changes of the connection to the host, which trigger a refresh of the host. The refresh is also done
+     * periodically, so these events are not as urgent, and an event which doesn't fit the queue is dropped.
+     */
+    HOST_CONNECTION("net|host_conn|no_id", Priority.LOW, false);
+
+    public enum Priority {
+        HIGH,
+        LOW
+    }
+
+    private final String subscription;
+    private final Priority priority;
+    private final boolean coalescing;
+
+    VdsmEventTopic(String subscription, Priority priority, boolean coalescing) {
+        this.subscription = subscription;
+        this.priority = priority;
+        this.coalescing = coalescing;
+    }
+
+    /**
+     * @return the subscription ID of the topic for the given host, as expected by the event publisher.
+     */
+    public String getSubscriptionId(String hostName) {
+        return hostName + "|" + subscription;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+}
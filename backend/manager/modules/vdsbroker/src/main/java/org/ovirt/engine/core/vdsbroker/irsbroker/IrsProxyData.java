@@ -70,6 +70,7 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
 import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.lock.EngineLock;
 import org.ovirt.engine.core.utils.lock.LockManagerFactory;
+import org.ovirt.engine.core.utils.threadpool.ThreadPoolType;
 import org.ovirt.engine.core.utils.threadpool.ThreadPoolUtil;
 import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
 import org.ovirt.engine.core.utils.timer.SchedulerUtil;
@@ -374,7 +375,8 @@ public class IrsProxyData {
 
     public void queueDomainMaintenanceCheck(final StorageDomain domain, final StoragePool pool) {
         getEventQueue()
-                .submitEventAsync(new Event(_storagePoolId, domain.getId(), null, EventType.DOMAINFAILOVER, ""),
+                .submitEventAsync(new Event(_storagePoolId,
+                        domain.getId(), null, EventType.DOMAINFAILOVER, "Domain maintenance check"),
                         () -> {
                             Collection<Guid> vdsConnectedToPool = getVdsConnectedToPool(_storagePoolId);
                             Set<Guid> vdsDomInMaintenance = _domainsInMaintenance.get(domain.getId());
@@ -644,7 +646,7 @@ public class IrsProxyData {
     }
 
     private void runStoragePoolUpEvent(final StoragePool storagePool) {
-        ThreadPoolUtil.execute(new Runnable() {
+        ThreadPoolUtil.execute(ThreadPoolType.STORAGE_EVENTS, new Runnable() {
             @Override
             public void run() {
                 try {
@@ -1509,7 +1511,7 @@ public class IrsProxyData {
     @OnTimerMethodAnnotation("onTimer")
     public void onTimer(final Guid domainId) {
         getEventQueue().submitEventAsync(new Event(_storagePoolId,
-                domainId, null, EventType.DOMAINFAILOVER, ""),
+                domainId, null, EventType.DOMAINFAILOVER, "Domain recovery"),
                 () -> {
                     EventResult result = null;
                     if (_domainsInProblem.containsKey(domainId)) {
@@ -1701,7 +1703,7 @@ public class IrsProxyData {
                                 domainIdTuple);
 
                         final Map<String, String> customLogValues = Collections.singletonMap("StorageDomainNames", storageDomain.getName());
-                        ThreadPoolUtil.execute(() -> ResourceManager
+                        ThreadPoolUtil.execute(ThreadPoolType.STORAGE_EVENTS, () -> ResourceManager
                                 .getInstance()
                                 .getEventListener()
                                 .vdsNonOperational(vdsId, NonOperationalReason.STORAGE_DOMAIN_UNREACHABLE,
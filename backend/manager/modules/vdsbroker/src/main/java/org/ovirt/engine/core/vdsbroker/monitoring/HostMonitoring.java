@@ -3,7 +3,6 @@ package org.ovirt.engine.core.vdsbroker.monitoring;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -12,21 +11,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang.StringUtils;
 import org.ovirt.engine.core.common.AuditLogType;
-import org.ovirt.engine.core.common.businessentities.CpuStatistics;
 import org.ovirt.engine.core.common.businessentities.Entities;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.NonOperationalReason;
 import org.ovirt.engine.core.common.businessentities.V2VJobInfo;
 import org.ovirt.engine.core.common.businessentities.VDS;
 import org.ovirt.engine.core.common.businessentities.VDSStatus;
-import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VMStatus;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.businessentities.VdsDynamic;
-import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
 import org.ovirt.engine.core.common.businessentities.VdsStatistics;
 import org.ovirt.engine.core.common.businessentities.network.InterfaceStatus;
 import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
-import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
 import org.ovirt.engine.core.common.utils.NetworkCommonUtils;
@@ -35,12 +31,12 @@ import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
 import org.ovirt.engine.core.compat.Guid;
-import org.ovirt.engine.core.compat.TransactionScopeOption;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogDirector;
 import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
+import org.ovirt.engine.core.di.Injector;
 import org.ovirt.engine.core.utils.NetworkUtils;
-import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.irsbroker.IRSErrorException;
@@ -170,103 +166,7 @@ public class HostMonitoring {
             checkVdsNetworkThreshold(stat);
             checkVdsSwapThreshold(stat);
 
-            final List<VdsNetworkStatistics> statistics = new LinkedList<>();
-            for (VdsNetworkInterface iface : vds.getInterfaces()) {
-                statistics.add(iface.getStatistics());
-            }
-            if (!statistics.isEmpty()) {
-                TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                        () -> {
-                            getDbFacade().getInterfaceDao().massUpdateStatisticsForVds(statistics);
-                            return null;
-                        });
-            }
-            saveCpuStatisticsDataToDb();
-            saveNumaStatisticsDataToDb();
-        }
-    }
-
-    private void saveCpuStatisticsDataToDb() {
-        final List<CpuStatistics> cpuStatisticsToSave = new ArrayList<>();
-
-        cpuStatisticsToSave.addAll(vds.getStatisticsData().getCpuCoreStatistics());
-        if (!cpuStatisticsToSave.isEmpty()) {
-            List<CpuStatistics> dbCpuStats = getDbFacade().getVdsCpuStatisticsDao()
-                    .getAllCpuStatisticsByVdsId(vds.getId());
-            if (dbCpuStats.isEmpty()) {
-                TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                        () -> {
-                            getDbFacade().getVdsCpuStatisticsDao().massSaveCpuStatistics(
-                                    cpuStatisticsToSave, vds.getId());
-                            return null;
-                        });
-            }
-            else {
-                boolean needRemoveAndSave = isRemvoeAndSaveVdsCpuStatsNeeded(cpuStatisticsToSave, dbCpuStats);
-                if (needRemoveAndSave) {
-                    TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                            () -> {
-                                getDbFacade().getVdsCpuStatisticsDao().removeAllCpuStatisticsByVdsId(vds.getId());
-                                getDbFacade().getVdsCpuStatisticsDao().massSaveCpuStatistics(
-                                        cpuStatisticsToSave, vds.getId());
-                                return null;
-                            });
-                }
-                else {
-                    TransactionSupport.executeInScope(TransactionScopeOption.Required,
-                            () -> {
-                                getDbFacade().getVdsCpuStatisticsDao().massUpdateCpuStatistics(
-                                        cpuStatisticsToSave, vds.getId());
-                                return null;
-                            });
-                }
-            }
-        }
-    }
-
-    private boolean isRemvoeAndSaveVdsCpuStatsNeeded(final List<CpuStatistics> cpuStatisticsToSave,
-            List<CpuStatistics> dbCpuStats) {
-        boolean needRemoveAndSave = false;
-        if (dbCpuStats.size() != cpuStatisticsToSave.size()) {
-            needRemoveAndSave = true;
-        }
-        else {
-            HashSet<Integer> vdsCpuStats = new HashSet<>();
-            for (CpuStatistics cpuStat : dbCpuStats) {
-                vdsCpuStats.add(cpuStat.getCpuId());
-            }
-            for (CpuStatistics cpuStat : cpuStatisticsToSave) {
-                if (!vdsCpuStats.contains(cpuStat.getCpuId())) {
-                    needRemoveAndSave = true;
-                    break;
-                }
-            }
-        }
-        return needRemoveAndSave;
-    }
-
-    private void saveNumaStatisticsDataToDb() {
-        final List<VdsNumaNode> vdsNumaNodesToSave = new ArrayList<>();
-        List<VdsNumaNode> updateNumaNodes = vds.getNumaNodeList();
-        if (!updateNumaNodes.isEmpty()) {
-            List<VdsNumaNode> dbVdsNumaNodes = getDbFacade().getVdsNumaNodeDao()
-                    .getAllVdsNumaNodeByVdsId(vds.getId());
-            Map<Integer, VdsNumaNode> nodesMap = new HashMap<>();
-            for (VdsNumaNode node : dbVdsNumaNodes) {
-                nodesMap.put(node.getIndex(), node);
-            }
-            for (VdsNumaNode node : updateNumaNodes) {
-                VdsNumaNode dbNode = nodesMap.get(node.getIndex());
-                if (dbNode != null) {
-                    if (node.getNumaNodeStatistics() != null) {
-                        dbNode.setNumaNodeStatistics(node.getNumaNodeStatistics());
-                        vdsNumaNodesToSave.add(dbNode);
-                    }
-                }
-            }
-        }
-        if (!vdsNumaNodesToSave.isEmpty()) {
-            getDbFacade().getVdsNumaNodeDao().massUpdateNumaNodeStatistics(vdsNumaNodesToSave);
+            getHostStatisticsFlusher().addStatistics(vds);
         }
     }
 
@@ -559,7 +459,7 @@ public class HostMonitoring {
         try {
             reportNicStatusChanges();
             problematicNicsWithNetworks = NetworkMonitoringHelper.determineProblematicNics(vds.getInterfaces(),
-                    getDbFacade().getNetworkDao().getAllForCluster(vds.getClusterId()));
+                    getClusterNetworksCache().getAllForCluster(vds.getClusterId()));
         } catch (Exception e) {
             log.error("Failure on checkInterfaces on update runtimeinfo for vds: '{}': {}", vds.getName(), e.getMessage());
             log.error("Exception", e);
@@ -726,25 +626,34 @@ public class HostMonitoring {
      * calculate the memory and cpus used by vms based on the number of the running VMs. only DB vms counted currently as
      * we know their provisioned memory value.
      * only vms we know their memory definition are calculated, thus
-     * external VMs are added to db on the 1st cycle they appear, and then being added to this calculation
+     * external VMs are added to db on the 1st cycle they appear, and then being added to this calculation.
+     * The VMs are given as their runtime states, either kept by the VMs monitoring or read by
+     * {@link org.ovirt.engine.core.dao.VmDao#getAllRuntimeStatesRunningForVds(Guid)}.
      */
-    public static boolean refreshCommitedMemory(VDS host, List<VM> vms) {
-        boolean memoryUpdated = false;
-
+    public static boolean refreshCommitedMemory(VDS host, List<VmRuntimeState> vms) {
         int memCommited = host.getGuestOverhead();
         int vmsCoresCount = 0;
 
-        for (VM vm : vms) {
-            // VMs' pending resources are cleared in powering up, so in launch state
-            // we shouldn't include them as committed.
-            if (vm != null && vm.getStatus() != VMStatus.WaitForLaunch &&
-                    vm.getStatus() != VMStatus.Down) {
-                memCommited += vm.getVmMemSizeMb();
+        for (VmRuntimeState vm : vms) {
+            if (isCommitted(vm.getStatus())) {
+                memCommited += vm.getMemSizeMb();
                 memCommited += host.getGuestOverhead();
                 vmsCoresCount += vm.getNumOfCpus();
             }
         }
 
+        return updateCommitedMemory(host, memCommited, vmsCoresCount);
+    }
+
+    private static boolean isCommitted(VMStatus status) {
+        // VMs' pending resources are cleared in powering up, so in launch state
+        // we shouldn't include them as committed.
+        return status != VMStatus.WaitForLaunch && status != VMStatus.Down;
+    }
+
+    private static boolean updateCommitedMemory(VDS host, int memCommited, int vmsCoresCount) {
+        boolean memoryUpdated = false;
+
         if (memCommited != host.getMemCommited()) {
             host.setMemCommited(memCommited);
             memoryUpdated = true;
@@ -764,4 +673,12 @@ public class HostMonitoring {
     private DbFacade getDbFacade() {
         return dbFacade;
     }
+
+    private ClusterNetworksCache getClusterNetworksCache() {
+        return Injector.get(ClusterNetworksCache.class);
+    }
+
+    private HostStatisticsFlusher getHostStatisticsFlusher() {
+        return Injector.get(HostStatisticsFlusher.class);
+    }
 }
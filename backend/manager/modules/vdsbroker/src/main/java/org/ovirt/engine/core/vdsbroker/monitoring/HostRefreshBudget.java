@@ -0,0 +1,52 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+
+/**
+ * Limits the number of refreshes of all the hosts per second. Refreshes which are not mandatory are deferred to a
+ * later tick once the budget of the current second is used, so hosts in transition are never delayed by stable ones.
+ */
+@Singleton
+public class HostRefreshBudget {
+
+    private int refreshesPerSecond;
+    private long currentSecond;
+    private int usedRefreshes;
+
+    @PostConstruct
+    private void init() {
+        init(Config.<Integer> getValue(ConfigValues.VdsRefreshBudgetPerSecond));
+    }
+
+    void init(int refreshesPerSecond) {
+        this.refreshesPerSecond = refreshesPerSecond;
+    }
+
+    /**
+     * @param mandatory
+     *            Whether the refresh is done even if the budget is used.
+     * @return whether the host should be refreshed now.
+     */
+    public boolean tryAcquire(boolean mandatory) {
+        return tryAcquire(mandatory, System.currentTimeMillis());
+    }
+
+    synchronized boolean tryAcquire(boolean mandatory, long now) {
+        long second = now / 1000;
+        if (second != currentSecond) {
+            currentSecond = second;
+            usedRefreshes = 0;
+        }
+
+        if (!mandatory && refreshesPerSecond > 0 && usedRefreshes >= refreshesPerSecond) {
+            return false;
+        }
+
+        usedRefreshes++;
+        return true;
+    }
+}
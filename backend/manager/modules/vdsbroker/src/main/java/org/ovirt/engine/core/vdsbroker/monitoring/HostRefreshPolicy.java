@@ -0,0 +1,102 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+
+/**
+ * Decides on which ticks of the monitoring timer of a host the host is refreshed.
+ * <p>
+ * A host in transition, or whose last refresh failed or found changes, is refreshed on every tick. Each refresh of a
+ * stable host which finds no changes doubles the number of ticks until its next refresh, up to the maximal stretch
+ * factor, and any change brings it back to every tick. A change of the cpu or memory usage of the host by
+ * {@value #SIGNIFICANT_USAGE_CHANGE} percents or more since the previous refresh counts as a change, so a host whose
+ * load changes keeps being refreshed on every tick. Since the statistics are saved every few refreshes, their interval
+ * is stretched the same way.
+ * <p>
+ * The policy is used by the timer thread of the host, except for {@link #reset()} which may be called by any thread.
+ */
+public class HostRefreshPolicy {
+
+    private static final Set<VDSStatus> STABLE_STATUSES =
+            EnumSet.of(VDSStatus.Up, VDSStatus.Maintenance, VDSStatus.NonOperational);
+
+    static final int SIGNIFICANT_USAGE_CHANGE = 10;
+
+    private final int maxStretchFactor;
+
+    private int interval = 1;
+    private int ticksSinceRefresh;
+    private VDSStatus lastStatus;
+    private int lastVmCount;
+    private int lastCpuUsage;
+    private int lastMemUsage;
+    private volatile boolean resetRequested;
+
+    public HostRefreshPolicy(int maxStretchFactor) {
+        this.maxStretchFactor = Math.max(1, maxStretchFactor);
+    }
+
+    /**
+     * Called on every tick of the timer.
+     *
+     * @return whether the host should be refreshed on this tick.
+     */
+    public boolean isTimeToRefresh() {
+        ticksSinceRefresh++;
+        return resetRequested || ticksSinceRefresh >= interval;
+    }
+
+    /**
+     * @return whether the refresh must not be deferred, because the host is in transition or its refresh was already
+     *         deferred for too long.
+     */
+    public boolean isRefreshMandatory() {
+        return resetRequested || interval == 1 || ticksSinceRefresh >= 2 * maxStretchFactor;
+    }
+
+    /**
+     * Called after the host was refreshed.
+     *
+     * @param vds
+     *            The host after the refresh.
+     * @param failed
+     *            Whether the refresh failed.
+     */
+    public void onRefreshed(VDS vds, boolean failed) {
+        boolean stable = !resetRequested
+                && !failed
+                && STABLE_STATUSES.contains(vds.getStatus())
+                && vds.getStatus() == lastStatus
+                && vds.getVmCount() == lastVmCount
+                && (vds.getVmMigrating() == null || vds.getVmMigrating() == 0)
+                && vds.getPendingVmemSize() == 0
+                && Math.abs(getUsage(vds.getUsageCpuPercent()) - lastCpuUsage) < SIGNIFICANT_USAGE_CHANGE
+                && Math.abs(getUsage(vds.getUsageMemPercent()) - lastMemUsage) < SIGNIFICANT_USAGE_CHANGE;
+
+        resetRequested = false;
+        ticksSinceRefresh = 0;
+        interval = stable ? Math.min(interval * 2, maxStretchFactor) : 1;
+        lastStatus = vds.getStatus();
+        lastVmCount = vds.getVmCount();
+        lastCpuUsage = getUsage(vds.getUsageCpuPercent());
+        lastMemUsage = getUsage(vds.getUsageMemPercent());
+    }
+
+    private static int getUsage(Integer usagePercent) {
+        return usagePercent == null ? 0 : usagePercent;
+    }
+
+    /**
+     * Refresh the host on the next tick and on every tick after it, until it is stable again.
+     */
+    public void reset() {
+        resetRequested = true;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+}
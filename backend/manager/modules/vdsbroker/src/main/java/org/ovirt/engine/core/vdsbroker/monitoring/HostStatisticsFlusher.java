@@ -0,0 +1,318 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.ovirt.engine.core.common.BackendService;
+import org.ovirt.engine.core.common.businessentities.CpuStatistics;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VdsNumaNode;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkStatistics;
+import org.ovirt.engine.core.common.config.Config;
+import org.ovirt.engine.core.common.config.ConfigValues;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.compat.TransactionScopeOption;
+import org.ovirt.engine.core.dao.VdsCpuStatisticsDao;
+import org.ovirt.engine.core.dao.VdsNumaNodeDao;
+import org.ovirt.engine.core.dao.network.InterfaceDao;
+import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
+import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists the cpu, numa node and network interface statistics collected by the {@link HostMonitoring} of all the
+ * hosts together, on a fixed cadence, instead of each host writing its own statistics on every save.
+ * <p>
+ * Only the latest statistics of each host are kept until the next flush. The cpu statistics last persisted and the
+ * ids of the numa nodes are kept in memory, so the current rows aren't read back from the database, and cpu
+ * statistics which didn't change since the previous flush aren't written again.
+ */
+@Singleton
+public class HostStatisticsFlusher implements BackendService {
+
+    private static final Logger log = LoggerFactory.getLogger(HostStatisticsFlusher.class);
+
+    private static final String FLUSH_METHOD = "flush";
+
+    @Inject
+    private SchedulerUtilQuartzImpl schedulerUtil;
+
+    @Inject
+    private VdsCpuStatisticsDao vdsCpuStatisticsDao;
+
+    @Inject
+    private VdsNumaNodeDao vdsNumaNodeDao;
+
+    @Inject
+    private InterfaceDao interfaceDao;
+
+    private final Map<Guid, HostStatistics> pendingStatistics = new ConcurrentHashMap<>();
+
+    private final Map<Guid, Map<Integer, CpuStatistics>> persistedCpuStatistics = new ConcurrentHashMap<>();
+
+    private final Map<Guid, Map<Integer, Guid>> numaNodeIdsByIndex = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        int flushInterval = Config.<Integer> getValue(ConfigValues.HostStatisticsFlushIntervalInSeconds);
+        schedulerUtil.scheduleAFixedDelayJob(this,
+                FLUSH_METHOD,
+                new Class[] {},
+                new Object[] {},
+                flushInterval,
+                flushInterval,
+                TimeUnit.SECONDS);
+        log.info("Host statistics are persisted every {} seconds", flushInterval);
+    }
+
+    /**
+     * Queues the current statistics of the given host for the next flush, replacing any statistics of that host which
+     * were not persisted yet.
+     */
+    public void addStatistics(VDS vds) {
+        pendingStatistics.put(vds.getId(), new HostStatistics(vds));
+    }
+
+    /**
+     * Drops the statistics and the cached state of the given host, to be called once it is removed.
+     */
+    public void removeHost(Guid vdsId) {
+        pendingStatistics.remove(vdsId);
+        persistedCpuStatistics.remove(vdsId);
+        numaNodeIdsByIndex.remove(vdsId);
+    }
+
+    /**
+     * Drops the cached numa node ids of the given host, to be called once its numa topology is persisted.
+     */
+    public void invalidateNumaNodes(Guid vdsId) {
+        numaNodeIdsByIndex.remove(vdsId);
+    }
+
+    @OnTimerMethodAnnotation(FLUSH_METHOD)
+    public void flush() {
+        List<HostStatistics> hostsStatistics = drainPendingStatistics();
+        if (hostsStatistics.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            flushNetworkStatistics(hostsStatistics);
+        } catch (RuntimeException e) {
+            logFlushFailure("network interface", e);
+        }
+
+        try {
+            flushCpuStatistics(hostsStatistics);
+        } catch (RuntimeException e) {
+            // the persisted state is unknown, the statistics of these hosts are fully replaced on the next flush
+            for (HostStatistics hostStatistics : hostsStatistics) {
+                persistedCpuStatistics.remove(hostStatistics.getVdsId());
+            }
+            logFlushFailure("cpu", e);
+        }
+
+        try {
+            flushNumaStatistics(hostsStatistics);
+        } catch (RuntimeException e) {
+            logFlushFailure("numa node", e);
+        }
+
+        log.debug("Persisted the statistics of {} hosts in {} ms",
+                hostsStatistics.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    private List<HostStatistics> drainPendingStatistics() {
+        List<HostStatistics> hostsStatistics = new ArrayList<>(pendingStatistics.size());
+        for (Guid vdsId : new ArrayList<>(pendingStatistics.keySet())) {
+            HostStatistics hostStatistics = pendingStatistics.remove(vdsId);
+            if (hostStatistics != null) {
+                hostsStatistics.add(hostStatistics);
+            }
+        }
+
+        return hostsStatistics;
+    }
+
+    private void flushNetworkStatistics(List<HostStatistics> hostsStatistics) {
+        final List<VdsNetworkStatistics> statistics = new ArrayList<>();
+        for (HostStatistics hostStatistics : hostsStatistics) {
+            statistics.addAll(hostStatistics.getNetworkStatistics());
+        }
+
+        if (!statistics.isEmpty()) {
+            TransactionSupport.executeInScope(TransactionScopeOption.Required,
+                    () -> {
+                        interfaceDao.massUpdateStatisticsForVds(statistics);
+                        return null;
+                    });
+        }
+    }
+
+    private void flushCpuStatistics(List<HostStatistics> hostsStatistics) {
+        final Map<Guid, List<CpuStatistics>> cpuStatisticsToSave = new HashMap<>();
+        final Set<Guid> replacedVdsIds = new HashSet<>();
+        Map<Guid, Map<Integer, CpuStatistics>> savedCpuStatistics = new HashMap<>();
+
+        for (HostStatistics hostStatistics : hostsStatistics) {
+            Guid vdsId = hostStatistics.getVdsId();
+            Map<Integer, CpuStatistics> reported = hostStatistics.getCpuStatistics();
+            if (reported.isEmpty()) {
+                continue;
+            }
+
+            Map<Integer, CpuStatistics> persisted = persistedCpuStatistics.get(vdsId);
+            if (persisted == null || !persisted.keySet().equals(reported.keySet())) {
+                replacedVdsIds.add(vdsId);
+                cpuStatisticsToSave.put(vdsId, new ArrayList<>(reported.values()));
+            } else {
+                List<CpuStatistics> changed = new ArrayList<>();
+                for (CpuStatistics cpuStatistics : reported.values()) {
+                    if (!cpuStatistics.equals(persisted.get(cpuStatistics.getCpuId()))) {
+                        changed.add(cpuStatistics);
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    cpuStatisticsToSave.put(vdsId, changed);
+                }
+            }
+            savedCpuStatistics.put(vdsId, reported);
+        }
+
+        if (!cpuStatisticsToSave.isEmpty()) {
+            TransactionSupport.executeInScope(TransactionScopeOption.Required,
+                    () -> {
+                        vdsCpuStatisticsDao.massUpsertCpuStatistics(cpuStatisticsToSave, replacedVdsIds);
+                        return null;
+                    });
+        }
+        persistedCpuStatistics.putAll(savedCpuStatistics);
+    }
+
+    private void flushNumaStatistics(List<HostStatistics> hostsStatistics) {
+        final List<VdsNumaNode> numaNodesToSave = new ArrayList<>();
+        for (HostStatistics hostStatistics : hostsStatistics) {
+            List<VdsNumaNode> reportedNodes = hostStatistics.getNumaNodes();
+            if (reportedNodes.isEmpty()) {
+                continue;
+            }
+
+            Map<Integer, Guid> nodeIds = getNumaNodeIdsByIndex(hostStatistics.getVdsId());
+            for (VdsNumaNode reportedNode : reportedNodes) {
+                Guid nodeId = nodeIds.get(reportedNode.getIndex());
+                if (nodeId != null && reportedNode.getNumaNodeStatistics() != null) {
+                    VdsNumaNode nodeToSave = new VdsNumaNode();
+                    nodeToSave.setId(nodeId);
+                    nodeToSave.setIndex(reportedNode.getIndex());
+                    nodeToSave.setNumaNodeStatistics(reportedNode.getNumaNodeStatistics());
+                    numaNodesToSave.add(nodeToSave);
+                }
+            }
+        }
+
+        if (!numaNodesToSave.isEmpty()) {
+            TransactionSupport.executeInScope(TransactionScopeOption.Required,
+                    () -> {
+                        vdsNumaNodeDao.massUpdateNumaNodeStatistics(numaNodesToSave);
+                        return null;
+                    });
+        }
+    }
+
+    private Map<Integer, Guid> getNumaNodeIdsByIndex(Guid vdsId) {
+        Map<Integer, Guid> nodeIds = numaNodeIdsByIndex.get(vdsId);
+        if (nodeIds == null) {
+            nodeIds = new HashMap<>();
+            for (VdsNumaNode node : vdsNumaNodeDao.getAllVdsNumaNodeByVdsId(vdsId)) {
+                nodeIds.put(node.getIndex(), node.getId());
+            }
+
+            // the numa topology may not be persisted yet, so the lookup is repeated until it is
+            if (!nodeIds.isEmpty()) {
+                numaNodeIdsByIndex.put(vdsId, nodeIds);
+            }
+        }
+
+        return nodeIds;
+    }
+
+    private void logFlushFailure(String statisticsType, RuntimeException e) {
+        log.error("Failed to persist host {} statistics: {}", statisticsType, e.getMessage());
+        log.debug("Exception", e);
+    }
+
+    /**
+     * The statistics of a single host, captured when they are queued.
+     */
+    private static class HostStatistics {
+        private final Guid vdsId;
+        private final List<VdsNetworkStatistics> networkStatistics;
+        private final Map<Integer, CpuStatistics> cpuStatistics;
+        private final List<VdsNumaNode> numaNodes;
+
+        HostStatistics(VDS vds) {
+            vdsId = vds.getId();
+
+            networkStatistics = new ArrayList<>(vds.getInterfaces().size());
+            for (VdsNetworkInterface iface : vds.getInterfaces()) {
+                networkStatistics.add(iface.getStatistics());
+            }
+
+            List<CpuStatistics> cpuCoreStatistics = vds.getStatisticsData().getCpuCoreStatistics();
+            if (cpuCoreStatistics == null || cpuCoreStatistics.isEmpty()) {
+                cpuStatistics = Collections.emptyMap();
+            } else {
+                cpuStatistics = new HashMap<>(cpuCoreStatistics.size());
+                for (CpuStatistics stats : cpuCoreStatistics) {
+                    cpuStatistics.put(stats.getCpuId(), copyOf(stats));
+                }
+            }
+
+            numaNodes = vds.getNumaNodeList() == null
+                    ? Collections.<VdsNumaNode> emptyList()
+                    : new ArrayList<>(vds.getNumaNodeList());
+        }
+
+        private static CpuStatistics copyOf(CpuStatistics stats) {
+            CpuStatistics copy = new CpuStatistics();
+            copy.setCpuId(stats.getCpuId());
+            copy.setCpuSys(stats.getCpuSys());
+            copy.setCpuUser(stats.getCpuUser());
+            copy.setCpuIdle(stats.getCpuIdle());
+            copy.setCpuUsagePercent(stats.getCpuUsagePercent());
+            return copy;
+        }
+
+        Guid getVdsId() {
+            return vdsId;
+        }
+
+        List<VdsNetworkStatistics> getNetworkStatistics() {
+            return networkStatistics;
+        }
+
+        Map<Integer, CpuStatistics> getCpuStatistics() {
+            return cpuStatistics;
+        }
+
+        List<VdsNumaNode> getNumaNodes() {
+            return numaNodes;
+        }
+    }
+}
@@ -6,8 +6,7 @@ import javax.inject.Inject;
 
 import org.ovirt.engine.core.common.config.Config;
 import org.ovirt.engine.core.common.config.ConfigValues;
-import org.ovirt.engine.core.utils.timer.OnTimerMethodAnnotation;
-import org.ovirt.engine.core.utils.timer.SchedulerUtilQuartzImpl;
+import org.ovirt.engine.core.utils.timer.TimerWheelScheduler;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.entities.VmInternalData;
 import org.slf4j.Logger;
@@ -20,7 +19,7 @@ public abstract class PollVmStatsRefresher extends VmStatsRefresher {
     protected static final int NUMBER_VMS_REFRESHES_BEFORE_SAVE = Config.<Integer> getValue(ConfigValues.NumberVmRefreshesBeforeSave);
 
     @Inject
-    private SchedulerUtilQuartzImpl scheduler;
+    private TimerWheelScheduler scheduler;
     private String vmsMonitoringJobId;
     private final int refreshRate;
 
@@ -29,7 +28,6 @@ public abstract class PollVmStatsRefresher extends VmStatsRefresher {
         this.refreshRate = refreshRate;
     }
 
-    @OnTimerMethodAnnotation("poll")
     public void poll() {
         if (vdsManager.isMonitoringNeeded()) {
             VmsListFetcher fetcher = getVmsFetcher();
@@ -50,10 +48,8 @@ public abstract class PollVmStatsRefresher extends VmStatsRefresher {
     public void startMonitoring() {
         vmsMonitoringJobId =
                 scheduler.scheduleAFixedDelayJob(
-                        this,
-                        "poll",
-                        new Class[0],
-                        new Object[0],
+                        "PollVmStatsRefresher.poll",
+                        this::poll,
                         0,
                         refreshRate,
                         TimeUnit.MILLISECONDS);
@@ -16,7 +16,7 @@ public class RefresherFactory {
     }
 
     private VmStatsRefresher getRefresherForVds(VdsManager vdsManager) {
-        VDS vds = vdsManager.getCopyVds();
+        VDS vds = vdsManager.getVdsSnapshot();
         if (VdsProtocol.STOMP == vds.getProtocol()) {
             return new EventVmStatsRefresher(vdsManager);
         }
@@ -434,7 +434,7 @@ public class VmAnalyzer {
     }
 
     private void proceedBalloonCheck() {
-        if (vdsManager.getCopyVds().isBalloonEnabled()) {
+        if (vdsManager.getVdsSnapshot().isBalloonEnabled()) {
             VmBalloonInfo balloonInfo = vdsmVm.getVmStatistics().getVmBalloonInfo();
             if (balloonInfo == null) {
                 return;
@@ -8,6 +8,7 @@ import java.util.Map;
 
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.businessentities.VmDynamic;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.common.vdscommands.GetVmStatsVDSCommandParameters;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
@@ -67,30 +68,68 @@ public class VmsListFetcher {
     protected VDSReturnValue poll() {
         return getResourceManager().runVdsCommand(
                 VDSCommandType.List,
-                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getCopyVds()));
+                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getVdsSnapshot()));
     }
 
     protected void onFetchVms() {
-        dbVms = getVmDao().getAllRunningByVds(vdsManager.getVdsId());
+        dbVms = getUnchangedRunningVms();
+        if (dbVms == null) {
+            Map<Guid, Long> generations = vdsManager.getRunningVmGenerations(vdsmVms.keySet());
+            dbVms = getVmDao().getAllRunningByVds(vdsManager.getVdsId());
+            vdsManager.setRunningVms(dbVms, generations);
+        }
         changedVms = new ArrayList<>();
         filterVms();
         gatherNonRunningVms(dbVms);
         saveLastVmsList(vdsmVms);
     }
 
+    /**
+     * Get the VMs which run on the host as known in memory, if the host reports exactly these VMs and in the same
+     * statuses. In that case there is nothing to analyze and the DB needs not be read.
+     *
+     * @return the VMs which run on the host by their IDs, or null if they should be read from the DB.
+     */
+    protected Map<Guid, VM> getUnchangedRunningVms() {
+        Map<Guid, VM> runningVms = vdsManager.getRunningVms();
+        if (runningVms == null || runningVms.size() != vdsmVms.size()) {
+            return null;
+        }
+
+        for (VmInternalData vdsmVm : vdsmVms.values()) {
+            if (statusChanged(runningVms.get(vdsmVm.getVmDynamic().getId()), vdsmVm.getVmDynamic())) {
+                return null;
+            }
+        }
+        return runningVms;
+    }
+
+    /**
+     * Saves the runtime states of the VMs reported by the host, with the memory and cpus defined for them in the DB,
+     * which is all the host monitoring needs to compute the committed memory of the host.
+     */
     private void saveLastVmsList(Map<Guid, VmInternalData> vdsmVms) {
-        ArrayList<VM> vms = new ArrayList<>(vdsmVms.size());
+        ArrayList<VmRuntimeState> vms = new ArrayList<>(vdsmVms.size());
         for (VmInternalData vmInternalData : this.vdsmVms.values()) {
-            if (dbVms.containsKey(vmInternalData.getVmDynamic().getId())) {
-                vms.add(new VM(
-                        dbVms.get(vmInternalData.getVmDynamic().getId()).getStaticData(),
-                        vmInternalData.getVmDynamic(),
-                        vmInternalData.getVmStatistics()));
+            VM dbVm = dbVms.get(vmInternalData.getVmDynamic().getId());
+            if (dbVm != null) {
+                vms.add(createRuntimeState(dbVm, vmInternalData.getVmDynamic()));
             }
         }
         vdsManager.setLastVmsList(vms);
     }
 
+    private static VmRuntimeState createRuntimeState(VM dbVm, VmDynamic vmDynamic) {
+        VmRuntimeState runtimeState = new VmRuntimeState();
+        runtimeState.setId(vmDynamic.getId());
+        runtimeState.setStatus(vmDynamic.getStatus());
+        runtimeState.setRunOnVds(vmDynamic.getRunOnVds());
+        runtimeState.setMigratingToVds(vmDynamic.getMigratingToVds());
+        runtimeState.setMemSizeMb(dbVm.getVmMemSizeMb());
+        runtimeState.setNumOfCpus(dbVm.getNumOfCpus());
+        return runtimeState;
+    }
+
     protected void onError() {
         dbVms = Collections.emptyMap();
         vdsmVms = Collections.emptyMap();
@@ -109,7 +148,7 @@ public class VmsListFetcher {
             VDSReturnValue vmStats =
                     getResourceManager().runVdsCommand(
                             VDSCommandType.GetVmStats,
-                            new GetVmStatsVDSCommandParameters(vdsManager.getCopyVds(), vdsmVm.getVmDynamic().getId()));
+                            new GetVmStatsVDSCommandParameters(vdsManager.getVdsSnapshot(), vdsmVm.getVmDynamic().getId()));
             if (vmStats.getSucceeded()) {
                 changedVms.add(new Pair<>(dbVm, (VmInternalData) vmStats.getReturnValue()));
             } else {
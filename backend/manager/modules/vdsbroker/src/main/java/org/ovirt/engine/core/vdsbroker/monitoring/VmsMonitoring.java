@@ -15,6 +15,7 @@ import javax.inject.Singleton;
 import org.ovirt.engine.core.common.BackendService;
 import org.ovirt.engine.core.common.businessentities.IVdsEventListener;
 import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmDynamic;
 import org.ovirt.engine.core.common.businessentities.VmGuestAgentInterface;
 import org.ovirt.engine.core.common.businessentities.VmStatistics;
 import org.ovirt.engine.core.common.utils.Pair;
@@ -315,10 +316,12 @@ public class VmsMonitoring implements BackendService {
     }
 
     private void saveVmDynamic(List<VmAnalyzer> vmAnalyzers) {
-        vmDynamicDao.updateAllInBatch(vmAnalyzers.stream()
+        List<VmDynamic> vmDynamics = vmAnalyzers.stream()
                 .map(VmAnalyzer::getVmDynamicToSave)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+        vmDynamicDao.updateAllInBatch(vmDynamics);
+        vmDynamics.forEach(vmDynamic -> resourceManager.getVmManager(vmDynamic.getId()).updateRunningVm(vmDynamic));
     }
 
     private void saveVmInterfaceStatistics(List<VmAnalyzer> vmAnalyzers) {
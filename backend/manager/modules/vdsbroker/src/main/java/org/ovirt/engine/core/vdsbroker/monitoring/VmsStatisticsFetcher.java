@@ -1,10 +1,13 @@
 package org.ovirt.engine.core.vdsbroker.monitoring;
 
+import java.util.Map;
+
 import org.ovirt.engine.core.common.businessentities.VM;
 import org.ovirt.engine.core.common.utils.Pair;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
+import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.vdsbroker.VdsManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.entities.VmInternalData;
 import org.slf4j.Logger;
@@ -23,7 +26,7 @@ public class VmsStatisticsFetcher extends VmsListFetcher {
     protected VDSReturnValue poll() {
         return getResourceManager().runVdsCommand(
                 VDSCommandType.GetAllVmStats,
-                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getCopyVds()));
+                new VdsIdAndVdsVDSCommandParametersBase(vdsManager.getVdsSnapshot()));
     }
 
     @Override
@@ -40,6 +43,15 @@ public class VmsStatisticsFetcher extends VmsListFetcher {
         }
     }
 
+    /**
+     * All the VMs are analyzed, so they are always read from the DB. That also reconciles the VMs known in memory with
+     * the DB, in case they were changed without notifying their managers.
+     */
+    @Override
+    protected Map<Guid, VM> getUnchangedRunningVms() {
+        return null;
+    }
+
     @Override
     protected void gatherChangedVms(VM dbVm, VmInternalData vdsmVm) {
         changedVms.add(new Pair<>(dbVm, vdsmVm));
@@ -11,4 +11,10 @@ public interface HostNetworkInterfacesPersister {
      * Persists host network changes
      */
     public void persistTopology();
+
+    /**
+     * Matches the reported nics with the ones stored in the db, so they carry the db ids and the engine managed
+     * attributes, without persisting anything. Used when the reported topology is known to be persisted already.
+     */
+    public void mergeWithPersistedTopology();
 }
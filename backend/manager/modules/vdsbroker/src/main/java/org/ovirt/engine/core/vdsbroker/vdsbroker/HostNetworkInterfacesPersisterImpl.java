@@ -41,6 +41,11 @@ public class HostNetworkInterfacesPersisterImpl implements HostNetworkInterfaces
         createNewInterfaces();
     }
 
+    @Override
+    public void mergeWithPersistedTopology() {
+        getNicsForUpdate();
+    }
+
     private void removeUnreportedInterfaces() {
         for (VdsNetworkInterface dbNic : dbNics) {
             if (nicShouldBeRemoved(dbNic.getName())) {
@@ -0,0 +1,138 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.ovirt.engine.core.common.businessentities.network.Bond;
+import org.ovirt.engine.core.common.businessentities.network.HostNetworkQos;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+
+/**
+ * Calculates a digest of a host network topology as reported by vdsm, together with the networks of the host's
+ * cluster. Two reports having the same fingerprint result in the same persisted topology, so the persistence of the
+ * second one may be skipped.
+ * <p>
+ * Only attributes reported by vdsm are taken into account: the nic ids are generated for each report, the statistics
+ * change on every report and the labels are managed by the engine.
+ */
+final class HostNetworkTopologyFingerprint {
+
+    private static final char FIELD_SEPARATOR = '|';
+    private static final char ENTRY_SEPARATOR = '\n';
+
+    private HostNetworkTopologyFingerprint() {
+    }
+
+    static String calculate(List<VdsNetworkInterface> reportedNics, List<Network> clusterNetworks) {
+        StringBuilder sb = new StringBuilder();
+
+        List<VdsNetworkInterface> sortedNics = new ArrayList<>(reportedNics);
+        Collections.sort(sortedNics, Comparator.comparing(VdsNetworkInterface::getName,
+                Comparator.nullsFirst(Comparator.<String> naturalOrder())));
+        for (VdsNetworkInterface nic : sortedNics) {
+            appendNic(sb, nic);
+        }
+
+        List<Network> sortedNetworks = new ArrayList<>(clusterNetworks);
+        Collections.sort(sortedNetworks, Comparator.comparing(Network::getName,
+                Comparator.nullsFirst(Comparator.<String> naturalOrder())));
+        for (Network network : sortedNetworks) {
+            appendNetwork(sb, network);
+        }
+
+        return digest(sb.toString());
+    }
+
+    private static void appendNic(StringBuilder sb, VdsNetworkInterface nic) {
+        append(sb,
+                nic.getClass().getSimpleName(),
+                nic.getName(),
+                nic.getMacAddress(),
+                nic.getSpeed(),
+                nic.getType(),
+                nic.getNetworkName(),
+                nic.isBridged(),
+                nic.getMtu(),
+                nic.getVlanId(),
+                nic.getBaseInterface(),
+                nic.getBondName(),
+                nic.getBonded(),
+                nic.getBondType(),
+                nic.getBondOptions(),
+                nic.getIpv4BootProtocol(),
+                nic.getIpv4Address(),
+                nic.getIpv4Subnet(),
+                nic.getIpv4Gateway(),
+                nic.getIpv6BootProtocol(),
+                nic.getIpv6Address(),
+                nic.getIpv6Prefix(),
+                nic.getIpv6Gateway(),
+                nic.getAdPartnerMac());
+
+        HostNetworkQos qos = nic.getQos();
+        if (qos != null) {
+            append(sb,
+                    qos.getOutAverageLinkshare(),
+                    qos.getOutAverageRealtime(),
+                    qos.getOutAverageUpperlimit());
+        }
+
+        if (nic instanceof Bond) {
+            List<String> slaves = ((Bond) nic).getSlaves();
+            if (slaves != null) {
+                List<String> sortedSlaves = new ArrayList<>(slaves);
+                Collections.sort(sortedSlaves);
+                append(sb, sortedSlaves.toArray());
+            }
+        }
+
+        sb.append(ENTRY_SEPARATOR);
+    }
+
+    private static void appendNetwork(StringBuilder sb, Network network) {
+        append(sb,
+                network.getId(),
+                network.getName(),
+                network.isVmNetwork(),
+                network.getVlanId(),
+                network.getMtu(),
+                network.getQosId());
+
+        NetworkCluster networkCluster = network.getCluster();
+        if (networkCluster != null) {
+            append(sb,
+                    networkCluster.getStatus(),
+                    networkCluster.isRequired(),
+                    networkCluster.isDisplay(),
+                    networkCluster.isMigration(),
+                    networkCluster.isManagement(),
+                    networkCluster.isGluster());
+        }
+
+        sb.append(ENTRY_SEPARATOR);
+    }
+
+    private static void append(StringBuilder sb, Object... values) {
+        for (Object value : values) {
+            sb.append(value).append(FIELD_SEPARATOR);
+        }
+    }
+
+    private static String digest(String topology) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digest = messageDigest.digest(topology.getBytes(StandardCharsets.UTF_8));
+            return new BigInteger(1, digest).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -25,6 +25,11 @@ public interface HostNetworkTopologyPersister {
             boolean skipManagementNetwork,
             UserConfiguredNetworkData userConfiguredNetworkData);
 
+    /**
+     * Same as {@link #persistAndEnforceNetworkCompliance(VDS, boolean, UserConfiguredNetworkData)} without user
+     * configured data, except that the topology isn't persisted again if it is identical to the one last persisted for
+     * this host. Meant for the periodic capabilities reports, which are usually unchanged.
+     */
     NonOperationalReason persistAndEnforceNetworkCompliance(VDS host);
 
 }
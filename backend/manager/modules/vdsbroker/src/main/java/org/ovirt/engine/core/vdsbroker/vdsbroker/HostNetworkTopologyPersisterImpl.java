@@ -8,6 +8,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -30,35 +33,46 @@ import org.ovirt.engine.core.dal.dbbroker.auditloghandling.AuditLogableBase;
 import org.ovirt.engine.core.dao.VmDynamicDao;
 import org.ovirt.engine.core.dao.network.InterfaceDao;
 import org.ovirt.engine.core.dao.network.NetworkAttachmentDao;
-import org.ovirt.engine.core.dao.network.NetworkDao;
 import org.ovirt.engine.core.utils.NetworkUtils;
+import org.ovirt.engine.core.utils.transaction.TransactionCompletionListener;
+import org.ovirt.engine.core.utils.transaction.TransactionSupport;
+import org.ovirt.engine.core.vdsbroker.ClusterNetworksCache;
 import org.ovirt.engine.core.vdsbroker.NetworkImplementationDetailsUtils;
 import org.ovirt.engine.core.vdsbroker.ResourceManager;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.DisplayInterfaceEqualityPredicate;
 import org.ovirt.engine.core.vdsbroker.vdsbroker.predicates.IsNetworkOnInterfacePredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Singleton
 final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersister {
 
+    private static final Logger log = LoggerFactory.getLogger(HostNetworkTopologyPersisterImpl.class);
+
     private final VmDynamicDao vmDynamicDao;
     private final InterfaceDao interfaceDao;
-    private final NetworkDao networkDao;
+    private final ClusterNetworksCache clusterNetworksCache;
     private final ResourceManager resourceManager;
     private final ManagementNetworkUtil managementNetworkUtil;
     private final AuditLogDirector auditLogDirector = new AuditLogDirector();
     private final NetworkAttachmentDao networkAttachmentDao;
     private final NetworkImplementationDetailsUtils networkImplementationDetailsUtils;
 
+    /**
+     * Fingerprints of the topologies last persisted for each host, see {@link HostNetworkTopologyFingerprint}.
+     */
+    private final Map<Guid, String> persistedTopologyFingerprints = new ConcurrentHashMap<>();
+
     @Inject
     HostNetworkTopologyPersisterImpl(VmDynamicDao vmDynamicDao,
                                      InterfaceDao interfaceDao,
                                      NetworkAttachmentDao networkAttachmentDao,
-                                     NetworkDao networkDao,
+                                     ClusterNetworksCache clusterNetworksCache,
                                      ResourceManager resourceManager,
                                      NetworkImplementationDetailsUtils networkImplementationDetailsUtils,
                                      ManagementNetworkUtil managementNetworkUtil) {
-        Validate.notNull(networkDao, "networkAttachmentDao can not be null");
-        Validate.notNull(networkDao, "networkDao can not be null");
+        Validate.notNull(networkAttachmentDao, "networkAttachmentDao can not be null");
+        Validate.notNull(clusterNetworksCache, "clusterNetworksCache can not be null");
         Validate.notNull(interfaceDao, "interfaceDao can not be null");
         Validate.notNull(vmDynamicDao, "vmDynamicDao can not be null");
         Validate.notNull(resourceManager, "resourceManager can not be null");
@@ -67,7 +81,7 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
 
         this.vmDynamicDao = vmDynamicDao;
         this.interfaceDao = interfaceDao;
-        this.networkDao = networkDao;
+        this.clusterNetworksCache = clusterNetworksCache;
         this.resourceManager = resourceManager;
         this.managementNetworkUtil = managementNetworkUtil;
         this.networkAttachmentDao = networkAttachmentDao;
@@ -78,11 +92,31 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
     public NonOperationalReason persistAndEnforceNetworkCompliance(VDS host,
                                                                    boolean skipManagementNetwork,
                                                                    UserConfiguredNetworkData userConfiguredData) {
+        return persistAndEnforceNetworkCompliance(host, skipManagementNetwork, userConfiguredData, false);
+    }
+
+    /**
+     * @param skipUnchangedTopology
+     *            if <code>true</code> and the reported topology is identical to the one last persisted for the host,
+     *            the topology isn't persisted again
+     */
+    private NonOperationalReason persistAndEnforceNetworkCompliance(VDS host,
+            boolean skipManagementNetwork,
+            UserConfiguredNetworkData userConfiguredData,
+            boolean skipUnchangedTopology) {
 
         List<VdsNetworkInterface> dbIfaces = interfaceDao.getAllInterfacesForVds(host.getId());
-        List<Network> clusterNetworks = networkDao.getAllForCluster(host.getClusterId());
+        List<Network> clusterNetworks = clusterNetworksCache.getAllForCluster(host.getClusterId());
+        String fingerprint = HostNetworkTopologyFingerprint.calculate(host.getInterfaces(), clusterNetworks);
+
+        if (skipUnchangedTopology && isTopologyPersisted(host, dbIfaces, fingerprint)) {
+            log.debug("Network topology reported by host '{}' is unchanged, skipping its persistence", host.getName());
+            createHostNetworkInterfacesPersister(host, dbIfaces, userConfiguredData).mergeWithPersistedTopology();
+        } else {
+            persistTopology(host, dbIfaces, clusterNetworks, userConfiguredData);
+            recordPersistedTopology(host.getId(), fingerprint);
+        }
 
-        persistTopology(host, dbIfaces, clusterNetworks, userConfiguredData);
         NonOperationalReason nonOperationalReason =
                 enforceNetworkCompliance(host, skipManagementNetwork, clusterNetworks);
         auditNetworkCompliance(host, dbIfaces, clusterNetworks);
@@ -138,7 +172,36 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
 
     @Override
     public NonOperationalReason persistAndEnforceNetworkCompliance(VDS host) {
-        return persistAndEnforceNetworkCompliance(host, false, new UserConfiguredNetworkData());
+        return persistAndEnforceNetworkCompliance(host, false, new UserConfiguredNetworkData(), true);
+    }
+
+    private boolean isTopologyPersisted(VDS host, List<VdsNetworkInterface> dbIfaces, String fingerprint) {
+        if (!fingerprint.equals(persistedTopologyFingerprints.get(host.getId()))) {
+            return false;
+        }
+
+        // nics may have been added or removed from the db since the last persistence (i.e. by a removal of the host)
+        Set<String> dbNicNames = dbIfaces.stream().map(VdsNetworkInterface::getName).collect(Collectors.toSet());
+        Set<String> reportedNicNames =
+                host.getInterfaces().stream().map(VdsNetworkInterface::getName).collect(Collectors.toSet());
+        return dbNicNames.equals(reportedNicNames);
+    }
+
+    private void recordPersistedTopology(final Guid hostId, String fingerprint) {
+        persistedTopologyFingerprints.put(hostId, fingerprint);
+
+        if (TransactionSupport.current() != null) {
+            TransactionSupport.registerRollbackHandler(new TransactionCompletionListener() {
+                @Override
+                public void onSuccess() {
+                }
+
+                @Override
+                public void onRollback() {
+                    persistedTopologyFingerprints.remove(hostId);
+                }
+            });
+        }
     }
 
     private void skipManagementNetworkCheck(List<VdsNetworkInterface> ifaces, List<Network> clusterNetworks, Guid clusterId) {
@@ -262,15 +325,19 @@ final class HostNetworkTopologyPersisterImpl implements HostNetworkTopologyPersi
             List<Network> clusterNetworks,
             UserConfiguredNetworkData userConfiguredData) {
 
-        final HostNetworkInterfacesPersister networkInterfacesPersister = new HostNetworkInterfacesPersisterImpl(
-                interfaceDao,
+        createHostNetworkInterfacesPersister(host, dbNics, userConfiguredData).persistTopology();
+
+        createHostNetworkAttachmentsPersister(host, clusterNetworks, userConfiguredData).persistNetworkAttachments();
+    }
+
+    private HostNetworkInterfacesPersister createHostNetworkInterfacesPersister(VDS host,
+            List<VdsNetworkInterface> dbNics,
+            UserConfiguredNetworkData userConfiguredData) {
+
+        return new HostNetworkInterfacesPersisterImpl(interfaceDao,
                 host.getInterfaces(),
                 dbNics,
                 userConfiguredData.getUserOverriddenNicValuesByNicName());
-
-        networkInterfacesPersister.persistTopology();
-
-        createHostNetworkAttachmentsPersister(host, clusterNetworks, userConfiguredData).persistNetworkAttachments();
     }
 
     private HostNetworkAttachmentsPersister createHostNetworkAttachmentsPersister(VDS host,
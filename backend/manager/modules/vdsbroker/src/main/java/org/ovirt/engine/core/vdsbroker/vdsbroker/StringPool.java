@@ -0,0 +1,39 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of the strings reported by VDSM which repeat in every report, such as the names and MAC addresses of the
+ * interfaces of VMs, so the entities kept in memory between the reports share a single copy of each of them.<br>
+ * The pool is bounded, once it is full it is cleared and refilled by the following reports.
+ */
+class StringPool {
+
+    private final int maxSize;
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    StringPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the pooled string which equals the given one, or <code>null</code> if the given value isn't a string.
+     */
+    String get(Object value) {
+        if (!(value instanceof String)) {
+            return null;
+        }
+
+        String string = (String) value;
+        String pooled = strings.putIfAbsent(string, string);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        if (strings.size() > maxSize) {
+            strings.clear();
+        }
+        return string;
+    }
+}
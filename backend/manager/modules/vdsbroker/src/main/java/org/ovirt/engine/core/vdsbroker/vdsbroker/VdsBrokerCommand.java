@@ -50,9 +50,9 @@ public abstract class VdsBrokerCommand<P extends VdsIdVDSCommandParametersBase>
      */
     protected VdsBrokerCommand(P parameters, VDS vds) {
         super(parameters);
-        this.vdsBroker = initializeVdsBroker(parameters.getVdsId());
         this.vds = vds;
         this.vdsStatic = vds.getStaticData();
+        this.vdsBroker = initializeVdsBroker(parameters.getVdsId());
     }
 
     protected IVdsServer initializeVdsBroker(Guid vdsId) {
@@ -62,7 +62,10 @@ public abstract class VdsBrokerCommand<P extends VdsIdVDSCommandParametersBase>
                     String.format("Vds with id: %1$s was not found", vdsId));
         }
 
-        setVdsAndVdsStatic(vdsmanager.getCopyVds());
+        // the host passed to the command is used as is, otherwise the host of the manager is only read by the command
+        if (vds == null) {
+            setVdsAndVdsStatic(vdsmanager.getVdsSnapshot());
+        }
         return vdsmanager.getVdsProxy();
     }
 
@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -123,6 +124,13 @@ public class VdsBrokerObjectsBuilder {
     private static final Pattern IPV6_ADDRESS_CAPTURE_PREFIX_PATTERN = Pattern.compile("^.*?/(\\d+)?$");
     private static final Pattern IPV6_ADDRESS_CAPTURE_PATTERN = Pattern.compile("^([^/]+)(:?/\\d{1,3})?$");
 
+    static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private static final StringPool stringPool = new StringPool(100000);
+    private static final Map<String, VMStatus> vmStatusByName = new ConcurrentHashMap<>();
+    private static final ThreadLocal<DateFormat> dateTimeFormat =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd HH:mm:ss z"));
+
     public static VM buildVmsDataFromExternalProvider(Map<String, Object> xmlRpcStruct) {
         VmStatic vmStatic = buildVmStaticDataFromExternalProvider(xmlRpcStruct);
         if (vmStatic == null) {
@@ -754,19 +762,17 @@ public class VdsBrokerObjectsBuilder {
         // ------------- vm network statistics -----------------------
         if (xmlRpcStruct.containsKey(VdsProperties.VM_NETWORK)) {
             Map networkStruct = (Map) xmlRpcStruct.get(VdsProperties.VM_NETWORK);
-            vm.setInterfaceStatistics(new ArrayList<>());
+            vm.setInterfaceStatistics(new ArrayList<>(networkStruct.size()));
             for (Object tempNic : networkStruct.values()) {
                 Map nic = (Map) tempNic;
                 VmNetworkInterface stats = new VmNetworkInterface();
                 vm.getInterfaceStatistics().add(stats);
 
                 if (nic.containsKey(VdsProperties.VM_INTERFACE_NAME)) {
-                    stats.setName((String) ((nic.get(VdsProperties.VM_INTERFACE_NAME) instanceof String) ? nic
-                            .get(VdsProperties.VM_INTERFACE_NAME) : null));
+                    stats.setName(stringPool.get(nic.get(VdsProperties.VM_INTERFACE_NAME)));
                 }
                 extractInterfaceStatistics(nic, stats);
-                stats.setMacAddress((String) ((nic.get(VdsProperties.MAC_ADDR) instanceof String) ? nic
-                        .get(VdsProperties.MAC_ADDR) : null));
+                stats.setMacAddress(stringPool.get(nic.get(VdsProperties.MAC_ADDR)));
             }
         }
 
@@ -784,14 +790,17 @@ public class VdsBrokerObjectsBuilder {
 
         if (xmlRpcStruct.containsKey(VdsProperties.vm_guest_mem_stats)) {
             Map<String, Object> sub = (Map<String, Object>)xmlRpcStruct.get(VdsProperties.vm_guest_mem_stats);
-            if (sub.containsKey(VdsProperties.vm_guest_mem_buffered)) {
-                vm.setGuestMemoryBuffered(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_buffered).toString()));
+            Object buffered = sub.get(VdsProperties.vm_guest_mem_buffered);
+            if (buffered != null) {
+                vm.setGuestMemoryBuffered(toLong(buffered));
             }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_cached)) {
-                vm.setGuestMemoryCached(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_cached).toString()));
+            Object cached = sub.get(VdsProperties.vm_guest_mem_cached);
+            if (cached != null) {
+                vm.setGuestMemoryCached(toLong(cached));
             }
-            if (sub.containsKey(VdsProperties.vm_guest_mem_free)) {
-                vm.setGuestMemoryFree(Long.parseLong(sub.get(VdsProperties.vm_guest_mem_free).toString()));
+            Object free = sub.get(VdsProperties.vm_guest_mem_free);
+            if (free != null) {
+                vm.setGuestMemoryFree(toLong(free));
             }
         }
 
@@ -1132,13 +1141,14 @@ public class VdsBrokerObjectsBuilder {
             int networkUsage = 0;
             Map<String, VdsNetworkInterface> nicsByName = Entities.entitiesByName(vds.getInterfaces());
             NetworkStatisticsBuilder statsBuilder = new NetworkStatisticsBuilder();
+            // the reported statistics are only copied to the existing interfaces, so a single instance is reused
+            VdsNetworkInterface reportedIface = new VdsNetworkInterface();
             for (Entry<String, Object> entry : interfaces.entrySet()) {
-                if (nicsByName.containsKey(entry.getKey())) {
-                    VdsNetworkInterface existingIface = nicsByName.get(entry.getKey());
+                VdsNetworkInterface existingIface = nicsByName.get(entry.getKey());
+                if (existingIface != null) {
                     existingIface.setVdsId(vds.getId());
 
                     Map<String, Object> dict = (Map<String, Object>) entry.getValue();
-                    VdsNetworkInterface reportedIface = new VdsNetworkInterface();
                     extractInterfaceStatistics(dict, reportedIface);
 
                     statsBuilder.updateExistingInterfaceStatistics(existingIface, reportedIface);
@@ -1291,10 +1301,7 @@ public class VdsBrokerObjectsBuilder {
                 CpuStatistics data = buildVdsCpuStatistics(item);
                 cpuStatsData.add(data);
                 int numaNodeIndex = assignIntValue(item.getValue(), VdsProperties.NUMA_NODE_INDEX);
-                if (!numaNodeCpuStats.containsKey(numaNodeIndex)) {
-                    numaNodeCpuStats.put(numaNodeIndex, new ArrayList<>());
-                }
-                numaNodeCpuStats.get(numaNodeIndex).add(data);
+                numaNodeCpuStats.computeIfAbsent(numaNodeIndex, index -> new ArrayList<>()).add(data);
             }
             DecimalFormat percentageFormatter = new DecimalFormat("#.##");
             for (Map.Entry<Integer, List<CpuStatistics>> item : numaNodeCpuStats.entrySet()) {
@@ -1465,51 +1472,99 @@ public class VdsBrokerObjectsBuilder {
     }
 
     private static Integer assignIntValue(Map input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Integer) {
-                return (Integer) input.get(name);
-            }
-            String stringValue = (String) input.get(name);
-            if (StringUtils.isNotEmpty(stringValue)) { // in case the input
-                                                       // is decimal and we
-                                                       // need int.
-                stringValue = stringValue.split("[.]", -1)[0];
-            }
-            try {
-                int intValue = Integer.parseInt(stringValue);
-                return intValue;
-            } catch (NumberFormatException nfe) {
-                log.error("Failed to parse '{}' value '{}' to integer: {}", name, stringValue, nfe.getMessage());
-            }
+        Object value = input.get(name);
+        if (value == null) {
+            return null;
         }
-        return null;
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+
+        // in case the input is decimal and we need int.
+        String stringValue = (String) value;
+        long longValue = parseIntegralPart(stringValue);
+        if (longValue == NOT_A_NUMBER || longValue != (int) longValue) {
+            log.error("Failed to parse '{}' value '{}' to integer", name, stringValue);
+            return null;
+        }
+        return (int) longValue;
     }
 
     private static Long assignLongValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Long || input.get(name) instanceof Integer) {
-                return Long.parseLong(input.get(name).toString());
-            }
-            String stringValue = (String) ((input.get(name) instanceof String) ? input.get(name) : null);
-            if (!StringUtils.isEmpty(stringValue)) { // in case the input
-                                                     // is decimal and we
-                                                     // need int.
-                stringValue = stringValue.split("[.]", -1)[0];
-            }
-            try {
-                return Long.parseLong(stringValue);
-            } catch (NumberFormatException e) {
-                log.error("Failed to parse '{}' value '{}' to long: {}", name, stringValue, e.getMessage());
+        Object value = input.get(name);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return ((Number) value).longValue();
+        }
+
+        // in case the input is decimal and we need long.
+        String stringValue = value instanceof String ? (String) value : null;
+        long longValue = parseIntegralPart(stringValue);
+        if (longValue == NOT_A_NUMBER) {
+            log.error("Failed to parse '{}' value '{}' to long", name, stringValue);
+            return null;
+        }
+        return longValue;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    /**
+     * Parse the integral part of the given decimal number, without allocating the intermediate strings of
+     * splitting it.
+     *
+     * @return the integral part, or {@link #NOT_A_NUMBER} if the given string isn't a number.
+     */
+    static long parseIntegralPart(String value) {
+        if (value == null) {
+            return NOT_A_NUMBER;
+        }
+
+        int end = value.indexOf('.');
+        if (end == -1) {
+            end = value.length();
+        }
+
+        int index = 0;
+        boolean negative = false;
+        if (end > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            index++;
+        }
+        if (index == end) {
+            return NOT_A_NUMBER;
+        }
+        if (end - index > 18) {
+            // may overflow
+            return parseLongOrNotANumber(value.substring(0, end));
+        }
+
+        long result = 0;
+        for (; index < end; index++) {
+            int digit = value.charAt(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_NUMBER;
             }
+            result = result * 10 + digit;
         }
-        return null;
+        return negative ? -result : result;
     }
 
-    private static String assignStringValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            return (String) ((input.get(name) instanceof String) ? input.get(name) : null);
+    private static long parseLongOrNotANumber(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return NOT_A_NUMBER;
         }
-        return null;
+    }
+
+    private static String assignStringValue(Map<String, Object> input, String name) {
+        Object value = input.get(name);
+        return value instanceof String ? (String) value : null;
     }
 
     private static String[] assignStringArrayValue(Map<String, Object> input, String name) {
@@ -1556,14 +1611,14 @@ public class VdsBrokerObjectsBuilder {
     }
 
     private static Date assignDatetimeValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Date) {
-                return (Date) input.get(name);
+        Object value = input.get(name);
+        if (value != null) {
+            if (value instanceof Date) {
+                return (Date) value;
             }
-            DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss z");
             try {
-                String dateStr = input.get(name).toString().replaceFirst("T", " ").trim();
-                return formatter.parse(dateStr);
+                String dateStr = value.toString().replaceFirst("T", " ").trim();
+                return dateTimeFormat.get().parse(dateStr);
             } catch (ParseException e) {
                 e.printStackTrace();
             }
@@ -1572,13 +1627,11 @@ public class VdsBrokerObjectsBuilder {
     }
 
     private static Boolean assignBoolValue(Map<String, Object> input, String name) {
-        if (input.containsKey(name)) {
-            if (input.get(name) instanceof Boolean) {
-                return (Boolean) input.get(name);
-            }
-            return Boolean.parseBoolean(input.get(name).toString());
+        Object value = input.get(name);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
         }
-        return Boolean.FALSE;
+        return value != null ? Boolean.valueOf(value.toString()) : Boolean.FALSE;
     }
 
     private static void initDisks(Map<String, Object> vmStruct, VmDynamic vm) {
@@ -1678,6 +1731,17 @@ public class VdsBrokerObjectsBuilder {
     }
 
     public static VMStatus convertToVmStatus(String statusName) {
+        VMStatus status = statusName != null ? vmStatusByName.get(statusName) : null;
+        if (status == null) {
+            status = parseVmStatus(statusName);
+            if (status != VMStatus.Unassigned) {
+                vmStatusByName.put(statusName, status);
+            }
+        }
+        return status;
+    }
+
+    private static VMStatus parseVmStatus(String statusName) {
         VMStatus status = VMStatus.Unassigned;
 
         // TODO: The following condition should deleted as soon as we drop compatibility with 3.3 since "Running" state
@@ -0,0 +1,155 @@
+package org.ovirt.engine.core.vdsbroker.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.compat.Guid;
+import org.ovirt.engine.core.vdsbroker.vdsbroker.VdsProperties;
+import org.ovirt.vdsm.jsonrpc.client.events.EventSubscriber;
+import org.reactivestreams.Subscription;
+
+public class VdsmEventBusTest {
+
+    private static final Guid HOST_ID = Guid.newGuid();
+
+    private final Queue<Runnable> tasks = new LinkedList<>();
+    private final List<String> handled = new ArrayList<>();
+    private VdsmEventBus eventBus;
+
+    @Before
+    public void setUp() {
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation -> tasks.add((Runnable) invocation.getArguments()[0]))
+                .when(executor).execute(any(Runnable.class));
+        eventBus = new VdsmEventBus();
+        eventBus.init(executor, 1);
+    }
+
+    private EventSubscriber register(VdsmEventTopic topic) {
+        VdsmEventBus.Registration registration = eventBus.register(HOST_ID,
+                "host",
+                topic,
+                map -> handled.add(topic + ":" + new TreeMap<>(map)));
+        EventSubscriber subscriber = registration.getSubscriber();
+        subscriber.onSubscribe(mock(Subscription.class));
+        return subscriber;
+    }
+
+    private static Map<String, Object> event(String key, Object value) {
+        return new HashMap<>(Collections.singletonMap(key, value));
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    @Test
+    public void eventsAreProcessedInOrder() {
+        EventSubscriber subscriber = register(VdsmEventTopic.VM_STATUS);
+
+        subscriber.onNext(event("vm1", "Up"));
+        runTasks();
+        subscriber.onNext(event("vm2", "Down"));
+        runTasks();
+
+        assertEquals(2, handled.size());
+        assertEquals("VM_STATUS:{vm1=Up}", handled.get(0));
+        assertEquals("VM_STATUS:{vm2=Down}", handled.get(1));
+        assertEquals(2, eventBus.getHostCounters(HOST_ID).getProcessed());
+        assertEquals(0, eventBus.getTopicCounters(VdsmEventTopic.VM_STATUS).getQueued());
+    }
+
+    @Test
+    public void overflowOfCoalescingTopicIsMerged() {
+        EventSubscriber subscriber = register(VdsmEventTopic.VM_STATUS);
+
+        subscriber.onNext(event("vm1", "Up"));
+        subscriber.onNext(event("vm2", "Down"));
+        subscriber.onNext(event("vm1", "Paused"));
+        runTasks();
+
+        assertEquals(Collections.singletonList("VM_STATUS:{vm1=Paused, vm2=Down}"), handled);
+        EventCounters counters = eventBus.getTopicCounters(VdsmEventTopic.VM_STATUS);
+        assertEquals(3, counters.getReceived());
+        assertEquals(2, counters.getCoalesced());
+        assertEquals(1, counters.getProcessed());
+        assertEquals(0, counters.getQueued());
+    }
+
+    @Test
+    public void mergedEventKeepsNotifyTimeOfEachEntry() {
+        Map<String, Object> earlier = event("vm1", event("status", "Down"));
+        earlier.put("vm2", event("status", "Down"));
+        earlier.put(VdsProperties.notify_time, 1000L);
+        Map<String, Object> later = event("vm2", event("status", "Up"));
+        later.put(VdsProperties.notify_time, 2000L);
+        Map<String, Object> latest = event("vm3", event("status", "Up"));
+        latest.put(VdsProperties.notify_time, 3000L);
+
+        Map<String, Object> merged = VdsmEventBus.merge(VdsmEventBus.merge(earlier, later), latest);
+
+        assertEquals(3000L, merged.get(VdsProperties.notify_time));
+        assertEquals(1000L, ((Map<?, ?>) merged.get("vm1")).get(VdsProperties.notify_time));
+        assertEquals(2000L, ((Map<?, ?>) merged.get("vm2")).get(VdsProperties.notify_time));
+        assertEquals("Up", ((Map<?, ?>) merged.get("vm2")).get("status"));
+        assertNull(((Map<?, ?>) merged.get("vm3")).get(VdsProperties.notify_time));
+    }
+
+    @Test
+    public void overflowOfOtherTopicIsDropped() {
+        EventSubscriber subscriber = register(VdsmEventTopic.HOST_CONNECTION);
+
+        subscriber.onNext(event("id", 1));
+        subscriber.onNext(event("id", 2));
+        runTasks();
+
+        assertEquals(Collections.singletonList("HOST_CONNECTION:{id=1}"), handled);
+        assertEquals(1, eventBus.getHostCounters(HOST_ID).getDropped());
+    }
+
+    @Test
+    public void higherPriorityTopicIsProcessedFirst() {
+        EventSubscriber hostConnection = register(VdsmEventTopic.HOST_CONNECTION);
+        EventSubscriber vmStatus = register(VdsmEventTopic.VM_STATUS);
+
+        hostConnection.onNext(event("id", 1));
+        vmStatus.onNext(event("vm1", "Up"));
+        tasks.poll().run();
+
+        assertEquals(Collections.singletonList("VM_STATUS:{vm1=Up}"), handled);
+    }
+
+    @Test
+    public void cancelDiscardsPendingEvents() {
+        VdsmEventBus.Registration registration = eventBus.register(HOST_ID,
+                "host",
+                VdsmEventTopic.VM_STATUS,
+                map -> handled.add(map.toString()));
+        registration.getSubscriber().onSubscribe(mock(Subscription.class));
+
+        registration.getSubscriber().onNext(event("vm1", "Up"));
+        registration.cancel();
+        runTasks();
+
+        assertEquals(0, handled.size());
+        assertEquals(0, eventBus.getTopicCounters(VdsmEventTopic.VM_STATUS).getQueued());
+        assertNull(eventBus.getHostCounters(HOST_ID));
+    }
+}
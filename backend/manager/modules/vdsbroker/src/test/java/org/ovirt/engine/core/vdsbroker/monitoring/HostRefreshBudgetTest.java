@@ -0,0 +1,39 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HostRefreshBudgetTest {
+
+    private final HostRefreshBudget budget = new HostRefreshBudget();
+
+    @Test
+    public void optionalRefreshesAreLimited() {
+        budget.init(2);
+
+        assertTrue(budget.tryAcquire(false, 1000));
+        assertTrue(budget.tryAcquire(false, 1200));
+        assertFalse(budget.tryAcquire(false, 1400));
+        assertTrue(budget.tryAcquire(false, 2000));
+    }
+
+    @Test
+    public void mandatoryRefreshesAreNotLimited() {
+        budget.init(1);
+
+        assertTrue(budget.tryAcquire(true, 1000));
+        assertTrue(budget.tryAcquire(true, 1000));
+        assertFalse(budget.tryAcquire(false, 1000));
+    }
+
+    @Test
+    public void noLimit() {
+        budget.init(0);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(budget.tryAcquire(false, 1000));
+        }
+    }
+}
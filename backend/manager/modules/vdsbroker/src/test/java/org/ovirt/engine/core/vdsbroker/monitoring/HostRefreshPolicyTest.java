@@ -0,0 +1,115 @@
+package org.ovirt.engine.core.vdsbroker.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.VDS;
+import org.ovirt.engine.core.common.businessentities.VDSStatus;
+
+public class HostRefreshPolicyTest {
+
+    private HostRefreshPolicy policy;
+    private VDS vds;
+
+    @Before
+    public void setUp() {
+        policy = new HostRefreshPolicy(4);
+        vds = new VDS();
+        vds.setStatus(VDSStatus.Up);
+        vds.setVmCount(3);
+        vds.setVmMigrating(0);
+    }
+
+    /**
+     * Refresh the host on the ticks the policy decides, and return the number of ticks until the refresh.
+     */
+    private int refresh(boolean failed) {
+        int ticks = 1;
+        while (!policy.isTimeToRefresh()) {
+            ticks++;
+        }
+        policy.onRefreshed(vds, failed);
+        return ticks;
+    }
+
+    @Test
+    public void stableHostIntervalIsStretched() {
+        assertEquals(1, refresh(false));
+        assertEquals(1, refresh(false));
+        assertEquals(2, refresh(false));
+        assertEquals(4, refresh(false));
+        assertEquals(4, refresh(false));
+    }
+
+    @Test
+    public void changeShrinksInterval() {
+        refresh(false);
+        refresh(false);
+        refresh(false);
+        assertEquals(4, policy.getInterval());
+
+        vds.setVmCount(4);
+        refresh(false);
+        assertEquals(1, policy.getInterval());
+    }
+
+    @Test
+    public void significantLoadChangeShrinksInterval() {
+        vds.setUsageCpuPercent(20);
+        vds.setUsageMemPercent(30);
+        refresh(false);
+        refresh(false);
+        vds.setUsageCpuPercent(25);
+        refresh(false);
+        assertEquals(4, policy.getInterval());
+
+        vds.setUsageMemPercent(30 + HostRefreshPolicy.SIGNIFICANT_USAGE_CHANGE);
+        refresh(false);
+        assertEquals(1, policy.getInterval());
+    }
+
+    @Test
+    public void transitionShrinksInterval() {
+        refresh(false);
+        refresh(false);
+        vds.setStatus(VDSStatus.PreparingForMaintenance);
+        refresh(false);
+        assertEquals(1, policy.getInterval());
+        refresh(false);
+        assertEquals(1, policy.getInterval());
+    }
+
+    @Test
+    public void failureShrinksInterval() {
+        refresh(false);
+        refresh(false);
+        refresh(true);
+        assertEquals(1, policy.getInterval());
+    }
+
+    @Test
+    public void resetRefreshesOnNextTick() {
+        refresh(false);
+        refresh(false);
+        refresh(false);
+
+        policy.reset();
+        assertTrue(policy.isTimeToRefresh());
+        assertTrue(policy.isRefreshMandatory());
+        policy.onRefreshed(vds, false);
+        assertEquals(1, policy.getInterval());
+    }
+
+    @Test
+    public void refreshOfStableHostIsNotMandatory() {
+        refresh(false);
+        refresh(false);
+        refresh(false);
+
+        assertFalse(policy.isTimeToRefresh());
+        assertFalse(policy.isRefreshMandatory());
+    }
+}
@@ -309,7 +309,7 @@ public class VmAnalyzerTest {
         stubDaos();
         when(vdsManager.getVdsId()).thenReturn(VmTestPairs.SRC_HOST_ID);
         when(vdsManager.getClusterId()).thenReturn(VmTestPairs.CLUSTER_ID);
-        when(vdsManager.getCopyVds()).thenReturn(vdsManagerVds);
+        when(vdsManager.getVdsSnapshot()).thenReturn(vdsManagerVds);
         when(vmManager.isColdReboot()).thenReturn(false);
         when(resourceManager.getVdsManager(any(Guid.class))).thenReturn(vdsManager);
         // -- default behaviors --
@@ -3,6 +3,7 @@ package org.ovirt.engine.core.vdsbroker.monitoring;
 import static org.junit.Assume.assumeTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,10 +21,11 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.ovirt.engine.core.common.businessentities.VDS;
-import org.ovirt.engine.core.common.businessentities.VM;
+import org.ovirt.engine.core.common.businessentities.VmRuntimeState;
 import org.ovirt.engine.core.common.vdscommands.VDSCommandType;
 import org.ovirt.engine.core.common.vdscommands.VDSReturnValue;
 import org.ovirt.engine.core.common.vdscommands.VdsIdAndVdsVDSCommandParametersBase;
+import org.ovirt.engine.core.compat.Guid;
 import org.ovirt.engine.core.dal.dbbroker.DbFacade;
 import org.ovirt.engine.core.dao.VdsDao;
 import org.ovirt.engine.core.dao.VmDao;
@@ -50,7 +52,7 @@ public class VmsListFetcherTest {
     @Mock
     private VmDao vmDao;
     @Captor
-    ArgumentCaptor<List<VM>> vdsManagerArgumentCaptor;
+    ArgumentCaptor<List<VmRuntimeState>> vdsManagerArgumentCaptor;
 
     @Before
     public void setup() {
@@ -59,7 +61,7 @@ public class VmsListFetcherTest {
         when(dbFacade.getVmDao()).thenReturn(vmDao);
         VDS vds = new VDS();
         vds.setId(VmTestPairs.SRC_HOST_ID);
-        when(vdsManager.getCopyVds()).thenReturn(vds);
+        when(vdsManager.getVdsSnapshot()).thenReturn(vds);
         when(vdsManager.getVdsId()).thenReturn(vds.getId());
         vmsListFetcher = new VmsListFetcher(vdsManager, dbFacade, resourceManager);
     }
@@ -101,10 +103,10 @@ public class VmsListFetcherTest {
         assumeTrue(data.dbVm() != null);
         //then
         verify(vdsManager).setLastVmsList(vdsManagerArgumentCaptor.capture());
-        Assert.assertEquals(
-                data.vdsmVm().getVmDynamic(),
-                vdsManagerArgumentCaptor.getValue().get(0).getDynamicData()
-        );
+        VmRuntimeState runtimeState = vdsManagerArgumentCaptor.getValue().get(0);
+        Assert.assertEquals(data.vdsmVm().getVmDynamic().getId(), runtimeState.getId());
+        Assert.assertEquals(data.vdsmVm().getVmDynamic().getStatus(), runtimeState.getStatus());
+        Assert.assertEquals(data.dbVm().getVmMemSizeMb(), runtimeState.getMemSizeMb());
     }
 
     @Theory
@@ -121,6 +123,36 @@ public class VmsListFetcherTest {
         Assert.assertTrue(vdsManagerArgumentCaptor.getValue().size() == 0);
     }
 
+    @Theory
+    public void unchangedVmsAreNotReadFromDb(VmTestPairs data) {
+        //given
+        stubCalls(data);
+        assumeTrue(data.vdsmVm() != null);
+        assumeTrue(data.dbVm() != null && data.dbVm().getStatus() == data.vdsmVm().getVmDynamic().getStatus());
+        when(vdsManager.getRunningVms()).thenReturn(Collections.singletonMap(data.dbVm().getId(), data.dbVm()));
+        //when
+        Assert.assertTrue(vmsListFetcher.fetch());
+        //then
+        Assert.assertTrue(vmsListFetcher.getChangedVms().isEmpty());
+        verify(vmDao, never()).getAllRunningByVds(any(Guid.class));
+        verify(vdsManager, never()).setRunningVms(any(), any());
+    }
+
+    @Theory
+    public void changedVmsAreReadFromDb(VmTestPairs data) {
+        //given
+        stubCalls(data);
+        assumeTrue(data.vdsmVm() != null);
+        assumeTrue(data.dbVm() != null && data.dbVm().getStatus() != data.vdsmVm().getVmDynamic().getStatus());
+        when(vdsManager.getRunningVms()).thenReturn(Collections.singletonMap(data.dbVm().getId(), data.dbVm()));
+        //when
+        Assert.assertTrue(vmsListFetcher.fetch());
+        //then
+        verify(vmDao).getAllRunningByVds(VmTestPairs.SRC_HOST_ID);
+        verify(vdsManager).getRunningVmGenerations(Collections.singleton(data.vdsmVm().getVmDynamic().getId()));
+        verify(vdsManager).setRunningVms(eq(Collections.singletonMap(data.dbVm().getId(), data.dbVm())), any());
+    }
+
     @Theory
     public void callToVDSMFailed(VmTestPairs data) {
         // given
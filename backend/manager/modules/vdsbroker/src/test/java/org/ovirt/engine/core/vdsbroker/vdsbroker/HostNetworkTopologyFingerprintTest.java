@@ -0,0 +1,89 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.network.Network;
+import org.ovirt.engine.core.common.businessentities.network.NetworkCluster;
+import org.ovirt.engine.core.common.businessentities.network.NetworkStatus;
+import org.ovirt.engine.core.common.businessentities.network.Nic;
+import org.ovirt.engine.core.common.businessentities.network.VdsNetworkInterface;
+import org.ovirt.engine.core.compat.Guid;
+
+public class HostNetworkTopologyFingerprintTest {
+
+    private static final Guid NETWORK_ID = Guid.newGuid();
+
+    @Test
+    public void sameTopologyWithDifferentIdsAndStatistics() {
+        VdsNetworkInterface nic1 = createNic("eth0", "net1");
+        VdsNetworkInterface nic2 = createNic("eth0", "net1");
+        nic2.getStatistics().setReceiveRate(100.0);
+
+        assertEquals(calculate(nic1, createNetwork(NetworkStatus.OPERATIONAL)),
+                calculate(nic2, createNetwork(NetworkStatus.OPERATIONAL)));
+    }
+
+    @Test
+    public void nicOrderDoesNotMatter() {
+        VdsNetworkInterface eth0 = createNic("eth0", "net1");
+        VdsNetworkInterface eth1 = createNic("eth1", null);
+        List<Network> networks = Collections.singletonList(createNetwork(NetworkStatus.OPERATIONAL));
+
+        assertEquals(HostNetworkTopologyFingerprint.calculate(Arrays.asList(eth0, eth1), networks),
+                HostNetworkTopologyFingerprint.calculate(Arrays.asList(eth1, eth0), networks));
+    }
+
+    @Test
+    public void changedNicAttribute() {
+        VdsNetworkInterface nic1 = createNic("eth0", "net1");
+        VdsNetworkInterface nic2 = createNic("eth0", "net1");
+        nic2.setMtu(9000);
+
+        assertNotEquals(calculate(nic1, createNetwork(NetworkStatus.OPERATIONAL)),
+                calculate(nic2, createNetwork(NetworkStatus.OPERATIONAL)));
+    }
+
+    @Test
+    public void changedNetworkOnNic() {
+        assertNotEquals(calculate(createNic("eth0", "net1"), createNetwork(NetworkStatus.OPERATIONAL)),
+                calculate(createNic("eth0", null), createNetwork(NetworkStatus.OPERATIONAL)));
+    }
+
+    @Test
+    public void changedClusterNetwork() {
+        VdsNetworkInterface nic = createNic("eth0", "net1");
+
+        assertNotEquals(calculate(nic, createNetwork(NetworkStatus.OPERATIONAL)),
+                calculate(nic, createNetwork(NetworkStatus.NON_OPERATIONAL)));
+    }
+
+    private String calculate(VdsNetworkInterface nic, Network network) {
+        return HostNetworkTopologyFingerprint.calculate(Collections.singletonList(nic),
+                Collections.singletonList(network));
+    }
+
+    private VdsNetworkInterface createNic(String name, String networkName) {
+        VdsNetworkInterface nic = new Nic();
+        nic.setId(Guid.newGuid());
+        nic.setName(name);
+        nic.setNetworkName(networkName);
+        nic.setMacAddress("00:1a:4a:16:01:51");
+        return nic;
+    }
+
+    private Network createNetwork(NetworkStatus status) {
+        Network network = new Network();
+        network.setId(NETWORK_ID);
+        network.setName("net1");
+        NetworkCluster networkCluster = new NetworkCluster();
+        networkCluster.setStatus(status);
+        network.setCluster(networkCluster);
+        return network;
+    }
+}
@@ -0,0 +1,36 @@
+package org.ovirt.engine.core.vdsbroker.vdsbroker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class StringPoolTest {
+
+    private final StringPool pool = new StringPool(2);
+
+    @Test
+    public void equalStringsArePooled() {
+        String name = pool.get(new String("vnet0"));
+
+        assertSame(name, pool.get(new String("vnet0")));
+    }
+
+    @Test
+    public void nonStringsAreIgnored() {
+        assertNull(pool.get(1));
+        assertNull(pool.get(null));
+    }
+
+    @Test
+    public void poolIsBounded() {
+        pool.get("a");
+        pool.get("b");
+        pool.get("c");
+
+        String d = new String("d");
+        assertSame(d, pool.get(d));
+        assertEquals("a", pool.get("a"));
+    }
+}
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import org.junit.Test;
+import org.ovirt.engine.core.common.businessentities.VMStatus;
 
 public class VdsBrokerObjectsBuilderTest {
     @Test
@@ -56,4 +57,33 @@ public class VdsBrokerObjectsBuilderTest {
     public void testExtractProperIpv6AddressMultipleSlashes() {
         assertThat(VdsBrokerObjectsBuilder.extractIpv6Address(":/:/123"), is(":/:/123"));
     }
+
+    @Test
+    public void testParseIntegralPart() {
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("42"), is(42L));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("42.99"), is(42L));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("-7.5"), is(-7L));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("+7"), is(7L));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("9223372036854775807"), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testParseIntegralPartNotANumber() {
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart(null), is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart(""), is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart(".5"), is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("-"), is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("1e5"), is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+        assertThat(VdsBrokerObjectsBuilder.parseIntegralPart("99999999999999999999"),
+                is(VdsBrokerObjectsBuilder.NOT_A_NUMBER));
+    }
+
+    @Test
+    public void testConvertToVmStatus() {
+        assertThat(VdsBrokerObjectsBuilder.convertToVmStatus("Up"), is(VMStatus.Up));
+        assertThat(VdsBrokerObjectsBuilder.convertToVmStatus("Up"), is(VMStatus.Up));
+        assertThat(VdsBrokerObjectsBuilder.convertToVmStatus("Powering up"), is(VMStatus.PoweringUp));
+        assertThat(VdsBrokerObjectsBuilder.convertToVmStatus("Migration Source"), is(VMStatus.MigratingFrom));
+        assertThat(VdsBrokerObjectsBuilder.convertToVmStatus("No such status"), is(VMStatus.Unassigned));
+    }
 }
@@ -73,6 +73,11 @@ BEGIN
         memory_volume = v_memory_volume,
         memory_dump_disk_id = v_memory_dump_disk_id,
         memory_metadata_disk_id = v_memory_metadata_disk_id,
+        vm_configuration_generation = CASE
+            WHEN vm_configuration IS DISTINCT FROM v_vm_configuration
+                THEN nextval('snapshot_configuration_generation_seq')
+            ELSE vm_configuration_generation
+            END,
         _update_date = NOW()
     WHERE snapshot_id = v_snapshot_id;
 END;$PROCEDURE$
@@ -210,7 +215,8 @@ CREATE TYPE GetAllFromSnapshotsByVmId_rs AS (
         memory_dump_disk_id UUID,
         memory_metadata_disk_id UUID,
         vm_configuration TEXT,
-        vm_configuration_available BOOLEAN
+        vm_configuration_available BOOLEAN,
+        vm_configuration_generation BIGINT
         );
 
 CREATE OR REPLACE FUNCTION GetAllFromSnapshotsByVmId (
@@ -239,7 +245,8 @@ BEGIN
             ELSE NULL
             END,
         vm_configuration IS NOT NULL
-        AND LENGTH(vm_configuration) > 0
+        AND LENGTH(vm_configuration) > 0,
+        vm_configuration_generation
     FROM snapshots
     WHERE vm_id = v_vm_id
         AND (
@@ -255,6 +262,30 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+CREATE OR REPLACE FUNCTION GetSnapshotWithoutConfigurationBySnapshotId (v_snapshot_id UUID)
+RETURNS SETOF GetAllFromSnapshotsByVmId_rs STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT snapshot_id,
+        vm_id,
+        snapshot_type,
+        status,
+        description,
+        creation_date,
+        app_list,
+        memory_volume,
+        memory_dump_disk_id,
+        memory_metadata_disk_id,
+        NULL::TEXT,
+        vm_configuration IS NOT NULL
+        AND LENGTH(vm_configuration) > 0,
+        vm_configuration_generation
+    FROM snapshots
+    WHERE snapshot_id = v_snapshot_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetSnapshotBySnapshotId (
     v_snapshot_id UUID,
     v_user_id UUID,
@@ -0,0 +1,2 @@
+CREATE SEQUENCE snapshot_configuration_generation_seq INCREMENT BY 1 START WITH 1;
+SELECT fn_db_add_column('snapshots', 'vm_configuration_generation', 'BIGINT DEFAULT nextval(''snapshot_configuration_generation_seq''::regclass) NOT NULL');
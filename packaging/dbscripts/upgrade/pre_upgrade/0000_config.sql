@@ -624,6 +624,40 @@ select fn_db_add_config_value('UploadImageXhrRetryIntervalInSeconds','3','genera
 select fn_db_add_config_value('UploadImageXhrMaxRetries','3','general');
 
 select fn_db_add_config_value_for_versions_up_to('AdPartnerMacSupported','false','3.6');
+select fn_db_add_config_value('HostStatisticsFlushIntervalInSeconds','15','general');
+select fn_db_add_config_value('CommandCallbacksPollerThreadPoolSize','10','general');
+select fn_db_add_config_value('CommandEntitiesFlushIntervalInSeconds','2','general');
+select fn_db_add_config_value('MaxMigrationsPerLoadBalancingRun','1','general');
+select fn_db_add_config_value('VmPoolMonitorMaxParallelPrestartsPerCluster','3','general');
+select fn_db_add_config_value('SSHSessionPoolIdleTimeoutSeconds','60','general');
+select fn_db_add_config_value('SSHSessionPoolMaxSessionsPerHost','2','general');
+select fn_db_add_config_value('SSHSessionPoolMaxChannelsPerSession','5','general');
+select fn_db_add_config_value('BootstrapBundleCacheDirectory','','general');
+select fn_db_add_config_value('VdsmEventBusPoolSize','10','general');
+select fn_db_add_config_value('VdsmEventBusQueueCapacity','100','general');
+select fn_db_add_config_value('VdsRefreshMaxStretchFactor','1','general');
+select fn_db_add_config_value('VdsRefreshBudgetPerSecond','0','general');
+select fn_db_add_config_value('MonitoringThreadPoolSize','50','general');
+select fn_db_add_config_value('MonitoringThreadWaitQueueSize','100','general');
+select fn_db_add_config_value('CommandsThreadPoolSize','100','general');
+select fn_db_add_config_value('CommandsThreadWaitQueueSize','100','general');
+select fn_db_add_config_value('StorageEventsThreadPoolSize','20','general');
+select fn_db_add_config_value('StorageEventsThreadWaitQueueSize','100','general');
+select fn_db_add_config_value('GlusterThreadPoolSize','20','general');
+select fn_db_add_config_value('GlusterThreadWaitQueueSize','100','general');
+select fn_db_add_config_value('ThreadPoolSaturationWarningPercent','80','general');
+select fn_db_add_config_value('ThreadPoolUseVirtualThreads','false','general');
+select fn_db_add_config_value('VirtualThreadPoolSizeFactor','10','general');
+select fn_db_add_config_value('TimerWheelThreadPoolSize','100','general');
+select fn_db_add_config_value('VdsmEventBusReportIntervalInMinutes','5','general');
+select fn_db_add_config_value('MaxMigrationsPerLoadBalancingDestination','2','general');
+select fn_db_add_config_value('MaxConcurrentLoadBalancingMigrations','0','general');
+select fn_db_add_config_value('LoadBalancingDryRun','false','general');
+select fn_db_add_config_value('CommandCallbacksPollerThreadWaitQueueSize','1000','general');
+select fn_db_add_config_value('VmPoolMonitorThreadPoolSize','10','general');
+select fn_db_add_config_value('VmPoolMonitorThreadWaitQueueSize','100','general');
+select fn_db_add_config_value('CommandCallbacksPollerReportIntervalInMinutes','5','general');
+select fn_db_add_config_value('VmPoolMonitorMaxParallelPrestartsPerHost','2','general');
 ------------------------------------------------------------------------------------
 --                  Update with override section
 ------------------------------------------------------------------------------------
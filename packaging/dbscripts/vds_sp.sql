@@ -584,6 +584,38 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+DROP TYPE IF EXISTS vds_resource_state_rs CASCADE;
+CREATE TYPE vds_resource_state_rs AS (
+        vds_id UUID,
+        status INTEGER,
+        mem_commited INTEGER,
+        pending_vmem_size INTEGER,
+        pending_vcpus_count INTEGER,
+        vms_cores_count INTEGER,
+        vm_count INTEGER,
+        reserved_mem INTEGER,
+        guest_overhead INTEGER
+        );
+
+CREATE OR REPLACE FUNCTION GetVdsResourceStateByVdsId (v_vds_id UUID)
+RETURNS SETOF vds_resource_state_rs STABLE AS $PROCEDURE$
+BEGIN
+    RETURN QUERY
+
+    SELECT vds_id,
+        status,
+        mem_commited,
+        pending_vmem_size,
+        pending_vcpus_count,
+        vms_cores_count,
+        vm_count,
+        reserved_mem,
+        guest_overhead
+    FROM vds_dynamic
+    WHERE vds_id = v_vds_id;
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 ----------------------------------------------------------------
 -- [vds_static] Table
 --
@@ -1428,6 +1460,77 @@ BEGIN
 END;$PROCEDURE$
 LANGUAGE plpgsql;
 
+-- Upserts the cpu statistics of several hosts at once, the statistics are given as parallel arrays.
+-- Cpu statistics which aren't given are kept, except for the hosts in v_replaced_vds_ids which are cleared first.
+CREATE OR REPLACE FUNCTION UpsertVdsCpuStatistics (
+    v_replaced_vds_ids UUID[],
+    v_vds_ids UUID[],
+    v_cpu_core_ids INT[],
+    v_cpu_sys DOUBLE PRECISION[],
+    v_cpu_user DOUBLE PRECISION[],
+    v_cpu_idle DOUBLE PRECISION[],
+    v_usage_cpu_percent INT[]
+    )
+RETURNS VOID AS $PROCEDURE$
+BEGIN
+    DELETE
+    FROM vds_cpu_statistics
+    WHERE vds_id = ANY (v_replaced_vds_ids);
+
+    UPDATE vds_cpu_statistics
+    SET cpu_sys = reported.cpu_sys,
+        cpu_user = reported.cpu_user,
+        cpu_idle = reported.cpu_idle,
+        usage_cpu_percent = reported.usage_cpu_percent
+    FROM (
+        SELECT unnest(v_vds_ids) AS vds_id,
+            unnest(v_cpu_core_ids) AS cpu_core_id,
+            unnest(v_cpu_sys) AS cpu_sys,
+            unnest(v_cpu_user) AS cpu_user,
+            unnest(v_cpu_idle) AS cpu_idle,
+            unnest(v_usage_cpu_percent) AS usage_cpu_percent
+        ) AS reported
+    WHERE vds_cpu_statistics.vds_id = reported.vds_id
+        AND vds_cpu_statistics.cpu_core_id = reported.cpu_core_id;
+
+    INSERT INTO vds_cpu_statistics (
+        vds_cpu_id,
+        vds_id,
+        cpu_core_id,
+        cpu_sys,
+        cpu_user,
+        cpu_idle,
+        usage_cpu_percent
+        )
+    SELECT uuid_generate_v1(),
+        reported.vds_id,
+        reported.cpu_core_id,
+        reported.cpu_sys,
+        reported.cpu_user,
+        reported.cpu_idle,
+        reported.usage_cpu_percent
+    FROM (
+        SELECT unnest(v_vds_ids) AS vds_id,
+            unnest(v_cpu_core_ids) AS cpu_core_id,
+            unnest(v_cpu_sys) AS cpu_sys,
+            unnest(v_cpu_user) AS cpu_user,
+            unnest(v_cpu_idle) AS cpu_idle,
+            unnest(v_usage_cpu_percent) AS usage_cpu_percent
+        ) AS reported
+    WHERE EXISTS (
+            SELECT 1
+            FROM vds_static
+            WHERE vds_static.vds_id = reported.vds_id
+            )
+        AND NOT EXISTS (
+            SELECT 1
+            FROM vds_cpu_statistics
+            WHERE vds_cpu_statistics.vds_id = reported.vds_id
+                AND vds_cpu_statistics.cpu_core_id = reported.cpu_core_id
+            );
+END;$PROCEDURE$
+LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION GetVdsCpuStatisticsByVdsId (v_vds_id UUID)
 RETURNS SETOF vds_cpu_statistics STABLE AS $PROCEDURE$
 BEGIN
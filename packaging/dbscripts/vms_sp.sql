@@ -1812,6 +1812,47 @@ BEGIN
 END; $procedure$
 LANGUAGE plpgsql;
 
+DROP TYPE IF EXISTS vm_runtime_state_rs CASCADE;
+CREATE TYPE vm_runtime_state_rs AS (
+        vm_guid UUID,
+        status INTEGER,
+        run_on_vds UUID,
+        migrating_to_vds UUID,
+        mem_size_mb INTEGER,
+        num_of_cpus INTEGER
+        );
+
+Create or replace FUNCTION GetVmsRuntimeStateRunningOnVds(v_vds_id UUID) RETURNS SETOF vm_runtime_state_rs STABLE
+    AS $procedure$
+BEGIN
+    RETURN QUERY SELECT vm_dynamic.vm_guid,
+        vm_dynamic.status,
+        vm_dynamic.run_on_vds,
+        vm_dynamic.migrating_to_vds,
+        vm_static.mem_size_mb,
+        vm_static.num_of_sockets * vm_static.cpu_per_socket * vm_static.threads_per_cpu
+    FROM vm_dynamic
+    INNER JOIN vm_static ON vm_static.vm_guid = vm_dynamic.vm_guid
+    WHERE vm_dynamic.run_on_vds = v_vds_id;
+END; $procedure$
+LANGUAGE plpgsql;
+
+Create or replace FUNCTION GetVmsRuntimeStateRunningByClusterId(v_cluster_id UUID) RETURNS SETOF vm_runtime_state_rs STABLE
+    AS $procedure$
+BEGIN
+    RETURN QUERY SELECT vm_dynamic.vm_guid,
+        vm_dynamic.status,
+        vm_dynamic.run_on_vds,
+        vm_dynamic.migrating_to_vds,
+        vm_static.mem_size_mb,
+        vm_static.num_of_sockets * vm_static.cpu_per_socket * vm_static.threads_per_cpu
+    FROM vm_dynamic
+    INNER JOIN vm_static ON vm_static.vm_guid = vm_dynamic.vm_guid
+    WHERE vm_dynamic.run_on_vds IS NOT NULL
+        AND vm_static.cluster_id = v_cluster_id;
+END; $procedure$
+LANGUAGE plpgsql;
+
 ---------------------
 -- vm_init functions
 ---------------------